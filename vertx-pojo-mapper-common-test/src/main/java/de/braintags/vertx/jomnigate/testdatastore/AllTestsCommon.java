@@ -30,7 +30,9 @@ import de.braintags.vertx.jomnigate.dataaccess.query.impl.TestIndexedFields;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ TestBaseTest.class, TestMapping.class, TestObserverMapping.class, TestSimpleMapper.class,
-    TestStoreObject.class, TestQuery.class, TestQueryHelper.class, TestIndex.class, TestRoundtrip.class,
+    TestStoreObject.class, TestQuery.class, TestQueryHelper.class, TestIdentitySession.class, TestCache.class,
+    TestCoalesceQueries.class, TestRecordBatchLoader.class, TestPreparedQuery.class, TestAggregation.class,
+    TestExplain.class, TestMetrics.class, TestIndexAdvisor.class, TestIndex.class, TestRoundtrip.class,
     TestOnlyIdMapper.class, TestTrigger.class, TestMassInsert.class, TestKeyGenerator.class, TestGeoSearch.class,
     TestEncoder.class, TestListExtrems.class, TestReferenced.class, TestFieldConditionCache.class,
     TestQueryInterator.class, TestQueryReadStream.class, DataTypesTestSuite.class, TestUpdate.class,
@@ -13,6 +13,7 @@
 
 package de.braintags.vertx.jomnigate.testdatastore;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 
@@ -330,6 +331,48 @@ public abstract class DatastoreBaseTest {
     }
   }
 
+  /**
+   * Reads the first record of a query result
+   *
+   * @param context
+   *          the context to be used
+   * @param result
+   *          the result of an executed query
+   * @return the first record of the result
+   */
+  public static <T> T firstRecord(final TestContext context, final IQueryResult<T> result) {
+    Async async = context.async();
+    ResultObject<T> res = new ResultObject<>(null);
+    result.iterator().next(next -> {
+      if (next.failed()) {
+        res.setThrowable(next.cause());
+        async.complete();
+      } else {
+        res.setResult(next.result());
+        async.complete();
+      }
+    });
+
+    async.await();
+    if (res.isError()) {
+      throw res.getRuntimeException();
+    } else {
+      return res.getResult();
+    }
+  }
+
+  /**
+   * Converts a numeric value of an aggregation row into an int. Depending on the datastore the value is delivered as
+   * Integer, Long, Double or BigDecimal
+   *
+   * @param value
+   *          the value to be converted
+   * @return the value as int
+   */
+  public static int toInt(final Object value) {
+    return new BigDecimal(String.valueOf(value)).intValue();
+  }
+
   /**
    * Executes a query and checks for the expected result
    *
@@ -23,7 +23,8 @@ import org.junit.runners.Suite.SuiteClasses;
  * 
  */
 @RunWith(Suite.class)
-@SuiteClasses({ TestObserverHandler.class, TestDataVersioning.class, TestJsonSerializationObserver.class })
+@SuiteClasses({ TestObserverHandler.class, TestDataVersioning.class, TestJsonSerializationObserver.class,
+    TestChangePublisher.class })
 public class ObserverSuite {
 
 }
@@ -0,0 +1,79 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IAggregation;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests the execution of an {@link IAggregation}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestAggregation extends DatastoreBaseTest {
+
+  /**
+   * An aggregation must deliver one row per group with the computed functions
+   * 
+   * @param context
+   */
+  @Test
+  public void testAggregation(TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    int[] values = { 1, 2, 3, 10 };
+    String[] groups = { "a", "a", "a", "b" };
+    for (int i = 0; i < values.length; i++) {
+      SimpleMapper record = new SimpleMapper("aggregation", groups[i]);
+      record.intValue = values[i];
+      saveRecord(context, record);
+    }
+    saveRecord(context, new SimpleMapper("other", "a"));
+
+    IQuery<SimpleMapper> query = getDataStore(context).createQuery(SimpleMapper.class);
+    query.setSearchCondition(ISearchCondition.isEqual(SimpleMapper.NAME, "aggregation"));
+    IAggregation aggregation = IAggregation.create().groupBy("secondProperty").count("count")
+        .sum("intValue", "total").max("intValue", "maximum");
+    Async async = context.async();
+    Future<List<JsonObject>> f = Future.future();
+    query.executeAggregation(aggregation, res -> {
+      f.handle(res);
+      async.complete();
+    });
+    async.await();
+    if (f.failed()) {
+      context.fail(f.cause());
+    }
+    context.assertEquals(2, f.result().size());
+    Map<String, JsonObject> rows = new HashMap<>();
+    f.result().forEach(row -> rows.put(row.getString("secondProperty"), row));
+    context.assertEquals(3, toInt(rows.get("a").getValue("count")));
+    context.assertEquals(6, toInt(rows.get("a").getValue("total")));
+    context.assertEquals(3, toInt(rows.get("a").getValue("maximum")));
+    context.assertEquals(1, toInt(rows.get("b").getValue("count")));
+    context.assertEquals(10, toInt(rows.get("b").getValue("total")));
+  }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.cache.CountCache;
+import de.braintags.vertx.jomnigate.cache.EntityCache;
+import de.braintags.vertx.jomnigate.cache.QueryCache;
+import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.CachedMapper;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests the entity cache, the query cache and the count cache of a mapper
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestCache extends DatastoreBaseTest {
+
+  /**
+   * Records of a mapper annotated with Cached must be delivered by the cache, until they are changed, deleted or
+   * evicted. Each load must create its own instance
+   * 
+   * @param context
+   */
+  @Test
+  public void testEntityCache(TestContext context) {
+    clearTable(context, CachedMapper.class);
+    EntityCache<CachedMapper> cache = getDataStore(context).getMapperFactory().getMapper(CachedMapper.class)
+        .getEntityCache();
+    context.assertNotNull(cache, "the mapper must be cached");
+    cache.invalidateAll();
+    CachedMapper first = new CachedMapper("first");
+    CachedMapper second = new CachedMapper("second");
+    CachedMapper third = new CachedMapper("third");
+    saveRecord(context, first);
+    saveRecord(context, second);
+    saveRecord(context, third);
+
+    CachedMapper loaded = findRecordByID(context, CachedMapper.class, first.id);
+    long hits = cache.getHitCount();
+    CachedMapper cached = findRecordByID(context, CachedMapper.class, first.id);
+    context.assertEquals(hits + 1, cache.getHitCount(), "the second load must be delivered by the cache");
+    context.assertFalse(loaded == cached, "each load must create its own instance");
+    context.assertEquals(loaded.id, cached.id);
+    context.assertEquals(loaded.name, cached.name);
+    cached.name = "modified";
+    context.assertEquals("first", findRecordByID(context, CachedMapper.class, first.id).name,
+        "the modification of an instance must not change the cache");
+
+    first.name = "changed";
+    saveRecord(context, first);
+    context.assertEquals(0, cache.size(), "the changed record must be removed");
+    CachedMapper changed = findRecordByID(context, CachedMapper.class, first.id);
+    context.assertEquals("changed", changed.name);
+
+    long evictions = cache.getEvictionCount();
+    findRecordByID(context, CachedMapper.class, second.id);
+    findRecordByID(context, CachedMapper.class, third.id);
+    context.assertEquals(2, cache.size());
+    context.assertEquals(evictions + 1, cache.getEvictionCount(), "the least recently used record must be evicted");
+
+    IDelete<CachedMapper> delete = getDataStore(context).createDelete(CachedMapper.class);
+    delete.add(third);
+    delete(context, delete, null, 0);
+    context.assertEquals(1, cache.size(), "the deleted record must be removed");
+    context.assertNull(findRecordByID(context, CachedMapper.class, third.id));
+
+    // the cache of a mapper, which was dropped by a reset, must not be informed anymore
+    getDataStore(context).getMapperFactory().reset();
+    second.name = "changed";
+    saveRecord(context, second);
+    context.assertEquals(1, cache.size(), "the cache of the dropped mapper must be unsubscribed");
+  }
+
+  /**
+   * Repeated queries of a mapper annotated with CachedQueries must be answered by the query cache, independent of the
+   * order of AND conditions, until a record of the mapper is changed. Each execution must create its own instances
+   * 
+   * @param context
+   */
+  @Test
+  public void testQueryCache(TestContext context) {
+    clearTable(context, CachedMapper.class);
+    QueryCache<CachedMapper> cache = getDataStore(context).getMapperFactory().getMapper(CachedMapper.class)
+        .getQueryCache();
+    context.assertNotNull(cache, "query results of the mapper must be cached");
+    cache.invalidateAll();
+    CachedMapper first = new CachedMapper("first");
+    saveRecord(context, first);
+    saveRecord(context, new CachedMapper("second"));
+
+    IQuery<CachedMapper> query = getDataStore(context).createQuery(CachedMapper.class);
+    query.setSearchCondition(ISearchCondition.and(ISearchCondition.isEqual(CachedMapper.NAME, "first"),
+        ISearchCondition.in(CachedMapper.NAME, "first", "second")));
+    IQueryResult<CachedMapper> loaded = executeQuery(context, query);
+    context.assertEquals(1, loaded.size());
+
+    IQuery<CachedMapper> reordered = getDataStore(context).createQuery(CachedMapper.class);
+    reordered.setSearchCondition(ISearchCondition.and(ISearchCondition.in(CachedMapper.NAME, "first", "second"),
+        ISearchCondition.isEqual(CachedMapper.NAME, "first")));
+    long hits = cache.getHitCount();
+    IQueryResult<CachedMapper> cached = executeQuery(context, reordered);
+    context.assertEquals(hits + 1, cache.getHitCount(), "the result must be delivered by the cache");
+    CachedMapper loadedRecord = firstRecord(context, loaded);
+    CachedMapper cachedRecord = firstRecord(context, cached);
+    context.assertFalse(loadedRecord == cachedRecord, "each execution must create its own instances");
+    context.assertEquals(first.id, loadedRecord.id);
+    context.assertEquals(first.id, cachedRecord.id, "the id of a cached record must be kept");
+    context.assertEquals("first", cachedRecord.name);
+
+    saveRecord(context, new CachedMapper("third"));
+    context.assertEquals(0, cache.size(), "a write must remove all cached results");
+    hits = cache.getHitCount();
+    executeQuery(context, reordered);
+    context.assertEquals(hits, cache.getHitCount(), "the query must be executed again");
+  }
+
+  /**
+   * Counts must be delivered by the count cache until a record of the mapper is written; the complete count of a paged
+   * query must be correct
+   * 
+   * @param context
+   */
+  @Test
+  public void testCountCache(TestContext context) {
+    clearTable(context, CachedMapper.class);
+    CountCache<CachedMapper> cache = getDataStore(context).getMapperFactory().getMapper(CachedMapper.class)
+        .getCountCache();
+    context.assertNotNull(cache, "counts of the mapper must be cached");
+    cache.invalidateAll();
+    saveRecord(context, new CachedMapper("first"));
+    saveRecord(context, new CachedMapper("second"));
+    saveRecord(context, new CachedMapper("third"));
+
+    IQuery<CachedMapper> query = getDataStore(context).createQuery(CachedMapper.class);
+    query.setSearchCondition(ISearchCondition.in(CachedMapper.NAME, "first", "second"));
+    findCount(context, query, 2);
+    long hits = cache.getHitCount();
+    findCount(context, query, 2);
+    context.assertEquals(hits + 1, cache.getHitCount(), "the count must be delivered by the cache");
+
+    saveRecord(context, new CachedMapper("second"));
+    context.assertEquals(0, cache.size(), "a write must remove all cached counts");
+    findCount(context, query, 3);
+
+    IQuery<CachedMapper> paged = getDataStore(context).createQuery(CachedMapper.class);
+    paged.setReturnCompleteCount(true);
+    Async async = context.async();
+    Future<IQueryResult<CachedMapper>> f = Future.future();
+    paged.execute(null, 2, 0, res -> {
+      f.handle(res);
+      async.complete();
+    });
+    async.await();
+    if (f.failed()) {
+      context.fail(f.cause());
+    }
+    context.assertEquals(2, f.result().size());
+    context.assertEquals(4L, f.result().getCompleteResult(), "the complete count must contain all records");
+  }
+
+  private <T> IQueryResult<T> executeQuery(TestContext context, IQuery<T> query) {
+    Async async = context.async();
+    Future<IQueryResult<T>> f = Future.future();
+    query.execute(res -> {
+      f.handle(res);
+      async.complete();
+    });
+    async.await();
+    if (f.failed()) {
+      context.fail(f.cause());
+    }
+    return f.result();
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.change.ChangeEvent;
+import de.braintags.vertx.jomnigate.change.ChangePublisher;
+import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests for the {@link ChangePublisher}
+ *
+ * @author Michael Remme
+ *
+ */
+public class TestChangePublisher extends DatastoreBaseTest {
+
+  /**
+   * A local subscriber must receive one event per action with the ids of the changed records
+   *
+   * @param context
+   */
+  @Test
+  public void testLocalSubscriber(TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    ChangePublisher publisher = getDataStore(context).getChangePublisher();
+    List<ChangeEvent> events = new CopyOnWriteArrayList<>();
+    Handler<ChangeEvent> handler = events::add;
+    publisher.subscribe(SimpleMapper.class, handler);
+    try {
+      SimpleMapper sm = new SimpleMapper("testname", "nix");
+      saveRecord(context, sm);
+      context.assertEquals(1, events.size(), "expected one event for the insert");
+      context.assertEquals(ChangeEvent.Action.INSERT, events.get(0).getAction());
+      context.assertEquals(SimpleMapper.class.getName(), events.get(0).getMapper());
+      context.assertEquals(sm.id, events.get(0).getIds().get(0));
+
+      sm.name = "newName";
+      saveRecord(context, sm);
+      context.assertEquals(2, events.size(), "expected one event for the update");
+      context.assertEquals(ChangeEvent.Action.UPDATE, events.get(1).getAction());
+      context.assertEquals(sm.id, events.get(1).getIds().get(0));
+
+      IDelete<SimpleMapper> delete = getDataStore(context).createDelete(SimpleMapper.class);
+      delete.add(sm);
+      delete(context, delete, null, 0);
+      context.assertEquals(3, events.size(), "expected one event for the deletion");
+      context.assertEquals(ChangeEvent.Action.DELETE, events.get(2).getAction());
+      context.assertEquals(sm.id, events.get(2).getIds().get(0));
+
+      IDelete<SimpleMapper> queryDelete = getDataStore(context).createDelete(SimpleMapper.class);
+      IQuery<SimpleMapper> query = getDataStore(context).createQuery(SimpleMapper.class);
+      queryDelete.setQuery(query);
+      delete(context, queryDelete, null, 0);
+      context.assertEquals(4, events.size(), "expected one event for the deletion by query");
+      context.assertTrue(events.get(3).isAll(), "the ids of a deletion by query are unknown");
+    } finally {
+      publisher.unsubscribe(SimpleMapper.class, handler);
+    }
+    context.assertFalse(publisher.isActive(), "publisher must be inactive without subscribers");
+  }
+
+  /**
+   * If publishing is enabled, a compact message must be sent to the address of the mapper
+   *
+   * @param context
+   */
+  @Test
+  public void testEventBus(TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    getDataStore(context).getSettings().setPublishChanges(true);
+    try {
+      Async async = context.async();
+      MessageConsumer<JsonObject> consumer = getDataStore(context).getVertx().eventBus()
+          .consumer(ChangePublisher.getAddress(SimpleMapper.class), msg -> {
+            ChangeEvent event = ChangeEvent.fromJson(msg.body());
+            context.assertEquals(ChangeEvent.Action.INSERT, event.getAction());
+            context.assertEquals(1, event.getIds().size());
+            context.assertFalse(msg.body().containsKey("name"), "the message must not contain the record");
+            async.complete();
+          });
+      saveRecord(context, new SimpleMapper("testname", "nix"));
+      async.await();
+      consumer.unregister();
+    } finally {
+      getDataStore(context).getSettings().setPublishChanges(false);
+    }
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests the coalescing of identical queries, which are running at the same time
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestCoalesceQueries extends DatastoreBaseTest {
+
+  /**
+   * If coalescing is enabled, identical queries running at the same time must share one execution, but each caller
+   * must receive its own instances
+   * 
+   * @param context
+   */
+  @Test
+  public void testCoalesceQueries(TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    SimpleMapper saved = new SimpleMapper("coalesced", "nix");
+    saveRecord(context, saved);
+    context.assertNotNull(saved.id);
+    getDataStore(context).getSettings().setCoalesceQueries(true);
+    try {
+      List<IQueryResult<SimpleMapper>> results = new CopyOnWriteArrayList<>();
+      Async async = context.async(3);
+      // all queries are started inside one task of the event loop, so that none can finish before the last one starts
+      getDataStore(context).getVertx().runOnContext(v -> {
+        for (int i = 0; i < 3; i++) {
+          IQuery<SimpleMapper> query = getDataStore(context).createQuery(SimpleMapper.class);
+          query.setSearchCondition(ISearchCondition.isEqual(SimpleMapper.NAME, "coalesced"));
+          query.execute(res -> {
+            if (res.failed()) {
+              context.fail(res.cause());
+            } else {
+              results.add(res.result());
+              async.countDown();
+            }
+          });
+        }
+      });
+      async.await();
+      context.assertEquals(3, results.size());
+      List<SimpleMapper> records = new ArrayList<>();
+      for (IQueryResult<SimpleMapper> result : results) {
+        context.assertTrue(result.getOriginalQuery() == results.get(0).getOriginalQuery(),
+            "parallel queries must share one execution");
+        SimpleMapper record = firstRecord(context, result);
+        context.assertEquals(saved.id, record.id, "each caller must receive the id");
+        context.assertEquals("coalesced", record.name);
+        for (SimpleMapper other : records) {
+          context.assertFalse(record == other, "each caller must receive its own instances");
+        }
+        records.add(record);
+      }
+    } finally {
+      getDataStore(context).getSettings().setCoalesceQueries(false);
+    }
+  }
+
+}
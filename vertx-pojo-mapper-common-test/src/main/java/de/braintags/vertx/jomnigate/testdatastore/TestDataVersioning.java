@@ -12,17 +12,21 @@
  */
 package de.braintags.vertx.jomnigate.testdatastore;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
 
 import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.exception.MappingException;
 import de.braintags.vertx.jomnigate.init.ObserverDefinition;
 import de.braintags.vertx.jomnigate.init.ObserverMapperSettings;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.observer.IObserver;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.VersionMigration_V1;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.VersionMigration_V2;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.VersioningNoInterface;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.VersioningWithInterface_V5;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.VersioningWithInterface_V6;
@@ -30,8 +34,11 @@ import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.VersioningWi
 import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.VersioningWrongEvent;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.converter.V6Converter;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.converter.V7Converter;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.converter.VersionMigrationConverter;
 import de.braintags.vertx.jomnigate.versioning.IMapperVersion;
 import de.braintags.vertx.jomnigate.versioning.SetMapperVersionObserver;
+import de.braintags.vertx.jomnigate.versioning.VersionMigrationRunner;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 
 /**
@@ -262,4 +269,49 @@ public class TestDataVersioning extends DatastoreBaseTest {
 
   }
 
+  /**
+   * Save records as VersionMigration_V1, then migrate all of them to VersionMigration_V2 by the
+   * {@link VersionMigrationRunner} in several batches. Afterwards all records must be saved with the new version and
+   * the converted value
+   * 
+   * @param context
+   */
+  @Test
+  public void testVersionMigrationRunner(TestContext context) {
+    clearTable(context, VersionMigration_V1.class);
+    for (int i = 0; i < 5; i++) {
+      saveRecord(context, new VersionMigration_V1());
+    }
+
+    getDataStore(context).getMapperFactory().reset();
+    VersionMigrationConverter.executed = false;
+    VersionMigrationRunner<VersionMigration_V2> runner = new VersionMigrationRunner<>(
+        getDataStore(context), VersionMigration_V2.class);
+    runner.setBatchSize(2);
+    List<VersionMigrationRunner.Checkpoint> checkpoints = new ArrayList<>();
+    runner.setCheckpointHandler(checkpoints::add);
+    Async async = context.async();
+    runner.start(res -> {
+      if (res.failed()) {
+        context.fail(res.cause());
+      } else {
+        context.assertEquals(5l, res.result().getMigrated());
+        context.assertEquals(0l, res.result().getSkipped());
+        async.complete();
+      }
+    });
+    async.await();
+    context.assertTrue(VersionMigrationConverter.executed, "VersionMigrationConverter was not executed");
+    context.assertEquals(3, checkpoints.size(), "expected one checkpoint per batch");
+    context.assertEquals(1d, runner.getProgress());
+
+    IQuery<VersionMigration_V2> query = getDataStore(context).createQuery(VersionMigration_V2.class);
+    List<VersionMigration_V2> records = findAll(context, query);
+    context.assertEquals(5, records.size());
+    for (VersionMigration_V2 record : records) {
+      context.assertEquals(2l, record.getMapperVersion(), "mapper version not migrated");
+      context.assertEquals("converted Value V2", record.newName, "converter did not work");
+    }
+  }
+
 }
@@ -0,0 +1,62 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests the explain of a query by {@link IQueryExplain}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestExplain extends DatastoreBaseTest {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(TestExplain.class);
+
+  /**
+   * The explain of a query must deliver the native plan and the access path
+   * 
+   * @param context
+   */
+  @Test
+  public void testExplain(TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    saveRecord(context, new SimpleMapper("explained", "nix"));
+    IQuery<SimpleMapper> query = getDataStore(context).createQuery(SimpleMapper.class);
+    query.setSearchCondition(ISearchCondition.isEqual(SimpleMapper.NAME, "explained"));
+    Async async = context.async();
+    Future<IQueryExplain> f = Future.future();
+    query.executeExplain(res -> {
+      f.handle(res);
+      async.complete();
+    });
+    async.await();
+    if (f.failed()) {
+      context.fail(f.cause());
+    }
+    LOGGER.info(f.result());
+    context.assertNotNull(f.result().getNativePlan());
+    context.assertTrue(f.result().isFullScan() || !f.result().getUsedIndexes().isEmpty(),
+        "the plan must contain the access path");
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.IdentitySession;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import de.braintags.vertx.jomnigate.util.QueryHelper;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests the {@link IdentitySession}, which delivers one instance per record
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestIdentitySession extends DatastoreBaseTest {
+
+  /**
+   * Inside one {@link IdentitySession} a record must be represented by one instance, wether it is loaded by id, by
+   * parallel calls or by a query
+   * 
+   * @param context
+   */
+  @Test
+  public void testIdentitySession(TestContext context) {
+    clearTable(context, "SimpleMapper");
+    SimpleMapper sm = new SimpleMapper("testName", "my second property");
+    saveRecord(context, sm);
+
+    IdentitySession session = new IdentitySession();
+    List<SimpleMapper> loaded = new CopyOnWriteArrayList<>();
+    Async async = context.async(2);
+    for (int i = 0; i < 2; i++) {
+      QueryHelper.findRecordById(getDataStore(context), SimpleMapper.class, sm.id, session, res -> {
+        if (res.failed()) {
+          context.fail(res.cause());
+        } else {
+          loaded.add(res.result());
+          async.countDown();
+        }
+      });
+    }
+    async.await();
+    context.assertNotNull(loaded.get(0), "record not found");
+    context.assertTrue(loaded.get(0) == loaded.get(1), "parallel loads must deliver the same instance");
+    context.assertEquals(1, session.size());
+
+    IQuery<SimpleMapper> q = getDataStore(context).createQuery(SimpleMapper.class);
+    q.setSession(session);
+    SimpleMapper queried = (SimpleMapper) findFirst(context, q);
+    context.assertTrue(loaded.get(0) == queried, "query must deliver the instance of the session");
+
+    SimpleMapper other = findRecordByID(context, SimpleMapper.class, sm.id);
+    context.assertFalse(loaded.get(0) == other, "without session a new instance must be created");
+  }
+
+}
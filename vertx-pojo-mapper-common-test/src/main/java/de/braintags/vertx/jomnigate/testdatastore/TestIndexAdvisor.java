@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.advisor.IndexReport;
+import de.braintags.vertx.jomnigate.advisor.QueryShape;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests the index advisor, which records the shapes of executed queries
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestIndexAdvisor extends DatastoreBaseTest {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(TestIndexAdvisor.class);
+
+  /**
+   * If the index advisor is enabled, the shapes of executed queries must be recorded and a query on a column without
+   * an index must be reported as missing index
+   * 
+   * @param context
+   */
+  @Test
+  public void testIndexAdvisor(TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    saveRecord(context, new SimpleMapper("advised", "nix"));
+    getDataStore(context).getIndexAdvisor().reset();
+    getDataStore(context).getSettings().setAdviseIndexes(true);
+    try {
+      for (int i = 0; i < 2; i++) {
+        IQuery<SimpleMapper> query = getDataStore(context).createQuery(SimpleMapper.class);
+        query.setSearchCondition(ISearchCondition.isEqual(SimpleMapper.NAME, "advised"));
+        findAll(context, query);
+      }
+    } finally {
+      getDataStore(context).getSettings().setAdviseIndexes(false);
+    }
+    Map<QueryShape, Long> shapes = getDataStore(context).getIndexAdvisor().getShapes(SimpleMapper.class);
+    context.assertEquals(1, shapes.size());
+    context.assertEquals(2L, shapes.values().iterator().next());
+
+    Async async = context.async();
+    Future<IndexReport> f = Future.future();
+    getDataStore(context).getIndexAdvisor().createReport(SimpleMapper.class, res -> {
+      f.handle(res);
+      async.complete();
+    });
+    async.await();
+    if (f.failed()) {
+      context.fail(f.cause());
+    }
+    LOGGER.info(f.result());
+    context.assertEquals(1, f.result().getMissingIndexes().size());
+    context.assertEquals(Arrays.asList("name"), f.result().getMissingIndexes().get(0).getSuggestedIndex());
+    getDataStore(context).getIndexAdvisor().reset();
+  }
+
+}
@@ -15,15 +15,21 @@ package de.braintags.vertx.jomnigate.testdatastore;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.List;
 
 import org.junit.Test;
 
 import de.braintags.vertx.jomnigate.init.DataStoreSettings;
 import de.braintags.vertx.jomnigate.init.ObserverDefinition;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import de.braintags.vertx.jomnigate.observer.impl.JsonJournal;
+import de.braintags.vertx.jomnigate.observer.impl.JsonJournal.FlushPolicy;
 import de.braintags.vertx.jomnigate.observer.impl.JsonSerializationObserver;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 
 /**
@@ -70,6 +76,65 @@ public class TestJsonSerializationObserver extends AbstractObserverTest {
     checkResult(context, logDir, 1, 500);
   }
 
+  @Test
+  public void testJournalMode(TestContext context) throws IOException {
+    File logDir = getLogDir();
+    DataStoreSettings settings = getDataStore(context).getSettings();
+    ObserverDefinition<JsonSerializationObserver> os = new ObserverDefinition<>(JsonSerializationObserver.class);
+    os.getEventTypeList().add(ObserverEventType.AFTER_INSERT);
+    os.getEventTypeList().add(ObserverEventType.AFTER_UPDATE);
+    os.getObserverProperties().setProperty(JsonSerializationObserver.DIRECTORY_PROPERTY, logDir.getAbsolutePath());
+    os.getObserverProperties().setProperty(JsonSerializationObserver.MODE_PROPERTY,
+        JsonSerializationObserver.MODE_JOURNAL);
+    os.getObserverProperties().setProperty(JsonSerializationObserver.FLUSH_POLICY_PROPERTY, "ALWAYS");
+    settings.getObserverSettings().add(os);
+
+    SimpleMapper sm = new SimpleMapper("testname", "nix");
+    sm.intValue = -1;
+    saveRecord(context, sm);
+    sm.intValue = 5;
+    sm.name = "newNAME";
+    saveRecord(context, sm);
+    checkResult(context, logDir, 1, 500);
+    File segment = logDir.listFiles((dir, fileName) -> fileName.endsWith("json"))[0];
+    // the lines are written asynchronously, so the segment is polled until both lines exist or the time is up
+    Vertx vertx = getDataStore(context).getVertx();
+    Async async = context.async();
+    long start = System.currentTimeMillis();
+    vertx.setPeriodic(20, id -> {
+      try {
+        if (Files.readAllLines(segment.toPath()).size() >= 2 || System.currentTimeMillis() - start > 2000) {
+          vertx.cancelTimer(id);
+          async.complete();
+        }
+      } catch (IOException e) {
+        vertx.cancelTimer(id);
+        context.fail(e);
+      }
+    });
+    async.await();
+    List<String> lines = Files.readAllLines(segment.toPath());
+    context.assertEquals(2, lines.size(), "expected one line per event");
+    context.assertEquals(ObserverEventType.AFTER_INSERT.name(), new JsonObject(lines.get(0)).getString("eventType"));
+    context.assertEquals(ObserverEventType.AFTER_UPDATE.name(), new JsonObject(lines.get(1)).getString("eventType"));
+    context.assertEquals("newNAME", new JsonObject(lines.get(1)).getJsonObject("record").getString("name"));
+  }
+
+  @Test
+  public void testJournalSettingsConflict(TestContext context) throws IOException {
+    String prefix = new File(getLogDir(), SimpleMapper.class.getName()).getAbsolutePath();
+    JsonJournal journal = JsonJournal.getInstance(getDataStore(context), prefix, 1024, 1000, FlushPolicy.ALWAYS, 1000,
+        false);
+    context.assertTrue(journal == JsonJournal.getInstance(getDataStore(context), prefix, 1024, 1000,
+        FlushPolicy.ALWAYS, 1000, false), "expected the shared journal for the same settings");
+    try {
+      JsonJournal.getInstance(getDataStore(context), prefix, 2048, 1000, FlushPolicy.ALWAYS, 1000, false);
+      context.fail("expected an IllegalArgumentException for other settings of the same journal");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
   @Test
   public void testDirectoryNotSet(TestContext context) throws IOException {
     File logDir = getLogDir();
@@ -12,17 +12,32 @@
  */
 package de.braintags.vertx.jomnigate.testdatastore;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.junit.Test;
 
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry;
 import de.braintags.vertx.jomnigate.dataaccess.write.WriteAction;
 import de.braintags.vertx.jomnigate.mapping.IKeyGenerator;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.mapping.impl.keygen.BlockKeyGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.keygen.DebugGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.keygen.DefaultKeyGenerator;
+import de.braintags.vertx.jomnigate.mapping.impl.keygen.LocalTimeBasedKeyGenerator;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.KeyGeneratorMapper;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.KeyGeneratorMapperDebugGenerator;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.NoKeyGeneratorMapper;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 
 /**
@@ -143,6 +158,141 @@ public class TestKeyGenerator extends DatastoreBaseTest {
     context.assertEquals(id, 2, "expected first id as 2 cause of existing record");
   }
 
+  /**
+   * Keys of the {@link BlockKeyGenerator} must be unique, must be above the keys of the {@link DefaultKeyGenerator}
+   * and must be delivered with one lease per block
+   *
+   * @param context
+   */
+  @Test
+  public void testBlockKeyGenerator(final TestContext context) {
+    AtomicLong hi = new AtomicLong();
+    AtomicInteger leases = new AtomicInteger();
+    Vertx vertx = getDataStore(context).getVertx();
+    BlockKeyGenerator gen = new BlockKeyGenerator(getDataStore(context), 10) {
+      @Override
+      protected void leaseBlock(String reference, Handler<AsyncResult<Long>> handler) {
+        leases.incrementAndGet();
+        vertx.runOnContext(v -> handler.handle(Future.succeededFuture(hi.incrementAndGet())));
+      }
+    };
+    IMapper mapper = getDataStore(context).getMapperFactory().getMapper(KeyGeneratorMapper.class);
+    int count = 55;
+    Set<Object> keys = ConcurrentHashMap.newKeySet();
+    Async async = context.async(count);
+    for (int i = 0; i < count; i++) {
+      gen.generateKey(mapper, res -> {
+        if (res.failed()) {
+          context.fail(res.cause());
+        } else {
+          context.assertTrue(keys.add(res.result().getKey()), "duplicate key: " + res.result().getKey());
+          context.assertTrue((Long) res.result().getKey() >= BlockKeyGenerator.KEY_OFFSET,
+              "key below the offset: " + res.result().getKey());
+          async.countDown();
+        }
+      });
+    }
+    async.await();
+    context.assertEquals(count, keys.size());
+    // six blocks are used, one more can be prefetched
+    context.assertTrue(leases.get() <= 7, "too many leases: " + leases.get());
+  }
+
+  /**
+   * The {@link BlockKeyGenerator} of the datastore leases its blocks from the key generator service
+   *
+   * @param context
+   */
+  @Test
+  public void testBlockKeyGeneratorService(final TestContext context) {
+    IKeyGenerator gen = getDataStore(context).getKeyGenerator(BlockKeyGenerator.NAME);
+    context.assertTrue(gen instanceof BlockKeyGenerator, "not an instance of BlockKeyGenerator: " + gen);
+    IMapper mapper = getDataStore(context).getMapperFactory().getMapper(KeyGeneratorMapper.class);
+    Async async = context.async();
+    gen.generateKey(mapper, res1 -> {
+      if (res1.failed()) {
+        context.fail(res1.cause());
+      } else {
+        gen.generateKey(mapper, res2 -> {
+          if (res2.failed()) {
+            context.fail(res2.cause());
+          } else {
+            long k1 = (Long) res1.result().getKey();
+            long k2 = (Long) res2.result().getKey();
+            context.assertEquals(k1 + 1, k2, "keys of one block must be consecutive");
+            async.complete();
+          }
+        });
+      }
+    });
+    async.await();
+  }
+
+  /**
+   * Keys of the {@link LocalTimeBasedKeyGenerator}, which are generated by several threads in parallel, must be unique
+   * and must be ascending for each thread
+   *
+   * @param context
+   */
+  @Test
+  public void testLocalTimeBasedKeyGenerator(final TestContext context) throws InterruptedException {
+    IKeyGenerator keyGen = getDataStore(context).getKeyGenerator(LocalTimeBasedKeyGenerator.NAME);
+    context.assertTrue(keyGen instanceof LocalTimeBasedKeyGenerator,
+        "not an instance of LocalTimeBasedKeyGenerator: " + keyGen);
+    LocalTimeBasedKeyGenerator gen = new LocalTimeBasedKeyGenerator(getDataStore(context), 5);
+    context.assertEquals(5, gen.getNodeId());
+    IMapper mapper = getDataStore(context).getMapperFactory().getMapper(KeyGeneratorMapper.class);
+    if (getDataStore(context).getProperties() == null
+        || getDataStore(context).getProperties().getInteger(LocalTimeBasedKeyGenerator.NODE_ID_PROPERTY) == null) {
+      // without a node id no keys must be generated, cause another process could use the same node id
+      context.assertEquals(-1, ((LocalTimeBasedKeyGenerator) keyGen).getNodeId());
+      Async async = context.async();
+      keyGen.generateKey(mapper, res -> {
+        context.assertTrue(res.failed(), "a key must not be generated without node id");
+        async.complete();
+      });
+      async.await();
+    }
+
+    int threadCount = 8;
+    int keysPerThread = 50000;
+    Set<Long> keys = ConcurrentHashMap.newKeySet();
+    List<Throwable> errors = new ArrayList<>();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < threadCount; t++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+          long last = -1;
+          for (int i = 0; i < keysPerThread; i++) {
+            long[] key = new long[1];
+            gen.generateKey(mapper, res -> key[0] = (Long) res.result().getKey());
+            if (key[0] <= last) {
+              throw new IllegalStateException("keys not ascending: " + last + " / " + key[0]);
+            }
+            if (!keys.add(key[0])) {
+              throw new IllegalStateException("duplicate key: " + key[0]);
+            }
+            last = key[0];
+          }
+        } catch (Throwable e) {
+          synchronized (errors) {
+            errors.add(e);
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    context.assertTrue(errors.isEmpty(), String.valueOf(errors));
+    context.assertEquals(threadCount * keysPerThread, keys.size());
+  }
+
   /**
    * @param context
    * @return
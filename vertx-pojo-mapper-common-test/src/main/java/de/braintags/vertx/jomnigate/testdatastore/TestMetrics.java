@@ -0,0 +1,73 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.metrics.Metric;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
+import de.braintags.vertx.jomnigate.metrics.MetricsCollector;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests the recording of metrics by a {@link MetricsCollector}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestMetrics extends DatastoreBaseTest {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(TestMetrics.class);
+
+  /**
+   * If a metrics collector is set, writes, queries and the mapping of the found records must be recorded
+   * 
+   * @param context
+   */
+  @Test
+  public void testMetrics(TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    MetricsCollector metrics = new MetricsCollector();
+    getDataStore(context).setMetricsCollector(metrics);
+    try {
+      saveRecords(context, Arrays.asList(new SimpleMapper("measured", "1"), new SimpleMapper("measured", "2")));
+      Metric write = metrics.getMetric(MetricType.WRITE, SimpleMapper.class);
+      context.assertNotNull(write, "the write must be recorded");
+      context.assertEquals(2L, write.getCount());
+      context.assertEquals(2L, metrics.getMetric(MetricType.MAPPING_WRITE, SimpleMapper.class).getCount(),
+          "the mapping of the saved records must be recorded");
+      context.assertNull(metrics.getMetric(MetricType.MAPPING_READ, SimpleMapper.class),
+          "nothing was read yet");
+
+      IQuery<SimpleMapper> query = getDataStore(context).createQuery(SimpleMapper.class);
+      query.setSearchCondition(ISearchCondition.isEqual(SimpleMapper.NAME, "measured"));
+      List<SimpleMapper> records = findAll(context, query);
+      context.assertEquals(2, records.size());
+      Metric queries = metrics.getMetric(MetricType.QUERY, SimpleMapper.class);
+      context.assertEquals(1L, queries.getExecutions());
+      context.assertEquals(2L, queries.getCount());
+      context.assertEquals(2L, metrics.getMetric(MetricType.MAPPING_READ, SimpleMapper.class).getCount(),
+          "the mapping of the found records must be recorded");
+      LOGGER.info(metrics);
+    } finally {
+      getDataStore(context).setMetricsCollector(null);
+    }
+  }
+
+}
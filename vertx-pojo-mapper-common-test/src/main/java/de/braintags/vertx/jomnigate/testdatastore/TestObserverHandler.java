@@ -19,19 +19,27 @@ import org.junit.Test;
 
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.exception.MappingException;
+import de.braintags.vertx.jomnigate.init.AsyncObserverSettings;
 import de.braintags.vertx.jomnigate.init.DataStoreSettings;
 import de.braintags.vertx.jomnigate.init.ObserverDefinition;
 import de.braintags.vertx.jomnigate.init.ObserverMapperSettings;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.observer.IAsyncObserver;
+import de.braintags.vertx.jomnigate.observer.IObserver;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import de.braintags.vertx.jomnigate.observer.impl.AsyncObserver;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.Person;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
 import de.braintags.vertx.jomnigate.testdatastore.observer.AfterMappingObserver;
+import de.braintags.vertx.jomnigate.testdatastore.observer.BatchObserver;
 import de.braintags.vertx.jomnigate.testdatastore.observer.BeforeDeleteObserver;
 import de.braintags.vertx.jomnigate.testdatastore.observer.BeforeLoadObserver;
 import de.braintags.vertx.jomnigate.testdatastore.observer.BeforeMappingObserver;
 import de.braintags.vertx.jomnigate.testdatastore.observer.BeforeSaveObserver;
 import de.braintags.vertx.jomnigate.testdatastore.observer.SimpleMapperObserver;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 
 /**
@@ -320,4 +328,145 @@ public class TestObserverHandler extends AbstractObserverTest {
     }
   }
 
+  /**
+   * An IBatchObserver must receive all records of a write and of a query by one call
+   * 
+   * @param context
+   */
+  @Test
+  public void test_BatchObserver(final TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    BatchObserver.reset();
+    DataStoreSettings settings = getDataStore(context).getSettings();
+    ObserverDefinition<BatchObserver> os = new ObserverDefinition<>(BatchObserver.class);
+    os.getEventTypeList().add(ObserverEventType.AFTER_INSERT);
+    os.getEventTypeList().add(ObserverEventType.AFTER_LOAD);
+    settings.getObserverSettings().add(os);
+    List<SimpleMapper> selection = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      selection.add(new SimpleMapper("testname", "nix"));
+    }
+    saveRecords(context, selection);
+    context.assertEquals(1, BatchObserver.calls, "all inserted records must be handled by one call");
+    context.assertEquals(selection.size(), BatchObserver.events);
+
+    BatchObserver.reset();
+    IQuery<SimpleMapper> query = getDataStore(context).createQuery(SimpleMapper.class);
+    List<SimpleMapper> sr = findAll(context, query);
+    context.assertEquals(selection.size(), sr.size());
+    context.assertEquals(1, BatchObserver.calls, "all loaded records must be handled by one call");
+    context.assertEquals(selection.size(), BatchObserver.events);
+  }
+
+  /**
+   * The observers are computed while mapping; the same instances must be returned for each request and a mapper
+   * without observers must not report any
+   * 
+   * @param context
+   */
+  @Test
+  public void test_DispatchTable(final TestContext context) {
+    DataStoreSettings settings = getDataStore(context).getSettings();
+    ObserverDefinition<SimpleMapperObserver> os = new ObserverDefinition<>(SimpleMapperObserver.class);
+    os.getMapperSettings().add(new ObserverMapperSettings(SimpleMapper.class.getName()));
+    os.getEventTypeList().add(ObserverEventType.AFTER_LOAD);
+    settings.getObserverSettings().add(os);
+
+    IMapper<SimpleMapper> mapper = getDataStore(context).getMapperFactory().getMapper(SimpleMapper.class);
+    context.assertTrue(mapper.getObserverHandler().hasObserver(ObserverEventType.AFTER_LOAD));
+    context.assertFalse(mapper.getObserverHandler().hasObserver(ObserverEventType.BEFORE_DELETE));
+    List<IObserver> ol1 = mapper.getObserverHandler().getObserver(ObserverEventType.AFTER_LOAD);
+    List<IObserver> ol2 = mapper.getObserverHandler().getObserver(ObserverEventType.AFTER_LOAD);
+    context.assertEquals(1, ol1.size());
+    context.assertTrue(ol1.get(0) == ol2.get(0), "observer instances must be created once");
+    context.assertTrue(mapper.getObserverHandler().getObserver(ObserverEventType.BEFORE_DELETE).isEmpty());
+
+    IMapper<Person> personMapper = getDataStore(context).getMapperFactory().getMapper(Person.class);
+    for (ObserverEventType t : ObserverEventType.values()) {
+      context.assertFalse(personMapper.getObserverHandler().hasObserver(t), "no observer expected for " + t);
+    }
+  }
+
+  /**
+   * An observer with asynchronous settings must be executed by an AsyncObserver in the background
+   * 
+   * @param context
+   */
+  @Test
+  public void test_AsyncObserver(final TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    BatchObserver.reset();
+    DataStoreSettings settings = getDataStore(context).getSettings();
+    ObserverDefinition<BatchObserver> os = new ObserverDefinition<>(BatchObserver.class);
+    os.getEventTypeList().add(ObserverEventType.AFTER_INSERT);
+    os.setAsyncSettings(new AsyncObserverSettings());
+    settings.getObserverSettings().add(os);
+
+    IMapper<SimpleMapper> mapper = getDataStore(context).getMapperFactory().getMapper(SimpleMapper.class);
+    List<IObserver> ol = mapper.getObserverHandler().getObserver(ObserverEventType.AFTER_INSERT);
+    context.assertEquals(1, ol.size());
+    context.assertTrue(ol.get(0) instanceof IAsyncObserver, "expected an IAsyncObserver: " + ol.get(0));
+    IAsyncObserver ao = (IAsyncObserver) ol.get(0);
+
+    List<SimpleMapper> selection = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      selection.add(new SimpleMapper("testname", "nix"));
+    }
+    saveRecords(context, selection);
+    // the events are processed in the background, so the observer is polled until all are done or the time is up
+    Vertx vertx = getDataStore(context).getVertx();
+    Async async = context.async();
+    long start = System.currentTimeMillis();
+    vertx.setPeriodic(10, id -> {
+      if (ao.getProcessedCount() >= selection.size() || System.currentTimeMillis() - start > 5000) {
+        vertx.cancelTimer(id);
+        async.complete();
+      }
+    });
+    async.await();
+    context.assertEquals((long) selection.size(), ao.getProcessedCount());
+    context.assertEquals(selection.size(), BatchObserver.events);
+    context.assertEquals(0, ao.getQueueDepth());
+    context.assertEquals(0L, ao.getDroppedCount());
+    context.assertEquals(0L, ao.getFailedCount());
+  }
+
+  /**
+   * Asynchronous observers are rejected for the BEFORE event types and for queue or batch sizes smaller than 1
+   * 
+   * @param context
+   */
+  @Test
+  public void test_AsyncObserverInvalidSettings(final TestContext context) {
+    DataStoreSettings settings = getDataStore(context).getSettings();
+    ObserverDefinition<BatchObserver> os = new ObserverDefinition<>(BatchObserver.class);
+    os.getEventTypeList().add(ObserverEventType.BEFORE_INSERT);
+    os.setAsyncSettings(new AsyncObserverSettings());
+    settings.getObserverSettings().add(os);
+    try {
+      getDataStore(context).getMapperFactory().getMapper(SimpleMapper.class);
+      context.fail("expected a MappingException for an asynchronous observer on BEFORE_INSERT");
+    } catch (MappingException e) {
+      // expected
+    }
+
+    Vertx vertx = getDataStore(context).getVertx();
+    AsyncObserverSettings as = new AsyncObserverSettings();
+    as.setBatchSize(0);
+    try {
+      new AsyncObserver(new BatchObserver(), as, vertx);
+      context.fail("expected an IllegalArgumentException for a batch size of 0");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    as = new AsyncObserverSettings();
+    as.setQueueSize(0);
+    try {
+      new AsyncObserver(new BatchObserver(), as, vertx);
+      context.fail("expected an IllegalArgumentException for a queue size of 0");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
 }
@@ -0,0 +1,82 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IPreparedQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryCountResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests the execution of an {@link IPreparedQuery}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestPreparedQuery extends DatastoreBaseTest {
+
+  /**
+   * A prepared query must be executable with different bindings and must not be affected by later changes of the
+   * originating query
+   * 
+   * @param context
+   */
+  @Test
+  public void testPreparedQuery(TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    saveRecord(context, new SimpleMapper("first", "nix"));
+    saveRecord(context, new SimpleMapper("second", "nix"));
+    saveRecord(context, new SimpleMapper("second", "other"));
+
+    IQuery<SimpleMapper> query = getDataStore(context).createQuery(SimpleMapper.class);
+    query.setSearchCondition(ISearchCondition.and(ISearchCondition.isEqual(SimpleMapper.NAME, "${name}"),
+        ISearchCondition.isEqual(SimpleMapper.SECOND_PROPERTY, "nix")));
+    IPreparedQuery<SimpleMapper> prepared = query.prepare();
+    query.setSearchCondition(ISearchCondition.isEqual(SimpleMapper.NAME, "unknown"));
+
+    for (String name : new String[] { "first", "second", "first" }) {
+      Async async = context.async();
+      Future<IQueryResult<SimpleMapper>> f = Future.future();
+      prepared.execute(variable -> name, 10, 0, res -> {
+        f.handle(res);
+        async.complete();
+      });
+      async.await();
+      if (f.failed()) {
+        context.fail(f.cause());
+      }
+      context.assertEquals(1, f.result().size());
+      context.assertEquals(name, firstRecord(context, f.result()).name);
+    }
+
+    Async async = context.async();
+    Future<IQueryCountResult> count = Future.future();
+    prepared.executeCount(variable -> "second", res -> {
+      count.handle(res);
+      async.complete();
+    });
+    async.await();
+    if (count.failed()) {
+      context.fail(count.cause());
+    }
+    context.assertEquals(1L, count.result().getCount());
+  }
+
+}
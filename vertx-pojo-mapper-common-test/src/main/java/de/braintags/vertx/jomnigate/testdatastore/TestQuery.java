@@ -27,8 +27,10 @@ import de.braintags.vertx.jomnigate.exception.NoSuchFieldException;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.DeepRecord;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.typehandler.EnumRecord;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 
 /**
@@ -93,6 +95,28 @@ public class TestQuery extends DatastoreBaseTest {
     find(context, query, 2);
   }
 
+  @Test
+  public void testExecuteRaw(final TestContext context) {
+    createDemoRecords(context);
+    IQuery<SimpleMapper> query = getDataStore(context).createQuery(SimpleMapper.class);
+    query.setSearchCondition(ISearchCondition.isEqual(SimpleMapper.NAME, "Dublette"));
+    Async async = context.async();
+    query.executeRaw(res -> {
+      if (res.failed()) {
+        context.fail(res.cause());
+      } else {
+        List<JsonObject> records = res.result();
+        context.assertEquals(2, records.size());
+        for (JsonObject record : records) {
+          context.assertEquals("Dublette", record.getString("name"));
+          context.assertNotNull(record.getValue("id"), "id column must be translated into the property name");
+        }
+      }
+      async.complete();
+    });
+    async.await();
+  }
+
   @Test
   public void testIs_String(final TestContext context) {
     createDemoRecords(context);
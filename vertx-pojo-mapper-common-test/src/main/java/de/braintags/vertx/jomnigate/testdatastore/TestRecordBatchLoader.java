@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+import de.braintags.vertx.jomnigate.dataaccess.RecordBatchLoader;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+
+/**
+ * Tests the {@link RecordBatchLoader}, which loads records by id in batches
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class TestRecordBatchLoader extends DatastoreBaseTest {
+
+  /**
+   * Loads by id, which are requested inside one event loop tick, must be executed by one query; QueryHelper must load
+   * records by id through the loader
+   * 
+   * @param context
+   */
+  @Test
+  public void testRecordBatchLoader(TestContext context) {
+    clearTable(context, SimpleMapper.class);
+    SimpleMapper first = new SimpleMapper("first", "nix");
+    SimpleMapper second = new SimpleMapper("second", "nix");
+    saveRecord(context, first);
+    saveRecord(context, second);
+    saveRecord(context, new SimpleMapper("third", "nix"));
+
+    RecordBatchLoader<SimpleMapper> loader = getDataStore(context).getRecordBatchLoader(SimpleMapper.class);
+    context.assertTrue(loader == RecordBatchLoader.getInstance(getDataStore(context), SimpleMapper.class),
+        "the loader must be held by the datastore");
+    long batches = loader.getBatchCount();
+    Map<String, String> names = new ConcurrentHashMap<>();
+    String[] ids = { first.id, second.id, first.id, "999999999" };
+    Async async = context.async(ids.length);
+    getDataStore(context).getVertx().runOnContext(v -> {
+      for (int i = 0; i < ids.length; i++) {
+        String key = i + ":" + ids[i];
+        loader.load(ids[i], res -> {
+          if (res.failed()) {
+            context.fail(res.cause());
+          } else {
+            names.put(key, res.result() == null ? "null" : res.result().name);
+            async.countDown();
+          }
+        });
+      }
+    });
+    async.await();
+    context.assertEquals(batches + 1, loader.getBatchCount(), "all ids must be loaded by one query");
+    context.assertEquals("first", names.get("0:" + first.id));
+    context.assertEquals("second", names.get("1:" + second.id));
+    context.assertEquals("first", names.get("2:" + first.id));
+    context.assertEquals("null", names.get("3:999999999"));
+
+    // loads by QueryHelper are executed by the loader as well
+    context.assertEquals("second", findRecordByID(context, SimpleMapper.class, second.id).name);
+    context.assertEquals(batches + 2, loader.getBatchCount(), "the load by id must be executed by the loader");
+  }
+
+}
@@ -18,7 +18,9 @@ import org.junit.Test;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.typehandler.ReferenceMapper_Lazy;
 import de.braintags.vertx.jomnigate.testdatastore.mapper.typehandler.ReferenceMapper_Single;
+import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 
 /**
@@ -45,6 +47,32 @@ public class TestReferenced extends DatastoreBaseTest {
 
   }
 
+  @Test
+  public void testLazyReferenced(TestContext context) {
+    clearTable(context, ReferenceMapper_Lazy.class.getSimpleName());
+    clearTable(context, SimpleMapper.class.getSimpleName());
+    ReferenceMapper_Lazy record = new ReferenceMapper_Lazy();
+    saveRecord(context, record);
+
+    ReferenceMapper_Lazy rec2 = (ReferenceMapper_Lazy) findRecordByID(context, ReferenceMapper_Lazy.class, record.id);
+    context.assertNotNull(rec2);
+    context.assertNotNull(rec2.simpleMapper);
+    context.assertFalse(rec2.simpleMapper.isLoaded(), "referenced instance must not be loaded with the parent");
+    context.assertEquals(record.simpleMapper.getIfLoaded().id, rec2.simpleMapper.getId());
+
+    Async async = context.async();
+    rec2.simpleMapper.get(res -> {
+      if (res.failed()) {
+        context.fail(res.cause());
+      } else {
+        context.assertEquals("derLazyMapper", res.result().name);
+        context.assertTrue(rec2.simpleMapper.isLoaded());
+      }
+      async.complete();
+    });
+    async.await();
+  }
+
   @Test
   public void extreme_SingleReferenced(TestContext context) {
     clearTable(context, ReferenceMapper_Single.class.getSimpleName());
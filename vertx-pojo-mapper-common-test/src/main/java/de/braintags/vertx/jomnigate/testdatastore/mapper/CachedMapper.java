@@ -0,0 +1,49 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+package de.braintags.vertx.jomnigate.testdatastore.mapper;
+
+import de.braintags.vertx.jomnigate.annotation.Cached;
+import de.braintags.vertx.jomnigate.annotation.CachedCounts;
+import de.braintags.vertx.jomnigate.annotation.CachedQueries;
+import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.annotation.field.Id;
+import de.braintags.vertx.jomnigate.dataaccess.query.IIndexedField;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.IndexedField;
+
+/**
+ * A mapper, whose records, query results and counts are cached
+ * 
+ * @author Michael Remme
+ * 
+ */
+
+@Entity
+@Cached(maxEntries = 2)
+@CachedQueries
+@CachedCounts
+public class CachedMapper {
+  public static final IIndexedField NAME = new IndexedField("name");
+
+  @Id
+  public String id = null;
+  public String name = "testName";
+
+  public CachedMapper() {
+  }
+
+  public CachedMapper(String name) {
+    this.name = name;
+  }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore.mapper.typehandler;
+
+import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.annotation.field.Referenced;
+import de.braintags.vertx.jomnigate.datatypes.LazyRef;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.SimpleMapper;
+
+/**
+ * Mapper to test {@link Referenced} annotation with lazy loading
+ *
+ * @author Michael Remme
+ * 
+ */
+
+@Entity
+public class ReferenceMapper_Lazy extends BaseRecord {
+
+  @Referenced(lazy = true)
+  public LazyRef<SimpleMapper> simpleMapper;
+
+  /**
+   * 
+   */
+  public ReferenceMapper_Lazy() {
+    simpleMapper = new LazyRef<>(new SimpleMapper("derLazyMapper", "die prop"));
+  }
+
+}
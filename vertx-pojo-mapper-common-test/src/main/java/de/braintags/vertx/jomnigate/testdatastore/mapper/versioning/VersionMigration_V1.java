@@ -0,0 +1,45 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore.mapper.versioning;
+
+import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.annotation.VersionInfo;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.typehandler.BaseRecord;
+import de.braintags.vertx.jomnigate.versioning.IMapperVersion;
+import de.braintags.vertx.jomnigate.versioning.VersionMigrationRunner;
+
+/**
+ * The first version of the records, which are migrated by the {@link VersionMigrationRunner}. The version is stored
+ * in the default version field of the runner
+ * 
+ * @author Michael Remme
+ * 
+ */
+@Entity(name = "VersionMigrationTable")
+@VersionInfo(version = 1)
+public class VersionMigration_V1 extends BaseRecord implements IMapperVersion {
+
+  private long mapperVersion;
+  public String name;
+
+  @Override
+  public long getMapperVersion() {
+    return mapperVersion;
+  }
+
+  @Override
+  public void setMapperVersion(long mapperVersion) {
+    this.mapperVersion = mapperVersion;
+  }
+
+}
@@ -0,0 +1,32 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore.mapper.versioning;
+
+import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.annotation.VersionConverterDefinition;
+import de.braintags.vertx.jomnigate.annotation.VersionInfo;
+import de.braintags.vertx.jomnigate.testdatastore.mapper.versioning.converter.VersionMigrationConverter;
+
+/**
+ * The second version of the records, which are migrated by the {@link VersionMigrationConverter}
+ * 
+ * @author Michael Remme
+ * 
+ */
+@Entity(name = "VersionMigrationTable")
+@VersionInfo(version = 2, versionConverter = {
+    @VersionConverterDefinition(destinationVersion = 2, converter = VersionMigrationConverter.class) })
+public class VersionMigration_V2 extends VersionMigration_V1 {
+  public String newName;
+
+}
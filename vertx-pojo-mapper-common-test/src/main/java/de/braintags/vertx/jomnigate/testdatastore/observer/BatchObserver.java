@@ -0,0 +1,51 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common-test
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.testdatastore.observer;
+
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.observer.IBatchObserver;
+import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.observer.IObserverEvent;
+import de.braintags.vertx.jomnigate.observer.impl.AbstractObserver;
+import io.vertx.core.Future;
+
+/**
+ * Counts the calls and the received events
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class BatchObserver extends AbstractObserver implements IBatchObserver {
+  public static volatile int calls = 0;
+  public static volatile int events = 0;
+
+  public static void reset() {
+    calls = 0;
+    events = 0;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.observer.IBatchObserver#handleEvents(java.util.List,
+   * de.braintags.vertx.jomnigate.observer.IObserverContext)
+   */
+  @Override
+  public Future<Void> handleEvents(List<IObserverEvent> eventList, IObserverContext context) {
+    calls++;
+    events += eventList.size();
+    return Future.succeededFuture();
+  }
+
+}
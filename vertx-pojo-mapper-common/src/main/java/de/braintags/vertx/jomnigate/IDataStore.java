@@ -12,7 +12,10 @@
  */
 package de.braintags.vertx.jomnigate;
 
+import de.braintags.vertx.jomnigate.advisor.IndexAdvisor;
 import de.braintags.vertx.jomnigate.annotation.KeyGenerator;
+import de.braintags.vertx.jomnigate.change.ChangePublisher;
+import de.braintags.vertx.jomnigate.dataaccess.RecordBatchLoader;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
@@ -26,8 +29,10 @@ import de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory;
 import de.braintags.vertx.jomnigate.mapping.ITriggerContext;
 import de.braintags.vertx.jomnigate.mapping.ITriggerContextFactory;
 import de.braintags.vertx.jomnigate.mapping.datastore.ITableGenerator;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
 import de.braintags.vertx.util.security.crypt.IEncoder;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Closeable;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
@@ -170,6 +175,15 @@ public interface IDataStore<S, U> {
    */
   void shutdown(Handler<AsyncResult<Void>> resultHandler);
 
+  /**
+   * Add a hook, which is closed, when the current instance is shut down. Hooks are used to release resources, which
+   * were created for the datastore, like timers or open files
+   *
+   * @param hook
+   *          the hook to be closed by {@link #shutdown(Handler)}
+   */
+  void addCloseHook(Closeable hook);
+
   /**
    * Get the factory, which creates instances of {@link ITriggerContext} when lifecycle methods are called
    *
@@ -216,4 +230,43 @@ public interface IDataStore<S, U> {
    */
   DataStoreSettings getSettings();
 
+  /**
+   * Get the {@link ChangePublisher}, which informs about records changed by write and delete actions
+   * 
+   * @return the change publisher
+   */
+  ChangePublisher getChangePublisher();
+
+  /**
+   * Get the {@link RecordBatchLoader} of the given mapper class, which combines single loads of records by id into one
+   * query
+   * 
+   * @param mapperClass
+   *          the mapper class
+   * @return the loader of the mapper class
+   */
+  <T> RecordBatchLoader<T> getRecordBatchLoader(Class<T> mapperClass);
+
+  /**
+   * Get the {@link IndexAdvisor}, which reports missing and unused indexes based on the executed queries
+   * 
+   * @return the index advisor
+   */
+  IndexAdvisor getIndexAdvisor();
+
+  /**
+   * Get the {@link IMetricsCollector}, which receives the duration of the operations of the datastore
+   * 
+   * @return the collector or null, if no metrics are collected
+   */
+  IMetricsCollector getMetricsCollector();
+
+  /**
+   * Set the {@link IMetricsCollector}, which receives the duration of the operations of the datastore
+   * 
+   * @param metricsCollector
+   *          the collector or null to disable the metrics
+   */
+  void setMetricsCollector(IMetricsCollector metricsCollector);
+
 }
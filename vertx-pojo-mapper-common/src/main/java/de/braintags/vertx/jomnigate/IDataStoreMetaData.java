@@ -13,6 +13,9 @@
 
 package de.braintags.vertx.jomnigate;
 
+import java.util.List;
+import java.util.Map;
+
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
@@ -42,4 +45,14 @@ public interface IDataStoreMetaData {
    * @return an object , describing the index, or null, if index does not exists
    */
   public void getIndexInfo(String indexName, IMapper mapper, Handler<AsyncResult<Object>> handler);
+
+  /**
+   * Get all indexes, which exist inside the database for the given mapper
+   * 
+   * @param mapper
+   *          the mapper
+   * @param handler
+   *          the handler to receive the names of the indexes with their columns in the order of the index
+   */
+  public void getIndexes(IMapper<?> mapper, Handler<AsyncResult<Map<String, List<String>>>> handler);
 }
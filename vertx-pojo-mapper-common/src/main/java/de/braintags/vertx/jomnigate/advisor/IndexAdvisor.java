@@ -0,0 +1,180 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.advisor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.query.IIndexedField;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.SortDefinition.SortArgument;
+import de.braintags.vertx.jomnigate.init.DataStoreSettings;
+import de.braintags.vertx.jomnigate.mapping.IIndexDefinition;
+import de.braintags.vertx.jomnigate.mapping.IIndexFieldDefinition;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * The IndexAdvisor of an {@link IDataStore} records the {@link QueryShape} of each query, which is executed by the
+ * datastore, together with its frequency. On request it compares the recorded shapes with the indexes, which are
+ * declared by the mapper and which exist inside the datastore, and creates an {@link IndexReport} about missing and
+ * unused indexes.
+ * Shapes are only recorded, if {@link DataStoreSettings#isAdviseIndexes()} is true
+ *
+ * @author Michael Remme
+ *
+ */
+public class IndexAdvisor {
+  private final IDataStore<?, ?> datastore;
+  private final Map<Class<?>, Map<QueryShape, LongAdder>> shapes = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance
+   *
+   * @param datastore
+   *          the datastore, whose queries are analyzed
+   */
+  public IndexAdvisor(IDataStore<?, ?> datastore) {
+    this.datastore = datastore;
+  }
+
+  /**
+   * Returns true, if the shapes of executed queries shall be recorded
+   *
+   * @return true, if the advisor is active
+   */
+  public boolean isActive() {
+    DataStoreSettings settings = datastore.getSettings();
+    return settings != null && settings.isAdviseIndexes();
+  }
+
+  /**
+   * Record the shapes of a query
+   *
+   * @param mapper
+   *          the mapper of the query
+   * @param searchCondition
+   *          the search condition of the query, can be null
+   * @param sortArguments
+   *          the sort arguments of the query
+   */
+  public void record(IMapper<?> mapper, ISearchCondition searchCondition,
+      List<? extends SortArgument> sortArguments) {
+    Map<QueryShape, LongAdder> mapperShapes = shapes.computeIfAbsent(mapper.getMapperClass(),
+        k -> new ConcurrentHashMap<>());
+    for (QueryShape shape : QueryShape.create(mapper, searchCondition, sortArguments)) {
+      mapperShapes.computeIfAbsent(shape, k -> new LongAdder()).increment();
+    }
+  }
+
+  /**
+   * Get the recorded shapes of the given mapper class with their frequency
+   *
+   * @param mapperClass
+   *          the mapper class
+   * @return the shapes, an empty map if none were recorded
+   */
+  public Map<QueryShape, Long> getShapes(Class<?> mapperClass) {
+    Map<QueryShape, Long> result = new HashMap<>();
+    Map<QueryShape, LongAdder> mapperShapes = shapes.get(mapperClass);
+    if (mapperShapes != null) {
+      mapperShapes.forEach((shape, count) -> result.put(shape, count.sum()));
+    }
+    return result;
+  }
+
+  /**
+   * Remove all recorded shapes
+   */
+  public void reset() {
+    shapes.clear();
+  }
+
+  /**
+   * Create the reports for all mapper classes, for which queries were recorded
+   *
+   * @param handler
+   *          the handler to receive the reports
+   */
+  @SuppressWarnings("rawtypes")
+  public void createReports(Handler<AsyncResult<List<IndexReport>>> handler) {
+    List<Future> fl = new ArrayList<>();
+    for (Class<?> mapperClass : shapes.keySet()) {
+      Future<IndexReport> f = Future.future();
+      createReport(mapperClass, f);
+      fl.add(f);
+    }
+    CompositeFuture.all(fl).setHandler(res -> {
+      if (res.failed()) {
+        handler.handle(Future.failedFuture(res.cause()));
+      } else {
+        handler.handle(Future.succeededFuture(res.result().list()));
+      }
+    });
+  }
+
+  /**
+   * Create the report for the given mapper class. The recorded shapes are compared with the indexes declared by the
+   * mapper and with the indexes, which exist inside the datastore. The fields of the declared indexes are converted
+   * into their column names, so that all indexes are compared by the columns, which are used by the shapes
+   *
+   * @param mapperClass
+   *          the mapper class
+   * @param handler
+   *          the handler to receive the report
+   */
+  public void createReport(Class<?> mapperClass, Handler<AsyncResult<IndexReport>> handler) {
+    try {
+      IMapper<?> mapper = datastore.getMapperFactory().getMapper(mapperClass);
+      Map<String, List<String>> indexes = new LinkedHashMap<>();
+      for (IIndexDefinition index : mapper.getIndexDefinitions()) {
+        List<String> columns = new ArrayList<>();
+        for (IIndexFieldDefinition field : index.getFields()) {
+          columns.add(toColumnName(mapper, field.getName()));
+        }
+        indexes.put(index.getName(), columns);
+      }
+      datastore.getMetaData().getIndexes(mapper, res -> {
+        if (res.failed()) {
+          handler.handle(Future.failedFuture(res.cause()));
+        } else {
+          res.result().forEach(indexes::putIfAbsent);
+          String idColumn = mapper.getIdInfo().getIndexedField().getColumnName(mapper);
+          handler.handle(
+              Future.succeededFuture(new IndexReport(mapperClass, getShapes(mapperClass), indexes, idColumn)));
+        }
+      });
+    } catch (Exception e) {
+      handler.handle(Future.failedFuture(e));
+    }
+  }
+
+  /**
+   * Get the column name of a field of a declared index. A name, which is not a field of the mapper, is kept as it is
+   */
+  private static String toColumnName(IMapper<?> mapper, String fieldName) {
+    int i = fieldName.indexOf('.');
+    String name = i > 0 ? fieldName.substring(0, i) : fieldName;
+    return mapper.getField(name) == null ? fieldName : IIndexedField.create(fieldName).getColumnName(mapper);
+  }
+
+}
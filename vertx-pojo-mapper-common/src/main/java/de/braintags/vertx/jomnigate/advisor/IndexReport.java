@@ -0,0 +1,185 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.advisor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The result of an analysis by the {@link IndexAdvisor} for one mapper. It contains the recorded query shapes with
+ * their frequency, the shapes, which are not supported by any index, together with a suggested index, and the indexes,
+ * which were not usable by any recorded query
+ *
+ * @author Michael Remme
+ *
+ */
+public class IndexReport {
+  private final Class<?> mapperClass;
+  private final Map<QueryShape, Long> shapes;
+  private final Map<String, List<String>> indexes;
+  private final List<MissingIndex> missingIndexes = new ArrayList<>();
+  private final List<String> unusedIndexes = new ArrayList<>();
+
+  /**
+   * Creates the report
+   *
+   * @param mapperClass
+   *          the mapper class
+   * @param shapes
+   *          the recorded shapes with their frequency
+   * @param indexes
+   *          the indexes of the mapper by name with their columns
+   * @param idColumn
+   *          the column of the id, which is always indexed
+   */
+  IndexReport(final Class<?> mapperClass, final Map<QueryShape, Long> shapes, final Map<String, List<String>> indexes,
+      final String idColumn) {
+    this.mapperClass = mapperClass;
+    this.shapes = Collections.unmodifiableMap(shapes);
+    this.indexes = Collections.unmodifiableMap(indexes);
+    shapes.forEach((shape, count) -> {
+      if (shape.isIndexable() && !shape.canLeadIndex(idColumn) && !isSupported(shape)) {
+        missingIndexes.add(new MissingIndex(shape, count));
+      }
+    });
+    missingIndexes.sort((m1, m2) -> Long.compare(m2.count, m1.count));
+    indexes.forEach((name, columns) -> {
+      if (!columns.isEmpty() && !columns.get(0).equals(idColumn) && !isUsed(columns.get(0))) {
+        unusedIndexes.add(name);
+      }
+    });
+  }
+
+  private boolean isSupported(final QueryShape shape) {
+    for (List<String> columns : indexes.values()) {
+      if (shape.isSupportedBy(columns)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isUsed(final String column) {
+    for (QueryShape shape : shapes.keySet()) {
+      if (shape.canLeadIndex(column)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the mapper class of the report
+   *
+   * @return the mapper class
+   */
+  public Class<?> getMapperClass() {
+    return mapperClass;
+  }
+
+  /**
+   * Get the recorded shapes of the queries with the number of executions
+   *
+   * @return the shapes
+   */
+  public Map<QueryShape, Long> getShapes() {
+    return shapes;
+  }
+
+  /**
+   * Get the indexes, which were declared by the mapper or which exist inside the datastore
+   *
+   * @return the indexes by name with their columns
+   */
+  public Map<String, List<String>> getIndexes() {
+    return indexes;
+  }
+
+  /**
+   * Get the shapes, which are not supported by any index, sorted by their frequency
+   *
+   * @return the missing indexes
+   */
+  public List<MissingIndex> getMissingIndexes() {
+    return missingIndexes;
+  }
+
+  /**
+   * Get the names of the indexes, which could not be used by any recorded query. The index of the id is never reported
+   *
+   * @return the names of the unused indexes
+   */
+  public List<String> getUnusedIndexes() {
+    return unusedIndexes;
+  }
+
+  /**
+   * Get the report as JsonObject
+   *
+   * @return the report
+   */
+  public JsonObject toJson() {
+    JsonArray shapeArray = new JsonArray();
+    shapes.forEach((shape, count) -> shapeArray.add(shape.toJson().put("count", count)));
+    JsonObject indexJson = new JsonObject();
+    indexes.forEach((name, columns) -> indexJson.put(name, new JsonArray(columns)));
+    JsonArray missingArray = new JsonArray();
+    missingIndexes.forEach(missing -> missingArray.add(missing.shape.toJson().put("count", missing.count)
+        .put("suggestedIndex", new JsonArray(missing.shape.getSuggestedIndex()))));
+    return new JsonObject().put("mapper", mapperClass.getName()).put("shapes", shapeArray).put("indexes", indexJson)
+        .put("missingIndexes", missingArray).put("unusedIndexes", new JsonArray(unusedIndexes));
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJson().encodePrettily();
+  }
+
+  /**
+   * A query shape, which is not supported by any index
+   */
+  public static class MissingIndex {
+    public final QueryShape shape;
+    public final long count;
+
+    MissingIndex(final QueryShape shape, final long count) {
+      this.shape = shape;
+      this.count = count;
+    }
+
+    /**
+     * Get the columns of an index, which would support the query shape
+     *
+     * @return the suggested columns
+     */
+    public List<String> getSuggestedIndex() {
+      return shape.getSuggestedIndex();
+    }
+
+    @Override
+    public String toString() {
+      return shape + " (" + count + " times), suggested index " + getSuggestedIndex();
+    }
+  }
+
+}
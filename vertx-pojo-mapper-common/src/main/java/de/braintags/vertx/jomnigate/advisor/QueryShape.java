@@ -0,0 +1,317 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.advisor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.IIndexedField;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchConditionContainer;
+import de.braintags.vertx.jomnigate.dataaccess.query.QueryLogic;
+import de.braintags.vertx.jomnigate.dataaccess.query.QueryOperator;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.SortDefinition.SortArgument;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The shape of a query: the columns, which are filtered by equality, the columns, which are filtered by a range, and
+ * the columns, which are sorted. The values of the query are not part of the shape, so that all executions of one
+ * query share one shape. Columns, which are filtered by an operator, which can't use an index, like CONTAINS or
+ * NOT_EQUALS, are kept separately and don't require an index.
+ * A search condition with OR creates one shape per branch, because each branch is resolved by its own index
+ *
+ * @author Michael Remme
+ *
+ */
+public class QueryShape {
+  /**
+   * The maximum number of shapes, which are created from one search condition
+   */
+  public static final int MAX_SHAPES = 16;
+
+  private final List<String> equalityColumns;
+  private final List<String> rangeColumns;
+  private final List<String> sortColumns;
+  private final List<String> otherColumns;
+  private final int hash;
+
+  private QueryShape(final ShapeBuilder builder, final List<String> sortColumns) {
+    this.equalityColumns = Collections.unmodifiableList(new ArrayList<>(builder.equality));
+    this.rangeColumns = Collections.unmodifiableList(new ArrayList<>(builder.range));
+    this.otherColumns = Collections.unmodifiableList(new ArrayList<>(builder.other));
+    this.sortColumns = sortColumns;
+    this.hash = Objects.hash(equalityColumns, rangeColumns, sortColumns, otherColumns);
+  }
+
+  /**
+   * Create the shapes of a query
+   *
+   * @param mapper
+   *          the mapper of the query
+   * @param searchCondition
+   *          the search condition of the query, can be null
+   * @param sortArguments
+   *          the sort arguments of the query
+   * @return the shapes, at least one
+   */
+  public static List<QueryShape> create(final IMapper<?> mapper, final ISearchCondition searchCondition,
+      final List<? extends SortArgument> sortArguments) {
+    List<String> sortColumns = new ArrayList<>(sortArguments.size());
+    for (SortArgument sa : sortArguments) {
+      sortColumns.add(IIndexedField.create(sa.fieldName).getColumnName(mapper));
+    }
+    sortColumns = Collections.unmodifiableList(sortColumns);
+    List<ShapeBuilder> builders = searchCondition == null ? Collections.singletonList(new ShapeBuilder())
+        : collect(mapper, searchCondition, false);
+    List<QueryShape> shapes = new ArrayList<>(builders.size());
+    for (ShapeBuilder builder : builders) {
+      shapes.add(new QueryShape(builder, sortColumns));
+    }
+    return shapes;
+  }
+
+  private static List<ShapeBuilder> collect(final IMapper<?> mapper, final ISearchCondition searchCondition,
+      final boolean negated) {
+    if (searchCondition instanceof IFieldCondition) {
+      IFieldCondition condition = (IFieldCondition) searchCondition;
+      ShapeBuilder builder = new ShapeBuilder();
+      builder.add(condition.getField().getColumnName(mapper), negated ? null : condition.getOperator());
+      return Collections.singletonList(builder);
+    }
+    List<ShapeBuilder> result = new ArrayList<>();
+    if (searchCondition instanceof ISearchConditionContainer) {
+      ISearchConditionContainer container = (ISearchConditionContainer) searchCondition;
+      boolean negate = negated || container.getQueryLogic() == QueryLogic.NOT;
+      if (container.getQueryLogic() == QueryLogic.OR && !negated) {
+        for (ISearchCondition child : container.getConditions()) {
+          for (ShapeBuilder builder : collect(mapper, child, false)) {
+            if (result.size() < MAX_SHAPES) {
+              result.add(builder);
+            }
+          }
+        }
+        return result;
+      }
+      result.add(new ShapeBuilder());
+      for (ISearchCondition child : container.getConditions()) {
+        List<ShapeBuilder> childShapes = collect(mapper, child, negate);
+        List<ShapeBuilder> merged = new ArrayList<>();
+        for (ShapeBuilder left : result) {
+          for (ShapeBuilder right : childShapes) {
+            if (merged.size() < MAX_SHAPES) {
+              merged.add(left.merge(right));
+            }
+          }
+        }
+        result = merged;
+      }
+    } else {
+      result.add(new ShapeBuilder());
+    }
+    return result;
+  }
+
+  /**
+   * Get the columns, which are filtered by equality
+   *
+   * @return the columns in alphabetical order
+   */
+  public List<String> getEqualityColumns() {
+    return equalityColumns;
+  }
+
+  /**
+   * Get the columns, which are filtered by a range
+   *
+   * @return the columns in alphabetical order
+   */
+  public List<String> getRangeColumns() {
+    return rangeColumns;
+  }
+
+  /**
+   * Get the columns, which are sorted
+   *
+   * @return the columns in the order of sorting
+   */
+  public List<String> getSortColumns() {
+    return sortColumns;
+  }
+
+  /**
+   * Get the columns, which are filtered by an operator, which can't use an index
+   *
+   * @return the columns in alphabetical order
+   */
+  public List<String> getOtherColumns() {
+    return otherColumns;
+  }
+
+  /**
+   * Returns true, if the query can be supported by an index, because it filters or sorts by a suitable operator
+   *
+   * @return true, if an index can be used
+   */
+  public boolean isIndexable() {
+    return !equalityColumns.isEmpty() || !rangeColumns.isEmpty() || !sortColumns.isEmpty();
+  }
+
+  /**
+   * Returns true, if the given column can be the first column of an index, which is used by the query
+   *
+   * @param column
+   *          the column
+   * @return true, if an index starting with the column can be used
+   */
+  public boolean canLeadIndex(final String column) {
+    if (equalityColumns.contains(column) || rangeColumns.contains(column)) {
+      return true;
+    }
+    return equalityColumns.isEmpty() && rangeColumns.isEmpty() && !sortColumns.isEmpty()
+        && sortColumns.get(0).equals(column);
+  }
+
+  /**
+   * Returns true, if an index with the given columns can be used by the query
+   *
+   * @param indexColumns
+   *          the columns of the index in their order
+   * @return true, if the index can be used
+   */
+  public boolean isSupportedBy(final List<String> indexColumns) {
+    return !indexColumns.isEmpty() && canLeadIndex(indexColumns.get(0));
+  }
+
+  /**
+   * Get the columns of an index, which supports the query. The equality columns come first, followed by the sort
+   * columns and the range columns, so that the index can be used for filtering and sorting
+   *
+   * @return the suggested columns of the index
+   */
+  public List<String> getSuggestedIndex() {
+    Set<String> columns = new LinkedHashSet<>(equalityColumns);
+    columns.addAll(sortColumns);
+    columns.addAll(rangeColumns);
+    return new ArrayList<>(columns);
+  }
+
+  /**
+   * Get the shape as JsonObject
+   *
+   * @return the shape
+   */
+  public JsonObject toJson() {
+    return new JsonObject().put("equality", new JsonArray(equalityColumns)).put("range", new JsonArray(rangeColumns))
+        .put("sort", new JsonArray(sortColumns)).put("other", new JsonArray(otherColumns));
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#equals(java.lang.Object)
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof QueryShape)) {
+      return false;
+    }
+    QueryShape other = (QueryShape) obj;
+    return equalityColumns.equals(other.equalityColumns) && rangeColumns.equals(other.rangeColumns)
+        && sortColumns.equals(other.sortColumns) && otherColumns.equals(other.otherColumns);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return "equality " + equalityColumns + " range " + rangeColumns + " sort " + sortColumns + " other "
+        + otherColumns;
+  }
+
+  /**
+   * Collects the columns of a search condition
+   */
+  private static class ShapeBuilder {
+    private final Set<String> equality = new TreeSet<>();
+    private final Set<String> range = new TreeSet<>();
+    private final Set<String> other = new TreeSet<>();
+
+    /**
+     * Add a column by its operator
+     *
+     * @param column
+     *          the name of the column
+     * @param operator
+     *          the operator or null, if the condition is negated
+     */
+    void add(final String column, final QueryOperator operator) {
+      if (operator == null) {
+        other.add(column);
+        return;
+      }
+      switch (operator) {
+      case EQUALS:
+      case IN:
+        equality.add(column);
+        break;
+      case LARGER:
+      case SMALLER:
+      case LARGER_EQUAL:
+      case SMALLER_EQUAL:
+      case STARTS:
+      case NEAR:
+        range.add(column);
+        break;
+      default:
+        other.add(column);
+      }
+    }
+
+    ShapeBuilder merge(final ShapeBuilder builder) {
+      ShapeBuilder merged = new ShapeBuilder();
+      merged.equality.addAll(equality);
+      merged.equality.addAll(builder.equality);
+      merged.range.addAll(range);
+      merged.range.addAll(builder.range);
+      merged.range.removeAll(merged.equality);
+      merged.other.addAll(other);
+      merged.other.addAll(builder.other);
+      return merged;
+    }
+  }
+
+}
@@ -0,0 +1,38 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+/**
+ * Queries, which filter or sort by columns without an index, often are only noticed, when the database is saturated.
+ * Each IDataStore owns an {@link de.braintags.vertx.jomnigate.advisor.IndexAdvisor}, which records the
+ * {@link de.braintags.vertx.jomnigate.advisor.QueryShape} of each executed query per mapper: the columns filtered by
+ * equality, the columns filtered by a range and the sorted columns, together with the number of executions.
+ * 
+ * Recording is enabled by the property adviseIndexes of the
+ * {@link de.braintags.vertx.jomnigate.init.DataStoreSettings}. On request the advisor compares the recorded shapes
+ * with the indexes declared by the mapper and with the indexes, which exist inside the datastore, and creates an
+ * {@link de.braintags.vertx.jomnigate.advisor.IndexReport}:
+ * 
+ * [source, java]
+ * ----
+ * datastore.getIndexAdvisor().createReport(SimpleMapper.class, result -> {
+ *   IndexReport report = result.result();
+ *   report.getMissingIndexes().forEach(missing -> LOGGER.warn("missing index: " + missing));
+ *   report.getUnusedIndexes().forEach(name -> LOGGER.info("unused index: " + name));
+ * });
+ * ----
+ * 
+ * A shape is reported as missing, if no index starts with one of its filtered columns or, for queries without a
+ * filter, with its first sorted column. The suggested index contains the equality columns, followed by the sorted
+ * and the range columns. An index is reported as unused, if no recorded shape could use it. The index of the id is
+ * never reported, and the report is only meaningful after a representative workload was recorded.
+ */
+package de.braintags.vertx.jomnigate.advisor;
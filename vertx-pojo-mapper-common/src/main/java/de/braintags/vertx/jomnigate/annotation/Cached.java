@@ -0,0 +1,53 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import de.braintags.vertx.jomnigate.cache.EntityCache;
+
+/**
+ * Activates the {@link EntityCache} for a mapper. Records of the mapper, which are loaded by their id, are kept in
+ * memory and further queries by id are answered without access to the datastore, until the record is changed or
+ * deleted
+ *
+ * @author Michael Remme
+ *
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface Cached {
+
+  /**
+   * The maximum number of records inside the cache. If the limit is reached, the least recently used record is removed
+   *
+   * @return the maximum number of records
+   */
+  int maxEntries() default 1000;
+
+  /**
+   * The time in milliseconds, after which a record is removed from the cache. A value <= 0 keeps a record until it is
+   * changed or removed by the size limit
+   *
+   * @return the time to live in milliseconds
+   */
+  long ttl() default 0;
+
+}
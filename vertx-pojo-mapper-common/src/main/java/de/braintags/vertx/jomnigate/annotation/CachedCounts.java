@@ -0,0 +1,52 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import de.braintags.vertx.jomnigate.cache.CountCache;
+
+/**
+ * Activates the {@link CountCache} for a mapper. The results of counts, including the complete count of queries, are
+ * kept in memory by the search condition for a short time. Each write or delete of a record of the mapper removes all
+ * cached counts
+ *
+ * @author Michael Remme
+ *
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface CachedCounts {
+
+  /**
+   * The maximum number of counts inside the cache. If the limit is reached, the least recently used count is removed
+   *
+   * @return the maximum number of counts
+   */
+  int maxEntries() default 100;
+
+  /**
+   * The time in milliseconds, after which a count is removed from the cache
+   *
+   * @return the time to live in milliseconds
+   */
+  long ttl() default 5000;
+
+}
@@ -0,0 +1,54 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import de.braintags.vertx.jomnigate.cache.QueryCache;
+
+/**
+ * Activates the {@link QueryCache} for a mapper. The results of queries are kept in memory by the search condition,
+ * sorting, fields and paging of the query, so that repeated queries are answered without access to the datastore.
+ * Each write or delete of a record of the mapper removes all cached results
+ *
+ * @author Michael Remme
+ *
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface CachedQueries {
+
+  /**
+   * The maximum number of query results inside the cache. If the limit is reached, the least recently used result is
+   * removed
+   *
+   * @return the maximum number of query results
+   */
+  int maxEntries() default 100;
+
+  /**
+   * The time in milliseconds, after which a query result is removed from the cache. A value <= 0 keeps a result until
+   * a record of the mapper is changed or the result is removed by the size limit
+   *
+   * @return the time to live in milliseconds
+   */
+  long ttl() default 0;
+
+}
@@ -19,9 +19,13 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import de.braintags.vertx.jomnigate.datatypes.LazyRef;
+
 /**
  * Signals, that a child object shall be stored by its identifyer inside the current field, the object itself is stored
- * inside an own mapper
+ * inside an own mapper. By default referenced instances are loaded together with the parent instance. If
+ * {@link #lazy()} is set, the field must be declared as {@link LazyRef}, which keeps only the identifyer and loads the
+ * instance on first access
  * 
  * @author Michael Remme
  * 
@@ -33,4 +37,12 @@ import java.lang.annotation.Target;
 @Target(ElementType.FIELD)
 public @interface Referenced {
 
+  /**
+   * If true, the referenced instance is not loaded together with the parent instance. The field must be of the type
+   * {@link LazyRef}
+   * 
+   * @return true, if the referenced instance shall be loaded on first access
+   */
+  boolean lazy() default false;
+
 }
@@ -0,0 +1,209 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.braintags.vertx.jomnigate.change.ChangeEvent;
+import de.braintags.vertx.jomnigate.change.ChangePublisher;
+import io.vertx.core.Handler;
+
+/**
+ * An abstract cache of a mapper, which removes the least recently used entry, if the maximum number of entries is
+ * reached, and entries, which are older than the time to live, on access. It counts hits, misses and evictions.
+ * Extensions are registered at the {@link ChangePublisher} of the datastore and decide, which entries are removed by
+ * a {@link ChangeEvent}
+ *
+ * @author Michael Remme
+ * @param <V>
+ *          the type of the cached values
+ */
+public abstract class AbstractCache<V> implements Handler<ChangeEvent> {
+  private final int maxEntries;
+  private final long ttl;
+  private final LinkedHashMap<String, Entry<V>> entries;
+  private long generation;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Creates a new instance
+   *
+   * @param maxEntries
+   *          the maximum number of entries
+   * @param ttl
+   *          the time in milliseconds, after which an entry is removed, or a value <= 0, to keep entries unlimited
+   */
+  public AbstractCache(int maxEntries, long ttl) {
+    this.maxEntries = maxEntries;
+    this.ttl = ttl;
+    this.entries = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+        if (size() > AbstractCache.this.maxEntries) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Get the entry with the given key
+   *
+   * @param key
+   *          the key of the entry
+   * @return the value or null, if it is not cached or expired
+   */
+  public synchronized V get(String key) {
+    Entry<V> entry = entries.get(key);
+    if (entry != null && ttl > 0 && System.currentTimeMillis() - entry.created > ttl) {
+      entries.remove(key);
+      evictions++;
+      entry = null;
+    }
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.value;
+  }
+
+  /**
+   * Get the current generation of the cache, which is increased by each invalidation. A load should fetch the
+   * generation before it accesses the datastore and hand it to {@link #put(String, Object, long)}, so that a value,
+   * which was changed during the load, is not added with its old content
+   *
+   * @return the current generation
+   */
+  public synchronized long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Add a value, which was loaded from the datastore. The value is ignored, if the cache was invalidated since the
+   * given generation
+   *
+   * @param key
+   *          the key of the entry
+   * @param value
+   *          the loaded value
+   * @param loadGeneration
+   *          the generation, which was valid at the start of the load
+   */
+  public synchronized void put(String key, V value, long loadGeneration) {
+    if (key != null && value != null && loadGeneration == generation) {
+      entries.put(key, new Entry<>(value));
+    }
+  }
+
+  /**
+   * Remove the entry with the given key
+   *
+   * @param key
+   *          the key of the entry
+   */
+  public synchronized void invalidate(String key) {
+    generation++;
+    entries.remove(key);
+  }
+
+  /**
+   * Remove all entries
+   */
+  public synchronized void invalidateAll() {
+    generation++;
+    entries.clear();
+  }
+
+  /**
+   * Get the number of entries inside the cache
+   *
+   * @return the number of entries
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Get the number of requests, which were answered by the cache
+   *
+   * @return the number of hits
+   */
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  /**
+   * Get the number of requests, where the entry was not found inside the cache
+   *
+   * @return the number of misses
+   */
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  /**
+   * Get the number of entries, which were removed because of the size limit or the time to live
+   *
+   * @return the number of evictions
+   */
+  public synchronized long getEvictionCount() {
+    return evictions;
+  }
+
+  /**
+   * Get the maximum number of entries
+   *
+   * @return the maxEntries
+   */
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  /**
+   * Get the time to live of an entry in milliseconds
+   *
+   * @return the ttl
+   */
+  public long getTtl() {
+    return ttl;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public synchronized String toString() {
+    return getClass().getSimpleName() + ": size " + entries.size() + ", hits " + hits + ", misses " + misses
+        + ", evictions " + evictions;
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    private final long created = System.currentTimeMillis();
+
+    Entry(V value) {
+      this.value = value;
+    }
+  }
+
+}
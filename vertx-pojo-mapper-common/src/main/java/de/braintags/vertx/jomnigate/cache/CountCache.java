@@ -0,0 +1,66 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.cache;
+
+import de.braintags.vertx.jomnigate.annotation.CachedCounts;
+import de.braintags.vertx.jomnigate.change.ChangeEvent;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+
+/**
+ * The count cache of a mapper, which is annotated by {@link CachedCounts}. It keeps the results of counts by the
+ * canonical form of the search condition, which is created by {@link QueryCache#canonicalCondition}. Each
+ * {@link ChangeEvent} of the mapper removes all counts
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the mapper class
+ */
+public class CountCache<T> extends AbstractCache<Long> {
+  private final IMapper<T> mapper;
+
+  /**
+   * Creates a new instance
+   *
+   * @param mapper
+   *          the mapper, whose counts are cached
+   * @param maxEntries
+   *          the maximum number of counts
+   * @param ttl
+   *          the time in milliseconds, after which a count is removed, or a value <= 0, to keep counts unlimited
+   */
+  public CountCache(IMapper<T> mapper, int maxEntries, long ttl) {
+    super(maxEntries, ttl);
+    this.mapper = mapper;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see io.vertx.core.Handler#handle(java.lang.Object)
+   */
+  @Override
+  public void handle(ChangeEvent event) {
+    invalidateAll();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.cache.AbstractCache#toString()
+   */
+  @Override
+  public String toString() {
+    return mapper.getMapperClass().getSimpleName() + " " + super.toString();
+  }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.cache;
+
+import de.braintags.vertx.jomnigate.annotation.Cached;
+import de.braintags.vertx.jomnigate.change.ChangeEvent;
+import de.braintags.vertx.jomnigate.change.ChangePublisher;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The second level cache of a mapper, which is annotated by {@link Cached}. It keeps the native records, which were
+ * loaded from the datastore, by their id. If the maximum number of entries is reached, the least recently used record
+ * is removed; records, which are older than the time to live, are removed on access.
+ * The cache is registered at the {@link ChangePublisher} of the datastore and removes records, which were changed or
+ * deleted. If publishing of changes is enabled, this includes changes of other nodes.
+ * The native records inside the cache are shared between all readers and must not be modified; each reader creates
+ * its own instance from a copy of the native record, so that changes of an instance don't affect other readers.
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the mapper class
+ */
+public class EntityCache<T> extends AbstractCache<JsonObject> {
+  private final IMapper<T> mapper;
+
+  /**
+   * Creates a new instance
+   *
+   * @param mapper
+   *          the mapper, whose records are cached
+   * @param maxEntries
+   *          the maximum number of records
+   * @param ttl
+   *          the time in milliseconds, after which a record is removed, or a value <= 0, to keep records unlimited
+   */
+  public EntityCache(IMapper<T> mapper, int maxEntries, long ttl) {
+    super(maxEntries, ttl);
+    this.mapper = mapper;
+  }
+
+  /**
+   * Add a record, which was loaded from the datastore. The record is ignored, if the cache was invalidated since the
+   * given generation
+   *
+   * @param record
+   *          the instance, which was created from the native record and which delivers the id
+   * @param nativeRecord
+   *          the native record, which must not be modified afterwards
+   * @param loadGeneration
+   *          the generation, which was valid at the start of the load
+   */
+  public void put(T record, JsonObject nativeRecord, long loadGeneration) {
+    Object id = record == null ? null : mapper.getIdInfo().getField().getPropertyAccessor().readData(record);
+    if (id != null) {
+      put(String.valueOf(id), nativeRecord, loadGeneration);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see io.vertx.core.Handler#handle(java.lang.Object)
+   */
+  @Override
+  public void handle(ChangeEvent event) {
+    if (event.isAll()) {
+      invalidateAll();
+    } else {
+      event.getIds().forEach(this::invalidate);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.cache.AbstractCache#toString()
+   */
+  @Override
+  public String toString() {
+    return mapper.getMapperClass().getSimpleName() + " " + super.toString();
+  }
+
+}
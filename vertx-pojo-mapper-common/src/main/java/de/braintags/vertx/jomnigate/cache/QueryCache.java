@@ -0,0 +1,112 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.annotation.CachedQueries;
+import de.braintags.vertx.jomnigate.change.ChangeEvent;
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchConditionContainer;
+import de.braintags.vertx.jomnigate.dataaccess.query.IVariableFieldCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.QueryLogic;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+
+/**
+ * The query cache of a mapper, which is annotated by {@link CachedQueries}. It keeps the results of queries by a
+ * canonical key, which is built from the search condition, the sorting, the fields and the paging of the query. Each
+ * {@link ChangeEvent} of the mapper removes all results, because it is not known, which results are affected.
+ * The cached results are shared and are never handed to a reader directly; each reader receives a view onto the
+ * cached result, which creates its own instances from the native records
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the mapper class
+ */
+public class QueryCache<T> extends AbstractCache<IQueryResult<T>> {
+  private final IMapper<T> mapper;
+
+  /**
+   * Creates a new instance
+   *
+   * @param mapper
+   *          the mapper, whose query results are cached
+   * @param maxEntries
+   *          the maximum number of query results
+   * @param ttl
+   *          the time in milliseconds, after which a result is removed, or a value <= 0, to keep results unlimited
+   */
+  public QueryCache(IMapper<T> mapper, int maxEntries, long ttl) {
+    super(maxEntries, ttl);
+    this.mapper = mapper;
+  }
+
+  /**
+   * Creates the canonical form of a search condition. Conditions, which are connected by AND or OR, are sorted, so
+   * that the order, in which they were added, does not matter
+   *
+   * @param condition
+   *          the search condition or null
+   * @return the canonical form or null, if the condition contains variables or unknown types
+   */
+  public static String canonicalCondition(ISearchCondition condition) {
+    if (condition == null) {
+      return "";
+    } else if (condition instanceof IVariableFieldCondition) {
+      return null;
+    } else if (condition instanceof IFieldCondition) {
+      IFieldCondition fc = (IFieldCondition) condition;
+      return fc.getField().getFieldName() + " " + fc.getOperator() + " " + String.valueOf(fc.getValue());
+    } else if (condition instanceof ISearchConditionContainer) {
+      ISearchConditionContainer container = (ISearchConditionContainer) condition;
+      List<String> children = new ArrayList<>(container.getConditions().size());
+      for (ISearchCondition child : container.getConditions()) {
+        String canonical = canonicalCondition(child);
+        if (canonical == null) {
+          return null;
+        }
+        children.add(canonical);
+      }
+      if (container.getQueryLogic() != QueryLogic.NOT) {
+        Collections.sort(children);
+      }
+      return container.getQueryLogic() + "(" + String.join(", ", children) + ")";
+    }
+    return null;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see io.vertx.core.Handler#handle(java.lang.Object)
+   */
+  @Override
+  public void handle(ChangeEvent event) {
+    invalidateAll();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.cache.AbstractCache#toString()
+   */
+  @Override
+  public String toString() {
+    return mapper.getMapperClass().getSimpleName() + " " + super.toString();
+  }
+
+}
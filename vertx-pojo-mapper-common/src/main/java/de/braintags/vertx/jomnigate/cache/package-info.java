@@ -0,0 +1,55 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+/**
+ * Records, which are read often and changed rarely, can be kept in memory by annotating the mapper with
+ * {@link de.braintags.vertx.jomnigate.annotation.Cached}. The annotation defines the maximum number of records
+ * inside the cache and the time to live of a record in milliseconds.
+ * 
+ * The mapper then owns an {@link de.braintags.vertx.jomnigate.cache.EntityCache}, which is accessible by
+ * IMapper#getEntityCache(). The native record of each record, which is loaded by a query with the complete set of
+ * fields, is added to the cache. Queries, whose search condition is an equals or in condition on the id field, like the
+ * ones executed by QueryHelper#findRecordById, are answered from the cache without access to the datastore, if all
+ * requested records are cached. Each query creates new instances from copies of the cached native records and executes
+ * the load observers like for records delivered by the datastore.
+ * 
+ * The cache is registered at the {@link de.braintags.vertx.jomnigate.change.ChangePublisher} of the datastore, so that
+ * each write or delete removes the affected records. If the property publishChanges of the DataStoreSettings is
+ * enabled, changes made by other nodes are removed as well; otherwise only changes of the current node are considered.
+ * 
+ * Records are removed, when the maximum number of entries is reached ( least recently used first ) or when they are
+ * older than the time to live. The numbers of hits, misses and evictions are available from the cache:
+ * 
+ * [source, java]
+ * ----
+ * EntityCache<Country> cache = datastore.getMapperFactory().getMapper(Country.class).getEntityCache();
+ * LOGGER.info("hits: " + cache.getHitCount() + ", misses: " + cache.getMissCount());
+ * ----
+ * 
+ * Mappers, whose lists are requested repeatedly with the same arguments, can keep the results of queries in memory by
+ * annotating the mapper with {@link de.braintags.vertx.jomnigate.annotation.CachedQueries}. The
+ * {@link de.braintags.vertx.jomnigate.cache.QueryCache} of the mapper stores the IQueryResult by a canonical key, which
+ * is built from the search condition, the sorting, the fields, the limit and offset and the request of the complete
+ * count. Conditions connected by AND or OR are sorted inside the key, so that their order does not matter. Queries
+ * with variables, native commands or an IdentitySession are not cached. Each execution receives its own result, which
+ * creates new instances from the cached native records. Each write or delete of a record of the mapper removes all
+ * cached results.
+ * 
+ * Counts, which are executed by IQuery#executeCount or as complete count of a paged query, can be kept for a short time
+ * by annotating the mapper with {@link de.braintags.vertx.jomnigate.annotation.CachedCounts}. The
+ * {@link de.braintags.vertx.jomnigate.cache.CountCache} stores the counts by the canonical search condition; its
+ * default time to live is 5 seconds. Each write or delete of a record of the mapper removes all cached counts.
+ * 
+ * The native records inside the caches are shared between all readers, but the instances are not; an instance can be
+ * modified by its reader without affecting other readers.
+ */
+package de.braintags.vertx.jomnigate.cache;
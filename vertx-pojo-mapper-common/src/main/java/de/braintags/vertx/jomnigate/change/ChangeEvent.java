@@ -0,0 +1,158 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.change;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A compact description of a change inside the datastore, which is published by the {@link ChangePublisher} after a
+ * successful write or delete action. It contains the mapper, the action and the ids of the affected records, but not
+ * the records itself. If the ids are not known, like for a deletion by a query, {@link #isAll()} returns true and
+ * all records of the mapper must be treated as changed
+ *
+ * @author Michael Remme
+ *
+ */
+public class ChangeEvent {
+  private static final String MAPPER = "mapper";
+  private static final String ACTION = "action";
+  private static final String IDS = "ids";
+  private static final String ORIGIN = "origin";
+
+  /**
+   * The action, which changed the records
+   */
+  public enum Action {
+    INSERT,
+    UPDATE,
+    DELETE
+  }
+
+  private final String mapper;
+  private final Action action;
+  private final List<String> ids;
+  private final String origin;
+
+  /**
+   * Creates a new instance
+   *
+   * @param mapper
+   *          the name of the mapper class
+   * @param action
+   *          the action, which changed the records
+   * @param ids
+   *          the ids of the changed records or null, if they are not known
+   * @param origin
+   *          the id of the {@link ChangePublisher}, which created the event
+   */
+  public ChangeEvent(String mapper, Action action, List<String> ids, String origin) {
+    this.mapper = mapper;
+    this.action = action;
+    this.ids = ids == null ? null : Collections.unmodifiableList(ids);
+    this.origin = origin;
+  }
+
+  /**
+   * Creates an instance from the message, which was sent over the event bus
+   *
+   * @param json
+   *          the message created by {@link #toJson()}
+   * @return a new instance
+   */
+  public static ChangeEvent fromJson(JsonObject json) {
+    JsonArray array = json.getJsonArray(IDS);
+    List<String> ids = null;
+    if (array != null) {
+      ids = new ArrayList<>(array.size());
+      for (int i = 0; i < array.size(); i++) {
+        ids.add(array.getString(i));
+      }
+    }
+    return new ChangeEvent(json.getString(MAPPER), Action.valueOf(json.getString(ACTION)), ids,
+        json.getString(ORIGIN));
+  }
+
+  /**
+   * Creates the message, which is sent over the event bus
+   *
+   * @return the json representation
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject().put(MAPPER, mapper).put(ACTION, action.name()).put(ORIGIN, origin);
+    if (ids != null) {
+      json.put(IDS, new JsonArray(new ArrayList<>(ids)));
+    }
+    return json;
+  }
+
+  /**
+   * The name of the mapper class of the changed records
+   *
+   * @return the mapper
+   */
+  public String getMapper() {
+    return mapper;
+  }
+
+  /**
+   * The action, which changed the records
+   *
+   * @return the action
+   */
+  public Action getAction() {
+    return action;
+  }
+
+  /**
+   * The ids of the changed records
+   *
+   * @return the ids or null, if the changed records are not known
+   */
+  public List<String> getIds() {
+    return ids;
+  }
+
+  /**
+   * Returns true, if the changed records are not known, so that all records of the mapper must be treated as changed
+   *
+   * @return true, if no ids are defined
+   */
+  public boolean isAll() {
+    return ids == null;
+  }
+
+  /**
+   * The id of the {@link ChangePublisher}, which created the event
+   *
+   * @return the origin
+   */
+  public String getOrigin() {
+    return origin;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJson().encode();
+  }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.change;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.change.ChangeEvent.Action;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWriteEntry;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
+import de.braintags.vertx.jomnigate.dataaccess.write.WriteAction;
+import de.braintags.vertx.jomnigate.init.DataStoreSettings;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The ChangePublisher of an {@link IDataStore} informs about records, which were changed by a successful write or
+ * delete action. Per action and mapper one {@link ChangeEvent} is created, which contains the ids of the affected
+ * records.
+ * If {@link DataStoreSettings#isPublishChanges()} is true, the event is published to the event bus address
+ * {@link #getAddress(Class)} of the mapper, so that other verticles and nodes can invalidate their caches.
+ * Inside the current process handlers can be registered by {@link #subscribe(Class, Handler)}; they receive the events
+ * of the current datastore directly and, if publishing is enabled, the events of other nodes by the event bus.
+ * If publishing is disabled and no handler is registered, the publisher is inactive and no event is created
+ *
+ * @author Michael Remme
+ *
+ */
+public class ChangePublisher {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(ChangePublisher.class);
+  /**
+   * The prefix of the event bus address, where the events of a mapper are published
+   */
+  public static final String ADDRESS_PREFIX = "jomnigate.change.";
+
+  private final IDataStore<?, ?> datastore;
+  private final String id = UUID.randomUUID().toString();
+  private final Map<String, List<Handler<ChangeEvent>>> subscribers = new ConcurrentHashMap<>();
+  private final Map<String, MessageConsumer<JsonObject>> consumers = new ConcurrentHashMap<>();
+  private volatile boolean hasSubscribers;
+
+  /**
+   * Creates a new instance
+   *
+   * @param datastore
+   *          the datastore, whose changes are published
+   */
+  public ChangePublisher(IDataStore<?, ?> datastore) {
+    this.datastore = datastore;
+  }
+
+  /**
+   * Get the event bus address, where the changes of the given mapper class are published
+   *
+   * @param mapperClass
+   *          the mapper class
+   * @return the address
+   */
+  public static String getAddress(Class<?> mapperClass) {
+    return ADDRESS_PREFIX + mapperClass.getName();
+  }
+
+  /**
+   * Returns true, if events must be created, because publishing is enabled or because local handlers are registered
+   *
+   * @return true, if the publisher is active
+   */
+  public boolean isActive() {
+    return hasSubscribers || isPublishEnabled();
+  }
+
+  private boolean isPublishEnabled() {
+    DataStoreSettings settings = datastore.getSettings();
+    return settings != null && settings.isPublishChanges();
+  }
+
+  /**
+   * Publish the records of a successful write action. Inserted and updated records are published by separate events
+   *
+   * @param mapper
+   *          the mapper of the records
+   * @param writeResult
+   *          the result of the write action
+   */
+  public void publish(IMapper<?> mapper, IWriteResult writeResult) {
+    List<String> inserted = new ArrayList<>();
+    List<String> updated = new ArrayList<>();
+    for (IWriteEntry entry : writeResult) {
+      if (entry.getAction() == WriteAction.INSERT) {
+        inserted.add(String.valueOf(entry.getId()));
+      } else if (entry.getAction() != WriteAction.NOT_MATCHED) {
+        updated.add(String.valueOf(entry.getId()));
+      }
+    }
+    if (!inserted.isEmpty()) {
+      publish(mapper, Action.INSERT, inserted);
+    }
+    if (!updated.isEmpty()) {
+      publish(mapper, Action.UPDATE, updated);
+    }
+  }
+
+  /**
+   * Publish a change of records
+   *
+   * @param mapper
+   *          the mapper of the records
+   * @param action
+   *          the action, which changed the records
+   * @param ids
+   *          the ids of the changed records or null, if they are not known
+   */
+  public void publish(IMapper<?> mapper, Action action, List<?> ids) {
+    List<String> idList = null;
+    if (ids != null) {
+      idList = new ArrayList<>(ids.size());
+      for (Object recordId : ids) {
+        idList.add(String.valueOf(recordId));
+      }
+    }
+    ChangeEvent event = new ChangeEvent(mapper.getMapperClass().getName(), action, idList, id);
+    if (isPublishEnabled()) {
+      datastore.getVertx().eventBus().publish(getAddress(mapper.getMapperClass()), event.toJson());
+    }
+    notifySubscribers(event);
+  }
+
+  /**
+   * Register a handler inside the current process, which is informed about the changes of the given mapper class.
+   * Local changes are delivered synchronously before the result handler of the action is informed, so that caches are
+   * invalidated in time; handlers must not block. Exceptions of a handler are logged and don't affect the action
+   *
+   * @param mapperClass
+   *          the mapper class
+   * @param handler
+   *          the handler to be informed
+   */
+  public synchronized void subscribe(Class<?> mapperClass, Handler<ChangeEvent> handler) {
+    String mapperName = mapperClass.getName();
+    subscribers.computeIfAbsent(mapperName, k -> new CopyOnWriteArrayList<>()).add(handler);
+    hasSubscribers = true;
+    if (isPublishEnabled() && !consumers.containsKey(mapperName)) {
+      consumers.put(mapperName, datastore.getVertx().eventBus().<JsonObject> consumer(getAddress(mapperClass), msg -> {
+        ChangeEvent event = ChangeEvent.fromJson(msg.body());
+        if (!id.equals(event.getOrigin())) {
+          notifySubscribers(event);
+        }
+      }));
+    }
+  }
+
+  /**
+   * Remove a handler, which was registered by {@link #subscribe(Class, Handler)}
+   *
+   * @param mapperClass
+   *          the mapper class
+   * @param handler
+   *          the handler to be removed
+   */
+  public synchronized void unsubscribe(Class<?> mapperClass, Handler<ChangeEvent> handler) {
+    String mapperName = mapperClass.getName();
+    List<Handler<ChangeEvent>> handlers = subscribers.get(mapperName);
+    if (handlers != null && handlers.remove(handler) && handlers.isEmpty()) {
+      subscribers.remove(mapperName);
+      MessageConsumer<JsonObject> consumer = consumers.remove(mapperName);
+      if (consumer != null) {
+        consumer.unregister();
+      }
+      hasSubscribers = !subscribers.isEmpty();
+    }
+  }
+
+  private void notifySubscribers(ChangeEvent event) {
+    if (hasSubscribers) {
+      List<Handler<ChangeEvent>> handlers = subscribers.get(event.getMapper());
+      if (handlers != null) {
+        for (Handler<ChangeEvent> handler : handlers) {
+          try {
+            handler.handle(event);
+          } catch (Exception e) {
+            LOGGER.error("error in subscriber of " + event.getMapper(), e);
+          }
+        }
+      }
+    }
+  }
+
+}
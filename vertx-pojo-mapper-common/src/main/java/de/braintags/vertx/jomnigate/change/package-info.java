@@ -0,0 +1,40 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+/**
+ * Applications, which keep records inside local caches, must be informed when those records are changed. Each
+ * IDataStore owns a {@link de.braintags.vertx.jomnigate.change.ChangePublisher}, which creates one compact
+ * {@link de.braintags.vertx.jomnigate.change.ChangeEvent} per successful write or delete action. The event contains
+ * the mapper, the action ( INSERT, UPDATE, DELETE ) and the ids of the affected records, but not the records itself.
+ * 
+ * If the property publishChanges of the {@link de.braintags.vertx.jomnigate.init.DataStoreSettings} is set to true,
+ * the events are published to the event bus address "jomnigate.change.<mapper class name>", so that other verticles
+ * and nodes can react on them.
+ * 
+ * Inside the current process a handler can be registered by
+ * {@link de.braintags.vertx.jomnigate.change.ChangePublisher#subscribe(Class, io.vertx.core.Handler)}. It receives the
+ * events of the local datastore directly and, if publishing is enabled, the events of other nodes from the event bus.
+ * 
+ * [source, java]
+ * ----
+ * datastore.getChangePublisher().subscribe(SimpleMapper.class, event -> {
+ *   if (event.isAll()) {
+ *     cache.clear();
+ *   } else {
+ *     event.getIds().forEach(cache::remove);
+ *   }
+ * });
+ * ----
+ * 
+ * If publishing is disabled and no handler is registered, no events are created at all.
+ */
+package de.braintags.vertx.jomnigate.change;
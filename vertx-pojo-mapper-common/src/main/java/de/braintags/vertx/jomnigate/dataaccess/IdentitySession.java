@@ -0,0 +1,230 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.util.QueryHelper;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * An identity map for the duration of one request. Inside a session each record, identified by its mapper class and
+ * its id, is loaded only once and every access delivers the same instance. Loads of the same record, which are running
+ * at the same time, are combined into one query.
+ * A session can be set into an {@link IQuery} by {@link IQuery#setSession(IdentitySession)}, be used by
+ * {@link QueryHelper#findRecordById(IDataStore, Class, String, IdentitySession, Handler)} and be attached to an
+ * {@link IObserverContext}, so that observers can use it. A session is not thread safe and should be created per
+ * request and dropped, when the request is finished.
+ *
+ * @author Michael Remme
+ *
+ */
+public class IdentitySession {
+  /**
+   * The key, by which a session is stored inside an {@link IObserverContext}
+   */
+  public static final String CONTEXT_KEY = IdentitySession.class.getName();
+
+  private final Map<RecordKey, Entry> records = new HashMap<>();
+
+  /**
+   * Attach the session to the given context
+   *
+   * @param context
+   *          the context of the observers
+   * @param session
+   *          the session to be attached
+   */
+  public static void attach(IObserverContext context, IdentitySession session) {
+    context.put(CONTEXT_KEY, session);
+  }
+
+  /**
+   * Get the session, which was attached to the given context
+   *
+   * @param context
+   *          the context of the observers
+   * @return the session or null, if none was attached
+   */
+  public static IdentitySession get(IObserverContext context) {
+    return (IdentitySession) context.get(CONTEXT_KEY);
+  }
+
+  /**
+   * Get the record with the given id. If the record was loaded already by the current session, the existing instance
+   * is returned; if it is loaded currently, the handler is informed, when this load is finished
+   *
+   * @param datastore
+   *          the datastore to be used
+   * @param mapperClass
+   *          the mapper class
+   * @param id
+   *          the id of the record
+   * @param handler
+   *          the handler to receive the record or null, if it does not exist
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public <T> void findRecordById(IDataStore<?, ?> datastore, Class<T> mapperClass, String id,
+      Handler<AsyncResult<T>> handler) {
+    RecordKey key = new RecordKey(mapperClass, id);
+    Entry entry = records.get(key);
+    if (entry != null && entry.loaded) {
+      handler.handle(Future.succeededFuture((T) entry.instance));
+    } else if (entry != null) {
+      entry.waiting.add((Handler) handler);
+    } else {
+      Entry load = new Entry();
+      load.waiting.add((Handler) handler);
+      records.put(key, load);
+      QueryHelper.findRecordById(datastore, mapperClass, id, res -> {
+        if (res.failed() || res.result() == null) {
+          if (!load.loaded) {
+            records.remove(key, load);
+          }
+          load.finish(res.failed() ? Future.failedFuture(res.cause()) : Future.succeededFuture());
+        } else {
+          load.finish(Future.succeededFuture(res.result()));
+        }
+      });
+    }
+  }
+
+  /**
+   * Get the instance of the record with the given id, if it was loaded by the current session
+   *
+   * @param mapperClass
+   *          the mapper class
+   * @param id
+   *          the id of the record
+   * @return the instance or null, if the record was not loaded yet
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(Class<T> mapperClass, String id) {
+    Entry entry = records.get(new RecordKey(mapperClass, id));
+    return entry != null && entry.loaded ? (T) entry.instance : null;
+  }
+
+  /**
+   * Add a loaded record into the session. If the session contains an instance with the same id already, this
+   * instance is returned, so that each record is represented by one instance
+   *
+   * @param mapper
+   *          the mapper of the record
+   * @param record
+   *          the loaded record
+   * @return the instance, which represents the record inside the session
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T register(IMapper<T> mapper, T record) {
+    Object id = record == null ? null : mapper.getIdInfo().getField().getPropertyAccessor().readData(record);
+    if (id == null) {
+      return record;
+    }
+    RecordKey key = new RecordKey(mapper.getMapperClass(), String.valueOf(id));
+    Entry entry = records.get(key);
+    if (entry == null) {
+      entry = new Entry();
+      records.put(key, entry);
+    }
+    if (!entry.loaded) {
+      entry.finish(Future.succeededFuture(record));
+    }
+    return (T) entry.instance;
+  }
+
+  /**
+   * Remove a record from the session, for instance after it was deleted
+   *
+   * @param mapperClass
+   *          the mapper class
+   * @param id
+   *          the id of the record
+   */
+  public void remove(Class<?> mapperClass, String id) {
+    records.remove(new RecordKey(mapperClass, id));
+  }
+
+  /**
+   * Remove all records from the session
+   */
+  public void clear() {
+    records.clear();
+  }
+
+  /**
+   * Get the number of records inside the session
+   *
+   * @return the number of records
+   */
+  public int size() {
+    return records.size();
+  }
+
+  /**
+   * A record inside the session, which is loaded already or which is loaded currently
+   */
+  private static final class Entry {
+    private final List<Handler<AsyncResult<Object>>> waiting = new ArrayList<>();
+    private boolean loaded;
+    private Object instance;
+
+    /**
+     * Finish the load and inform all handlers, which are waiting for the record. If the record was registered by
+     * another access in the meantime, the registered instance is delivered
+     */
+    void finish(AsyncResult<Object> result) {
+      if (!loaded && result.succeeded()) {
+        loaded = result.result() != null;
+        instance = result.result();
+      }
+      AsyncResult<Object> delivered = result.succeeded() ? Future.succeededFuture(instance) : result;
+      List<Handler<AsyncResult<Object>>> handlers = new ArrayList<>(waiting);
+      waiting.clear();
+      handlers.forEach(h -> h.handle(delivered));
+    }
+  }
+
+  private static final class RecordKey {
+    private final Class<?> mapperClass;
+    private final String id;
+
+    RecordKey(Class<?> mapperClass, String id) {
+      this.mapperClass = mapperClass;
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * mapperClass.hashCode() + id.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof RecordKey)) {
+        return false;
+      }
+      RecordKey other = (RecordKey) obj;
+      return mapperClass == other.mapperClass && id.equals(other.id);
+    }
+  }
+
+}
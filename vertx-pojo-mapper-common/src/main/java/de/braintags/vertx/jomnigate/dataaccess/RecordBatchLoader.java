@@ -0,0 +1,245 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.util.ContextBoundHandler;
+import de.braintags.vertx.jomnigate.util.QueryHelper;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * Combines single loads of records by id into one query. All ids, which are requested during the same event loop
+ * tick or during the defined delay, are collected and loaded by one query with an IN condition on the id field. Each
+ * handler receives its own record or null, if the record does not exist.
+ * Requests of an id, which is waiting or loaded currently, join the existing request. If the maximum batch size is
+ * reached, the batch is executed immediately.
+ * One loader exists per datastore and mapper class; it is held by the datastore and requested by
+ * {@link IDataStore#getRecordBatchLoader(Class)}.
+ * Handlers are informed on the context, where they requested the record.
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the mapper class
+ */
+public class RecordBatchLoader<T> {
+  /**
+   * The default maximum number of ids, which are loaded by one query
+   */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+  private final IDataStore<?, ?> datastore;
+  private final Class<T> mapperClass;
+  private final Map<String, List<ContextBoundHandler<T>>> pending = new LinkedHashMap<>();
+  private final Map<String, List<ContextBoundHandler<T>>> running = new HashMap<>();
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+  private long delay;
+  private boolean scheduled;
+  private long batchCount;
+
+  /**
+   * Creates a new instance. Normally the loader should be requested by {@link IDataStore#getRecordBatchLoader(Class)}
+   *
+   * @param datastore
+   *          the datastore to be used
+   * @param mapperClass
+   *          the mapper class
+   */
+  public RecordBatchLoader(IDataStore<?, ?> datastore, Class<T> mapperClass) {
+    this.datastore = datastore;
+    this.mapperClass = mapperClass;
+  }
+
+  /**
+   * Get the loader for the given datastore and mapper class. This is a shortcut for
+   * {@link IDataStore#getRecordBatchLoader(Class)}
+   *
+   * @param datastore
+   *          the datastore to be used
+   * @param mapperClass
+   *          the mapper class
+   * @return the loader
+   */
+  public static <T> RecordBatchLoader<T> getInstance(IDataStore<?, ?> datastore, Class<T> mapperClass) {
+    return datastore.getRecordBatchLoader(mapperClass);
+  }
+
+  /**
+   * Load the record with the given id. The record is loaded together with all other ids, which are requested until
+   * the batch is executed
+   *
+   * @param id
+   *          the id of the record
+   * @param handler
+   *          the handler to receive the record or null, if it does not exist
+   */
+  public void load(String id, Handler<AsyncResult<T>> handler) {
+    ContextBoundHandler<T> waiter = new ContextBoundHandler<>(handler);
+    List<String> batch = null;
+    synchronized (this) {
+      List<ContextBoundHandler<T>> waiters = running.get(id);
+      if (waiters == null) {
+        waiters = pending.computeIfAbsent(id, k -> new ArrayList<>());
+      }
+      waiters.add(waiter);
+      if (pending.size() >= maxBatchSize) {
+        batch = takeBatch();
+      } else if (!scheduled && !pending.isEmpty()) {
+        scheduled = true;
+        schedule();
+      }
+    }
+    if (batch != null) {
+      execute(batch);
+    }
+  }
+
+  private void schedule() {
+    Vertx vertx = datastore.getVertx();
+    if (delay > 0) {
+      vertx.setTimer(delay, timerId -> executePending());
+    } else {
+      vertx.runOnContext(v -> executePending());
+    }
+  }
+
+  private void executePending() {
+    List<String> batch;
+    synchronized (this) {
+      scheduled = false;
+      batch = takeBatch();
+    }
+    if (!batch.isEmpty()) {
+      execute(batch);
+    }
+  }
+
+  /**
+   * Move the pending ids into the running requests
+   */
+  private List<String> takeBatch() {
+    List<String> batch = new ArrayList<>(pending.keySet());
+    running.putAll(pending);
+    pending.clear();
+    batchCount += batch.isEmpty() ? 0 : 1;
+    return batch;
+  }
+
+  private void execute(List<String> ids) {
+    try {
+      IQuery<T> query = datastore.createQuery(mapperClass);
+      query.setSearchCondition(ISearchCondition.in(query.getMapper().getIdInfo().getIndexedField(), ids));
+      query.execute(null, ids.size(), 0, qr -> {
+        if (qr.failed()) {
+          finish(ids, null, qr.cause());
+        } else {
+          QueryHelper.queryResultToList(qr.result(), lr -> {
+            if (lr.failed()) {
+              finish(ids, null, lr.cause());
+            } else {
+              finish(ids, mapById(query.getMapper(), lr.result()), null);
+            }
+          });
+        }
+      });
+    } catch (Exception e) {
+      finish(ids, null, e);
+    }
+  }
+
+  private Map<String, T> mapById(IMapper<T> mapper, List<T> records) {
+    Map<String, T> result = new HashMap<>();
+    for (T record : records) {
+      Object id = mapper.getIdInfo().getField().getPropertyAccessor().readData(record);
+      result.put(String.valueOf(id), record);
+    }
+    return result;
+  }
+
+  private void finish(List<String> ids, Map<String, T> records, Throwable cause) {
+    Map<String, List<ContextBoundHandler<T>>> finished = new HashMap<>();
+    synchronized (this) {
+      for (String id : ids) {
+        List<ContextBoundHandler<T>> waiters = running.remove(id);
+        if (waiters != null) {
+          finished.put(id, waiters);
+        }
+      }
+    }
+    finished.forEach((id, waiters) -> {
+      AsyncResult<T> result = cause != null ? Future.failedFuture(cause) : Future.succeededFuture(records.get(id));
+      waiters.forEach(w -> w.handle(result));
+    });
+  }
+
+  /**
+   * Get the maximum number of ids, which are loaded by one query
+   *
+   * @return the maxBatchSize
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Set the maximum number of ids, which are loaded by one query. If more ids are requested, the batch is executed
+   * immediately
+   *
+   * @param maxBatchSize
+   *          the maxBatchSize to set
+   */
+  public synchronized void setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * Get the time in milliseconds, during which ids are collected
+   *
+   * @return the delay
+   */
+  public long getDelay() {
+    return delay;
+  }
+
+  /**
+   * Set the time in milliseconds, during which ids are collected, before the batch is executed. A value <= 0 executes
+   * the batch in the next event loop tick
+   *
+   * @param delay
+   *          the delay to set
+   */
+  public synchronized void setDelay(long delay) {
+    this.delay = delay;
+  }
+
+  /**
+   * Get the number of queries, which were executed by the loader
+   *
+   * @return the number of batches
+   */
+  public synchronized long getBatchCount() {
+    return batchCount;
+  }
+
+}
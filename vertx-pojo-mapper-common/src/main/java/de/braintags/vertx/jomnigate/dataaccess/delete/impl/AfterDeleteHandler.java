@@ -18,12 +18,12 @@ import java.util.List;
 
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDeleteResult;
-import de.braintags.vertx.jomnigate.observer.IObserver;
-import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
 import de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 
 /**
  * Handles the event {@link ObserverEventType#AFTER_DELETE }
@@ -37,27 +37,19 @@ public class AfterDeleteHandler extends AbstractEventHandler<IDelete<?>, IDelete
    * (non-Javadoc)
    * 
    * @see
-   * de.braintags.vertx.jomnigate.observer.impl.AbstractEventHandler#createEntityFutureList(de.braintags.vertx.jomnigate
-   * .observer.IObserver, de.braintags.vertx.jomnigate.dataaccess.IDataAccessObject,
-   * de.braintags.vertx.jomnigate.observer.IObserverContext)
+   * de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler#createEventList(java.lang.Object,
+   * de.braintags.vertx.jomnigate.dataaccess.IAccessResult, io.vertx.core.Handler)
    */
-  @SuppressWarnings("rawtypes")
   @Override
-  protected List<Future> createEntityFutureList(IObserver observer, IDelete<?> deleteObject, IDeleteResult result,
-      IObserverContext context) {
-    List<Future> fl = new ArrayList<>();
+  protected void createEventList(IDelete<?> deleteObject, IDeleteResult result,
+      Handler<AsyncResult<List<IObserverEvent>>> handler) {
+    List<IObserverEvent> events = new ArrayList<>(deleteObject.size());
     Iterator<?> selection = ((Delete<?>) deleteObject).getSelection();
     while (selection.hasNext()) {
-      IObserverEvent event = IObserverEvent.createEvent(ObserverEventType.AFTER_DELETE, selection.next(), null,
-          deleteObject, deleteObject.getDataStore());
-      if (observer.canHandleEvent(event, context)) {
-        Future tf = observer.handleEvent(event, context);
-        if (tf != null) {
-          fl.add(tf);
-        }
-      }
+      events.add(IObserverEvent.createEvent(ObserverEventType.AFTER_DELETE, selection.next(), null, deleteObject,
+          deleteObject.getDataStore()));
     }
-    return fl;
+    handler.handle(Future.succeededFuture(events));
   }
 
 }
@@ -21,6 +21,8 @@ import java.util.List;
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.AfterDelete;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.BeforeDelete;
+import de.braintags.vertx.jomnigate.change.ChangeEvent;
+import de.braintags.vertx.jomnigate.change.ChangePublisher;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDeleteResult;
 import de.braintags.vertx.jomnigate.dataaccess.impl.AbstractDataAccessObject;
@@ -29,7 +31,10 @@ import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
 import de.braintags.vertx.jomnigate.dataaccess.query.IdField;
 import de.braintags.vertx.jomnigate.mapping.IIdInfo;
 import de.braintags.vertx.jomnigate.mapping.IProperty;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.observer.IObserverHandler;
+import de.braintags.vertx.jomnigate.observer.ObserverEventType;
 import de.braintags.vertx.util.exception.ParameterRequiredException;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
@@ -75,9 +80,9 @@ public abstract class Delete<T> extends AbstractDataAccessObject<T> implements I
   @Override
   public final void delete(final Handler<AsyncResult<IDeleteResult>> resultHandler) {
     if (getQuery() != null) {
-      deleteQuery(query, resultHandler);
+      deleteQuery(query, publishChanges(null, measure(MetricType.DELETE, 0, resultHandler)));
     } else if (!recordList.isEmpty()) {
-      deleteRecords(resultHandler);
+      deleteRecords(measure(MetricType.DELETE, recordList.size(), resultHandler));
     } else
       throw new ParameterRequiredException("Nor query nor records defined to be deleted");
   }
@@ -117,8 +122,14 @@ public abstract class Delete<T> extends AbstractDataAccessObject<T> implements I
         try {
           Future<IDeleteResult> rf = Future.future();
           rf.setHandler(resultHandler);
-          IObserverContext context = IObserverContext.createInstance();
-          preDelete(context).compose(pre -> doDeleteRecords()).compose(dr -> postDelete(dr, context, rf), rf);
+          IObserverHandler observerHandler = getMapper().getObserverHandler();
+          if (observerHandler.hasObserver(ObserverEventType.BEFORE_DELETE)
+              || observerHandler.hasObserver(ObserverEventType.AFTER_DELETE)) {
+            IObserverContext context = IObserverContext.createInstance();
+            preDelete(context).compose(pre -> doDeleteRecords()).compose(dr -> postDelete(dr, context, rf), rf);
+          } else {
+            doDeleteRecords().setHandler(rf);
+          }
         } catch (Exception e) {
           resultHandler.handle(Future.failedFuture(e));
         }
@@ -135,12 +146,36 @@ public abstract class Delete<T> extends AbstractDataAccessObject<T> implements I
       if (res.failed()) {
         f.fail(res.cause());
       } else {
-        deleteRecordsById(idField, cf.list(), f);
+        deleteRecordsById(idField, cf.list(), publishChanges(cf.list(), f));
       }
     });
     return f;
   }
 
+  /**
+   * If the {@link ChangePublisher} of the datastore is active, the returned handler publishes the deleted records
+   * before the given handler is informed
+   * 
+   * @param ids
+   *          the ids of the deleted records or null, if they are not known
+   * @param resultHandler
+   *          the handler to be informed
+   * @return the handler to be used for the result
+   */
+  private Handler<AsyncResult<IDeleteResult>> publishChanges(final List<Object> ids,
+      final Handler<AsyncResult<IDeleteResult>> resultHandler) {
+    ChangePublisher publisher = getDataStore().getChangePublisher();
+    if (!publisher.isActive()) {
+      return resultHandler;
+    }
+    return res -> {
+      if (res.succeeded()) {
+        publisher.publish(getMapper(), ChangeEvent.Action.DELETE, ids);
+      }
+      resultHandler.handle(res);
+    };
+  }
+
   /**
    * Execution done before instances are deleted from the datastore
    * 
@@ -17,6 +17,8 @@ import de.braintags.vertx.jomnigate.dataaccess.IDataAccessObject;
 import de.braintags.vertx.jomnigate.mapping.IDataStoreSynchronizer;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.ISyncResult;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -95,4 +97,28 @@ public abstract class AbstractDataAccessObject<T> implements IDataAccessObject<T
       resultHandler.handle(Future.succeededFuture());
     }
   }
+
+  /**
+   * If an {@link IMetricsCollector} is set into the datastore, the returned handler records the duration from now
+   * until the result is received, before the given handler is informed
+   * 
+   * @param type
+   *          the type of the operation
+   * @param count
+   *          the number of records, which are handled by the operation
+   * @param resultHandler
+   *          the handler to be informed
+   * @return the handler to be used for the result
+   */
+  protected <R> Handler<AsyncResult<R>> measure(MetricType type, int count, Handler<AsyncResult<R>> resultHandler) {
+    IMetricsCollector metrics = getDataStore().getMetricsCollector();
+    if (metrics == null) {
+      return resultHandler;
+    }
+    long start = System.nanoTime();
+    return res -> {
+      metrics.record(type, mapperClass, System.nanoTime() - start, count);
+      resultHandler.handle(res);
+    };
+  }
 }
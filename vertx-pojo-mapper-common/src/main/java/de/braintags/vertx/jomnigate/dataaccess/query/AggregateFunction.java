@@ -0,0 +1,43 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query;
+
+/**
+ * Defines the functions of an {@link IAggregation}
+ *
+ * @author Michael Remme
+ *
+ */
+public enum AggregateFunction {
+
+  /**
+   * The number of records of a group
+   */
+  COUNT,
+  /**
+   * The sum of the values of a field
+   */
+  SUM,
+  /**
+   * The average of the values of a field
+   */
+  AVG,
+  /**
+   * The smallest value of a field
+   */
+  MIN,
+  /**
+   * The largest value of a field
+   */
+  MAX;
+}
@@ -0,0 +1,124 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.Aggregation;
+
+/**
+ * Defines an aggregation, which is executed by {@link IQuery#executeAggregation(IAggregation, io.vertx.core.Handler)}.
+ * The records, which are selected by the search condition of the query, are grouped by the fields defined by
+ * {@link #groupBy(String)} and for each group the defined functions are computed inside the datastore. Each row of the
+ * result contains the values of the group fields and the results of the functions by their names
+ *
+ * @author Michael Remme
+ *
+ */
+public interface IAggregation {
+
+  /**
+   * Create a new, empty aggregation
+   *
+   * @return a new aggregation
+   */
+  static IAggregation create() {
+    return new Aggregation();
+  }
+
+  /**
+   * Group the records by the given field. If no group field is defined, the functions are computed over all selected
+   * records
+   *
+   * @param fieldName
+   *          the name of the field inside the mapper
+   * @return the aggregation itself for fluent access
+   */
+  IAggregation groupBy(String fieldName);
+
+  /**
+   * Add a function to the aggregation
+   *
+   * @param function
+   *          the function to be computed
+   * @param fieldName
+   *          the name of the field inside the mapper, the function is computed for. Not needed for
+   *          {@link AggregateFunction#COUNT}
+   * @param name
+   *          the name of the result inside the result rows
+   * @return the aggregation itself for fluent access
+   */
+  IAggregation add(AggregateFunction function, String fieldName, String name);
+
+  /**
+   * Count the records of each group
+   *
+   * @param name
+   *          the name of the result inside the result rows
+   * @return the aggregation itself for fluent access
+   */
+  default IAggregation count(final String name) {
+    return add(AggregateFunction.COUNT, null, name);
+  }
+
+  /**
+   * Compute the sum of the given field for each group
+   *
+   * @param fieldName
+   *          the name of the field inside the mapper
+   * @param name
+   *          the name of the result inside the result rows
+   * @return the aggregation itself for fluent access
+   */
+  default IAggregation sum(final String fieldName, final String name) {
+    return add(AggregateFunction.SUM, fieldName, name);
+  }
+
+  /**
+   * Compute the average of the given field for each group
+   *
+   * @param fieldName
+   *          the name of the field inside the mapper
+   * @param name
+   *          the name of the result inside the result rows
+   * @return the aggregation itself for fluent access
+   */
+  default IAggregation avg(final String fieldName, final String name) {
+    return add(AggregateFunction.AVG, fieldName, name);
+  }
+
+  /**
+   * Compute the smallest value of the given field for each group
+   *
+   * @param fieldName
+   *          the name of the field inside the mapper
+   * @param name
+   *          the name of the result inside the result rows
+   * @return the aggregation itself for fluent access
+   */
+  default IAggregation min(final String fieldName, final String name) {
+    return add(AggregateFunction.MIN, fieldName, name);
+  }
+
+  /**
+   * Compute the largest value of the given field for each group
+   *
+   * @param fieldName
+   *          the name of the field inside the mapper
+   * @param name
+   *          the name of the result inside the result rows
+   * @return the aggregation itself for fluent access
+   */
+  default IAggregation max(final String fieldName, final String name) {
+    return add(AggregateFunction.MAX, fieldName, name);
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+/**
+ * An immutable query, which is created by {@link IQuery#prepare()} and which can be executed repeatedly with different
+ * values for the variables of its search condition. The native parts of the search condition, which don't contain
+ * variables, are built once per datastore and reused by each execution. Conditions with variables and the containers
+ * above them are built again on each execution; there is no native template with bind slots.
+ * A prepared query can be shared between verticles and event loops.
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the underlaying mapper class
+ */
+public interface IPreparedQuery<T> {
+
+  /**
+   * Get the mapper class of the query
+   *
+   * @return the mapper class
+   */
+  Class<T> getMapperClass();
+
+  /**
+   * Execute the query
+   *
+   * @param bindings
+   *          replaces the variables in the search condition with an actual value, can be null
+   * @param limit
+   *          the maximum number of results to search
+   * @param offset
+   *          the offset of the first row to return
+   * @param resultHandler
+   *          contains the {@link IQueryResult}
+   */
+  void execute(IFieldValueResolver bindings, int limit, int offset,
+      Handler<AsyncResult<IQueryResult<T>>> resultHandler);
+
+  /**
+   * Execute the query as count
+   *
+   * @param bindings
+   *          replaces the variables in the search condition with an actual value, can be null
+   * @param resultHandler
+   *          contains the {@link IQueryCountResult}
+   */
+  void executeCount(IFieldValueResolver bindings, Handler<AsyncResult<IQueryCountResult>> resultHandler);
+
+}
@@ -16,9 +16,11 @@ import java.util.List;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.dataaccess.IDataAccessObject;
+import de.braintags.vertx.jomnigate.dataaccess.IdentitySession;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
 
 /**
  * Define and execute queries inside the connected {@link IDataStore}
@@ -54,6 +56,60 @@ public interface IQuery<T> extends IDataAccessObject<T> {
   void execute(IFieldValueResolver resolver, int limit, int offset,
       Handler<AsyncResult<IQueryResult<T>>> resultHandler);
 
+  /**
+   * Execute the query with the default limit of the current datastore and return the native records of the datastore
+   * instead of instances of the mapper class. Any variables in the search condition will result in an error. For
+   * queries with variables and custom limit, see {@link #executeRaw(IFieldValueResolver, int, int, Handler)}
+   *
+   * @param resultHandler
+   *          contains the native records
+   */
+  void executeRaw(Handler<AsyncResult<List<JsonObject>>> resultHandler);
+
+  /**
+   * Execute the query and return the native records of the datastore instead of instances of the mapper class. The
+   * only modification of the records is, that the column names are translated into the property names of the mapper.
+   * No typehandlers, lifecycle methods or observers are executed. Combined with {@link #setUseFields(List)} this is the
+   * cheapest way to read data, which shall be passed through unchanged
+   *
+   * @param resolver
+   *          replaces potential variables in the search condition with an actual value, can be null
+   * @param limit
+   *          the maximum number of results to search
+   * @param offset
+   *          the offset of the first row to return
+   * @param resultHandler
+   *          contains the native records
+   */
+  void executeRaw(IFieldValueResolver resolver, int limit, int offset,
+      Handler<AsyncResult<List<JsonObject>>> resultHandler);
+
+  /**
+   * Execute the given aggregation for the records of the query. Any variables in the search condition will result in
+   * an error. For queries with variables, see {@link #executeAggregation(IFieldValueResolver, IAggregation, Handler)}
+   *
+   * @param aggregation
+   *          the definition of groups and functions
+   * @param resultHandler
+   *          contains one row per group
+   */
+  void executeAggregation(IAggregation aggregation, Handler<AsyncResult<List<JsonObject>>> resultHandler);
+
+  /**
+   * Execute the given aggregation for the records of the query. The aggregation is computed inside the datastore, so
+   * that only the resulting rows are transferred. Each row contains the values of the group fields and the results of
+   * the functions by their names. Sort definitions, fields and limits of the query are not used
+   *
+   * @param resolver
+   *          replaces potential variables in the search condition with an actual value, can be null
+   * @param aggregation
+   *          the definition of groups and functions
+   * @param resultHandler
+   *          contains one row per group
+   */
+  void executeAggregation(IFieldValueResolver resolver, IAggregation aggregation,
+      Handler<AsyncResult<List<JsonObject>>> resultHandler);
+
   /**
    * Execute the query by counting the fitting objects. Any variables in the search condition will result in an error.
    * For queries with variables, see {@link #executeCount(IFieldValueResolver, Handler)}
@@ -73,12 +129,30 @@ public interface IQuery<T> extends IDataAccessObject<T> {
   void executeCount(IFieldValueResolver resolver, Handler<AsyncResult<IQueryCountResult>> resultHandler);
 
   /**
-   * Execute the query with the option explain and sends back the suitable information
+   * Explain the query with the default limit of the current datastore. Any variables in the search condition will
+   * result in an error. For queries with variables and custom limit, see
+   * {@link #executeExplain(IFieldValueResolver, int, int, Handler)}
    *
    * @param resultHandler
-   *          contains the {@link IQueryResult}
+   *          contains the {@link IQueryExplain}
+   */
+  void executeExplain(Handler<AsyncResult<IQueryExplain>> resultHandler);
+
+  /**
+   * Explain the query by the datastore and send back the plan, which is used to execute the query. The plan contains
+   * the used indexes, the number of examined records and the execution time, if it is delivered by the datastore
+   *
+   * @param resolver
+   *          replaces potential variables in the search condition with an actual value, can be null
+   * @param limit
+   *          the maximum number of results to search
+   * @param offset
+   *          the offset of the first row to return
+   * @param resultHandler
+   *          contains the {@link IQueryExplain}
    */
-  void executeExplain(Handler<AsyncResult<IQueryResult<T>>> resultHandler);
+  void executeExplain(IFieldValueResolver resolver, int limit, int offset,
+      Handler<AsyncResult<IQueryExplain>> resultHandler);
 
   /**
    * Build the query expression that contains the info needed to execute this query against the current
@@ -91,6 +165,16 @@ public interface IQuery<T> extends IDataAccessObject<T> {
    */
   void buildQueryExpression(IFieldValueResolver resolver, Handler<AsyncResult<IQueryExpression>> resultHandler);
 
+  /**
+   * Create an immutable copy of the current query, which can be executed repeatedly with different values for the
+   * variables of the search condition. The native parts of the search condition without variables are built only once,
+   * the parts with variables are built on each execution.
+   * Changes of the query after the call of this method don't affect the returned instance
+   *
+   * @return the prepared query
+   */
+  IPreparedQuery<T> prepare();
+
   /**
    * If {@link #setLimit(int)} is defined with a value > 0 and this value is set to true, then the
    * {@link IQueryResult#getCompleteResult()} will return the fitting value
@@ -101,6 +185,25 @@ public interface IQuery<T> extends IDataAccessObject<T> {
    */
   IQuery<T> setReturnCompleteCount(boolean returnCompleteCount);
 
+  /**
+   * If set to true, counts of this query without search condition are estimated by the metadata of the datastore
+   * instead of counting the records. This is much faster for big tables, but the result may differ from the exact
+   * number. Counts with a search condition are always exact
+   *
+   * @param estimatedCount
+   *          true, if counts without search condition may be estimated
+   * @return the query itself for fluent access
+   */
+  IQuery<T> setEstimatedCount(boolean estimatedCount);
+
+  /**
+   * Returns true, if counts of this query without search condition are estimated
+   *
+   * @return true, if counts may be estimated
+   * @see #setEstimatedCount(boolean)
+   */
+  boolean isEstimatedCount();
+
   /**
    * Add a field to sort the resulting selection by. This method is the same than addSort( fieldName, true )
    *
@@ -183,4 +286,21 @@ public interface IQuery<T> extends IDataAccessObject<T> {
    */
   List<String> getUseFields();
 
+  /**
+   * Set the {@link IdentitySession} of the current request. Found records are added into the session; if the session
+   * contains an instance of a found record already, this instance is returned instead of a new one. The session is
+   * attached to the {@link de.braintags.vertx.jomnigate.observer.IObserverContext} of the query as well
+   *
+   * @param session
+   *          the session or null
+   */
+  void setSession(IdentitySession session);
+
+  /**
+   * Get the {@link IdentitySession} of the current request
+   *
+   * @return the session or null
+   */
+  IdentitySession getSession();
+
 }
@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query;
+
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The result of an executed {@link IQuery#executeExplain(io.vertx.core.Handler)}. It contains the most important
+ * information about the plan, which the datastore uses to execute the query, and the native plan
+ *
+ * @author Michael Remme
+ *
+ */
+public interface IQueryExplain {
+
+  /**
+   * Get the original query, which was explained by the datastore
+   *
+   * @return the query
+   */
+  IQueryExpression getOriginalQuery();
+
+  /**
+   * Get the names of the indexes, which are used to execute the query
+   *
+   * @return the names of the used indexes, an empty list, if no index is used
+   */
+  List<String> getUsedIndexes();
+
+  /**
+   * Returns true, if the datastore reads all records of the table or collection to execute the query
+   *
+   * @return true for a full scan
+   */
+  boolean isFullScan();
+
+  /**
+   * Get the number of records, which are examined by the datastore to execute the query. Depending on the datastore
+   * this is the exact number or an estimation
+   *
+   * @return the number of examined records or -1, if not known
+   */
+  long getExamined();
+
+  /**
+   * Get the number of records, which are returned by the query. Depending on the datastore this is the exact number or
+   * an estimation
+   *
+   * @return the number of returned records or -1, if not known
+   */
+  long getReturned();
+
+  /**
+   * Get the time in milliseconds, which was needed to execute the query
+   *
+   * @return the execution time or -1, if the datastore doesn't execute the query to explain it
+   */
+  long getExecutionTime();
+
+  /**
+   * Get the plan as it was delivered by the datastore
+   *
+   * @return the native plan
+   */
+  JsonObject getNativePlan();
+
+}
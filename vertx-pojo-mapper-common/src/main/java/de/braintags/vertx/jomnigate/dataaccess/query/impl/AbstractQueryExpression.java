@@ -81,8 +81,8 @@ public abstract class AbstractQueryExpression<T> implements IQueryExpression {
   /**
    * Build the abstract search condition into the native search condition of the query. Can be used recursively for
    * conditions that contain more than one sub condition (AND, OR, ..)
-   * If the condition is an {@link IFieldCondition}, and was already built before and cached, this method
-   * directly returns the result without rebuilding it
+   * If the condition is an {@link IFieldCondition} or a {@link PreparedConditionContainer} without variables, and was
+   * already built before and cached, this method directly returns the result without rebuilding it
    *
    * @param searchCondition
    *          the query search condition
@@ -113,6 +113,19 @@ public abstract class AbstractQueryExpression<T> implements IQueryExpression {
           }
         });
       }
+    } else if (searchCondition instanceof PreparedConditionContainer) {
+      PreparedConditionContainer container = (PreparedConditionContainer) searchCondition;
+      Object cachedResult = container.getIntermediateResult(getClass());
+      if (cachedResult != null) {
+        handler.handle(Future.succeededFuture((T) cachedResult));
+      } else {
+        parseSearchConditionContainer(container, resolver, result -> {
+          if (result.succeeded()) {
+            container.setIntermediateResult(getClass(), result.result());
+          }
+          handler.handle(result);
+        });
+      }
     } else if (searchCondition instanceof ISearchConditionContainer) {
       parseSearchConditionContainer((ISearchConditionContainer) searchCondition, resolver, handler);
     } else {
@@ -168,6 +181,29 @@ public abstract class AbstractQueryExpression<T> implements IQueryExpression {
   protected abstract T buildFieldConditionResult(IFieldCondition fieldCondition, String columnName,
       JsonNode parsedValue) throws UnknownQueryOperatorException;
 
+  /**
+   * Convert a value node of a condition into its java value without the overhead of the object mapper. Texts, integer,
+   * long and double numbers and booleans are converted directly
+   *
+   * @param node
+   *          the node to be converted
+   * @return the java value or null, if the node is no simple value and must be converted by the object mapper
+   */
+  protected static Object toSimpleValue(final JsonNode node) {
+    if (node.isTextual()) {
+      return node.textValue();
+    } else if (node.isInt()) {
+      return node.intValue();
+    } else if (node.isLong()) {
+      return node.longValue();
+    } else if (node.isDouble()) {
+      return node.doubleValue();
+    } else if (node.isBoolean()) {
+      return node.booleanValue();
+    }
+    return null;
+  }
+
   /**
    * Special case for null values, to avoid costly, unneeded transformation
    *
@@ -14,13 +14,18 @@
 package de.braintags.vertx.jomnigate.dataaccess.query.impl;
 
 import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.cache.EntityCache;
+import de.braintags.vertx.jomnigate.dataaccess.IdentitySession;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import de.braintags.vertx.util.AbstractCollectionAsync;
 import de.braintags.vertx.util.IteratorAsync;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
 
 /**
  * An abstract implementation of IQueryResult. Extensions must implement one method to generate single pojos
@@ -39,6 +44,10 @@ public abstract class AbstractQueryResult<T> extends AbstractCollectionAsync<T>
   private T[] pojoResult;
   private IQueryExpression originalQuery;
   private long completeResult;
+  private IdentitySession session;
+  private EntityCache<T> entityCache;
+  private long cacheGeneration;
+  private volatile boolean shared;
 
   /**
    * Constructor
@@ -80,6 +89,33 @@ public abstract class AbstractQueryResult<T> extends AbstractCollectionAsync<T>
    */
   protected abstract void generatePojo(int i, Handler<AsyncResult<T>> handler);
 
+  /**
+   * Get the native record at position i, which is added to the {@link EntityCache} of the mapper. Extensions, which
+   * can't deliver the native record, return null; their instances are not cached then
+   *
+   * @param i
+   *          the position inside the result from the datastore
+   * @return the native record, which must not be modified, or null
+   */
+  protected JsonObject getNativeRecord(int i) {
+    return null;
+  }
+
+  /**
+   * Create the pojo at position i and add a copy of its native record to the cache of the mapper, if one was set. The
+   * copy is taken before the pojo is created, because creating an instance may modify the native record
+   */
+  private void generateCachedPojo(int i, Handler<AsyncResult<T>> handler) {
+    JsonObject nativeRecord = entityCache == null ? null : getNativeRecord(i);
+    JsonObject cachedRecord = nativeRecord == null ? null : nativeRecord.copy();
+    generatePojo(i, result -> {
+      if (result.succeeded() && cachedRecord != null) {
+        entityCache.put(result.result(), cachedRecord, cacheGeneration);
+      }
+      handler.handle(result);
+    });
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -129,11 +165,17 @@ public abstract class AbstractQueryResult<T> extends AbstractCollectionAsync<T>
       if (pojoResult[thisIndex] == null) {
         LOGGER
             .debug("generating pojo on index " + thisIndex + " for mapper " + mapper.getMapperClass().getSimpleName());
-        generatePojo(thisIndex, result -> {
+        IMetricsCollector metrics = datastore.getMetricsCollector();
+        long start = metrics == null ? 0 : System.nanoTime();
+        generateCachedPojo(thisIndex, result -> {
+          if (metrics != null) {
+            metrics.record(MetricType.MAPPING_READ, mapper.getMapperClass(), System.nanoTime() - start, 1);
+          }
           if (result.failed()) {
             handler.handle(Future.failedFuture(result.cause()));
           } else {
-            pojoResult[thisIndex] = result.result();
+            T pojo = result.result();
+            pojoResult[thisIndex] = session == null ? pojo : session.register(mapper, pojo);
             handler.handle(Future.succeededFuture(pojoResult[thisIndex]));
           }
         });
@@ -161,6 +203,60 @@ public abstract class AbstractQueryResult<T> extends AbstractCollectionAsync<T>
     this.completeResult = completeResult;
   }
 
+  /**
+   * Set the session of the current request. Each generated instance is registered in the session, so that one record
+   * is represented by one instance
+   *
+   * @param session
+   *          the session to be used
+   */
+  final void setSession(IdentitySession session) {
+    this.session = session;
+  }
+
+  /**
+   * Create a pojo for a {@link SharedQueryResult} and add it to the cache of the mapper, if one was set
+   *
+   * @param i
+   *          the position inside the result from the datastore
+   * @param handler
+   */
+  final void generateSharedPojo(int i, Handler<AsyncResult<T>> handler) {
+    generateCachedPojo(i, handler);
+  }
+
+  /**
+   * Mark the current instance as shared by several {@link SharedQueryResult}. Instances are then created by several
+   * callers from the same native record, so that extensions must not modify the native record
+   */
+  final void setShared() {
+    this.shared = true;
+  }
+
+  /**
+   * Returns true, if the current instance is shared by several callers. In that case
+   * {@link #generatePojo(int, Handler)} must create each instance from a copy of the native record, because creating an
+   * instance may modify the record
+   *
+   * @return true, if the native records are shared
+   */
+  protected final boolean isShared() {
+    return shared;
+  }
+
+  /**
+   * Set the cache of the mapper, where the native record of each generated instance is added
+   *
+   * @param entityCache
+   *          the cache of the mapper
+   * @param cacheGeneration
+   *          the generation of the cache, which was valid before the query was executed
+   */
+  final void setEntityCache(EntityCache<T> entityCache, long cacheGeneration) {
+    this.entityCache = entityCache;
+    this.cacheGeneration = cacheGeneration;
+  }
+
   @Override
   public String toString() {
     return String.valueOf(originalQuery);
@@ -0,0 +1,167 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.AggregateFunction;
+import de.braintags.vertx.jomnigate.dataaccess.query.IAggregation;
+import de.braintags.vertx.jomnigate.dataaccess.query.IIndexedField;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Implementation of {@link IAggregation}. Inside the native statements the group fields and the functions are named
+ * by their position, by {@link #getGroupKey(int)} and {@link #getFunctionKey(int)}, so that the names defined by the
+ * user never become part of a native statement. The native rows are translated by {@link #translateRow(JsonObject)}
+ *
+ * @author Michael Remme
+ *
+ */
+public class Aggregation implements IAggregation {
+  private final List<String> groupFields = new ArrayList<>();
+  private final List<AggregateArgument> functions = new ArrayList<>();
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IAggregation#groupBy(java.lang.String)
+   */
+  @Override
+  public IAggregation groupBy(final String fieldName) {
+    groupFields.add(Objects.requireNonNull(fieldName, "fieldName"));
+    return this;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IAggregation#add(de.braintags.vertx.jomnigate.dataaccess.query.
+   * AggregateFunction, java.lang.String, java.lang.String)
+   */
+  @Override
+  public IAggregation add(final AggregateFunction function, final String fieldName, final String name) {
+    Objects.requireNonNull(function, "function");
+    Objects.requireNonNull(name, "name");
+    if (fieldName == null && function != AggregateFunction.COUNT) {
+      throw new IllegalArgumentException("the function " + function + " needs a field");
+    }
+    functions.add(new AggregateArgument(function, fieldName, name));
+    return this;
+  }
+
+  /**
+   * Get the fields, by which the records are grouped
+   *
+   * @return the group fields
+   */
+  public final List<String> getGroupFields() {
+    return groupFields;
+  }
+
+  /**
+   * Get the functions of the aggregation
+   *
+   * @return the functions
+   */
+  public final List<AggregateArgument> getFunctions() {
+    return functions;
+  }
+
+  /**
+   * Get the name of the group field at the given position inside the native statement
+   *
+   * @param index
+   *          the position of the group field
+   * @return the native name
+   */
+  public static String getGroupKey(final int index) {
+    return "g" + index;
+  }
+
+  /**
+   * Get the name of the function at the given position inside the native statement
+   *
+   * @param index
+   *          the position of the function
+   * @return the native name
+   */
+  public static String getFunctionKey(final int index) {
+    return "f" + index;
+  }
+
+  /**
+   * Get the name of the column of the given field inside the datastore
+   *
+   * @param mapper
+   *          the mapper of the query
+   * @param fieldName
+   *          the name of the field inside the mapper
+   * @return the name of the column
+   */
+  public static String getColumnName(final IMapper<?> mapper, final String fieldName) {
+    return IIndexedField.create(fieldName).getColumnName(mapper);
+  }
+
+  /**
+   * Translate a native row, whose entries are named by {@link #getGroupKey(int)} and {@link #getFunctionKey(int)},
+   * into a row with the names of the group fields and of the functions
+   *
+   * @param nativeRow
+   *          the row from the datastore
+   * @return the translated row
+   */
+  public JsonObject translateRow(final JsonObject nativeRow) {
+    JsonObject row = new JsonObject();
+    for (int i = 0; i < groupFields.size(); i++) {
+      row.put(groupFields.get(i), nativeRow.getValue(getGroupKey(i)));
+    }
+    for (int i = 0; i < functions.size(); i++) {
+      row.put(functions.get(i).name, nativeRow.getValue(getFunctionKey(i)));
+    }
+    return row;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return "group by " + groupFields + ": " + functions;
+  }
+
+  /**
+   * A function of the aggregation
+   */
+  public static class AggregateArgument {
+    public final AggregateFunction function;
+    public final String fieldName;
+    public final String name;
+
+    AggregateArgument(final AggregateFunction function, final String fieldName, final String name) {
+      this.function = function;
+      this.fieldName = fieldName;
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return name + " = " + function + "(" + (fieldName == null ? "*" : fieldName) + ")";
+    }
+  }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query.impl;
+
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.cache.EntityCache;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * An implementation of IQueryResult, which contains records delivered by the {@link EntityCache} of a mapper. Each
+ * instance is created from a copy of the cached native record, so that the callers don't share instances
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the class of the mapper, which builds the result
+ */
+public class CachedQueryResult<T> extends AbstractQueryResult<T> {
+  private final List<JsonObject> records;
+
+  /**
+   * Constructor
+   *
+   * @param datastore
+   *          the datastore which was used
+   * @param mapper
+   *          the mapper which was used
+   * @param records
+   *          the native records from the cache
+   */
+  public CachedQueryResult(IDataStore datastore, IMapper<T> mapper, List<JsonObject> records) {
+    super(datastore, mapper, records.size(), null);
+    this.records = records;
+    setCompleteResult(records.size());
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult#generatePojo(int,
+   * io.vertx.core.Handler)
+   */
+  @Override
+  protected void generatePojo(int i, Handler<AsyncResult<T>> handler) {
+    IStoreObjectFactory<JsonObject> sf = getDataStore().getStoreObjectFactory();
+    sf.createStoreObject(records.get(i).copy(), getMapper(), result -> {
+      if (result.failed()) {
+        handler.handle(Future.failedFuture(result.cause()));
+      } else {
+        handler.handle(Future.succeededFuture(result.result().getEntity()));
+      }
+    });
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult#toString()
+   */
+  @Override
+  public String toString() {
+    return "cached: " + records.size() + " records of " + getMapper().getMapperClass().getSimpleName();
+  }
+
+}
@@ -12,13 +12,17 @@
  */
 package de.braintags.vertx.jomnigate.dataaccess.query.impl;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IFieldCondition;
 import de.braintags.vertx.jomnigate.dataaccess.query.IIndexedField;
@@ -45,7 +49,7 @@ public class FieldCondition implements IFieldCondition {
   private final QueryOperator operator;
   private final JsonNode value;
 
-  private final Map<Class<? extends IQueryExpression>, Object> cacheMap = new HashMap<>(1);
+  private final Map<Class<? extends IQueryExpression>, Object> cacheMap = new ConcurrentHashMap<>(1);
 
   /**
    * Creates a complete field condition
@@ -60,8 +64,14 @@ public class FieldCondition implements IFieldCondition {
   public FieldCondition(final IIndexedField field, final QueryOperator logic, @Nullable final Object value) {
     this.field = field;
     this.operator = logic;
-    this.value = transformObject(value);
-    validateValue(value);
+    JsonNode simpleValue = transformSimpleObject(value);
+    if (simpleValue != null || value == null) {
+      // simple values and arrays of them are always valid
+      this.value = simpleValue;
+    } else {
+      this.value = Json.mapper.convertValue(value, JsonNode.class);
+      validateValue(value);
+    }
   }
 
   @JsonCreator
@@ -71,9 +81,62 @@ public class FieldCondition implements IFieldCondition {
     this.value = value;
   }
 
+  /**
+   * Transform the given value into a JsonNode. Strings, numbers, booleans, dates and collections or arrays of them are
+   * converted directly, other values by the mapper of {@link Json}
+   *
+   * @param object
+   *          the value to be transformed
+   * @return the transformed value or null
+   */
   public static JsonNode transformObject(@Nullable final Object object) {
-    JsonNode node = Json.mapper.convertValue(object, JsonNode.class);
-    return node;
+    JsonNode node = transformSimpleObject(object);
+    return node != null || object == null ? node : Json.mapper.convertValue(object, JsonNode.class);
+  }
+
+  /**
+   * Transform simple values into a JsonNode without the overhead of the object mapper. The created nodes are the same
+   * as the ones created by the mapper
+   *
+   * @param object
+   *          the value to be transformed
+   * @return the transformed value or null, if the value is null or no simple value
+   */
+  private static JsonNode transformSimpleObject(final Object object) {
+    if (object instanceof String) {
+      return JsonNodeFactory.instance.textNode((String) object);
+    } else if (object instanceof Integer || object instanceof Short || object instanceof Byte) {
+      return JsonNodeFactory.instance.numberNode(((Number) object).intValue());
+    } else if (object instanceof Long) {
+      return JsonNodeFactory.instance.numberNode((Long) object);
+    } else if (object instanceof Double) {
+      return JsonNodeFactory.instance.numberNode((Double) object);
+    } else if (object instanceof Boolean) {
+      return JsonNodeFactory.instance.booleanNode((Boolean) object);
+    } else if (object instanceof Date && Json.mapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+      return JsonNodeFactory.instance.numberNode(((Date) object).getTime());
+    } else if (object instanceof Collection) {
+      return transformSimpleArray(((Collection<?>) object).toArray());
+    } else if (object instanceof Object[]) {
+      return transformSimpleArray((Object[]) object);
+    }
+    return null;
+  }
+
+  private static JsonNode transformSimpleArray(final Object[] values) {
+    ArrayNode array = JsonNodeFactory.instance.arrayNode();
+    for (Object entry : values) {
+      if (entry == null) {
+        array.addNull();
+      } else {
+        JsonNode node = transformSimpleObject(entry);
+        if (node == null || node.isArray()) {
+          return null;
+        }
+        array.add(node);
+      }
+    }
+    return array;
   }
 
   /*
@@ -85,7 +148,9 @@ public class FieldCondition implements IFieldCondition {
   @Override
   @JsonIgnore
   public void setIntermediateResult(final Class<? extends IQueryExpression> queryExpressionClass, final Object result) {
-    cacheMap.put(queryExpressionClass, result);
+    if (result != null) {
+      cacheMap.put(queryExpressionClass, result);
+    }
   }
 
   /*
@@ -0,0 +1,130 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchConditionContainer;
+import de.braintags.vertx.jomnigate.dataaccess.query.IVariableFieldCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.QueryLogic;
+
+/**
+ * A copy of a search condition container, which is used by a {@link PreparedQuery}. If the container doesn't contain
+ * any variable, the native result of the container is cached per {@link IQueryExpression} class, like it is done for
+ * field conditions, so that it is built only once. A container with variables isn't cached; it is built again on each
+ * execution from the cached results of its constant children and the newly resolved variable conditions
+ *
+ * @author Michael Remme
+ *
+ */
+public class PreparedConditionContainer extends AbstractSearchConditionContainer {
+  private final QueryLogic queryLogic;
+  private final boolean constant;
+  private final Map<Class<? extends IQueryExpression>, Object> cacheMap = new ConcurrentHashMap<>(1);
+
+  private PreparedConditionContainer(final QueryLogic queryLogic, final boolean constant,
+      final ISearchCondition... conditions) {
+    super(conditions);
+    this.queryLogic = queryLogic;
+    this.constant = constant;
+  }
+
+  /**
+   * Creates a copy of the given search condition, where each container is replaced by a PreparedConditionContainer.
+   * Field conditions are taken unchanged
+   *
+   * @param searchCondition
+   *          the search condition to be copied, can be null
+   * @return the copy
+   */
+  public static ISearchCondition prepare(final ISearchCondition searchCondition) {
+    if (!(searchCondition instanceof ISearchConditionContainer)) {
+      return searchCondition;
+    }
+    ISearchConditionContainer container = (ISearchConditionContainer) searchCondition;
+    List<ISearchCondition> children = new ArrayList<>(container.getConditions().size());
+    boolean constant = true;
+    for (ISearchCondition child : container.getConditions()) {
+      ISearchCondition prepared = prepare(child);
+      constant &= isConstant(prepared);
+      children.add(prepared);
+    }
+    return new PreparedConditionContainer(container.getQueryLogic(), constant,
+        children.toArray(new ISearchCondition[children.size()]));
+  }
+
+  private static boolean isConstant(final ISearchCondition searchCondition) {
+    if (searchCondition instanceof PreparedConditionContainer) {
+      return ((PreparedConditionContainer) searchCondition).isConstant();
+    }
+    return searchCondition instanceof IFieldCondition && !(searchCondition instanceof IVariableFieldCondition);
+  }
+
+  /**
+   * Returns true, if the container and its children don't contain any variable
+   *
+   * @return true, if the native result of the container can be cached
+   */
+  @JsonIgnore
+  public boolean isConstant() {
+    return constant;
+  }
+
+  /**
+   * Cache the intermediate result of the conversion from this container to the native database object. The result is
+   * ignored, if the container contains variables
+   *
+   * @param queryExpressionClass
+   *          the class of the query expression that did this conversion
+   * @param result
+   *          the intermediate result of the conversion
+   */
+  @JsonIgnore
+  public void setIntermediateResult(final Class<? extends IQueryExpression> queryExpressionClass,
+      final Object result) {
+    if (constant && result != null) {
+      cacheMap.put(queryExpressionClass, result);
+    }
+  }
+
+  /**
+   * Get the cached result of the conversion, if it was converted before
+   *
+   * @param queryExpressionClass
+   *          the class of the query expression that did this conversion
+   * @return the intermediate result, if it was generated and cached, null otherwise
+   */
+  @JsonIgnore
+  public Object getIntermediateResult(final Class<? extends IQueryExpression> queryExpressionClass) {
+    return cacheMap.get(queryExpressionClass);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.ISearchConditionContainer#getQueryLogic()
+   */
+  @Override
+  @JsonIgnore
+  public QueryLogic getQueryLogic() {
+    return queryLogic;
+  }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldValueResolver;
+import de.braintags.vertx.jomnigate.dataaccess.query.IPreparedQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryCountResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.SortDefinition.SortArgument;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Implementation of {@link IPreparedQuery}. The definitions of the originating query are copied at creation, so that
+ * later changes of the query don't affect the prepared query. Containers of the search condition are replaced by
+ * {@link PreparedConditionContainer}, which keep their native result, if they don't contain variables. Variable
+ * conditions are resolved and converted on each execution and their containers are rebuilt.
+ * Each execution runs on a new instance of {@link Query}, so that no state is shared between executions beside the
+ * cached native results of the search condition
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the underlaying mapper class
+ */
+public class PreparedQuery<T> implements IPreparedQuery<T> {
+  private final IDataStore<?, ?> datastore;
+  private final Class<T> mapperClass;
+  private final ISearchCondition searchCondition;
+  private final List<SortArgument> sortArguments;
+  private final List<String> useFields;
+  private final Object nativeCommand;
+  private final boolean returnCompleteCount;
+  private final boolean estimatedCount;
+
+  /**
+   * Creates a prepared query from the current definitions of the given query
+   *
+   * @param query
+   *          the query to be prepared
+   */
+  public PreparedQuery(final Query<T> query) {
+    this.datastore = query.getDataStore();
+    this.mapperClass = query.getMapperClass();
+    this.searchCondition = PreparedConditionContainer.prepare(query.getSearchCondition());
+    this.sortArguments = Collections
+        .unmodifiableList(new ArrayList<>(((SortDefinition<T>) query.getSortDefinitions()).getSortArguments()));
+    this.useFields = query.getUseFields().isEmpty() ? null
+        : Collections.unmodifiableList(new ArrayList<>(query.getUseFields()));
+    Object command = query.getNativeCommand();
+    this.nativeCommand = command instanceof JsonObject ? ((JsonObject) command).copy() : command;
+    this.returnCompleteCount = query.isReturnCompleteCount();
+    this.estimatedCount = query.isEstimatedCount();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IPreparedQuery#getMapperClass()
+   */
+  @Override
+  public Class<T> getMapperClass() {
+    return mapperClass;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IPreparedQuery#execute(de.braintags.vertx.jomnigate.dataaccess.
+   * query.IFieldValueResolver, int, int, io.vertx.core.Handler)
+   */
+  @Override
+  public void execute(final IFieldValueResolver bindings, final int limit, final int offset,
+      final Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
+    createQuery().execute(bindings, limit, offset, resultHandler);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IPreparedQuery#executeCount(de.braintags.vertx.jomnigate.
+   * dataaccess.query.IFieldValueResolver, io.vertx.core.Handler)
+   */
+  @Override
+  public void executeCount(final IFieldValueResolver bindings,
+      final Handler<AsyncResult<IQueryCountResult>> resultHandler) {
+    createQuery().executeCount(bindings, resultHandler);
+  }
+
+  /**
+   * Create the query for one execution. The search condition was validated by the originating query and is set
+   * without further validation
+   */
+  private Query<T> createQuery() {
+    Query<T> query = (Query<T>) datastore.createQuery(mapperClass);
+    query.setPreparedCondition(searchCondition);
+    sortArguments.forEach(sa -> query.addSort(sa.fieldName, sa.ascending));
+    query.setUseFields(useFields);
+    if (nativeCommand != null) {
+      query.setNativeCommand(nativeCommand);
+    }
+    query.setReturnCompleteCount(returnCompleteCount);
+    query.setEstimatedCount(estimatedCount);
+    return query;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return "prepared " + mapperClass.getSimpleName() + ": " + searchCondition;
+  }
+
+}
@@ -13,20 +13,43 @@
 package de.braintags.vertx.jomnigate.dataaccess.query.impl;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
 import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.advisor.IndexAdvisor;
+import de.braintags.vertx.jomnigate.cache.CountCache;
+import de.braintags.vertx.jomnigate.cache.EntityCache;
+import de.braintags.vertx.jomnigate.cache.QueryCache;
+import de.braintags.vertx.jomnigate.dataaccess.IdentitySession;
 import de.braintags.vertx.jomnigate.dataaccess.impl.AbstractDataAccessObject;
+import de.braintags.vertx.jomnigate.dataaccess.query.IAggregation;
+import de.braintags.vertx.jomnigate.dataaccess.query.IFieldCondition;
 import de.braintags.vertx.jomnigate.dataaccess.query.IFieldValueResolver;
+import de.braintags.vertx.jomnigate.dataaccess.query.IPreparedQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryCountResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISortDefinition;
+import de.braintags.vertx.jomnigate.dataaccess.query.IVariableFieldCondition;
+import de.braintags.vertx.jomnigate.dataaccess.query.QueryOperator;
+import de.braintags.vertx.jomnigate.mapping.IProperty;
+import de.braintags.vertx.jomnigate.mapping.datastore.IColumnInfo;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.observer.IObserverHandler;
+import de.braintags.vertx.jomnigate.observer.ObserverEventType;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
 
 /**
  * An abstract implementation of {@link IQuery}
@@ -41,9 +64,11 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
 
   private ISearchCondition searchCondition;
   private boolean returnCompleteCount = false;
+  private boolean estimatedCount = false;
   private final SortDefinition<T> sortDefs = new SortDefinition<>();
   private List<String> useFields;
   private Object nativeCommand;
+  private IdentitySession session;
 
   /**
    * @param mapperClass
@@ -78,11 +103,20 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
         resultHandler.handle(Future.failedFuture(syncResult.cause()));
       } else {
         try {
-          Future<IQueryResult<T>> rf = Future.future();
-          rf.setHandler(resultHandler);
-          IObserverContext context = IObserverContext.createInstance();
-          preQuery(context).compose(pre -> executeQuery(resolver, limit, offset))
-              .compose(wr -> postQuery(wr, context, rf), rf);
+          IObserverHandler observerHandler = getMapper().getObserverHandler();
+          if (observerHandler.hasObserver(ObserverEventType.BEFORE_LOAD)
+              || observerHandler.hasObserver(ObserverEventType.AFTER_LOAD)) {
+            IObserverContext context = IObserverContext.createInstance();
+            if (session != null) {
+              IdentitySession.attach(context, session);
+            }
+            Future<IQueryResult<T>> rf = Future.future();
+            rf.setHandler(resultHandler);
+            preQuery(context).compose(pre -> loadResult(resolver, limit, offset))
+                .compose(wr -> postQuery(wr, context, rf), rf);
+          } else {
+            loadResult(resolver, limit, offset).setHandler(resultHandler);
+          }
         } catch (Exception e) {
           resultHandler.handle(Future.failedFuture(e));
         }
@@ -90,21 +124,525 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
     });
   }
 
+  /**
+   * Load the result from the {@link EntityCache} or the {@link QueryCache} of the mapper, if possible, or execute the
+   * query by the datastore otherwise. A result, which is added to the query cache, is shared; each caller receives its
+   * own {@link SharedQueryResult}, which creates its own instances
+   */
+  private Future<IQueryResult<T>> loadResult(final IFieldValueResolver resolver, final int limit, final int offset) {
+    List<JsonObject> cachedRecords = resolver == null ? readFromCache() : null;
+    if (cachedRecords != null) {
+      return Future.succeededFuture(createCachedResult(cachedRecords, limit, offset));
+    }
+    String queryKey = resolver == null ? createQueryCacheKey(limit, offset) : null;
+    if (queryKey == null) {
+      return executeQuery(resolver, limit, offset);
+    }
+    QueryCache<T> queryCache = getMapper().getQueryCache();
+    IQueryResult<T> cachedResult = queryCache.get(queryKey);
+    if (cachedResult != null) {
+      return Future.succeededFuture(new SharedQueryResult<>((AbstractQueryResult<T>) cachedResult));
+    }
+    long generation = queryCache.getGeneration();
+    Future<IQueryResult<T>> f = Future.future();
+    executeQuery(resolver, limit, offset).setHandler(qr -> {
+      if (qr.succeeded() && qr.result() instanceof AbstractQueryResult) {
+        // the cached view is never iterated, it only keeps the shared result and its complete count
+        SharedQueryResult<T> shared = new SharedQueryResult<>((AbstractQueryResult<T>) qr.result());
+        queryCache.put(queryKey, shared, generation);
+        f.complete(new SharedQueryResult<>(shared));
+      } else {
+        f.handle(qr);
+      }
+    });
+    return f;
+  }
+
   private final Future<IQueryResult<T>> executeQuery(final IFieldValueResolver resolver, final int limit,
       final int offset) {
     Future<IQueryResult<T>> f = Future.future();
+    long slowQueryThreshold = getDataStore().getSettings().getSlowQueryThreshold();
+    IMetricsCollector metrics = getDataStore().getMetricsCollector();
+    long start = slowQueryThreshold > 0 || metrics != null ? System.nanoTime() : 0;
     buildQueryExpression(resolver, result -> {
       if (result.failed()) {
         f.fail(result.cause());
       } else {
         IQueryExpression queryExpression = result.result();
         queryExpression.setLimit(limit, offset);
-        internalExecute(queryExpression, f);
+        Future<Long> completeCount = startCompleteCount(queryExpression);
+        Future<IQueryResult<T>> measured = metrics != null ? recordQuery(metrics, start, f) : f;
+        Future<IQueryResult<T>> done = slowQueryThreshold > 0
+            ? logSlowQuery(queryExpression, start, slowQueryThreshold, measured)
+            : measured;
+        Future<IQueryResult<T>> found = Future.future();
+        found.setHandler(qr -> setCompleteCount(qr, queryExpression, completeCount, done));
+        EntityCache<T> cache = isCacheable() ? getMapper().getEntityCache() : null;
+        String coalesceKey = isCoalesceQueries() ? createCanonicalKey(limit, offset) : null;
+        if (coalesceKey != null) {
+          QueryCoalescer.<IQueryResult<T>> execute(getDataStore(), "query " + coalesceKey,
+              h -> executeInternal(queryExpression, cache, h), qr -> {
+                if (qr.succeeded() && qr.result() instanceof AbstractQueryResult) {
+                  SharedQueryResult<T> view = new SharedQueryResult<>((AbstractQueryResult<T>) qr.result());
+                  view.setSession(session);
+                  found.complete(view);
+                } else {
+                  found.handle(qr);
+                }
+              });
+        } else if (session == null && cache == null) {
+          internalExecute(queryExpression, found);
+        } else {
+          executeInternal(queryExpression, cache, qr -> {
+            if (qr.succeeded() && qr.result() instanceof AbstractQueryResult) {
+              ((AbstractQueryResult<T>) qr.result()).setSession(session);
+            }
+            found.handle(qr);
+          });
+        }
       }
     });
     return f;
   }
 
+  /**
+   * Create a future, which records the round trip of the query and the number of found records into the given
+   * {@link IMetricsCollector} and which forwards the result to the given future
+   */
+  private Future<IQueryResult<T>> recordQuery(final IMetricsCollector metrics, final long start,
+      final Future<IQueryResult<T>> f) {
+    Future<IQueryResult<T>> recorded = Future.future();
+    recorded.setHandler(qr -> {
+      metrics.record(MetricType.QUERY, getMapperClass(), System.nanoTime() - start,
+          qr.succeeded() ? qr.result().size() : 0);
+      f.handle(qr);
+    });
+    return recorded;
+  }
+
+  /**
+   * Create a future, which logs the query, if its execution took longer than the threshold of the
+   * {@link de.braintags.vertx.jomnigate.init.DataStoreSettings}, and which forwards the result to the given future.
+   * If defined by the settings, the slow query is explained afterwards and the plan is logged as well
+   */
+  private Future<IQueryResult<T>> logSlowQuery(final IQueryExpression queryExpression, final long start,
+      final long threshold, final Future<IQueryResult<T>> f) {
+    Future<IQueryResult<T>> logged = Future.future();
+    logged.setHandler(qr -> {
+      long duration = (System.nanoTime() - start) / 1_000_000;
+      f.handle(qr);
+      if (duration >= threshold) {
+        String message = "slow query on " + getMapper().getMapperClass().getSimpleName() + " (" + duration + " ms): "
+            + queryExpression;
+        LOGGER.warn(message);
+        if (getDataStore().getSettings().isExplainSlowQueries()) {
+          internalExecuteExplain(queryExpression, er -> {
+            if (er.failed()) {
+              LOGGER.warn("explain of slow query failed: " + message, er.cause());
+            } else {
+              LOGGER.warn("plan of slow query: " + er.result() + " | " + message);
+            }
+          });
+        }
+      }
+    });
+    return logged;
+  }
+
+  /**
+   * Start the count of the complete result at the same time as the query, if the complete count is requested and if
+   * the query is limited
+   *
+   * @param queryExpression
+   *          the expression of the query
+   * @return the future of the count or null, if no count is needed
+   */
+  private Future<Long> startCompleteCount(final IQueryExpression queryExpression) {
+    if (!returnCompleteCount || queryExpression.getLimit() <= 0) {
+      return null;
+    }
+    Future<Long> count = Future.future();
+    count(queryExpression, cr -> {
+      if (cr.failed()) {
+        count.fail(cr.cause());
+      } else {
+        count.complete(cr.result().getCount());
+      }
+    });
+    return count;
+  }
+
+  /**
+   * Set the complete count into the result of the query. If the result is not filled completely, the complete count
+   * is computed from the offset and the size of the result, otherwise the count is awaited
+   */
+  private void setCompleteCount(final AsyncResult<IQueryResult<T>> qr, final IQueryExpression queryExpression,
+      final Future<Long> completeCount, final Future<IQueryResult<T>> f) {
+    if (qr.failed() || !returnCompleteCount || !(qr.result() instanceof AbstractQueryResult)) {
+      f.handle(qr);
+      return;
+    }
+    AbstractQueryResult<T> result = (AbstractQueryResult<T>) qr.result();
+    int size = result.size();
+    int offset = queryExpression.getOffset();
+    if (completeCount == null || size < queryExpression.getLimit() && (offset == 0 || size > 0)) {
+      result.setCompleteResult((long) offset + size);
+      f.complete(result);
+    } else {
+      completeCount.setHandler(cr -> {
+        if (cr.failed()) {
+          f.fail(cr.cause());
+        } else {
+          result.setCompleteResult(cr.result());
+          f.complete(result);
+        }
+      });
+    }
+  }
+
+  /**
+   * Count the records of the given expression. The result is taken from the {@link CountCache} of the mapper, if
+   * possible; counts without search condition are estimated, if requested
+   *
+   * @param queryExpression
+   *          the expression to be counted
+   * @param resultHandler
+   *          the handler to receive the count
+   */
+  private void count(final IQueryExpression queryExpression,
+      final Handler<AsyncResult<IQueryCountResult>> resultHandler) {
+    boolean estimated = estimatedCount && searchCondition == null && nativeCommand == null;
+    String countKey = createCountKey();
+    String key = countKey == null ? null : (estimated ? "estimated " : "count ") + countKey;
+    CountCache<T> cache = key == null ? null : getMapper().getCountCache();
+    Long cached = cache == null ? null : cache.get(key);
+    if (cached != null) {
+      resultHandler.handle(
+          Future.succeededFuture(new QueryCountResult(getMapper(), getDataStore(), cached, queryExpression)));
+      return;
+    }
+    Handler<Handler<AsyncResult<IQueryCountResult>>> execution = h -> {
+      if (estimated) {
+        internalExecuteEstimatedCount(queryExpression, h);
+      } else {
+        internalExecuteCount(queryExpression, h);
+      }
+    };
+    Handler<AsyncResult<IQueryCountResult>> handler = resultHandler;
+    if (cache != null) {
+      long generation = cache.getGeneration();
+      handler = cr -> {
+        if (cr.succeeded()) {
+          cache.put(key, cr.result().getCount(), generation);
+        }
+        resultHandler.handle(cr);
+      };
+    }
+    if (key != null && isCoalesceQueries()) {
+      QueryCoalescer.execute(getDataStore(), key, execution, handler);
+    } else {
+      execution.handle(handler);
+    }
+  }
+
+  /**
+   * Execute the query expression and set the {@link EntityCache} into the result, if the mapper is cached
+   */
+  private void executeInternal(final IQueryExpression queryExpression, final EntityCache<T> cache,
+      final Handler<AsyncResult<IQueryResult<T>>> handler) {
+    if (cache == null) {
+      internalExecute(queryExpression, handler);
+    } else {
+      long generation = cache.getGeneration();
+      internalExecute(queryExpression, qr -> {
+        if (qr.succeeded() && qr.result() instanceof AbstractQueryResult) {
+          ((AbstractQueryResult<T>) qr.result()).setEntityCache(cache, generation);
+        }
+        handler.handle(qr);
+      });
+    }
+  }
+
+  private boolean isCoalesceQueries() {
+    return getDataStore().getSettings() != null && getDataStore().getSettings().isCoalesceQueries();
+  }
+
+  /**
+   * Records can be read from and added to the {@link EntityCache}, if the mapper is cached and if the query loads the
+   * complete records
+   *
+   * @return true, if the cache can be used
+   */
+  private boolean isCacheable() {
+    return getMapper().getEntityCache() != null && (useFields == null || useFields.isEmpty()) && nativeCommand == null;
+  }
+
+  /**
+   * If the search condition requests records by their id and all of these records are contained in the
+   * {@link EntityCache} of the mapper, the records are returned
+   *
+   * @return the cached native records or null, if the query must be executed by the datastore
+   */
+  private List<JsonObject> readFromCache() {
+    if (!isCacheable() || !(searchCondition instanceof IFieldCondition)
+        || searchCondition instanceof IVariableFieldCondition) {
+      return null;
+    }
+    IFieldCondition condition = (IFieldCondition) searchCondition;
+    JsonNode value = condition.getValue();
+    if (value == null || !condition.getField().getFieldName()
+        .equals(getMapper().getIdInfo().getIndexedField().getFieldName())) {
+      return null;
+    }
+    LinkedHashSet<String> ids = new LinkedHashSet<>();
+    if (condition.getOperator() == QueryOperator.EQUALS && value.isValueNode()) {
+      ids.add(value.asText());
+    } else if (condition.getOperator() == QueryOperator.IN && value.isArray() && sortDefs.isEmpty()) {
+      value.forEach(node -> ids.add(node.asText()));
+    } else {
+      return null;
+    }
+    EntityCache<T> cache = getMapper().getEntityCache();
+    List<JsonObject> records = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      JsonObject record = cache.get(id);
+      if (record == null) {
+        return null;
+      }
+      records.add(record);
+    }
+    return records;
+  }
+
+  /**
+   * Creates the key of the current query for the {@link QueryCache} of the mapper
+   *
+   * @param limit
+   *          the limit of the query
+   * @param offset
+   *          the offset of the query
+   * @return the key or null, if the result can not be cached
+   */
+  private String createQueryCacheKey(final int limit, final int offset) {
+    if (getMapper().getQueryCache() == null || session != null) {
+      return null;
+    }
+    return createCanonicalKey(limit, offset);
+  }
+
+  /**
+   * Creates a key, which is equal for all queries of the mapper with the same search condition, sorting, fields and
+   * paging
+   *
+   * @param limit
+   *          the limit of the query
+   * @param offset
+   *          the offset of the query
+   * @return the key or null, if the query contains variables or a native command
+   */
+  private String createCanonicalKey(final int limit, final int offset) {
+    if (nativeCommand != null) {
+      return null;
+    }
+    String condition = QueryCache.canonicalCondition(searchCondition);
+    if (condition == null) {
+      return null;
+    }
+    return getMapper().getMapperClass().getName() + " | " + condition + " | " + sortDefs + " | " + useFields + " | "
+        + limit + " | " + offset + " | " + returnCompleteCount;
+  }
+
+  /**
+   * Creates a key, which is equal for all counts of the mapper with the same search condition
+   *
+   * @return the key or null, if the query contains variables or a native command
+   */
+  private String createCountKey() {
+    if (nativeCommand != null) {
+      return null;
+    }
+    String condition = QueryCache.canonicalCondition(searchCondition);
+    return condition == null ? null : getMapper().getMapperClass().getName() + " | " + condition;
+  }
+
+  private IQueryResult<T> createCachedResult(final List<JsonObject> records, final int limit, final int offset) {
+    int from = Math.min(Math.max(offset, 0), records.size());
+    int to = limit > 0 ? Math.min(from + limit, records.size()) : records.size();
+    CachedQueryResult<T> result = new CachedQueryResult<>(getDataStore(), getMapper(), records.subList(from, to));
+    result.setCompleteResult(records.size());
+    result.setSession(session);
+    return result;
+  }
+
+  /**
+   * Execute the query and return the native records. The used value for limit is the default query limit of the
+   * current datastore. The used value for the offset is 0.
+   *
+   * @param resultHandler
+   * @see #executeRaw(IFieldValueResolver, int, int, Handler)
+   */
+  @Override
+  public final void executeRaw(final Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    executeRaw(null, getDataStore().getDefaultQueryLimit(), 0, resultHandler);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#executeRaw(de.braintags.vertx.jomnigate.dataaccess.
+   * query.IFieldValueResolver, int, int, io.vertx.core.Handler)
+   */
+  @Override
+  public final void executeRaw(final IFieldValueResolver resolver, final int limit, final int offset,
+      final Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    sync(syncResult -> {
+      if (syncResult.failed()) {
+        resultHandler.handle(Future.failedFuture(syncResult.cause()));
+      } else {
+        buildQueryExpression(resolver, result -> {
+          if (result.failed()) {
+            resultHandler.handle(Future.failedFuture(result.cause()));
+          } else {
+            IQueryExpression queryExpression = result.result();
+            queryExpression.setLimit(limit, offset);
+            try {
+              internalExecuteRaw(queryExpression, rawResult -> {
+                if (rawResult.failed()) {
+                  resultHandler.handle(Future.failedFuture(rawResult.cause()));
+                } else {
+                  resultHandler.handle(Future.succeededFuture(translateColumnNames(rawResult.result())));
+                }
+              });
+            } catch (Exception e) {
+              LOGGER.debug("error occured", e);
+              resultHandler.handle(Future.failedFuture(e));
+            }
+          }
+        });
+      }
+    });
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#executeExplain(io.vertx.core.Handler)
+   */
+  @Override
+  public final void executeExplain(final Handler<AsyncResult<IQueryExplain>> resultHandler) {
+    executeExplain(null, getDataStore().getDefaultQueryLimit(), 0, resultHandler);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#executeExplain(de.braintags.vertx.jomnigate.dataaccess.
+   * query.IFieldValueResolver, int, int, io.vertx.core.Handler)
+   */
+  @Override
+  public final void executeExplain(final IFieldValueResolver resolver, final int limit, final int offset,
+      final Handler<AsyncResult<IQueryExplain>> resultHandler) {
+    sync(syncResult -> {
+      if (syncResult.failed()) {
+        resultHandler.handle(Future.failedFuture(syncResult.cause()));
+      } else {
+        buildQueryExpression(resolver, result -> {
+          if (result.failed()) {
+            resultHandler.handle(Future.failedFuture(result.cause()));
+          } else {
+            IQueryExpression queryExpression = result.result();
+            queryExpression.setLimit(limit, offset);
+            try {
+              internalExecuteExplain(queryExpression, resultHandler);
+            } catch (Exception e) {
+              LOGGER.debug("error occured", e);
+              resultHandler.handle(Future.failedFuture(e));
+            }
+          }
+        });
+      }
+    });
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#executeAggregation(de.braintags.vertx.jomnigate.
+   * dataaccess.query.IAggregation, io.vertx.core.Handler)
+   */
+  @Override
+  public final void executeAggregation(final IAggregation aggregation,
+      final Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    executeAggregation(null, aggregation, resultHandler);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#executeAggregation(de.braintags.vertx.jomnigate.
+   * dataaccess.query.IFieldValueResolver, de.braintags.vertx.jomnigate.dataaccess.query.IAggregation,
+   * io.vertx.core.Handler)
+   */
+  @Override
+  public final void executeAggregation(final IFieldValueResolver resolver, final IAggregation aggregation,
+      final Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    sync(syncResult -> {
+      if (syncResult.failed()) {
+        resultHandler.handle(Future.failedFuture(syncResult.cause()));
+      } else {
+        buildQueryExpression(resolver, result -> {
+          if (result.failed()) {
+            resultHandler.handle(Future.failedFuture(result.cause()));
+          } else {
+            Aggregation agg = (Aggregation) aggregation;
+            try {
+              internalExecuteAggregation(result.result(), agg, aggResult -> {
+                if (aggResult.failed()) {
+                  resultHandler.handle(Future.failedFuture(aggResult.cause()));
+                } else {
+                  List<JsonObject> rows = new ArrayList<>(aggResult.result().size());
+                  aggResult.result().forEach(row -> rows.add(agg.translateRow(row)));
+                  resultHandler.handle(Future.succeededFuture(rows));
+                }
+              });
+            } catch (Exception e) {
+              LOGGER.debug("error occured", e);
+              resultHandler.handle(Future.failedFuture(e));
+            }
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Rename the columns of the native records into the names of the properties, where they differ
+   *
+   * @param records
+   *          the native records
+   * @return the records
+   */
+  private List<JsonObject> translateColumnNames(final List<JsonObject> records) {
+    Map<String, String> columnToProperty = new HashMap<>();
+    for (String fieldName : getMapper().getFieldNames()) {
+      IProperty property = getMapper().getField(fieldName);
+      IColumnInfo ci = property.getColumnInfo();
+      if (ci != null && !ci.getName().equals(property.getName())) {
+        columnToProperty.put(ci.getName(), property.getName());
+      }
+    }
+    if (!columnToProperty.isEmpty()) {
+      for (JsonObject record : records) {
+        columnToProperty.forEach((column, name) -> {
+          if (record.containsKey(column)) {
+            record.put(name, record.remove(column));
+          }
+        });
+      }
+    }
+    return records;
+  }
+
   /**
    * Execution done before instances are stored into the datastore
    * 
@@ -163,7 +701,7 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
           } else {
             IQueryExpression queryExpression = result.result();
             try {
-              internalExecuteCount(queryExpression, resultHandler);
+              count(queryExpression, measure(MetricType.COUNT, 0, resultHandler));
             } catch (Exception e) {
               LOGGER.debug("error occured", e);
               resultHandler.handle(Future.failedFuture(e));
@@ -178,6 +716,10 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
   public void buildQueryExpression(final IFieldValueResolver resolver,
       final Handler<AsyncResult<IQueryExpression>> resultHandler) {
     try {
+      IndexAdvisor advisor = getDataStore().getIndexAdvisor();
+      if (getNativeCommand() == null && advisor.isActive()) {
+        advisor.record(getMapper(), getSearchCondition(), sortDefs.getSortArguments());
+      }
       IQueryExpression expression = getQueryExpressionClass().newInstance();
       expression.setMapper(getMapper());
       if (getNativeCommand() != null)
@@ -201,6 +743,16 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
     }
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#prepare()
+   */
+  @Override
+  public IPreparedQuery<T> prepare() {
+    return new PreparedQuery<>(this);
+  }
+
   /**
    * This method is called after the sync call to execute the query
    *
@@ -211,6 +763,17 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
   protected abstract void internalExecute(IQueryExpression queryExpression,
       Handler<AsyncResult<IQueryResult<T>>> resultHandler);
 
+  /**
+   * This method is called after the sync call to execute the query and to return the native records without creating
+   * instances of the mapper
+   *
+   * @param queryExpression
+   *
+   * @param resultHandler
+   */
+  protected abstract void internalExecuteRaw(IQueryExpression queryExpression,
+      Handler<AsyncResult<List<JsonObject>>> resultHandler);
+
   /**
    * This method is called after the sync call to execute count the query
    *
@@ -221,6 +784,55 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
   protected abstract void internalExecuteCount(IQueryExpression queryExpression,
       Handler<AsyncResult<IQueryCountResult>> resultHandler);
 
+  /**
+   * This method is called to count the records of a query without search condition, if an estimated count is
+   * requested. Implementations can use the metadata of the datastore; the default implementation executes an exact
+   * count
+   *
+   * @param queryExpression
+   *          the expression to be counted
+   * @param resultHandler
+   *          the handler to receive the count
+   */
+  protected void internalExecuteEstimatedCount(final IQueryExpression queryExpression,
+      final Handler<AsyncResult<IQueryCountResult>> resultHandler) {
+    internalExecuteCount(queryExpression, resultHandler);
+  }
+
+  /**
+   * This method is called to explain the given expression by the datastore. The default implementation fails, because
+   * the datastore doesn't support explains
+   *
+   * @param queryExpression
+   *          the expression to be explained
+   * @param resultHandler
+   *          the handler to receive the plan
+   */
+  protected void internalExecuteExplain(final IQueryExpression queryExpression,
+      final Handler<AsyncResult<IQueryExplain>> resultHandler) {
+    resultHandler.handle(Future.failedFuture(
+        new UnsupportedOperationException("explain is not supported by " + getDataStore().getClass())));
+  }
+
+  /**
+   * This method is called to execute an aggregation inside the datastore. The native rows must contain the group
+   * fields and the functions by the names of {@link Aggregation#getGroupKey(int)} and
+   * {@link Aggregation#getFunctionKey(int)}. The default implementation fails, because the datastore doesn't support
+   * aggregations
+   *
+   * @param queryExpression
+   *          the expression, which selects the records to be aggregated
+   * @param aggregation
+   *          the aggregation to be executed
+   * @param resultHandler
+   *          the handler to receive the native rows
+   */
+  protected void internalExecuteAggregation(final IQueryExpression queryExpression, final Aggregation aggregation,
+      final Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    resultHandler.handle(Future.failedFuture(
+        new UnsupportedOperationException("aggregations are not supported by " + getDataStore().getClass())));
+  }
+
   /**
    * @return the implementation of the {@link IQueryExpression} for the current datastore
    */
@@ -244,6 +856,27 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
     return this;
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#setEstimatedCount(boolean)
+   */
+  @Override
+  public final IQuery<T> setEstimatedCount(final boolean estimatedCount) {
+    this.estimatedCount = estimatedCount;
+    return this;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#isEstimatedCount()
+   */
+  @Override
+  public final boolean isEstimatedCount() {
+    return estimatedCount;
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -317,6 +950,16 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
     this.searchCondition = searchCondition;
   }
 
+  /**
+   * Set the search condition of a {@link PreparedQuery}, which was validated already
+   *
+   * @param searchCondition
+   *          the prepared search condition
+   */
+  void setPreparedCondition(final ISearchCondition searchCondition) {
+    this.searchCondition = searchCondition;
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -343,4 +986,25 @@ public abstract class Query<T> extends AbstractDataAccessObject<T> implements IQ
   public void setUseFields(final List<String> useFields) {
     this.useFields = useFields;
   }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#setSession(de.braintags.vertx.jomnigate.dataaccess.
+   * IdentitySession)
+   */
+  @Override
+  public void setSession(final IdentitySession session) {
+    this.session = session;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#getSession()
+   */
+  @Override
+  public IdentitySession getSession() {
+    return session;
+  }
 }
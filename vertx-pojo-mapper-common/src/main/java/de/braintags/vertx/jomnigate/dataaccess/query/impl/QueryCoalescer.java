@@ -0,0 +1,108 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.util.ContextBoundHandler;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * Combines identical executions, which are running at the same time, into one access to the datastore. The first
+ * caller of a key executes, all further callers wait for its result. Each caller is informed on the context, where it
+ * started the execution.
+ *
+ * @author Michael Remme
+ *
+ */
+final class QueryCoalescer {
+  private static final Map<Key, List<ContextBoundHandler>> RUNNING = new HashMap<>();
+
+  private QueryCoalescer() {
+    // static helper
+  }
+
+  /**
+   * Execute or join the execution with the given key
+   *
+   * @param datastore
+   *          the datastore, which is accessed
+   * @param key
+   *          the key, which identifies identical executions, like the canonical form of a query
+   * @param execution
+   *          the execution, which is started by the first caller; it must inform the given handler
+   * @param handler
+   *          the handler to receive the result
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  static <R> void execute(IDataStore<?, ?> datastore, String key, Handler<Handler<AsyncResult<R>>> execution,
+      Handler<AsyncResult<R>> handler) {
+    Key runningKey = new Key(datastore, key);
+    ContextBoundHandler waiter = new ContextBoundHandler(handler);
+    List<ContextBoundHandler> waiters = new ArrayList<>();
+    synchronized (RUNNING) {
+      List<ContextBoundHandler> running = RUNNING.get(runningKey);
+      if (running != null) {
+        running.add(waiter);
+        return;
+      }
+      waiters.add(waiter);
+      RUNNING.put(runningKey, waiters);
+    }
+    Handler<AsyncResult<R>> finish = result -> {
+      boolean removed;
+      synchronized (RUNNING) {
+        removed = RUNNING.remove(runningKey, waiters);
+      }
+      if (removed) {
+        waiters.forEach(w -> w.handle(result));
+      }
+    };
+    try {
+      execution.handle(finish);
+    } catch (Exception e) {
+      finish.handle(Future.failedFuture(e));
+    }
+  }
+
+  private static final class Key {
+    private final IDataStore<?, ?> datastore;
+    private final String key;
+
+    Key(IDataStore<?, ?> datastore, String key) {
+      this.datastore = datastore;
+      this.key = key;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(datastore) + key.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return datastore == other.datastore && key.equals(other.key);
+    }
+  }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The default implementation of {@link IQueryExplain}. The values are set by the datastore, which parses its native
+ * plan
+ *
+ * @author Michael Remme
+ *
+ */
+public class QueryExplain implements IQueryExplain {
+  private final IQueryExpression originalQuery;
+  private final JsonObject nativePlan;
+  private final List<String> usedIndexes = new ArrayList<>();
+  private boolean fullScan;
+  private long examined = -1;
+  private long returned = -1;
+  private long executionTime = -1;
+
+  /**
+   * Constructor
+   *
+   * @param originalQuery
+   *          the object which was used to process the query
+   * @param nativePlan
+   *          the plan as it was delivered by the datastore
+   */
+  public QueryExplain(final IQueryExpression originalQuery, final JsonObject nativePlan) {
+    this.originalQuery = originalQuery;
+    this.nativePlan = nativePlan;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain#getOriginalQuery()
+   */
+  @Override
+  public IQueryExpression getOriginalQuery() {
+    return originalQuery;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain#getUsedIndexes()
+   */
+  @Override
+  public List<String> getUsedIndexes() {
+    return usedIndexes;
+  }
+
+  /**
+   * Add the name of an index, which is used by the plan
+   *
+   * @param indexName
+   *          the name of the index
+   */
+  public void addUsedIndex(final String indexName) {
+    if (indexName != null && !usedIndexes.contains(indexName)) {
+      usedIndexes.add(indexName);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain#isFullScan()
+   */
+  @Override
+  public boolean isFullScan() {
+    return fullScan;
+  }
+
+  /**
+   * @param fullScan
+   *          true, if the datastore reads all records
+   */
+  public void setFullScan(final boolean fullScan) {
+    this.fullScan = fullScan;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain#getExamined()
+   */
+  @Override
+  public long getExamined() {
+    return examined;
+  }
+
+  /**
+   * @param examined
+   *          the number of examined records
+   */
+  public void setExamined(final long examined) {
+    this.examined = examined;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain#getReturned()
+   */
+  @Override
+  public long getReturned() {
+    return returned;
+  }
+
+  /**
+   * @param returned
+   *          the number of returned records
+   */
+  public void setReturned(final long returned) {
+    this.returned = returned;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain#getExecutionTime()
+   */
+  @Override
+  public long getExecutionTime() {
+    return executionTime;
+  }
+
+  /**
+   * @param executionTime
+   *          the execution time in milliseconds
+   */
+  public void setExecutionTime(final long executionTime) {
+    this.executionTime = executionTime;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain#getNativePlan()
+   */
+  @Override
+  public JsonObject getNativePlan() {
+    return nativePlan;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return (fullScan ? "full scan" : "indexes: " + usedIndexes) + " | examined: " + examined + " | returned: "
+        + returned + " | time: " + executionTime;
+  }
+
+}
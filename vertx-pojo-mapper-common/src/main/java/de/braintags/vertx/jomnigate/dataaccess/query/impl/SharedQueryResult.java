@@ -0,0 +1,55 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.dataaccess.query.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+/**
+ * A view onto a query result, which was shared between several callers by the {@link QueryCoalescer} or by the
+ * {@link de.braintags.vertx.jomnigate.cache.QueryCache}. The native records are read from the shared result, but each
+ * view creates its own instances, so that callers do not affect each other. Created instances are added to the cache
+ * of the mapper by the shared result
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the class of the mapper, which builds the result
+ */
+class SharedQueryResult<T> extends AbstractQueryResult<T> {
+  private final AbstractQueryResult<T> source;
+
+  /**
+   * Constructor
+   *
+   * @param result
+   *          the result, which was created by the datastore, or another view onto it
+   */
+  SharedQueryResult(AbstractQueryResult<T> result) {
+    super(result.getDataStore(), result.getMapper(), result.size(), result.getOriginalQuery());
+    this.source = result instanceof SharedQueryResult ? ((SharedQueryResult<T>) result).source : result;
+    source.setShared();
+    setCompleteResult(result.getCompleteResult());
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult#generatePojo(int,
+   * io.vertx.core.Handler)
+   */
+  @Override
+  protected void generatePojo(int i, Handler<AsyncResult<T>> handler) {
+    source.generateSharedPojo(i, handler);
+  }
+
+}
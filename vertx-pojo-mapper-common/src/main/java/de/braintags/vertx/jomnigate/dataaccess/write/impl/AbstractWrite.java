@@ -20,6 +20,7 @@ import java.util.List;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.AfterSave;
+import de.braintags.vertx.jomnigate.change.ChangePublisher;
 import de.braintags.vertx.jomnigate.dataaccess.impl.AbstractDataAccessObject;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
@@ -27,7 +28,9 @@ import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
 import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
 import de.braintags.vertx.jomnigate.mapping.IStoreObject;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.observer.ObserverEventType;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -66,16 +69,21 @@ public abstract class AbstractWrite<T> extends AbstractDataAccessObject<T> imple
   }
 
   @Override
-  public final void save(final Handler<AsyncResult<IWriteResult>> resultHandler) {
+  public final void save(final Handler<AsyncResult<IWriteResult>> handler) {
+    Handler<AsyncResult<IWriteResult>> resultHandler = measure(MetricType.WRITE, objectsToSave.size(), handler);
     sync(syncResult -> {
       if (syncResult.failed()) {
         resultHandler.handle(Future.failedFuture(syncResult.cause()));
       } else {
         try {
           Future<IWriteResult> rf = Future.future();
-          rf.setHandler(resultHandler);
+          rf.setHandler(publishChanges(resultHandler));
           IObserverContext context = IObserverContext.createInstance();
-          internalSave(context).compose(wr -> postSave(wr, context, rf), rf);
+          if (getMapper().getObserverHandler().hasObserver(ObserverEventType.AFTER_INSERT)) {
+            internalSave(context).compose(wr -> postSave(wr, context, rf), rf);
+          } else {
+            internalSave(context).setHandler(rf);
+          }
         } catch (Exception e) {
           resultHandler.handle(Future.failedFuture(e));
         }
@@ -83,6 +91,27 @@ public abstract class AbstractWrite<T> extends AbstractDataAccessObject<T> imple
     });
   }
 
+  /**
+   * If the {@link ChangePublisher} of the datastore is active, the returned handler publishes the saved records before
+   * the given handler is informed
+   * 
+   * @param resultHandler
+   *          the handler to be informed
+   * @return the handler to be used for the result
+   */
+  private Handler<AsyncResult<IWriteResult>> publishChanges(final Handler<AsyncResult<IWriteResult>> resultHandler) {
+    ChangePublisher publisher = getDataStore().getChangePublisher();
+    if (!publisher.isActive()) {
+      return resultHandler;
+    }
+    return res -> {
+      if (res.succeeded()) {
+        publisher.publish(getMapper(), res.result());
+      }
+      resultHandler.handle(res);
+    };
+  }
+
   /**
    * Execution done after entities were stored into the datastore
    * 
@@ -18,12 +18,12 @@ import java.util.List;
 
 import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
 import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
-import de.braintags.vertx.jomnigate.observer.IObserver;
-import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
 import de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 
 /**
  * Handles the event {@link ObserverEventType#AFTER_INSERT }
@@ -33,29 +33,23 @@ import io.vertx.core.Future;
  */
 public class AfterInsertHandler extends AbstractEventHandler<IWrite<?>, IWriteResult> {
 
-  /**
-   * @param observer
-   * @param writeObject
-   * @param context
-   * @return
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler#createEventList(java.lang.Object,
+   * de.braintags.vertx.jomnigate.dataaccess.IAccessResult, io.vertx.core.Handler)
    */
-  @SuppressWarnings("rawtypes")
   @Override
-  protected List<Future> createEntityFutureList(IObserver observer, IWrite<?> writeObject, IWriteResult result,
-      IObserverContext context) {
-    List<Future> fl = new ArrayList<>();
-    Iterator<?> selection = ((AbstractWrite) writeObject).getSelection();
+  protected void createEventList(IWrite<?> writeObject, IWriteResult result,
+      Handler<AsyncResult<List<IObserverEvent>>> handler) {
+    List<IObserverEvent> events = new ArrayList<>(writeObject.size());
+    Iterator<?> selection = ((AbstractWrite<?>) writeObject).getSelection();
     while (selection.hasNext()) {
-      IObserverEvent event = IObserverEvent.createEvent(getEventType(), selection.next(), result, writeObject,
-          writeObject.getDataStore());
-      if (observer.canHandleEvent(event, context)) {
-        Future tf = observer.handleEvent(event, context);
-        if (tf != null) {
-          fl.add(tf);
-        }
-      }
+      events.add(IObserverEvent.createEvent(getEventType(), selection.next(), result, writeObject,
+          writeObject.getDataStore()));
     }
-    return fl;
+    handler.handle(Future.succeededFuture(events));
   }
 
   protected ObserverEventType getEventType() {
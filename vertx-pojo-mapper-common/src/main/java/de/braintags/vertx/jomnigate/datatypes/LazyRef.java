@@ -0,0 +1,222 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.datatypes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.annotation.field.Referenced;
+import de.braintags.vertx.jomnigate.dataaccess.RecordBatchLoader;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * A reference to an instance, which is stored inside its own mapper and which is loaded on first access. Fields of
+ * this type must be annotated with {@link Referenced} ( with lazy = true ). When a parent instance is loaded, only the
+ * identifyer of the referenced instance is read. The instance itself is loaded by {@link #get(Handler)}; all
+ * references of the same mapper class, which are requested inside the same execution, are loaded by the
+ * {@link RecordBatchLoader} of the datastore
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the mapper class of the referenced instance
+ */
+public class LazyRef<T> {
+  private final IDataStore datastore;
+  private final Class<T> mapperClass;
+  private final String id;
+  private volatile T value;
+  private volatile boolean loaded;
+  private List<Handler<AsyncResult<T>>> waitingHandlers;
+
+  /**
+   * Creates a reference to an existing instance. This constructor is used to set the value of a field, before the
+   * parent instance is saved
+   *
+   * @param value
+   *          the referenced instance
+   */
+  @SuppressWarnings("unchecked")
+  public LazyRef(final T value) {
+    this.datastore = null;
+    this.mapperClass = value == null ? null : (Class<T>) value.getClass();
+    this.id = null;
+    this.value = value;
+    this.loaded = true;
+  }
+
+  /**
+   * Creates a reference, which is not loaded yet. This constructor is used, when a parent instance is read from the
+   * datastore
+   *
+   * @param datastore
+   *          the datastore, from which the instance will be loaded
+   * @param mapperClass
+   *          the mapper class of the referenced instance
+   * @param id
+   *          the identifyer of the referenced instance
+   */
+  public LazyRef(final IDataStore datastore, final Class<T> mapperClass, final String id) {
+    this.datastore = datastore;
+    this.mapperClass = mapperClass;
+    this.id = id;
+  }
+
+  /**
+   * Get the referenced instance. If it is not loaded yet, it is loaded from the datastore. Concurrent requests for the
+   * same reference are served by one load
+   *
+   * @param handler
+   *          the handler to receive the referenced instance, which may be null, if the record does not exist anymore
+   */
+  public void get(final Handler<AsyncResult<T>> handler) {
+    if (loaded) {
+      handler.handle(Future.succeededFuture(value));
+      return;
+    }
+    boolean alreadyLoaded = false;
+    boolean startLoading = false;
+    synchronized (this) {
+      if (loaded) {
+        alreadyLoaded = true;
+      } else {
+        if (waitingHandlers == null) {
+          waitingHandlers = new ArrayList<>();
+          startLoading = true;
+        }
+        waitingHandlers.add(handler);
+      }
+    }
+    if (alreadyLoaded) {
+      handler.handle(Future.succeededFuture(value));
+    } else if (startLoading) {
+      load();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void load() {
+    if (datastore == null) {
+      loaded(Future.failedFuture(new IllegalStateException("LazyRef without datastore cannot be loaded: " + this)));
+      return;
+    }
+    RecordBatchLoader<T> loader = datastore.getRecordBatchLoader(mapperClass);
+    loader.load(id, this::loaded);
+  }
+
+  /**
+   * Load all given references, which are not loaded yet. References of the same mapper class are loaded by one query
+   *
+   * @param references
+   *          the references to be loaded
+   * @param handler
+   *          the handler to be informed, when all references are loaded
+   */
+  @SuppressWarnings("rawtypes")
+  public static void loadAll(final Collection<? extends LazyRef<?>> references,
+      final Handler<AsyncResult<Void>> handler) {
+    List<Future> fl = new ArrayList<>(references.size());
+    for (LazyRef<?> ref : references) {
+      if (ref != null && !ref.isLoaded()) {
+        Future<Object> f = Future.future();
+        ref.get(res -> {
+          if (res.failed()) {
+            f.fail(res.cause());
+          } else {
+            f.complete(res.result());
+          }
+        });
+        fl.add(f);
+      }
+    }
+    if (fl.isEmpty()) {
+      handler.handle(Future.succeededFuture());
+    } else {
+      CompositeFuture.all(fl).setHandler(res -> {
+        if (res.failed()) {
+          handler.handle(Future.failedFuture(res.cause()));
+        } else {
+          handler.handle(Future.succeededFuture());
+        }
+      });
+    }
+  }
+
+  /**
+   * Get the referenced instance, if it was loaded already
+   *
+   * @return the referenced instance or null, if it is not loaded yet
+   */
+  public T getIfLoaded() {
+    return value;
+  }
+
+  /**
+   * Returns true, if the referenced instance was loaded or set already
+   *
+   * @return true, if loaded
+   */
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  /**
+   * Get the identifyer of the referenced instance, as it was read from the datastore
+   *
+   * @return the identifyer or null, if the reference was created from an instance
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Get the mapper class of the referenced instance
+   *
+   * @return the mapper class
+   */
+  public Class<T> getMapperClass() {
+    return mapperClass;
+  }
+
+  /**
+   * Called by the {@link RecordBatchLoader}, when the referenced instance was loaded
+   *
+   * @param result
+   *          the result of the load
+   */
+  private void loaded(final AsyncResult<T> result) {
+    List<Handler<AsyncResult<T>>> handlers;
+    synchronized (this) {
+      if (result.succeeded()) {
+        value = result.result();
+        loaded = true;
+      }
+      handlers = waitingHandlers;
+      waitingHandlers = null;
+    }
+    if (handlers != null) {
+      handlers.forEach(h -> h.handle(result));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "LazyRef [" + (mapperClass == null ? "" : mapperClass.getSimpleName()) + ":" + id + ", loaded=" + loaded
+        + "]";
+  }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.exception;
+
+import de.braintags.vertx.jomnigate.init.AsyncObserverSettings.OverflowPolicy;
+
+/**
+ * An ObserverQueueFullException is thrown, when the queue of an asynchronous observer is full and the
+ * {@link OverflowPolicy#FAIL} is defined
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class ObserverQueueFullException extends RuntimeException {
+
+  /**
+   * @param message
+   */
+  public ObserverQueueFullException(String message) {
+    super(message);
+  }
+
+}
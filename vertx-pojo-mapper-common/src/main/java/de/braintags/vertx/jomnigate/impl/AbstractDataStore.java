@@ -13,11 +13,18 @@
 
 package de.braintags.vertx.jomnigate.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.advisor.IndexAdvisor;
 import de.braintags.vertx.jomnigate.annotation.KeyGenerator;
+import de.braintags.vertx.jomnigate.change.ChangePublisher;
+import de.braintags.vertx.jomnigate.dataaccess.RecordBatchLoader;
 import de.braintags.vertx.jomnigate.exception.UnsupportedKeyGenerator;
 import de.braintags.vertx.jomnigate.init.DataStoreSettings;
 import de.braintags.vertx.jomnigate.mapping.IDataStoreSynchronizer;
@@ -27,9 +34,16 @@ import de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory;
 import de.braintags.vertx.jomnigate.mapping.ITriggerContextFactory;
 import de.braintags.vertx.jomnigate.mapping.datastore.ITableGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.TriggerContextFactory;
+import de.braintags.vertx.jomnigate.mapping.impl.keygen.BlockKeyGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.keygen.DebugGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.keygen.DefaultKeyGenerator;
+import de.braintags.vertx.jomnigate.mapping.impl.keygen.LocalTimeBasedKeyGenerator;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
 import de.braintags.vertx.util.security.crypt.IEncoder;
+import io.vertx.core.Closeable;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 
@@ -46,6 +60,8 @@ import io.vertx.core.json.JsonObject;
  */
 
 public abstract class AbstractDataStore<S, U> implements IDataStore<S, U> {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(AbstractDataStore.class);
   private Vertx vertx;
   private JsonObject properties;
   private IMapperFactory mapperFactory;
@@ -57,6 +73,11 @@ public abstract class AbstractDataStore<S, U> implements IDataStore<S, U> {
   private Map<String, IEncoder> encoderMap = new HashMap<>();
   private int defaultQueryLimit;
   private DataStoreSettings settings;
+  private final ChangePublisher changePublisher = new ChangePublisher(this);
+  private final IndexAdvisor indexAdvisor = new IndexAdvisor(this);
+  private final Map<Class<?>, RecordBatchLoader<?>> recordBatchLoaders = new ConcurrentHashMap<>();
+  private volatile IMetricsCollector metricsCollector;
+  private final List<Closeable> closeHooks = new CopyOnWriteArrayList<>();
 
   /**
    * Create a new instance. The possible properties are defined by its concete implementation
@@ -166,6 +187,8 @@ public abstract class AbstractDataStore<S, U> implements IDataStore<S, U> {
   protected void initSupportedKeyGenerators() {
     addSupportedKeyGenerator(new DebugGenerator(this));
     addSupportedKeyGenerator(new DefaultKeyGenerator(this));
+    addSupportedKeyGenerator(new BlockKeyGenerator(this));
+    addSupportedKeyGenerator(new LocalTimeBasedKeyGenerator(this));
   }
 
   /*
@@ -243,4 +266,92 @@ public abstract class AbstractDataStore<S, U> implements IDataStore<S, U> {
     return settings;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getChangePublisher()
+   */
+  @Override
+  public ChangePublisher getChangePublisher() {
+    return changePublisher;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getRecordBatchLoader(java.lang.Class)
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> RecordBatchLoader<T> getRecordBatchLoader(Class<T> mapperClass) {
+    return (RecordBatchLoader<T>) recordBatchLoaders.computeIfAbsent(mapperClass,
+        cls -> new RecordBatchLoader<>(this, mapperClass));
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getIndexAdvisor()
+   */
+  @Override
+  public IndexAdvisor getIndexAdvisor() {
+    return indexAdvisor;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getMetricsCollector()
+   */
+  @Override
+  public IMetricsCollector getMetricsCollector() {
+    return metricsCollector;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#setMetricsCollector(de.braintags.vertx.jomnigate.metrics.
+   * IMetricsCollector)
+   */
+  @Override
+  public void setMetricsCollector(IMetricsCollector metricsCollector) {
+    this.metricsCollector = metricsCollector;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#addCloseHook(io.vertx.core.Closeable)
+   */
+  @Override
+  public void addCloseHook(Closeable hook) {
+    closeHooks.add(hook);
+  }
+
+  /**
+   * Close all hooks, which were added by {@link #addCloseHook(Closeable)}. Implementations call this method by
+   * {@link #shutdown(Handler)}, before the client is closed. Errors of a hook are logged, so that the shutdown is
+   * continued
+   *
+   * @param handler
+   *          the handler to be informed, when all hooks are closed
+   */
+  @SuppressWarnings("rawtypes")
+  protected void closeHooks(Handler<Void> handler) {
+    List<Future> fl = new ArrayList<>();
+    for (Closeable hook : closeHooks) {
+      Future<Void> f = Future.future();
+      fl.add(f);
+      hook.close(f);
+    }
+    closeHooks.clear();
+    CompositeFuture.join(fl).setHandler(res -> {
+      if (res.failed()) {
+        LOGGER.error("error while closing the hooks of the datastore", res.cause());
+      }
+      handler.handle(null);
+    });
+  }
+
 }
@@ -0,0 +1,131 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.init;
+
+import de.braintags.vertx.jomnigate.observer.impl.AsyncObserver;
+
+/**
+ * Settings to execute an observer asynchronously. If those settings are set into an {@link ObserverDefinition}, the
+ * events are put into a bounded queue for each mapper and are processed in the background by an {@link AsyncObserver};
+ * the action, which created the events, does not wait for their execution. This mode should be used only for observers
+ * with side effects, like writing audit records or sending messages, and not for observers, which modify the
+ * entities. Therefore the definition must be restricted to the AFTER event types; the BEFORE event types can't be
+ * executed asynchronously
+ *
+ * @author Michael Remme
+ *
+ */
+public class AsyncObserverSettings {
+  /**
+   * The default maximum number of events inside the queue
+   */
+  public static final int DEFAULT_QUEUE_SIZE = 10000;
+
+  /**
+   * The default maximum number of events, which are processed together
+   */
+  public static final int DEFAULT_BATCH_SIZE = 100;
+
+  /**
+   * Defines the behaviour, when the queue of an asynchronous observer is full
+   */
+  public enum OverflowPolicy {
+    /**
+     * The events, which don't fit into the queue, are dropped and counted
+     */
+    DROP,
+    /**
+     * The action, which created the events, fails
+     */
+    FAIL,
+    /**
+     * The action, which created the events, waits until the queue has room for the events
+     */
+    WAIT
+  }
+
+  private int queueSize = DEFAULT_QUEUE_SIZE;
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+  /**
+   * The maximum number of events inside the queue
+   *
+   * @return the queueSize
+   */
+  public int getQueueSize() {
+    return queueSize;
+  }
+
+  /**
+   * The maximum number of events inside the queue
+   *
+   * @param queueSize
+   *          the queueSize to set, which must be at least 1
+   */
+  public void setQueueSize(final int queueSize) {
+    this.queueSize = queueSize;
+  }
+
+  /**
+   * The maximum number of events, which are handed to the observer together
+   *
+   * @return the batchSize
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * The maximum number of events, which are handed to the observer together
+   *
+   * @param batchSize
+   *          the batchSize to set, which must be at least 1
+   */
+  public void setBatchSize(final int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * The behaviour, when the queue is full
+   *
+   * @return the overflowPolicy
+   */
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  /**
+   * The behaviour, when the queue is full
+   *
+   * @param overflowPolicy
+   *          the overflowPolicy to set
+   */
+  public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * Creates a copy of the current instance
+   *
+   * @return a new instance
+   */
+  public AsyncObserverSettings deepCopy() {
+    AsyncObserverSettings res = new AsyncObserverSettings();
+    res.queueSize = queueSize;
+    res.batchSize = batchSize;
+    res.overflowPolicy = overflowPolicy;
+    return res;
+  }
+
+}
@@ -35,6 +35,11 @@ public class DataStoreSettings {
   private List<EncoderSettings> encoders = new ArrayList<>();
   private boolean clearDatabaseOnInit = false;
   private ObserverSettings observerSettings = new ObserverSettings();
+  private boolean publishChanges = false;
+  private boolean coalesceQueries = false;
+  private long slowQueryThreshold = 0;
+  private boolean explainSlowQueries = false;
+  private boolean adviseIndexes = false;
 
   /**
    * Standard constructor needed for saving as local file
@@ -177,6 +182,11 @@ public class DataStoreSettings {
       res.properties.put(property.getKey(), property.getValue());
     }
     res.clearDatabaseOnInit = clearDatabaseOnInit;
+    res.publishChanges = publishChanges;
+    res.coalesceQueries = coalesceQueries;
+    res.slowQueryThreshold = slowQueryThreshold;
+    res.explainSlowQueries = explainSlowQueries;
+    res.adviseIndexes = adviseIndexes;
 
     for (EncoderSettings encoder : encoders) {
       res.encoders.add(encoder.deepCopy());
@@ -194,4 +204,109 @@ public class DataStoreSettings {
     return observerSettings;
   }
 
+  /**
+   * Get if changes of records shall be published to the event bus by the
+   * {@link de.braintags.vertx.jomnigate.change.ChangePublisher}
+   * 
+   * @return true, if changes are published
+   */
+  public boolean isPublishChanges() {
+    return publishChanges;
+  }
+
+  /**
+   * Set if changes of records shall be published to the event bus by the
+   * {@link de.braintags.vertx.jomnigate.change.ChangePublisher}
+   * 
+   * @param publishChanges
+   *          true, if changes shall be published
+   */
+  public void setPublishChanges(final boolean publishChanges) {
+    this.publishChanges = publishChanges;
+  }
+
+  /**
+   * If true, identical queries and counts, which are executed at the same time, are combined into one access to the
+   * datastore, whose result is delivered to all callers
+   * 
+   * @return true, if queries are combined
+   */
+  public boolean isCoalesceQueries() {
+    return coalesceQueries;
+  }
+
+  /**
+   * Set if identical queries and counts, which are executed at the same time, shall be combined into one access to the
+   * datastore
+   * 
+   * @param coalesceQueries
+   *          true, if queries shall be combined
+   */
+  public void setCoalesceQueries(final boolean coalesceQueries) {
+    this.coalesceQueries = coalesceQueries;
+  }
+
+  /**
+   * The time in milliseconds, after which an executed query is logged as slow query with its native expression. A
+   * value <= 0 disables the log of slow queries
+   * 
+   * @return the threshold in milliseconds
+   */
+  public long getSlowQueryThreshold() {
+    return slowQueryThreshold;
+  }
+
+  /**
+   * Set the time in milliseconds, after which an executed query is logged as slow query. A value <= 0 disables the
+   * log of slow queries
+   * 
+   * @param slowQueryThreshold
+   *          the threshold in milliseconds
+   */
+  public void setSlowQueryThreshold(final long slowQueryThreshold) {
+    this.slowQueryThreshold = slowQueryThreshold;
+  }
+
+  /**
+   * If true, slow queries are explained by the datastore and the plan is logged together with the query
+   * 
+   * @return true, if slow queries are explained
+   */
+  public boolean isExplainSlowQueries() {
+    return explainSlowQueries;
+  }
+
+  /**
+   * Set if slow queries shall be explained by the datastore and the plan shall be logged. This executes an additional
+   * command for each slow query
+   * 
+   * @param explainSlowQueries
+   *          true, if slow queries shall be explained
+   */
+  public void setExplainSlowQueries(final boolean explainSlowQueries) {
+    this.explainSlowQueries = explainSlowQueries;
+  }
+
+  /**
+   * Returns true, if the shapes of executed queries are recorded by the
+   * {@link de.braintags.vertx.jomnigate.advisor.IndexAdvisor} of the datastore
+   * 
+   * @return true, if query shapes are recorded
+   */
+  public boolean isAdviseIndexes() {
+    return adviseIndexes;
+  }
+
+  /**
+   * Set if the shapes of executed queries shall be recorded by the
+   * {@link de.braintags.vertx.jomnigate.advisor.IndexAdvisor} of the datastore, so that missing and unused indexes
+   * can be reported
+   * 
+   * @param adviseIndexes
+   *          true, if query shapes shall be recorded
+   */
+  public void setAdviseIndexes(final boolean adviseIndexes) {
+    this.adviseIndexes = adviseIndexes;
+  }
+
 }
@@ -33,6 +33,7 @@ public class ObserverDefinition<T extends IObserver> {
   private List<ObserverMapperSettings> mapperSettings = new ArrayList<>();
   private int priority;
   private Properties observerProperties = new Properties();
+  private AsyncObserverSettings asyncSettings;
 
   @SuppressWarnings("unused")
   private ObserverDefinition() {
@@ -138,6 +139,28 @@ public class ObserverDefinition<T extends IObserver> {
     this.observerProperties = observerProperties;
   }
 
+  /**
+   * If the settings for asynchronous execution are set, the observer is executed in the background and the actions
+   * don't wait for it. If they are null, the observer is executed synchronously
+   * 
+   * @return the asyncSettings or null
+   */
+  public AsyncObserverSettings getAsyncSettings() {
+    return asyncSettings;
+  }
+
+  /**
+   * If the settings for asynchronous execution are set, the observer is executed in the background and the actions
+   * don't wait for it. If they are null, the observer is executed synchronously. Asynchronous settings are allowed
+   * only, if the definition is restricted to AFTER event types
+   * 
+   * @param asyncSettings
+   *          the asyncSettings to set
+   */
+  public void setAsyncSettings(final AsyncObserverSettings asyncSettings) {
+    this.asyncSettings = asyncSettings;
+  }
+
   /**
    * Checks wether the current settings are applicable to the given IMapper. The definition is applicable, if no mapper
    * settings are defined or if mapper settings are defined and one is fitting
@@ -188,6 +211,7 @@ public class ObserverDefinition<T extends IObserver> {
     res.eventTypeList.addAll(getEventTypeList());
     res.observerProperties.putAll(observerProperties);
     res.priority = getPriority();
+    res.asyncSettings = asyncSettings == null ? null : asyncSettings.deepCopy();
 
     for (ObserverMapperSettings mapperSetting : mapperSettings) {
       res.mapperSettings.add(mapperSetting.deepCopy());
@@ -19,6 +19,9 @@ import java.util.Set;
 import com.google.common.collect.ImmutableSet;
 
 import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.annotation.Cached;
+import de.braintags.vertx.jomnigate.annotation.CachedCounts;
+import de.braintags.vertx.jomnigate.annotation.CachedQueries;
 import de.braintags.vertx.jomnigate.annotation.Entity;
 import de.braintags.vertx.jomnigate.annotation.KeyGenerator;
 import de.braintags.vertx.jomnigate.annotation.VersionInfo;
@@ -29,6 +32,9 @@ import de.braintags.vertx.jomnigate.annotation.lifecycle.AfterSave;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.BeforeDelete;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.BeforeLoad;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.BeforeSave;
+import de.braintags.vertx.jomnigate.cache.CountCache;
+import de.braintags.vertx.jomnigate.cache.EntityCache;
+import de.braintags.vertx.jomnigate.cache.QueryCache;
 import de.braintags.vertx.jomnigate.mapping.datastore.ITableInfo;
 import de.braintags.vertx.jomnigate.mapping.impl.DefaultObjectFactory;
 import de.braintags.vertx.jomnigate.observer.IObserverHandler;
@@ -121,6 +127,27 @@ public interface IMapper<T> {
    */
   VersionInfo getVersionInfo();
 
+  /**
+   * Get the second level cache of the mapper, which is activated by the annotation {@link Cached}
+   * 
+   * @return the cache or null, if the mapper is not cached
+   */
+  EntityCache<T> getEntityCache();
+
+  /**
+   * Get the cache of query results of the mapper, which is activated by the annotation {@link CachedQueries}
+   * 
+   * @return the cache or null, if query results are not cached
+   */
+  QueryCache<T> getQueryCache();
+
+  /**
+   * Get the cache of counts of the mapper, which is activated by the annotation {@link CachedCounts}
+   * 
+   * @return the cache or null, if counts are not cached
+   */
+  CountCache<T> getCountCache();
+
   /**
    * Get the definitions about indexes, which shall be created for the current mapper
    * 
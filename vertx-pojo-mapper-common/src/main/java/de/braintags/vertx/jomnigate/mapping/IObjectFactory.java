@@ -42,6 +42,21 @@ public interface IObjectFactory {
   @SuppressWarnings("rawtypes")
   Collection createCollection(IProperty field);
 
+  /**
+   * Create a new instance of {@link Collection}, which is presized for the given number of elements, if the
+   * implementation supports it
+   * 
+   * @param field
+   *          the {@link IProperty} definition
+   * @param expectedSize
+   *          the number of elements, which will be added
+   * @return a new {@link Collection}
+   */
+  @SuppressWarnings("rawtypes")
+  default Collection createCollection(IProperty field, int expectedSize) {
+    return createCollection(field);
+  }
+
   /**
    * Create a new instance of {@link Map}
    * 
@@ -52,6 +67,21 @@ public interface IObjectFactory {
   @SuppressWarnings("rawtypes")
   Map createMap(IProperty field);
 
+  /**
+   * Create a new instance of {@link Map}, which is presized for the given number of entries, if the implementation
+   * supports it
+   * 
+   * @param field
+   *          the field to create a map for
+   * @param expectedSize
+   *          the number of entries, which will be added
+   * @return the new instance
+   */
+  @SuppressWarnings("rawtypes")
+  default Map createMap(IProperty field, int expectedSize) {
+    return createMap(field);
+  }
+
   /**
    * Set the Mapper, where the IObjectFactory is contained
    * 
@@ -25,6 +25,9 @@ import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
 
+import de.braintags.vertx.jomnigate.annotation.Cached;
+import de.braintags.vertx.jomnigate.annotation.CachedCounts;
+import de.braintags.vertx.jomnigate.annotation.CachedQueries;
 import de.braintags.vertx.jomnigate.annotation.Entity;
 import de.braintags.vertx.jomnigate.annotation.Index;
 import de.braintags.vertx.jomnigate.annotation.Indexes;
@@ -37,8 +40,12 @@ import de.braintags.vertx.jomnigate.annotation.lifecycle.AfterSave;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.BeforeDelete;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.BeforeLoad;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.BeforeSave;
+import de.braintags.vertx.jomnigate.cache.CountCache;
+import de.braintags.vertx.jomnigate.cache.EntityCache;
+import de.braintags.vertx.jomnigate.cache.QueryCache;
 import de.braintags.vertx.jomnigate.dataaccess.query.IIndexedField;
 import de.braintags.vertx.jomnigate.dataaccess.query.IdField;
+import de.braintags.vertx.jomnigate.datatypes.LazyRef;
 import de.braintags.vertx.jomnigate.exception.MappingException;
 import de.braintags.vertx.jomnigate.mapping.IIdInfo;
 import de.braintags.vertx.jomnigate.mapping.IIndexDefinition;
@@ -93,6 +100,9 @@ public abstract class AbstractMapper<T> implements IMapper<T> {
   private IIdInfo idInfo;
   private Entity entity;
   private VersionInfo versionInfo;
+  private EntityCache<T> entityCache;
+  private QueryCache<T> queryCache;
+  private CountCache<T> countCache;
   private ImmutableSet<IIndexDefinition> indexes;
   private ITableInfo tableInfo;
   private boolean syncNeeded = true;
@@ -127,6 +137,7 @@ public abstract class AbstractMapper<T> implements IMapper<T> {
     computeEntity();
     computeVersionInfo();
     computeKeyGenerator();
+    computeCaches();
     generateTableInfo();
     computeIndexes();
     checkReferencedFields();
@@ -170,7 +181,10 @@ public abstract class AbstractMapper<T> implements IMapper<T> {
     for (IProperty field : getMappedProperties().values()) {
       if (field.hasAnnotation(Referenced.class)) {
         hasReferencedFields = true;
-        return;
+        if (((Referenced) field.getAnnotation(Referenced.class)).lazy()
+            && !LazyRef.class.isAssignableFrom(field.getType())) {
+          throw new MappingException("Lazy referenced fields must be declared as LazyRef: " + field.getFullName());
+        }
       }
     }
   }
@@ -193,6 +207,27 @@ public abstract class AbstractMapper<T> implements IMapper<T> {
     }
   }
 
+  protected void computeCaches() {
+    if (getMapperFactory().getDataStore() == null) {
+      return;
+    }
+    if (mapperClass.isAnnotationPresent(Cached.class)) {
+      Cached cached = mapperClass.getAnnotation(Cached.class);
+      entityCache = new EntityCache<>(this, cached.maxEntries(), cached.ttl());
+      getMapperFactory().getDataStore().getChangePublisher().subscribe(mapperClass, entityCache);
+    }
+    if (mapperClass.isAnnotationPresent(CachedQueries.class)) {
+      CachedQueries cached = mapperClass.getAnnotation(CachedQueries.class);
+      queryCache = new QueryCache<>(this, cached.maxEntries(), cached.ttl());
+      getMapperFactory().getDataStore().getChangePublisher().subscribe(mapperClass, queryCache);
+    }
+    if (mapperClass.isAnnotationPresent(CachedCounts.class)) {
+      CachedCounts cached = mapperClass.getAnnotation(CachedCounts.class);
+      countCache = new CountCache<>(this, cached.maxEntries(), cached.ttl());
+      getMapperFactory().getDataStore().getChangePublisher().subscribe(mapperClass, countCache);
+    }
+  }
+
   protected void computeEntity() {
     if (mapperClass.isAnnotationPresent(Entity.class)) {
       entity = mapperClass.getAnnotation(Entity.class);
@@ -520,6 +555,36 @@ public abstract class AbstractMapper<T> implements IMapper<T> {
     return versionInfo;
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.mapping.IMapper#getEntityCache()
+   */
+  @Override
+  public EntityCache<T> getEntityCache() {
+    return entityCache;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.mapping.IMapper#getQueryCache()
+   */
+  @Override
+  public QueryCache<T> getQueryCache() {
+    return queryCache;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.mapping.IMapper#getCountCache()
+   */
+  @Override
+  public CountCache<T> getCountCache() {
+    return countCache;
+  }
+
   @Override
   public ImmutableSet<IIndexDefinition> getIndexDefinitions() {
     return indexes;
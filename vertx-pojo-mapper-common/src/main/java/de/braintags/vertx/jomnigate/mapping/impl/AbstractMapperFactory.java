@@ -13,13 +13,16 @@
 package de.braintags.vertx.jomnigate.mapping.impl;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.Entity;
+import de.braintags.vertx.jomnigate.change.ChangePublisher;
 import de.braintags.vertx.jomnigate.exception.MappingException;
 import de.braintags.vertx.jomnigate.init.ObserverDefinition;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
@@ -43,9 +46,16 @@ public abstract class AbstractMapperFactory implements IMapperFactory {
       .getLogger(AbstractMapperFactory.class);
 
   private IDataStore<?, ?> datastore;
-  private Map<String, IMapper<?>> mappedClasses = new HashMap<>();
+  /**
+   * Completely created mappers, keyed by the mapped class
+   */
+  private final ConcurrentMap<Class<?>, IMapper<?>> mappedClasses = new ConcurrentHashMap<>();
+  /**
+   * Mappers, which are currently under construction. Concurrent callers for the same class are waiting for the same
+   * task, so that a mapper is built only once
+   */
+  private final ConcurrentMap<Class<?>, FutureTask<IMapper<?>>> pendingMappers = new ConcurrentHashMap<>();
   private BeforeMappingHandler beforeMappingHandler = new BeforeMappingHandler();
-  private Object so = new Object();
 
   /**
    * @param dataStore
@@ -56,8 +66,31 @@ public abstract class AbstractMapperFactory implements IMapperFactory {
 
   @Override
   public void reset() {
-    synchronized (so) {
-      mappedClasses = new HashMap<>();
+    mappedClasses.values().forEach(this::unsubscribeCaches);
+    mappedClasses.clear();
+    pendingMappers.clear();
+  }
+
+  /**
+   * Remove the caches of a mapper, which is dropped by {@link #reset()}, from the {@link ChangePublisher}, so that they
+   * are not informed anymore and can be released
+   * 
+   * @param mapper
+   *          the dropped mapper
+   */
+  private void unsubscribeCaches(IMapper<?> mapper) {
+    if (datastore == null) {
+      return;
+    }
+    ChangePublisher publisher = datastore.getChangePublisher();
+    if (mapper.getEntityCache() != null) {
+      publisher.unsubscribe(mapper.getMapperClass(), mapper.getEntityCache());
+    }
+    if (mapper.getQueryCache() != null) {
+      publisher.unsubscribe(mapper.getMapperClass(), mapper.getQueryCache());
+    }
+    if (mapper.getCountCache() != null) {
+      publisher.unsubscribe(mapper.getMapperClass(), mapper.getCountCache());
     }
   }
 
@@ -74,22 +107,53 @@ public abstract class AbstractMapperFactory implements IMapperFactory {
   @SuppressWarnings("unchecked")
   @Override
   public final <T> IMapper<T> getMapper(Class<T> mapperClass) {
-    String className = mapperClass.getName();
-    if (mappedClasses.containsKey(className)) {
-      return (IMapper<T>) mappedClasses.get(className);
+    IMapper<?> mapper = mappedClasses.get(mapperClass);
+    if (mapper != null) {
+      return (IMapper<T>) mapper;
     }
     if (!mapperClass.isAnnotationPresent(Entity.class))
       throw new UnsupportedOperationException(String
           .format("The class %s is no mappable entity. Add the annotation Entity to the class", mapperClass.getName()));
+    return (IMapper<T>) awaitMapper(mapperClass);
+  }
 
-    IMapper<T> mapper = createMapperBlocking(mapperClass);
-
-    synchronized (so) {
-      Map<String, IMapper<?>> tmpMap = new HashMap<>(mappedClasses);
-      tmpMap.put(className, mapper);
-      mappedClasses = tmpMap;
+  /**
+   * Creates the mapper for the given class or waits for a creation, which was started by another thread. Only the
+   * thread, which registered the construction task, is executing it
+   * 
+   * @param mapperClass
+   *          the class to be mapped
+   * @return the created mapper
+   */
+  private IMapper<?> awaitMapper(Class<?> mapperClass) {
+    FutureTask<IMapper<?>> task = new FutureTask<>(() -> createMapperBlocking(mapperClass));
+    FutureTask<IMapper<?>> existing = pendingMappers.putIfAbsent(mapperClass, task);
+    if (existing == null) {
+      IMapper<?> mapper = mappedClasses.get(mapperClass);
+      if (mapper != null) {
+        // created by another thread between the first lookup and the registration of the task
+        pendingMappers.remove(mapperClass, task);
+        return mapper;
+      }
+      task.run();
+      existing = task;
+    }
+    try {
+      IMapper<?> mapper = existing.get();
+      mappedClasses.putIfAbsent(mapperClass, mapper);
+      pendingMappers.remove(mapperClass, existing);
+      return mapper;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InitException("Init of mapping not possible", e);
+    } catch (ExecutionException e) {
+      // allow a new try with the next request
+      pendingMappers.remove(mapperClass, existing);
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new MappingException(e.getCause());
     }
-    return mapper;
   }
 
   private final <T> IMapper<T> createMapperBlocking(Class<T> mapperClass) {
@@ -214,7 +278,7 @@ public abstract class AbstractMapperFactory implements IMapperFactory {
 
   @Override
   public final boolean isMapper(Class<?> mapperClass) {
-    if (mappedClasses.containsKey(mapperClass.getName()) || mapperClass.isAnnotationPresent(Entity.class))
+    if (mappedClasses.containsKey(mapperClass) || mapperClass.isAnnotationPresent(Entity.class))
       return true;
     return false;
   }
@@ -19,6 +19,8 @@ import java.util.List;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.IStoreObject;
 import de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
@@ -44,9 +46,14 @@ public abstract class AbstractStoreObjectFactory<F> implements IStoreObjectFacto
   @Override
   public <T> void createStoreObjects(final IMapper<T> mapper, final List<T> entities,
       final Handler<AsyncResult<List<IStoreObject<T, F>>>> handler) {
+    IMetricsCollector metrics = mapper.getMapperFactory().getDataStore().getMetricsCollector();
+    long start = metrics == null ? 0 : System.nanoTime();
     List<Future> fl = createFutureList(mapper, entities);
     CompositeFuture cf = CompositeFuture.all(fl);
     cf.setHandler(result -> {
+      if (metrics != null) {
+        metrics.record(MetricType.MAPPING_WRITE, mapper.getMapperClass(), System.nanoTime() - start, entities.size());
+      }
       if (result.failed()) {
         handler.handle(Future.failedFuture(result.cause()));
       } else {
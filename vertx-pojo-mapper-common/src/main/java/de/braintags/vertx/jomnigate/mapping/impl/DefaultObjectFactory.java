@@ -12,49 +12,65 @@
  */
 package de.braintags.vertx.jomnigate.mapping.impl;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 import de.braintags.vertx.jomnigate.exception.MappingException;
-import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.IObjectFactory;
+import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.util.ClassUtil;
 
 /**
- * Default implementation of {@link IObjectFactory}
+ * Default implementation of {@link IObjectFactory}. The constructor of each class and the factory of each collection
+ * or map property is resolved only once and cached afterwards
  * 
  * @author Michael Remme
  * 
  */
 
 public class DefaultObjectFactory implements IObjectFactory {
+  private static final MethodType OBJECT_SUPPLIER_TYPE = MethodType.methodType(Object.class);
+  /**
+   * The size, which is used, if the number of elements is not known; the default implementations are created by their
+   * default constructor then
+   */
+  private static final int UNKNOWN_SIZE = -1;
+  private static final IntFunction<Object> DEFAULT_LIST_FACTORY = size -> size == UNKNOWN_SIZE ? new ArrayList<>()
+      : new ArrayList<>(size);
+  private static final IntFunction<Object> DEFAULT_SET_FACTORY = size -> size == UNKNOWN_SIZE ? new HashSet<>()
+      : new HashSet<>(capacity(size));
+  private static final IntFunction<Object> DEFAULT_MAP_FACTORY = size -> size == UNKNOWN_SIZE ? new HashMap<>()
+      : new HashMap<>(capacity(size));
+
   private IMapper mapper;
-  private static final Class<?> DEFAULT_LIST_CLASS = ArrayList.class;
-  private static final Class<?> DEFAULT_SET_CLASS = HashSet.class;
-  private static final Class<?> DEFAULT_MAP_CLASS = HashMap.class;
+  private final ConcurrentMap<Class<?>, Supplier<?>> instanceSuppliers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<IProperty, IntFunction<Object>> propertyFactories = new ConcurrentHashMap<>();
 
   /*
    * (non-Javadoc)
    * 
    * @see de.braintags.vertx.jomnigate.mapping.IObjectFactory#createInstance(java.lang.Class)
    */
+  @SuppressWarnings("unchecked")
   @Override
   public <T> T createInstance(Class<T> clazz) {
-    try {
-      if (!ClassUtil.hasDefaultConstructor(clazz)) {
-        throw new MappingException("No default constructor existing in class " + clazz.getName());
-      }
-      return clazz.newInstance();
-    } catch (InstantiationException | IllegalAccessException e) {
-      throw new MappingException(e);
+    Supplier<?> supplier = instanceSuppliers.get(clazz);
+    if (supplier == null) {
+      supplier = instanceSuppliers.computeIfAbsent(clazz, DefaultObjectFactory::createSupplier);
     }
+    return (T) supplier.get();
   }
 
   /*
@@ -80,42 +96,108 @@ public class DefaultObjectFactory implements IObjectFactory {
 
   @Override
   public Collection<?> createCollection(IProperty field) {
-    if (field.isSet()) {
-      return createSet(field);
-    } else if (field.isCollection())
-      return createList(field);
-    else
-      throw new UnsupportedOperationException("this should not land here");
+    return (Collection<?>) getPropertyFactory(field).apply(UNKNOWN_SIZE);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * de.braintags.vertx.jomnigate.mapping.IObjectFactory#createCollection(de.braintags.vertx.jomnigate.mapping.IProperty,
+   * int)
+   */
+  @Override
+  public Collection<?> createCollection(IProperty field, int expectedSize) {
+    return (Collection<?>) getPropertyFactory(field).apply(Math.max(0, expectedSize));
+  }
+
+  @Override
+  public Map<?, ?> createMap(IProperty field) {
+    return (Map<?, ?>) getPropertyFactory(field).apply(UNKNOWN_SIZE);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.mapping.IObjectFactory#createMap(de.braintags.vertx.jomnigate.mapping.IProperty,
+   * int)
+   */
+  @Override
+  public Map<?, ?> createMap(IProperty field, int expectedSize) {
+    return (Map<?, ?>) getPropertyFactory(field).apply(Math.max(0, expectedSize));
   }
 
-  @SuppressWarnings("rawtypes")
-  private Set createSet(IProperty field) {
-    return (Set) newInstance(field.getConstructor(), DEFAULT_SET_CLASS);
+  private IntFunction<Object> getPropertyFactory(final IProperty field) {
+    IntFunction<Object> factory = propertyFactories.get(field);
+    if (factory == null) {
+      factory = propertyFactories.computeIfAbsent(field, DefaultObjectFactory::createPropertyFactory);
+    }
+    return factory;
   }
 
-  @SuppressWarnings("rawtypes")
-  private List createList(IProperty field) {
-    return (List) newInstance(field.getConstructor(), DEFAULT_LIST_CLASS);
+  /**
+   * Creates the factory for the collection or map of the given property. If the property defines one of the default
+   * implementations or an interface, the created instances are presized
+   */
+  private static IntFunction<Object> createPropertyFactory(final IProperty field) {
+    IntFunction<Object> defaultFactory;
+    Class<?> defaultClass;
+    if (field.isMap()) {
+      defaultFactory = DEFAULT_MAP_FACTORY;
+      defaultClass = HashMap.class;
+    } else if (field.isSet()) {
+      defaultFactory = DEFAULT_SET_FACTORY;
+      defaultClass = HashSet.class;
+    } else if (field.isCollection()) {
+      defaultFactory = DEFAULT_LIST_FACTORY;
+      defaultClass = ArrayList.class;
+    } else {
+      throw new UnsupportedOperationException("this should not land here");
+    }
+    Constructor<?> constructor = field.getConstructor();
+    if (constructor == null || constructor.getDeclaringClass() == defaultClass) {
+      return defaultFactory;
+    }
+    Supplier<?> supplier = createSupplier(constructor);
+    return size -> supplier.get();
+  }
+
+  private static Supplier<?> createSupplier(final Class<?> clazz) {
+    if (!ClassUtil.hasDefaultConstructor(clazz)) {
+      throw new MappingException("No default constructor existing in class " + clazz.getName());
+    }
+    try {
+      return createSupplier(clazz.getDeclaredConstructor());
+    } catch (NoSuchMethodException e) {
+      throw new MappingException(e);
+    }
   }
 
   /**
-   * creates an instance of testType (if it isn't Object.class or null) or fallbackType
+   * Creates a {@link Supplier} which invokes the given no-arg constructor through a {@link MethodHandle}, so that the
+   * access checks are done only once
    */
-  private Object newInstance(final Constructor<?> constructor, final Class<?> fallbackType) {
-    if (constructor != null) {
+  private static Supplier<?> createSupplier(final Constructor<?> constructor) {
+    MethodHandle handle;
+    try {
       constructor.setAccessible(true);
+      handle = MethodHandles.lookup().unreflectConstructor(constructor).asType(OBJECT_SUPPLIER_TYPE);
+    } catch (IllegalAccessException | SecurityException e) {
+      throw new MappingException(e);
+    }
+    return () -> {
       try {
-        return constructor.newInstance();
-      } catch (Exception e) {
+        return handle.invokeExact();
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
         throw new MappingException(e);
       }
-    }
-    return createInstance(fallbackType);
+    };
   }
 
-  @Override
-  public Map<?, ?> createMap(IProperty field) {
-    return (Map<?, ?>) newInstance(field.getConstructor(), DEFAULT_MAP_CLASS);
+  private static int capacity(final int expectedSize) {
+    return expectedSize < 3 ? expectedSize + 1 : (int) (expectedSize / 0.75f + 1.0f);
   }
 
 }
@@ -28,7 +28,9 @@ import de.braintags.vertx.jomnigate.exception.MappingException;
 import de.braintags.vertx.jomnigate.mapping.IIdInfo;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.IObjectFactory;
+import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.mapping.IPropertyAccessor;
+import de.braintags.vertx.jomnigate.typehandler.ITypeHandler;
 import de.braintags.vertx.util.ClassUtil;
 import de.braintags.vertx.util.exception.ClassAccessException;
 
@@ -76,6 +78,21 @@ public class Mapper<T> extends AbstractMapper<T> {
     this.keyGeneratorReference = getEntity().polyClass() == Object.class ? getMapperClass().getSimpleName()
         : getEntity().polyClass().getSimpleName();
     computeObjectFactory();
+    computeTypeHandlers();
+  }
+
+  /**
+   * Resolve the {@link ITypeHandler} and sub-{@link ITypeHandler} of all mapped properties once during the mapping
+   * process, so that they are not examined during reading and writing of instances
+   */
+  protected void computeTypeHandlers() {
+    if (getMapperFactory().getTypeHandlerFactory() == null) {
+      return;
+    }
+    for (IProperty property : getMappedProperties().values()) {
+      property.getTypeHandler();
+      property.getSubTypeHandler();
+    }
   }
 
   private void computeObjectFactory() {
@@ -0,0 +1,264 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mapping.impl.keygen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.keygenerator.KeyGeneratorVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * The BlockKeyGenerator is a hi / lo generator. It requests one key from the {@link KeyGeneratorVerticle} ( the "hi"
+ * value ) and uses it to lease a block of keys, which are delivered locally without further messages through the
+ * eventbus. Each hi value reserves the keys from {@link #KEY_OFFSET} + hi * {@link #MAX_BLOCK_SIZE} until
+ * {@link #KEY_OFFSET} + hi * {@link #MAX_BLOCK_SIZE} + {@link #MAX_BLOCK_SIZE} - 1, from which the first blockSize keys
+ * are used. Because the reserved range does not depend on the block size, the block size can be changed between two
+ * runs without creating duplicate keys. When the current block is used up to a quarter, the next block is leased in
+ * the background, so that the generation of keys is not waiting for the eventbus in normal operation.
+ * Blocks are leased per key generator reference of an {@link IMapper}. The hi values are requested with the reference
+ * extended by {@link #REFERENCE_SUFFIX}. Because this counter is independent from the counter of the
+ * {@link DefaultKeyGenerator}, all keys start at {@link #KEY_OFFSET}, above the keys of the
+ * {@link DefaultKeyGenerator}, so a mapper can be switched from the {@link DefaultKeyGenerator} to the
+ * BlockKeyGenerator without reading its counter.
+ * Keys of a block, which was not used up, are lost, when the datastore is stopped.
+ * The size of the blocks can be defined by the property {@link #BLOCK_SIZE_PROPERTY} of the datastore.
+ *
+ * @author Michael Remme
+ *
+ */
+public class BlockKeyGenerator extends AbstractKeyGenerator {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(BlockKeyGenerator.class);
+  public static final String NAME = "BlockKeyGenerator";
+
+  /**
+   * The name of the property of the datastore, which defines the number of keys leased by one request
+   */
+  public static final String BLOCK_SIZE_PROPERTY = "blockKeyGeneratorSize";
+
+  /**
+   * The default number of keys leased by one request
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 1000;
+
+  /**
+   * The number of keys, which are reserved by one hi value and the maximum size of a block
+   */
+  public static final int MAX_BLOCK_SIZE = 10000;
+
+  /**
+   * The start of the keys of the BlockKeyGenerator. The keys of the {@link DefaultKeyGenerator} are expected to stay
+   * below this value, so that both generators never deliver the same key for one reference
+   */
+  public static final long KEY_OFFSET = 1L << 40;
+
+  /**
+   * The suffix, which is added to the key generator reference of a mapper to request the hi value of a block
+   */
+  public static final String REFERENCE_SUFFIX = "_block";
+
+  private final Vertx vertx;
+  private final int blockSize;
+  private final ConcurrentMap<String, KeyBlocks> blocks = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance with the block size defined by the property {@link #BLOCK_SIZE_PROPERTY} of the datastore
+   *
+   * @param datastore
+   */
+  public BlockKeyGenerator(IDataStore datastore) {
+    this(datastore, datastore.getProperties() == null ? DEFAULT_BLOCK_SIZE
+        : datastore.getProperties().getInteger(BLOCK_SIZE_PROPERTY, DEFAULT_BLOCK_SIZE));
+  }
+
+  /**
+   * Creates a new instance with the given block size
+   *
+   * @param datastore
+   * @param blockSize
+   *          the number of keys, which are leased by one request
+   */
+  public BlockKeyGenerator(IDataStore datastore, int blockSize) {
+    super(NAME, datastore);
+    if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE) {
+      throw new IllegalArgumentException("block size must be between 1 and " + MAX_BLOCK_SIZE + ": " + blockSize);
+    }
+    this.vertx = datastore.getVertx();
+    this.blockSize = blockSize;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.mapping.IKeyGenerator#generateKey(de.braintags.vertx.jomnigate.mapping.
+   * IMapper, io.vertx.core.Handler)
+   */
+  @Override
+  public void generateKey(IMapper<?> mapper, Handler<AsyncResult<Key>> handler) {
+    String reference = mapper.getKeyGeneratorReference();
+    KeyBlocks kb = blocks.get(reference);
+    if (kb == null) {
+      kb = blocks.computeIfAbsent(reference, KeyBlocks::new);
+    }
+    kb.next(handler);
+  }
+
+  /**
+   * Get the number of keys, which are leased by one request
+   *
+   * @return the block size
+   */
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Request the hi value of a new block for the given reference. The default implementation requests a key from the
+   * {@link KeyGeneratorVerticle}
+   *
+   * @param reference
+   *          the key generator reference of a mapper
+   * @param handler
+   *          the handler to receive the hi value
+   */
+  protected void leaseBlock(String reference, Handler<AsyncResult<Long>> handler) {
+    vertx.eventBus().send(KeyGeneratorVerticle.SERVICE_NAME, reference + REFERENCE_SUFFIX, result -> {
+      if (result.failed()) {
+        handler.handle(Future.failedFuture(result.cause()));
+      } else {
+        try {
+          handler.handle(Future.succeededFuture(Long.parseLong(String.valueOf(result.result().body()))));
+        } catch (NumberFormatException e) {
+          handler.handle(Future.failedFuture(e));
+        }
+      }
+    });
+  }
+
+  /**
+   * A range of keys from start ( inclusive ) until end ( exclusive )
+   */
+  private static class Block {
+    private final AtomicLong next;
+    private final long end;
+    private final long prefetchAt;
+
+    Block(long start, long end, long prefetchAt) {
+      this.next = new AtomicLong(start);
+      this.end = end;
+      this.prefetchAt = prefetchAt;
+    }
+  }
+
+  /**
+   * The blocks of one key generator reference. Keys are delivered from the current block without locking; only the
+   * switch to the next block and the leasing of blocks are synchronized
+   */
+  private class KeyBlocks {
+    private final String reference;
+    private volatile Block current;
+    private Block prefetched;
+    private boolean leasing;
+    private List<Handler<AsyncResult<Key>>> waitingHandlers = new ArrayList<>();
+
+    KeyBlocks(String reference) {
+      this.reference = reference;
+    }
+
+    void next(Handler<AsyncResult<Key>> handler) {
+      while (true) {
+        Block block = current;
+        if (block != null) {
+          long id = block.next.getAndIncrement();
+          if (id < block.end) {
+            if (id == block.prefetchAt) {
+              prefetch();
+            }
+            handler.handle(Future.succeededFuture(new Key(id)));
+            return;
+          }
+        }
+        synchronized (this) {
+          if (current != block) {
+            continue;
+          }
+          if (prefetched != null) {
+            current = prefetched;
+            prefetched = null;
+            continue;
+          }
+          waitingHandlers.add(handler);
+          if (leasing) {
+            return;
+          }
+          leasing = true;
+        }
+        lease();
+        return;
+      }
+    }
+
+    private void prefetch() {
+      synchronized (this) {
+        if (leasing || prefetched != null) {
+          return;
+        }
+        leasing = true;
+      }
+      lease();
+    }
+
+    private void lease() {
+      leaseBlock(reference, this::leased);
+    }
+
+    private void leased(AsyncResult<Long> result) {
+      Block block = null;
+      if (result.succeeded()) {
+        long start = KEY_OFFSET + result.result() * MAX_BLOCK_SIZE;
+        long end = start + blockSize;
+        block = new Block(start, end, end - Math.max(1, blockSize / 4));
+      }
+      List<Handler<AsyncResult<Key>>> handlers;
+      synchronized (this) {
+        leasing = false;
+        handlers = waitingHandlers;
+        waitingHandlers = new ArrayList<>();
+        if (block != null) {
+          Block cur = current;
+          if (cur == null || cur.next.get() >= cur.end) {
+            current = block;
+          } else {
+            prefetched = block;
+          }
+        }
+      }
+      if (result.failed()) {
+        LOGGER.error("could not lease a block of keys for " + reference, result.cause());
+        handlers.forEach(h -> h.handle(Future.failedFuture(result.cause())));
+      } else {
+        handlers.forEach(this::next);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.mapping.impl.keygen;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * The LocalTimeBasedKeyGenerator generates unique, roughly time ordered keys of type long on the calling thread,
+ * without any communication with other instances. A key is composed like this:
+ *
+ * <pre>
+ * | 41 bits milliseconds since {@link #EPOCH} | 10 bits node id | 12 bits counter |
+ * </pre>
+ *
+ * The node id must be unique for each process, which writes into the same datastore. It is defined by the property
+ * {@link #NODE_ID_PROPERTY} of the datastore; if it is not set, the generation of keys fails, because two processes
+ * with the same node id would create duplicate keys. If more than 4096 keys are requested in one millisecond, the keys
+ * of the following milliseconds are used, so that the generator never waits.
+ * The keys are not dense and are not useful for datastores, which require numeric keys in a small range.
+ *
+ * @author Michael Remme
+ *
+ */
+public class LocalTimeBasedKeyGenerator extends AbstractKeyGenerator {
+  public static final String NAME = "LocalTimeBasedKeyGenerator";
+
+  /**
+   * The name of the property of the datastore, which defines the node id of the current process ( 0 - 1023 )
+   */
+  public static final String NODE_ID_PROPERTY = "keyGeneratorNodeId";
+
+  /**
+   * The start of the time range covered by the generated keys ( 2017-01-01T00:00:00Z )
+   */
+  public static final long EPOCH = 1483228800000L;
+
+  private static final int COUNTER_BITS = 12;
+  private static final int NODE_BITS = 10;
+  private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+  public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+  private static final long NO_NODE = -1;
+
+  /**
+   * The node id shifted by COUNTER_BITS or NO_NODE, if no node id was defined
+   */
+  private final long nodeBits;
+  /**
+   * Contains the milliseconds since EPOCH shifted by COUNTER_BITS plus the counter of the last generated key
+   */
+  private final AtomicLong state = new AtomicLong();
+
+  /**
+   * Creates a new instance with the node id defined by the property {@link #NODE_ID_PROPERTY} of the datastore. If the
+   * property is not set, the instance can't generate keys
+   *
+   * @param datastore
+   */
+  public LocalTimeBasedKeyGenerator(IDataStore datastore) {
+    this(datastore, readNodeId(datastore));
+  }
+
+  /**
+   * Creates a new instance with the given node id
+   *
+   * @param datastore
+   * @param nodeId
+   *          the node id of the current process ( 0 - 1023 )
+   */
+  public LocalTimeBasedKeyGenerator(IDataStore datastore, int nodeId) {
+    this(datastore, Integer.valueOf(nodeId));
+  }
+
+  private LocalTimeBasedKeyGenerator(IDataStore datastore, Integer nodeId) {
+    super(NAME, datastore);
+    if (nodeId != null && (nodeId < 0 || nodeId > MAX_NODE_ID)) {
+      throw new IllegalArgumentException("node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+    }
+    this.nodeBits = nodeId == null ? NO_NODE : (long) nodeId << COUNTER_BITS;
+  }
+
+  private static Integer readNodeId(IDataStore datastore) {
+    return datastore.getProperties() == null ? null : datastore.getProperties().getInteger(NODE_ID_PROPERTY);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.mapping.IKeyGenerator#generateKey(de.braintags.vertx.jomnigate.mapping.
+   * IMapper, io.vertx.core.Handler)
+   */
+  @Override
+  public void generateKey(IMapper<?> mapper, Handler<AsyncResult<Key>> handler) {
+    if (nodeBits == NO_NODE) {
+      handler.handle(Future.failedFuture(createMissingNodeException()));
+    } else {
+      handler.handle(Future.succeededFuture(new Key(nextKey())));
+    }
+  }
+
+  /**
+   * Generate the next key
+   *
+   * @return a unique key
+   * @throws IllegalStateException
+   *           if no node id is defined
+   */
+  public long nextKey() {
+    if (nodeBits == NO_NODE) {
+      throw createMissingNodeException();
+    }
+    long now = (System.currentTimeMillis() - EPOCH) << COUNTER_BITS;
+    long prev;
+    long next;
+    do {
+      prev = state.get();
+      next = now > prev ? now : prev + 1;
+    } while (!state.compareAndSet(prev, next));
+    return ((next & ~COUNTER_MASK) << NODE_BITS) | nodeBits | (next & COUNTER_MASK);
+  }
+
+  private static IllegalStateException createMissingNodeException() {
+    return new IllegalStateException("the property " + NODE_ID_PROPERTY
+        + " of the datastore must define a node id, which is unique for each process");
+  }
+
+  /**
+   * Get the node id of the current instance
+   *
+   * @return the node id or -1, if no node id is defined
+   */
+  public int getNodeId() {
+    return nodeBits == NO_NODE ? -1 : (int) (nodeBits >>> COUNTER_BITS);
+  }
+
+}
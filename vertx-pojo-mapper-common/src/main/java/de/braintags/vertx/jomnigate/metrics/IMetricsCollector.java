@@ -0,0 +1,41 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.metrics;
+
+/**
+ * An IMetricsCollector receives the duration of the operations of an
+ * {@link de.braintags.vertx.jomnigate.IDataStore}. Implementations can collect the values by themselves, like
+ * {@link MetricsCollector}, or forward them to a metrics library. The method is called on the event loop, so
+ * implementations must not block.
+ *
+ * @author Michael Remme
+ *
+ */
+public interface IMetricsCollector {
+
+  /**
+   * Record one execution of an operation
+   *
+   * @param type
+   *          the type of the operation
+   * @param mapperClass
+   *          the mapper class, which the operation was executed for or null, if the operation is not related to a
+   *          mapper
+   * @param nanos
+   *          the duration of the operation in nanoseconds
+   * @param count
+   *          the number of records, which were handled by the operation
+   */
+  void record(MetricType type, Class<?> mapperClass, long nanos, int count);
+
+}
@@ -0,0 +1,123 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The values of one {@link MetricType} and mapper, which were collected by a {@link MetricsCollector}
+ *
+ * @author Michael Remme
+ *
+ */
+public class Metric {
+  private final LongAdder executions = new LongAdder();
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Add one execution
+   *
+   * @param nanos
+   *          the duration of the execution in nanoseconds
+   * @param records
+   *          the number of records, which were handled by the execution
+   */
+  void add(final long nanos, final int records) {
+    executions.increment();
+    count.add(records);
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+  }
+
+  /**
+   * Get the number of executions
+   *
+   * @return the number of executions
+   */
+  public long getExecutions() {
+    return executions.sum();
+  }
+
+  /**
+   * Get the number of records, which were handled by all executions
+   *
+   * @return the number of records
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Get the duration of all executions
+   *
+   * @return the duration in nanoseconds
+   */
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  /**
+   * Get the duration of the slowest execution
+   *
+   * @return the duration in nanoseconds
+   */
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  /**
+   * Get the average duration of one execution
+   *
+   * @return the duration in nanoseconds
+   */
+  public long getAverageNanos() {
+    long ex = getExecutions();
+    return ex == 0 ? 0 : getTotalNanos() / ex;
+  }
+
+  /**
+   * Get the average duration per handled record, like the time to map one entity
+   *
+   * @return the duration in nanoseconds
+   */
+  public long getNanosPerRecord() {
+    long records = getCount();
+    return records == 0 ? 0 : getTotalNanos() / records;
+  }
+
+  /**
+   * Get the values as JsonObject
+   *
+   * @return the values
+   */
+  public JsonObject toJson() {
+    return new JsonObject().put("executions", getExecutions()).put("count", getCount())
+        .put("totalNanos", getTotalNanos()).put("maxNanos", getMaxNanos()).put("averageNanos", getAverageNanos());
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJson().encode();
+  }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.metrics;
+
+/**
+ * The operations, which are measured and reported to an {@link IMetricsCollector}
+ *
+ * @author Michael Remme
+ *
+ */
+public enum MetricType {
+  /**
+   * The round trip of a query, from building the native query until the result is available. The count is the number
+   * of records found
+   */
+  QUERY,
+  /**
+   * The execution of a count query
+   */
+  COUNT,
+  /**
+   * The execution of a write action including observers. The count is the number of records to be saved
+   */
+  WRITE,
+  /**
+   * The execution of a delete action including observers. The count is the number of records to be deleted or 0, if
+   * records are deleted by a query
+   */
+  DELETE,
+  /**
+   * The mapping of entities into objects of the datastore before they are saved. The count is the number of mapped
+   * entities
+   */
+  MAPPING_WRITE,
+  /**
+   * The creation of entities from the records found by a query. The count is the number of created entities
+   */
+  MAPPING_READ,
+  /**
+   * The execution of the observers of one event
+   */
+  OBSERVER,
+  /**
+   * The time waiting for a new key of an {@link de.braintags.vertx.jomnigate.mapping.IKeyGenerator}
+   */
+  KEY_GENERATION,
+  /**
+   * The time waiting for a connection from the pool of the datastore. This metric is not related to a mapper
+   */
+  CONNECTION;
+}
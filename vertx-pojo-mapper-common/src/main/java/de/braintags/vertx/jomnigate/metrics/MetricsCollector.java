@@ -0,0 +1,105 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * An implementation of {@link IMetricsCollector}, which keeps the number of executions, the handled records, the total
+ * and the maximum duration per {@link MetricType} and mapper class in memory
+ *
+ * @author Michael Remme
+ *
+ */
+public class MetricsCollector implements IMetricsCollector {
+  /**
+   * The name, which is used by {@link #toJson()} for metrics, which are not related to a mapper
+   */
+  public static final String NO_MAPPER = "-";
+
+  private final Map<MetricType, Map<Class<?>, Metric>> metrics = new EnumMap<>(MetricType.class);
+
+  /**
+   * Creates a new instance
+   */
+  public MetricsCollector() {
+    for (MetricType type : MetricType.values()) {
+      metrics.put(type, new ConcurrentHashMap<>());
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.metrics.IMetricsCollector#record(de.braintags.vertx.jomnigate.metrics.MetricType,
+   * java.lang.Class, long, int)
+   */
+  @Override
+  public void record(final MetricType type, final Class<?> mapperClass, final long nanos, final int count) {
+    metrics.get(type).computeIfAbsent(mapperClass == null ? Void.class : mapperClass, k -> new Metric()).add(nanos,
+        count);
+  }
+
+  /**
+   * Get the collected values of the given type and mapper class
+   *
+   * @param type
+   *          the type of the operation
+   * @param mapperClass
+   *          the mapper class or null for operations, which are not related to a mapper
+   * @return the collected values or null, if nothing was recorded yet
+   */
+  public Metric getMetric(final MetricType type, final Class<?> mapperClass) {
+    return metrics.get(type).get(mapperClass == null ? Void.class : mapperClass);
+  }
+
+  /**
+   * Remove all collected values
+   */
+  public void reset() {
+    metrics.values().forEach(Map::clear);
+  }
+
+  /**
+   * Get all collected values as JsonObject, grouped by the type and the simple name of the mapper class
+   *
+   * @return the collected values
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    metrics.forEach((type, typeMetrics) -> {
+      if (!typeMetrics.isEmpty()) {
+        JsonObject typeJson = new JsonObject();
+        typeMetrics.forEach((mapperClass, metric) -> typeJson
+            .put(mapperClass == Void.class ? NO_MAPPER : mapperClass.getSimpleName(), metric.toJson()));
+        json.put(type.name(), typeJson);
+      }
+    });
+    return json;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return toJson().encodePrettily();
+  }
+
+}
@@ -0,0 +1,38 @@
+/*-
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+/**
+ * The duration of the operations of an IDataStore can be measured per mapper class by setting an
+ * {@link de.braintags.vertx.jomnigate.metrics.IMetricsCollector} into the datastore. Measured are the round trip of
+ * queries and counts, write and delete actions with their number of records, the mapping of entities, the execution
+ * of observers, the time waiting for generated keys and, for MySql, the time waiting for a pooled connection. The
+ * types are defined by {@link de.braintags.vertx.jomnigate.metrics.MetricType}.
+ * 
+ * The {@link de.braintags.vertx.jomnigate.metrics.MetricsCollector} keeps the values in memory:
+ * 
+ * [source, java]
+ * ----
+ * MetricsCollector metrics = new MetricsCollector();
+ * datastore.setMetricsCollector(metrics);
+ * ...
+ * Metric queries = metrics.getMetric(MetricType.QUERY, SimpleMapper.class);
+ * LOGGER.info(queries.getExecutions() + " queries, average " + queries.getAverageNanos() + " ns");
+ * ----
+ * 
+ * To report the values to a metrics library like Micrometer or Dropwizard, implement
+ * {@link de.braintags.vertx.jomnigate.metrics.IMetricsCollector} and forward each call of record to a timer of the
+ * library.
+ * 
+ * If no collector is set, which is the default, the operations only check for the missing collector and don't read
+ * the clock.
+ */
+package de.braintags.vertx.jomnigate.metrics;
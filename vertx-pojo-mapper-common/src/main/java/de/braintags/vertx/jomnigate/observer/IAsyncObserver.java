@@ -0,0 +1,69 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.observer;
+
+import de.braintags.vertx.jomnigate.init.AsyncObserverSettings;
+import de.braintags.vertx.jomnigate.init.ObserverDefinition;
+
+/**
+ * An IAsyncObserver executes another observer in the background. It is created for an {@link ObserverDefinition}
+ * with {@link AsyncObserverSettings} and delivers the current state of its queue
+ *
+ * @author Michael Remme
+ *
+ */
+public interface IAsyncObserver extends IBatchObserver {
+
+  /**
+   * Get the observer, which is executed by the current instance
+   *
+   * @return the wrapped observer
+   */
+  IObserver getObserver();
+
+  /**
+   * Get the number of events, which are waiting for execution
+   *
+   * @return the number of queued events
+   */
+  int getQueueDepth();
+
+  /**
+   * Get the time in milliseconds, since the oldest event inside the queue was added
+   *
+   * @return the lag in milliseconds or 0, if the queue is empty
+   */
+  long getLag();
+
+  /**
+   * Get the number of events, which were processed
+   *
+   * @return the number of processed events
+   */
+  long getProcessedCount();
+
+  /**
+   * Get the number of events, which were dropped or rejected, because the queue was full
+   *
+   * @return the number of dropped events
+   */
+  long getDroppedCount();
+
+  /**
+   * Get the number of events, where the execution of the observer failed
+   *
+   * @return the number of failed events
+   */
+  long getFailedCount();
+
+}
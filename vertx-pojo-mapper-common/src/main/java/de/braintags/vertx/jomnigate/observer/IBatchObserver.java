@@ -0,0 +1,54 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.observer;
+
+import java.util.Collections;
+import java.util.List;
+
+import io.vertx.core.Future;
+
+/**
+ * An IBatchObserver receives all entities of one data access ( IWrite, IQueryResult, IDelete ) by one call of
+ * {@link #handleEvents(List, IObserverContext)}, instead of one call of
+ * {@link #handleEvent(IObserverEvent, IObserverContext)} for each entity. This enables an observer to process the
+ * entities by one bulk action, for instance to write all audit records by one write.
+ * {@link #canHandleEvent(IObserverEvent, IObserverContext)} is still called for each single event, only the accepted
+ * events are delivered.
+ *
+ * @author Michael Remme
+ *
+ */
+public interface IBatchObserver extends IObserver {
+
+  /**
+   * Called to execute the events of one data access. The list contains one event for each entity, which was accepted
+   * by {@link #canHandleEvent(IObserverEvent, IObserverContext)}; it is never empty
+   *
+   * @param events
+   *          the events to be handled
+   * @param context
+   *          the context can be used to store context data during processing of the underlaying complete action
+   * @return the observer can return a valid {@link Future}, where for the surrounding process will wait; or it can
+   *         return NULL, which will process the action as fire-and-forget
+   */
+  Future<Void> handleEvents(List<IObserverEvent> events, IObserverContext context);
+
+  /**
+   * The default implementation delegates a single event to {@link #handleEvents(List, IObserverContext)}
+   */
+  @Override
+  default Future<Void> handleEvent(IObserverEvent event, IObserverContext context) {
+    return handleEvents(Collections.singletonList(event), context);
+  }
+
+}
@@ -52,6 +52,16 @@ public interface IObserverHandler {
    */
   List<IObserver> getObserver(ObserverEventType event);
 
+  /**
+   * Returns true, if at least one observer is registered for the given event. Data access objects use this method to
+   * skip the observer handling completely, if no observer exists
+   * 
+   * @param event
+   *          the event to check
+   * @return true, if an observer is registered for the event
+   */
+  boolean hasObserver(ObserverEventType event);
+
   /**
    * Performs the event {@link ObserverEventType#BEFORE_UPDATE} for the storeObject
    * 
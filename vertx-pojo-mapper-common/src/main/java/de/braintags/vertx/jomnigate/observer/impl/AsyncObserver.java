@@ -0,0 +1,354 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.observer.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.braintags.vertx.jomnigate.exception.ObserverQueueFullException;
+import de.braintags.vertx.jomnigate.init.AsyncObserverSettings;
+import de.braintags.vertx.jomnigate.init.ObserverDefinition;
+import de.braintags.vertx.jomnigate.observer.IAsyncObserver;
+import de.braintags.vertx.jomnigate.observer.IBatchObserver;
+import de.braintags.vertx.jomnigate.observer.IObserver;
+import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.observer.IObserverEvent;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+/**
+ * Executes an observer asynchronously. It is created for an {@link ObserverDefinition} with
+ * {@link AsyncObserverSettings} and wraps the instance of the defined observer. Events are put into a bounded queue
+ * and the action, which created them, continues at once. The queue is processed in the background in batches of
+ * {@link AsyncObserverSettings#getBatchSize()} events; if the wrapped observer is an {@link IBatchObserver}, it
+ * receives the events of one action by one call. Each batch is processed by {@link Vertx#executeBlocking}, so that
+ * the wrapped observer never runs on the event loop of the action; the next batch is started, when the previous one
+ * was processed.
+ *
+ * @author Michael Remme
+ *
+ */
+public class AsyncObserver implements IAsyncObserver {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(AsyncObserver.class);
+
+  /**
+   * The delay in milliseconds, after which the processing of the queue is started again, when it failed
+   */
+  public static final long RETRY_DELAY = 100;
+
+  private final IObserver observer;
+  private final AsyncObserverSettings settings;
+  private final Vertx vertx;
+  private final ArrayDeque<QueueEntry> queue = new ArrayDeque<>();
+  private final ArrayDeque<WaitingEvents> waiting = new ArrayDeque<>();
+  private boolean draining;
+  private final AtomicLong processedCount = new AtomicLong();
+  private final AtomicLong droppedCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+
+  /**
+   * Creates a new instance
+   *
+   * @param observer
+   *          the observer to be executed, which must be initialized already
+   * @param settings
+   *          the settings for the queue
+   * @param vertx
+   *          the instance of vertx, where the queue is processed
+   * @throws IllegalArgumentException
+   *           if the size of the queue or of a batch is smaller than 1
+   */
+  public AsyncObserver(IObserver observer, AsyncObserverSettings settings, Vertx vertx) {
+    if (settings.getQueueSize() < 1) {
+      throw new IllegalArgumentException("the queue size must be at least 1: " + settings.getQueueSize());
+    }
+    if (settings.getBatchSize() < 1) {
+      throw new IllegalArgumentException("the batch size must be at least 1: " + settings.getBatchSize());
+    }
+    this.observer = observer;
+    this.settings = settings;
+    this.vertx = vertx;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.observer.IObserver#getObserverProperties()
+   */
+  @Override
+  public Properties getObserverProperties() {
+    return observer.getObserverProperties();
+  }
+
+  /**
+   * The wrapped observer is initialized already, nothing to do here
+   */
+  @Override
+  public void init(Vertx vertx) {
+    // the wrapped observer is initialized by its creator
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.observer.IObserver#canHandleEvent(de.braintags.vertx.jomnigate.observer.
+   * IObserverEvent, de.braintags.vertx.jomnigate.observer.IObserverContext)
+   */
+  @Override
+  public boolean canHandleEvent(IObserverEvent event, IObserverContext context) {
+    return observer.canHandleEvent(event, context);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.observer.IBatchObserver#handleEvents(java.util.List,
+   * de.braintags.vertx.jomnigate.observer.IObserverContext)
+   */
+  @Override
+  public Future<Void> handleEvents(List<IObserverEvent> events, IObserverContext context) {
+    Future<Void> result;
+    boolean startDrain;
+    synchronized (this) {
+      int free = settings.getQueueSize() - queue.size();
+      if (events.size() <= free && waiting.isEmpty()) {
+        enqueue(events, context);
+        result = Future.succeededFuture();
+      } else {
+        switch (settings.getOverflowPolicy()) {
+        case FAIL:
+          droppedCount.addAndGet(events.size());
+          result = Future.failedFuture(new ObserverQueueFullException(
+              "queue of observer " + observer.getClass().getName() + " is full: " + queue.size()));
+          break;
+        case WAIT:
+          result = Future.future();
+          waiting.add(new WaitingEvents(events, context, result));
+          break;
+        case DROP:
+        default:
+          int accepted = Math.max(0, free);
+          enqueue(events.subList(0, accepted), context);
+          droppedCount.addAndGet(events.size() - accepted);
+          result = Future.succeededFuture();
+        }
+      }
+      startDrain = !draining && (!queue.isEmpty() || !waiting.isEmpty());
+      if (startDrain) {
+        draining = true;
+      }
+    }
+    if (startDrain) {
+      scheduleDrain();
+    }
+    return result;
+  }
+
+  /**
+   * Start the processing of the next batch on a worker thread. If the processing failed and events are left, it is
+   * started again after {@link #RETRY_DELAY} milliseconds
+   */
+  private void scheduleDrain() {
+    vertx.<Void> executeBlocking(this::drain, false, res -> {
+      if (res.failed()) {
+        LOGGER.error("error in asynchronous observer " + observer.getClass().getName(), res.cause());
+        boolean restart;
+        synchronized (this) {
+          restart = !queue.isEmpty() || !waiting.isEmpty();
+          draining = restart;
+        }
+        if (restart) {
+          vertx.setTimer(RETRY_DELAY, id -> scheduleDrain());
+        }
+      }
+    });
+  }
+
+  private void enqueue(List<IObserverEvent> events, IObserverContext context) {
+    long now = System.currentTimeMillis();
+    for (IObserverEvent event : events) {
+      queue.add(new QueueEntry(event, context, now));
+    }
+  }
+
+  /**
+   * Process the next batch of the queue and complete the given future, when it was processed
+   */
+  private void drain(Future<Void> done) {
+    List<QueueEntry> batch = new ArrayList<>(settings.getBatchSize());
+    List<WaitingEvents> admitted = new ArrayList<>();
+    synchronized (this) {
+      pollBatch(batch);
+      // waiting events are accepted, when they fit or when the queue is empty
+      while (!waiting.isEmpty() && (waiting.peek().events.size() <= settings.getQueueSize() - queue.size()
+          || queue.isEmpty())) {
+        WaitingEvents we = waiting.poll();
+        enqueue(we.events, we.context);
+        admitted.add(we);
+      }
+      pollBatch(batch);
+      if (batch.isEmpty()) {
+        draining = false;
+        done.complete();
+        return;
+      }
+    }
+    admitted.forEach(we -> we.future.complete());
+    execute(batch).setHandler(res -> {
+      done.complete();
+      scheduleDrain();
+    });
+  }
+
+  private void pollBatch(List<QueueEntry> batch) {
+    while (batch.size() < settings.getBatchSize() && !queue.isEmpty()) {
+      batch.add(queue.poll());
+    }
+  }
+
+  /**
+   * Execute the wrapped observer for the events of a batch. Events of the same action are handed to an
+   * {@link IBatchObserver} together
+   */
+  @SuppressWarnings("rawtypes")
+  private Future<Void> execute(List<QueueEntry> batch) {
+    Future<Void> f = Future.future();
+    List<Future> fl = new ArrayList<>();
+    try {
+      int i = 0;
+      while (i < batch.size()) {
+        IObserverContext context = batch.get(i).context;
+        List<IObserverEvent> events = new ArrayList<>();
+        while (i < batch.size() && batch.get(i).context == context) {
+          events.add(batch.get(i++).event);
+        }
+        if (observer instanceof IBatchObserver) {
+          addFuture(fl, ((IBatchObserver) observer).handleEvents(events, context));
+        } else {
+          for (IObserverEvent event : events) {
+            addFuture(fl, observer.handleEvent(event, context));
+          }
+        }
+      }
+    } catch (Exception e) {
+      fl.add(Future.failedFuture(e));
+    }
+    CompositeFuture.join(fl).setHandler(res -> {
+      processedCount.addAndGet(batch.size());
+      if (res.failed()) {
+        failedCount.addAndGet(batch.size());
+        LOGGER.error("error in asynchronous observer " + observer.getClass().getName(), res.cause());
+      }
+      f.complete();
+    });
+    return f;
+  }
+
+  @SuppressWarnings("rawtypes")
+  private void addFuture(List<Future> fl, Future<Void> future) {
+    if (future != null) {
+      fl.add(future);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.observer.IAsyncObserver#getObserver()
+   */
+  @Override
+  public IObserver getObserver() {
+    return observer;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.observer.IAsyncObserver#getQueueDepth()
+   */
+  @Override
+  public synchronized int getQueueDepth() {
+    return queue.size();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.observer.IAsyncObserver#getLag()
+   */
+  @Override
+  public synchronized long getLag() {
+    QueueEntry first = queue.peek();
+    return first == null ? 0 : System.currentTimeMillis() - first.timestamp;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.observer.IAsyncObserver#getProcessedCount()
+   */
+  @Override
+  public long getProcessedCount() {
+    return processedCount.get();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.observer.IAsyncObserver#getDroppedCount()
+   */
+  @Override
+  public long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see de.braintags.vertx.jomnigate.observer.IAsyncObserver#getFailedCount()
+   */
+  @Override
+  public long getFailedCount() {
+    return failedCount.get();
+  }
+
+  private static class QueueEntry {
+    private final IObserverEvent event;
+    private final IObserverContext context;
+    private final long timestamp;
+
+    QueueEntry(IObserverEvent event, IObserverContext context, long timestamp) {
+      this.event = event;
+      this.context = context;
+      this.timestamp = timestamp;
+    }
+  }
+
+  private static class WaitingEvents {
+    private final List<IObserverEvent> events;
+    private final IObserverContext context;
+    private final Future<Void> future;
+
+    WaitingEvents(List<IObserverEvent> events, IObserverContext context, Future<Void> future) {
+      this.events = events;
+      this.context = context;
+      this.future = future;
+    }
+  }
+
+}
@@ -0,0 +1,354 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.observer.impl;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+/**
+ * An append only journal, which writes records as lines into segment files. Exactly one segment per journal is open
+ * at a time and all records are appended to it through one {@link AsyncFile} in the order, in which they were added.
+ * A segment is closed and a new one is started, when its size exceeds the maximum size or when it is older than the
+ * maximum age. Closed segments can be compressed by gzip.
+ * Journals are shared by their path prefix inside one instance of {@link Vertx}, so that all observers writing the
+ * same mapper into the same directory use one journal; all of them must use the same settings. A journal is closed and
+ * its timer is cancelled, when the last datastore using it is shut down. Records, which are added to a released
+ * journal, are not written and are counted as failed.
+ *
+ * @author Michael Remme
+ *
+ */
+public class JsonJournal implements Shareable {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(JsonJournal.class);
+  private static final String JOURNALS_MAP = JsonJournal.class.getName();
+
+  /**
+   * The extension of segment files
+   */
+  public static final String SEGMENT_EXTENSION = ".ndjson";
+
+  /**
+   * Defines, when the content of a segment is forced to the storage device
+   */
+  public enum FlushPolicy {
+    /**
+     * flushing is left to the operating system
+     */
+    NEVER,
+    /**
+     * each record is flushed after it was written
+     */
+    ALWAYS,
+    /**
+     * the segment is flushed periodically by the defined interval
+     */
+    INTERVAL
+  }
+
+  private final Vertx vertx;
+  private final String pathPrefix;
+  private final long maxSegmentSize;
+  private final long maxSegmentAge;
+  private final FlushPolicy flushPolicy;
+  private final long flushInterval;
+  private final boolean gzip;
+  private final AtomicLong segmentCounter = new AtomicLong();
+  private final AtomicLong failedRecords = new AtomicLong();
+  private final long timerId;
+  private final Set<IDataStore<?, ?>> users = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  private AsyncFile current;
+  private String currentPath;
+  private long currentSize;
+  private long segmentStart;
+  private boolean opening;
+  private boolean dirty;
+  private volatile boolean released;
+  private List<Buffer> pending = new ArrayList<>();
+  private List<Handler<AsyncResult<Void>>> closeHandlers;
+
+  /**
+   * Get the journal for the given path prefix. If it does not exist yet, it is created with the given settings. The
+   * journal is released, when the datastore is shut down
+   *
+   * @param datastore
+   *          the datastore, which is using the journal
+   * @param pathPrefix
+   *          the directory and the start of the name of the segment files
+   * @param maxSegmentSize
+   *          the maximum size of a segment in bytes
+   * @param maxSegmentAge
+   *          the maximum age of a segment in milliseconds
+   * @param flushPolicy
+   *          the policy to flush the segments
+   * @param flushInterval
+   *          the interval in milliseconds, which is used by {@link FlushPolicy#INTERVAL}
+   * @param gzip
+   *          if true, closed segments are compressed by gzip
+   * @return the journal
+   * @throws IllegalArgumentException
+   *           if the journal for the path prefix exists already with other settings
+   */
+  public static JsonJournal getInstance(IDataStore<?, ?> datastore, String pathPrefix, long maxSegmentSize,
+      long maxSegmentAge, FlushPolicy flushPolicy, long flushInterval, boolean gzip) {
+    Vertx vertx = datastore.getVertx();
+    JsonJournal journal;
+    boolean added;
+    synchronized (JsonJournal.class) {
+      LocalMap<String, JsonJournal> journals = vertx.sharedData().getLocalMap(JOURNALS_MAP);
+      journal = journals.get(pathPrefix);
+      if (journal == null) {
+        journal = new JsonJournal(vertx, pathPrefix, maxSegmentSize, maxSegmentAge, flushPolicy, flushInterval, gzip);
+        journals.put(pathPrefix, journal);
+      } else if (journal.maxSegmentSize != maxSegmentSize || journal.maxSegmentAge != maxSegmentAge
+          || journal.flushPolicy != flushPolicy || journal.flushInterval != flushInterval || journal.gzip != gzip) {
+        throw new IllegalArgumentException("the journal " + pathPrefix + " is used already with other settings");
+      }
+      added = journal.users.add(datastore);
+    }
+    if (added) {
+      JsonJournal registered = journal;
+      datastore.addCloseHook(handler -> registered.release(datastore, handler));
+    }
+    return journal;
+  }
+
+  private JsonJournal(Vertx vertx, String pathPrefix, long maxSegmentSize, long maxSegmentAge,
+      FlushPolicy flushPolicy, long flushInterval, boolean gzip) {
+    this.vertx = vertx;
+    this.pathPrefix = pathPrefix;
+    this.maxSegmentSize = maxSegmentSize;
+    this.maxSegmentAge = maxSegmentAge;
+    this.flushPolicy = flushPolicy;
+    this.flushInterval = flushInterval;
+    this.gzip = gzip;
+    long period = flushPolicy == FlushPolicy.INTERVAL ? Math.min(flushInterval, maxSegmentAge) : maxSegmentAge;
+    timerId = vertx.setPeriodic(Math.max(1, period), id -> checkSegment());
+  }
+
+  /**
+   * Called, when a datastore using the journal is shut down. The last datastore cancels the timer, removes the journal,
+   * marks it as released and closes the current segment
+   */
+  private void release(IDataStore<?, ?> datastore, Handler<AsyncResult<Void>> handler) {
+    synchronized (JsonJournal.class) {
+      users.remove(datastore);
+      if (!users.isEmpty()) {
+        handler.handle(Future.succeededFuture());
+        return;
+      }
+      LocalMap<String, JsonJournal> journals = vertx.sharedData().getLocalMap(JOURNALS_MAP);
+      if (journals.get(pathPrefix) == this) {
+        journals.remove(pathPrefix);
+      }
+      released = true;
+    }
+    vertx.cancelTimer(timerId);
+    close(handler);
+  }
+
+  /**
+   * Append a record to the journal. The record is written as one line
+   *
+   * @param record
+   *          the json representation of the record, which must not contain line breaks
+   */
+  public synchronized void append(String record) {
+    if (released) {
+      failedRecords.incrementAndGet();
+      LOGGER.warn("journal " + pathPrefix + " was released, record is not written");
+      return;
+    }
+    Buffer line = Buffer.buffer(record).appendString("\n");
+    if (current != null && !opening && isSegmentFull(line.length())) {
+      closeSegment(null);
+    }
+    if (current == null || opening) {
+      pending.add(line);
+      if (!opening) {
+        openSegment();
+      }
+    } else {
+      write(line);
+    }
+  }
+
+  private boolean isSegmentFull(int additionalBytes) {
+    return currentSize > 0 && (currentSize + additionalBytes > maxSegmentSize
+        || System.currentTimeMillis() - segmentStart >= maxSegmentAge);
+  }
+
+  private void write(Buffer line) {
+    current.write(line);
+    currentSize += line.length();
+    if (flushPolicy == FlushPolicy.ALWAYS) {
+      current.flush();
+    } else {
+      dirty = true;
+    }
+  }
+
+  private void openSegment() {
+    opening = true;
+    String path = pathPrefix + "_" + System.currentTimeMillis() + "_" + segmentCounter.incrementAndGet()
+        + SEGMENT_EXTENSION;
+    OpenOptions options = new OpenOptions().setCreate(true).setWrite(true).setAppend(true);
+    vertx.fileSystem().open(path, options, res -> {
+      synchronized (this) {
+        opening = false;
+        List<Buffer> lines = pending;
+        pending = new ArrayList<>();
+        List<Handler<AsyncResult<Void>>> handlers = closeHandlers;
+        closeHandlers = null;
+        if (res.failed()) {
+          failedRecords.addAndGet(lines.size());
+          LOGGER.error("could not open journal segment " + path, res.cause());
+          if (handlers != null) {
+            handlers.forEach(h -> h.handle(Future.succeededFuture()));
+          }
+          return;
+        }
+        current = res.result();
+        currentPath = path;
+        currentSize = 0;
+        segmentStart = System.currentTimeMillis();
+        current.exceptionHandler(e -> LOGGER.error("error in journal segment " + path, e));
+        lines.forEach(this::write);
+        if (handlers != null) {
+          // close was requested while the segment was opened
+          closeSegment(cr -> handlers.forEach(h -> h.handle(cr)));
+        }
+      }
+    });
+  }
+
+  private void closeSegment(Handler<AsyncResult<Void>> handler) {
+    AsyncFile file = current;
+    String path = currentPath;
+    current = null;
+    currentPath = null;
+    currentSize = 0;
+    dirty = false;
+    file.close(res -> {
+      if (res.failed()) {
+        LOGGER.error("could not close journal segment " + path, res.cause());
+      } else if (gzip) {
+        compress(path);
+      }
+      if (handler != null) {
+        handler.handle(res);
+      }
+    });
+  }
+
+  /**
+   * Called periodically to flush the current segment and to close it, if it is too old
+   */
+  private synchronized void checkSegment() {
+    if (current == null || opening) {
+      return;
+    }
+    if (isSegmentFull(0)) {
+      closeSegment(null);
+    } else if (flushPolicy == FlushPolicy.INTERVAL && dirty) {
+      dirty = false;
+      current.flush();
+    }
+  }
+
+  private void compress(String path) {
+    vertx.executeBlocking(fut -> {
+      try {
+        try (InputStream in = new FileInputStream(path);
+            OutputStream out = new GZIPOutputStream(new FileOutputStream(path + ".gz"))) {
+          byte[] buffer = new byte[8192];
+          int read;
+          while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+          }
+        }
+        Files.delete(Paths.get(path));
+        fut.complete();
+      } catch (Exception e) {
+        fut.fail(e);
+      }
+    }, false, res -> {
+      if (res.failed()) {
+        LOGGER.error("could not compress journal segment " + path, res.cause());
+      }
+    });
+  }
+
+  /**
+   * Close the current segment. Records, which are added afterwards, are written into a new segment. If a segment is
+   * being opened, it is closed after the pending records were written into it
+   *
+   * @param handler
+   *          the handler to be informed, when the segment is closed
+   */
+  public synchronized void close(Handler<AsyncResult<Void>> handler) {
+    if (opening) {
+      if (closeHandlers == null) {
+        closeHandlers = new ArrayList<>();
+      }
+      closeHandlers.add(handler);
+    } else if (current == null) {
+      handler.handle(Future.succeededFuture());
+    } else {
+      closeSegment(handler);
+    }
+  }
+
+  /**
+   * Checks wether the journal was released by the last datastore, which was using it. A released journal does not
+   * accept records anymore
+   *
+   * @return true, if the journal was released
+   */
+  public boolean isReleased() {
+    return released;
+  }
+
+  /**
+   * Get the number of records, which could not be written
+   *
+   * @return the number of failed records
+   */
+  public long getFailedRecords() {
+    return failedRecords.get();
+  }
+
+}
@@ -12,10 +12,14 @@
  */
 package de.braintags.vertx.jomnigate.observer.impl;
 
+import java.util.Map;
+import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
+import de.braintags.vertx.jomnigate.observer.impl.JsonJournal.FlushPolicy;
 import de.braintags.vertx.util.exception.ParameterRequiredException;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
@@ -25,6 +29,11 @@ import io.vertx.core.json.Json;
 /**
  * This observer serializes records as json file into a defined directory. It does not return a Future, so that
  * the caller must not wait for the result. Occuring errors are logged. Per record one file is created.
+ * If the property {@value #MODE_PROPERTY} is set to {@value #MODE_JOURNAL}, the records are appended as lines to a
+ * {@link JsonJournal} per mapper instead. Each line is a json object with the fields eventType, time and record. The
+ * segments of the journal are rotated by the properties {@value #SEGMENT_SIZE_PROPERTY} and
+ * {@value #SEGMENT_AGE_PROPERTY}, flushed by the properties {@value #FLUSH_POLICY_PROPERTY} and
+ * {@value #FLUSH_INTERVAL_PROPERTY} and compressed, if {@value #GZIP_PROPERTY} is true
  * 
  * @author Michael Remme
  * 
@@ -38,7 +47,64 @@ public class JsonSerializationObserver extends AbstractObserver {
    */
   public static final String DIRECTORY_PROPERTY = "directoryPath";
 
+  /**
+   * The name of the property, which defines the mode of the observer: {@value #MODE_FILE} or {@value #MODE_JOURNAL}
+   */
+  public static final String MODE_PROPERTY = "mode";
+
+  /**
+   * Mode, where one file per record is created. This is the default
+   */
+  public static final String MODE_FILE = "file";
+
+  /**
+   * Mode, where the records are appended to a journal per mapper
+   */
+  public static final String MODE_JOURNAL = "journal";
+
+  /**
+   * The name of the property, which defines the maximum size of a journal segment in bytes
+   */
+  public static final String SEGMENT_SIZE_PROPERTY = "segmentSize";
+
+  /**
+   * The default maximum size of a journal segment in bytes
+   */
+  public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+  /**
+   * The name of the property, which defines the maximum age of a journal segment in milliseconds
+   */
+  public static final String SEGMENT_AGE_PROPERTY = "segmentAge";
+
+  /**
+   * The default maximum age of a journal segment in milliseconds
+   */
+  public static final long DEFAULT_SEGMENT_AGE = 60L * 60 * 1000;
+
+  /**
+   * The name of the property, which defines the {@link FlushPolicy} of the journal
+   */
+  public static final String FLUSH_POLICY_PROPERTY = "flushPolicy";
+
+  /**
+   * The name of the property, which defines the flush interval in milliseconds for {@link FlushPolicy#INTERVAL}
+   */
+  public static final String FLUSH_INTERVAL_PROPERTY = "flushInterval";
+
+  /**
+   * The default flush interval in milliseconds
+   */
+  public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+  /**
+   * The name of the property, which defines, wether closed journal segments are compressed by gzip
+   */
+  public static final String GZIP_PROPERTY = "gzipSegments";
+
   private String parentDir;
+  private boolean journalMode;
+  private final Map<Class<?>, JsonJournal> journals = new ConcurrentHashMap<>();
 
   /*
    * (non-Javadoc)
@@ -51,7 +117,9 @@ public class JsonSerializationObserver extends AbstractObserver {
   public Future<Void> handleEvent(IObserverEvent event, IObserverContext context) {
     try {
       Object source = event.getSource();
-      if (source != null) {
+      if (source != null && journalMode) {
+        getJournal(event).append(createJournalRecord(event));
+      } else if (source != null) {
         Buffer encoded = Buffer.buffer(Json.encode(source));
         String path = createFileName(event);
         Vertx vertx = event.getDataStore().getVertx();
@@ -69,6 +137,31 @@ public class JsonSerializationObserver extends AbstractObserver {
     return null;
   }
 
+  private String createJournalRecord(IObserverEvent event) {
+    return new StringBuilder("{\"eventType\":\"").append(event.getEventType().name()).append("\",\"time\":")
+        .append(System.currentTimeMillis()).append(",\"record\":").append(Json.encode(event.getSource())).append("}")
+        .toString();
+  }
+
+  /**
+   * Get the journal for the mapper of the event. A cached journal, which was released by the shutdown of its
+   * datastore, is dropped and fetched again
+   */
+  private JsonJournal getJournal(IObserverEvent event) {
+    return journals.compute(event.getSource().getClass(), (cls, journal) -> {
+      if (journal != null && !journal.isReleased()) {
+        return journal;
+      }
+      Properties props = getObserverProperties();
+      return JsonJournal.getInstance(event.getDataStore(), parentDir + cls.getName(),
+          Long.parseLong(props.getProperty(SEGMENT_SIZE_PROPERTY, String.valueOf(DEFAULT_SEGMENT_SIZE))),
+          Long.parseLong(props.getProperty(SEGMENT_AGE_PROPERTY, String.valueOf(DEFAULT_SEGMENT_AGE))),
+          FlushPolicy.valueOf(props.getProperty(FLUSH_POLICY_PROPERTY, FlushPolicy.INTERVAL.name())),
+          Long.parseLong(props.getProperty(FLUSH_INTERVAL_PROPERTY, String.valueOf(DEFAULT_FLUSH_INTERVAL))),
+          Boolean.parseBoolean(props.getProperty(GZIP_PROPERTY, "false")));
+    });
+  }
+
   private void checkCreateDirAndRetry(Vertx vertx, Buffer encoded, String path, Throwable exception) {
     vertx.fileSystem().exists(parentDir, res -> {
       if (res.failed()) {
@@ -117,6 +210,7 @@ public class JsonSerializationObserver extends AbstractObserver {
     if (!parentDir.endsWith("/")) {
       parentDir += "/";
     }
+    journalMode = MODE_JOURNAL.equals(getObserverProperties().getProperty(MODE_PROPERTY, MODE_FILE));
     // this is done only once per init of observer
     vertx.fileSystem().mkdirsBlocking(parentDir);
   }
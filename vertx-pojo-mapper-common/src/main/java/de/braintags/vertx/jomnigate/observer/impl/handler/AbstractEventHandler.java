@@ -16,10 +16,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.braintags.vertx.jomnigate.dataaccess.IAccessResult;
+import de.braintags.vertx.jomnigate.observer.IBatchObserver;
 import de.braintags.vertx.jomnigate.observer.IObserver;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.observer.IObserverEvent;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 
 /**
  * 
@@ -43,48 +47,77 @@ public abstract class AbstractEventHandler<T, U extends IAccessResult> {
    */
   public Future<Void> handle(T accessObject, U result, IObserverContext context, List<IObserver> ol) {
     Future<Void> f = Future.future();
-    CompositeFuture cf = loopObserver(ol, accessObject, result, context);
-    cf.setHandler(cfr -> {
-      if (cfr.failed()) {
-        f.fail(cfr.cause());
+    createEventList(accessObject, result, er -> {
+      if (er.failed()) {
+        f.fail(er.cause());
       } else {
-        f.complete();
+        CompositeFuture cf = loopObserver(ol, er.result(), context);
+        cf.setHandler(cfr -> {
+          if (cfr.failed()) {
+            f.fail(cfr.cause());
+          } else {
+            f.complete();
+          }
+        });
       }
     });
     return f;
   }
 
   /**
-   * for each defined observer, process the entities of the write object
+   * for each defined observer, process the events of the access object
    * 
    * @param ol
-   * @param accessObject
-   * @param result
+   * @param events
+   *          the events, one for each entity of the access object
    * @param context
    * @return
    */
   @SuppressWarnings("rawtypes")
-  protected CompositeFuture loopObserver(List<IObserver> ol, T accessObject, U result, IObserverContext context) {
+  protected CompositeFuture loopObserver(List<IObserver> ol, List<IObserverEvent> events, IObserverContext context) {
     List<Future> fl = new ArrayList<>();
     for (IObserver observer : ol) {
-      fl.add(loopEntities(observer, accessObject, result, context));
+      fl.add(loopEntities(observer, events, context));
     }
     return CompositeFuture.all(fl);
   }
 
   /**
-   * Execute the current observer on each entity of the write object
+   * Execute the current observer on each event. An {@link IBatchObserver} receives all events, which it can handle, by
+   * one call
    * 
    * @param observer
-   * @param accessObject
-   * @param result
+   * @param events
    * @param context
    * @return
    */
   @SuppressWarnings("rawtypes")
-  protected Future<Void> loopEntities(IObserver observer, T accessObject, U result, IObserverContext context) {
+  protected Future<Void> loopEntities(IObserver observer, List<IObserverEvent> events, IObserverContext context) {
     Future<Void> f = Future.future();
-    List<Future> fl = createEntityFutureList(observer, accessObject, result, context);
+    List<Future> fl = new ArrayList<>();
+    if (observer instanceof IBatchObserver) {
+      List<IObserverEvent> accepted = new ArrayList<>(events.size());
+      for (IObserverEvent event : events) {
+        if (observer.canHandleEvent(event, context)) {
+          accepted.add(event);
+        }
+      }
+      if (!accepted.isEmpty()) {
+        Future tf = ((IBatchObserver) observer).handleEvents(accepted, context);
+        if (tf != null) {
+          fl.add(tf);
+        }
+      }
+    } else {
+      for (IObserverEvent event : events) {
+        if (observer.canHandleEvent(event, context)) {
+          Future tf = observer.handleEvent(event, context);
+          if (tf != null) {
+            fl.add(tf);
+          }
+        }
+      }
+    }
     if (fl.isEmpty()) {// if all handlers work fire-and-forget or ifnothing was handled
       f.complete();
     } else {
@@ -101,14 +134,14 @@ public abstract class AbstractEventHandler<T, U extends IAccessResult> {
   }
 
   /**
-   * Use the entities to create the Future list
+   * Create the events for the entities of the access object, one event for each entity. The events are created once
+   * and are shared by all observers
    * 
-   * @param observer
-   * @param writeObject
-   * @param context
-   * @return
+   * @param accessObject
+   * @param result
+   * @param handler
+   *          the handler to receive the list of events
    */
-  @SuppressWarnings("rawtypes")
-  protected abstract List<Future> createEntityFutureList(IObserver observer, T accessObject, U result,
-      IObserverContext context);
+  protected abstract void createEventList(T accessObject, U result,
+      Handler<AsyncResult<List<IObserverEvent>>> handler);
 }
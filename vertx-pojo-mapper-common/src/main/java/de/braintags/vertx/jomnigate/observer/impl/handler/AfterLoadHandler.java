@@ -17,11 +17,11 @@ import java.util.List;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
-import de.braintags.vertx.jomnigate.observer.IObserver;
-import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 
 /**
  * Handles the event {@link ObserverEventType#AFTER_LOAD }
@@ -35,34 +35,25 @@ public class AfterLoadHandler extends AbstractEventHandler<IQuery<?>, IQueryResu
    * (non-Javadoc)
    * 
    * @see
-   * de.braintags.vertx.jomnigate.observer.impl.AbstractEventHandler#createEntityFutureList(de.braintags.vertx.jomnigate
-   * .observer.IObserver, de.braintags.vertx.jomnigate.dataaccess.IDataAccessObject,
-   * de.braintags.vertx.jomnigate.observer.IObserverContext)
+   * de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler#createEventList(java.lang.Object,
+   * de.braintags.vertx.jomnigate.dataaccess.IAccessResult, io.vertx.core.Handler)
    */
-  @SuppressWarnings("rawtypes")
   @Override
-  protected List<Future> createEntityFutureList(IObserver observer, IQuery<?> queryObject, IQueryResult<?> result,
-      IObserverContext context) {
-    List<Future> fl = new ArrayList<>();
+  protected void createEventList(IQuery<?> queryObject, IQueryResult<?> result,
+      Handler<AsyncResult<List<IObserverEvent>>> handler) {
     result.toArray(res -> {
       if (res.failed()) {
-        fl.add(Future.failedFuture(res.cause()));
+        handler.handle(Future.failedFuture(res.cause()));
       } else {
         Object[] selection = res.result();
+        List<IObserverEvent> events = new ArrayList<>(selection.length);
         for (Object o : selection) {
-          IObserverEvent event = IObserverEvent.createEvent(ObserverEventType.AFTER_LOAD, o, result, queryObject,
-              queryObject.getDataStore());
-          if (observer.canHandleEvent(event, context)) {
-            Future tf = observer.handleEvent(event, context);
-            if (tf != null) {
-              fl.add(tf);
-            }
-          }
+          events.add(IObserverEvent.createEvent(ObserverEventType.AFTER_LOAD, o, result, queryObject,
+              queryObject.getDataStore()));
         }
+        handler.handle(Future.succeededFuture(events));
       }
     });
-
-    return fl;
   }
 
 }
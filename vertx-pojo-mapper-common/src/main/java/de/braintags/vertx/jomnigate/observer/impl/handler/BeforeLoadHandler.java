@@ -12,16 +12,16 @@
  */
 package de.braintags.vertx.jomnigate.observer.impl.handler;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
-import de.braintags.vertx.jomnigate.observer.IObserver;
-import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverEvent;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 
 /**
  * Handles the event {@link ObserverEventType#BEFORE_LOAD }
@@ -31,34 +31,19 @@ import io.vertx.core.Future;
  */
 public class BeforeLoadHandler extends AbstractEventHandler<IQuery<?>, IQueryResult<?>> {
 
-  @SuppressWarnings("rawtypes")
-  @Override
-  protected List<Future> createEntityFutureList(IObserver observer, IQuery<?> queryObject, IQueryResult<?> result,
-      IObserverContext context) {
-    List<Future> fl = new ArrayList<>();
-    fl.add(Future.failedFuture(
-        new UnsupportedOperationException("we should not land here, cause there are no entities before load")));
-    return fl;
-  }
-
   /*
    * (non-Javadoc)
    * 
    * @see
-   * de.braintags.vertx.jomnigate.observer.impl.AbstractEventHandler#loopEntities(de.braintags.vertx.jomnigate.observer.
-   * IObserver, de.braintags.vertx.jomnigate.dataaccess.IDataAccessObject,
-   * de.braintags.vertx.jomnigate.dataaccess.IAccessResult, de.braintags.vertx.jomnigate.observer.IObserverContext)
+   * de.braintags.vertx.jomnigate.observer.impl.handler.AbstractEventHandler#createEventList(java.lang.Object,
+   * de.braintags.vertx.jomnigate.dataaccess.IAccessResult, io.vertx.core.Handler)
    */
   @Override
-  protected Future<Void> loopEntities(IObserver observer, IQuery<?> accessObject, IQueryResult<?> result,
-      IObserverContext context) {
-    IObserverEvent event = IObserverEvent.createEvent(ObserverEventType.BEFORE_LOAD, null, null, accessObject,
-        accessObject.getDataStore());
-    if (observer.canHandleEvent(event, context)) {
-      return observer.handleEvent(event, context);
-    } else {
-      return Future.succeededFuture();
-    }
+  protected void createEventList(IQuery<?> queryObject, IQueryResult<?> result,
+      Handler<AsyncResult<List<IObserverEvent>>> handler) {
+    // there are no entities before load, so the query itself is the only event
+    handler.handle(Future.succeededFuture(Collections.singletonList(IObserverEvent
+        .createEvent(ObserverEventType.BEFORE_LOAD, null, null, queryObject, queryObject.getDataStore()))));
   }
 
 }
@@ -13,9 +13,15 @@
 package de.braintags.vertx.jomnigate.observer.impl.handler;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import de.braintags.vertx.jomnigate.annotation.Observer;
 import de.braintags.vertx.jomnigate.annotation.ObserverOption;
@@ -35,10 +41,13 @@ import de.braintags.vertx.jomnigate.dataaccess.write.impl.BeforeUpdateHandler;
 import de.braintags.vertx.jomnigate.exception.MappingException;
 import de.braintags.vertx.jomnigate.init.ObserverDefinition;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import de.braintags.vertx.jomnigate.observer.IObserver;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
 import de.braintags.vertx.jomnigate.observer.IObserverHandler;
 import de.braintags.vertx.jomnigate.observer.ObserverEventType;
+import de.braintags.vertx.jomnigate.observer.impl.AsyncObserver;
 import de.braintags.vertx.jomnigate.versioning.ExecuteVersionConverter;
 import io.vertx.core.Future;
 
@@ -49,8 +58,20 @@ import io.vertx.core.Future;
  * 
  */
 public class DefaultObserverHandler implements IObserverHandler {
+  private static final IObserver[] NO_OBSERVER = new IObserver[0];
+  /**
+   * The event types, where the action depends on the result of the observers and which can't be executed
+   * asynchronously therefore
+   */
+  private static final Set<ObserverEventType> SYNCHRONOUS_EVENTS = Collections.unmodifiableSet(
+      EnumSet.of(ObserverEventType.BEFORE_MAPPING, ObserverEventType.BEFORE_DELETE, ObserverEventType.BEFORE_LOAD,
+          ObserverEventType.BEFORE_INSERT, ObserverEventType.BEFORE_UPDATE));
+
   private List<ObserverDefinition<?>> observerList = new ArrayList<>();
-  private Map<ObserverEventType, List<IObserver>> eventObserverCache = new HashMap<>();
+  /**
+   * The observers for each event type, which are computed once while mapping and which are not changed afterwards
+   */
+  private final Map<ObserverEventType, IObserver[]> dispatchTable;
   private IMapper<?> mapper;
   private BeforeInsertHandler beforeInsertHandler = new BeforeInsertHandler();
   private BeforeUpdateHandler beforeUpdateHandler = new BeforeUpdateHandler();
@@ -70,6 +91,7 @@ public class DefaultObserverHandler implements IObserverHandler {
   public DefaultObserverHandler(IMapper<?> mapper) {
     this.mapper = mapper;
     computeObserver();
+    dispatchTable = Collections.unmodifiableMap(computeDispatchTable());
   }
 
   /**
@@ -96,27 +118,79 @@ public class DefaultObserverHandler implements IObserverHandler {
     observerList = tmpList;
   }
 
-  @Override
-  public List<IObserver> getObserver(ObserverEventType event) {
-    if (!eventObserverCache.containsKey(event)) {
+  /**
+   * Creates the instances of all observers for each event type. If the mapper defines a {@link VersionInfo}, the
+   * {@link ExecuteVersionConverter} is added for its event type. Definitions with asynchronous settings are executed
+   * by one {@link AsyncObserver} for all their event types
+   *
+   * @return the observers by event type
+   * @throws MappingException
+   *           if a definition with asynchronous settings is applicable for one of the {@link #SYNCHRONOUS_EVENTS}
+   */
+  private Map<ObserverEventType, IObserver[]> computeDispatchTable() {
+    Map<ObserverEventType, IObserver[]> table = new EnumMap<>(ObserverEventType.class);
+    Map<ObserverDefinition<?>, AsyncObserver> asyncObservers = new IdentityHashMap<>();
+    for (ObserverEventType event : ObserverEventType.values()) {
       List<IObserver> ol = new ArrayList<>();
       observerList.stream().filter(os -> os.isApplicableFor(event)).forEach(os -> {
-        try {
-          IObserver observer = os.getObserverClass().newInstance();
-          observer.getObserverProperties().putAll(os.getObserverProperties());
-          observer.init(mapper.getMapperFactory().getDataStore().getVertx());
-          ol.add(observer);
-        } catch (Exception e) {
-          throw new MappingException(e);
+        if (os.getAsyncSettings() == null) {
+          ol.add(createObserver(os));
+        } else if (SYNCHRONOUS_EVENTS.contains(event)) {
+          throw new MappingException("observer " + os.getObserverClass().getName()
+              + " can't be executed asynchronously for event type " + event + " in mapper "
+              + mapper.getMapperClass().getName() + ", define the AFTER event types for it");
+        } else {
+          ol.add(asyncObservers.computeIfAbsent(os, def -> new AsyncObserver(createObserver(def),
+              def.getAsyncSettings(), mapper.getMapperFactory().getDataStore().getVertx())));
         }
       });
       if (mapper.getVersionInfo() != null && event.equals(mapper.getVersionInfo().eventType())) {
         VersionInfo vi = mapper.getVersionInfo();
         ol.add(new ExecuteVersionConverter(vi));
       }
-      eventObserverCache.put(event, ol);
+      table.put(event, ol.isEmpty() ? NO_OBSERVER : ol.toArray(new IObserver[ol.size()]));
     }
-    return eventObserverCache.get(event);
+    return table;
+  }
+
+  /**
+   * Creates and initializes an instance of the observer of the given definition
+   * 
+   * @param os
+   * @return the new observer
+   */
+  private IObserver createObserver(ObserverDefinition<?> os) {
+    try {
+      IObserver observer = os.getObserverClass().newInstance();
+      observer.getObserverProperties().putAll(os.getObserverProperties());
+      observer.init(mapper.getMapperFactory().getDataStore().getVertx());
+      return observer;
+    } catch (Exception e) {
+      throw new MappingException(e);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.observer.IObserverHandler#getObserver(de.braintags.vertx.jomnigate.observer.
+   * ObserverEventType)
+   */
+  @Override
+  public List<IObserver> getObserver(ObserverEventType event) {
+    IObserver[] observers = dispatchTable.get(event);
+    return observers.length == 0 ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(observers));
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.observer.IObserverHandler#hasObserver(de.braintags.vertx.jomnigate.observer.
+   * ObserverEventType)
+   */
+  @Override
+  public boolean hasObserver(ObserverEventType event) {
+    return dispatchTable.get(event).length > 0;
   }
 
   /*
@@ -128,14 +202,11 @@ public class DefaultObserverHandler implements IObserverHandler {
    */
   @Override
   public <T> Future<Void> handleBeforeUpdate(IWrite<T> writeObject, T entity, IObserverContext context) {
-    List<IObserver> ol = getObserver(ObserverEventType.BEFORE_UPDATE);
-    Future<Void> f = Future.future();
-    if (ol.isEmpty() || writeObject.size() <= 0) {
-      f.complete();
-    } else {
-      f = getBeforeUpdateHandler().handle(writeObject, entity, context, ol);
+    if (!hasObserver(ObserverEventType.BEFORE_UPDATE) || writeObject.size() <= 0) {
+      return Future.succeededFuture();
     }
-    return f;
+    return measure(() -> getBeforeUpdateHandler().handle(writeObject, entity, context,
+        getObserver(ObserverEventType.BEFORE_UPDATE)));
   }
 
   /*
@@ -148,14 +219,11 @@ public class DefaultObserverHandler implements IObserverHandler {
    */
   @Override
   public <T> Future<Void> handleAfterUpdate(IWrite<T> writeObject, IWriteResult writeResult, IObserverContext context) {
-    List<IObserver> ol = getObserver(ObserverEventType.AFTER_UPDATE);
-    Future<Void> f = Future.future();
-    if (ol.isEmpty() || writeObject.size() <= 0) {
-      f.complete();
-    } else {
-      f = getAfterUpdateHandler().handle(writeObject, writeResult, context, ol);
+    if (!hasObserver(ObserverEventType.AFTER_UPDATE) || writeObject.size() <= 0) {
+      return Future.succeededFuture();
     }
-    return f;
+    return measure(() -> getAfterUpdateHandler().handle(writeObject, writeResult, context,
+        getObserver(ObserverEventType.AFTER_UPDATE)));
   }
 
   /*
@@ -167,26 +235,20 @@ public class DefaultObserverHandler implements IObserverHandler {
    */
   @Override
   public <T> Future<Void> handleBeforeInsert(IWrite<T> writeObject, T entity, IObserverContext context) {
-    List<IObserver> ol = getObserver(ObserverEventType.BEFORE_INSERT);
-    Future<Void> f = Future.future();
-    if (ol.isEmpty() || writeObject.size() <= 0) {
-      f.complete();
-    } else {
-      f = getBeforeInsertHandler().handle(writeObject, entity, context, ol);
+    if (!hasObserver(ObserverEventType.BEFORE_INSERT) || writeObject.size() <= 0) {
+      return Future.succeededFuture();
     }
-    return f;
+    return measure(() -> getBeforeInsertHandler().handle(writeObject, entity, context,
+        getObserver(ObserverEventType.BEFORE_INSERT)));
   }
 
   @Override
   public <T> Future<Void> handleAfterInsert(IWrite<T> writeObject, IWriteResult writeResult, IObserverContext context) {
-    List<IObserver> ol = getObserver(ObserverEventType.AFTER_INSERT);
-    Future<Void> f = Future.future();
-    if (ol.isEmpty() || writeObject.size() <= 0) {
-      f.complete();
-    } else {
-      f = getAfterInsertHandler().handle(writeObject, writeResult, context, ol);
+    if (!hasObserver(ObserverEventType.AFTER_INSERT) || writeObject.size() <= 0) {
+      return Future.succeededFuture();
     }
-    return f;
+    return measure(() -> getAfterInsertHandler().handle(writeObject, writeResult, context,
+        getObserver(ObserverEventType.AFTER_INSERT)));
   }
 
   /*
@@ -198,14 +260,11 @@ public class DefaultObserverHandler implements IObserverHandler {
    */
   @Override
   public <T> Future<Void> handleBeforeLoad(IQuery<T> queryObject, IObserverContext context) {
-    List<IObserver> ol = getObserver(ObserverEventType.BEFORE_LOAD);
-    Future<Void> f = Future.future();
-    if (ol.isEmpty()) {
-      f.complete();
-    } else {
-      f = getBeforeLoadHandler().handle(queryObject, null, context, ol);
+    if (!hasObserver(ObserverEventType.BEFORE_LOAD)) {
+      return Future.succeededFuture();
     }
-    return f;
+    return measure(() -> getBeforeLoadHandler().handle(queryObject, null, context,
+        getObserver(ObserverEventType.BEFORE_LOAD)));
   }
 
   /*
@@ -219,14 +278,11 @@ public class DefaultObserverHandler implements IObserverHandler {
   @Override
   public <T> Future<Void> handleAfterLoad(IQuery<T> queryObject, IQueryResult<T> queryResult,
       IObserverContext context) {
-    List<IObserver> ol = getObserver(ObserverEventType.AFTER_LOAD);
-    Future<Void> f = Future.future();
-    if (ol.isEmpty() || queryResult.isEmpty()) {
-      f.complete();
-    } else {
-      f = getAfterLoadHandler().handle(queryObject, queryResult, context, ol);
+    if (!hasObserver(ObserverEventType.AFTER_LOAD) || queryResult.isEmpty()) {
+      return Future.succeededFuture();
     }
-    return f;
+    return measure(() -> getAfterLoadHandler().handle(queryObject, queryResult, context,
+        getObserver(ObserverEventType.AFTER_LOAD)));
   }
 
   /*
@@ -238,14 +294,11 @@ public class DefaultObserverHandler implements IObserverHandler {
    */
   @Override
   public <T> Future<Void> handleBeforeDelete(IDelete<T> deleteObject, IObserverContext context) {
-    List<IObserver> ol = getObserver(ObserverEventType.BEFORE_DELETE);
-    Future<Void> f = Future.future();
-    if (ol.isEmpty()) {
-      f.complete();
-    } else {
-      f = getBeforeDeleteHandler().handle(deleteObject, null, context, ol);
+    if (!hasObserver(ObserverEventType.BEFORE_DELETE)) {
+      return Future.succeededFuture();
     }
-    return f;
+    return measure(() -> getBeforeDeleteHandler().handle(deleteObject, null, context,
+        getObserver(ObserverEventType.BEFORE_DELETE)));
   }
 
   /*
@@ -259,14 +312,11 @@ public class DefaultObserverHandler implements IObserverHandler {
   @Override
   public <T> Future<Void> handleAfterDelete(IDelete<T> deleteObject, IDeleteResult deleteResult,
       IObserverContext context) {
-    List<IObserver> ol = getObserver(ObserverEventType.AFTER_DELETE);
-    Future<Void> f = Future.future();
-    if (ol.isEmpty() || deleteObject.size() <= 0) {
-      f.complete();
-    } else {
-      f = getAfterDeleteHandler().handle(deleteObject, deleteResult, context, ol);
+    if (!hasObserver(ObserverEventType.AFTER_DELETE) || deleteObject.size() <= 0) {
+      return Future.succeededFuture();
     }
-    return f;
+    return measure(() -> getAfterDeleteHandler().handle(deleteObject, deleteResult, context,
+        getObserver(ObserverEventType.AFTER_DELETE)));
   }
 
   /*
@@ -278,13 +328,31 @@ public class DefaultObserverHandler implements IObserverHandler {
    */
   @Override
   public <T> Future<Void> handleAfterMapping(IMapper<T> mapper, IObserverContext context) {
-    List<IObserver> ol = getObserver(ObserverEventType.AFTER_MAPPING);
-    Future<Void> f = Future.future();
-    if (ol.isEmpty()) {
-      f.complete();
-    } else {
-      f = getAfterMappingHandler().handle(mapper, context, ol);
+    if (!hasObserver(ObserverEventType.AFTER_MAPPING)) {
+      return Future.succeededFuture();
     }
+    return measure(() -> getAfterMappingHandler().handle(mapper, context,
+        getObserver(ObserverEventType.AFTER_MAPPING)));
+  }
+
+  /**
+   * If an {@link IMetricsCollector} is set into the datastore, the duration of the observers is recorded
+   * 
+   * @param execution
+   *          starts the execution of the observers
+   * @return the future of the execution
+   */
+  private Future<Void> measure(Supplier<Future<Void>> execution) {
+    IMetricsCollector metrics = mapper.getMapperFactory().getDataStore().getMetricsCollector();
+    if (metrics == null) {
+      return execution.get();
+    }
+    long start = System.nanoTime();
+    Future<Void> f = Future.future();
+    execution.get().setHandler(res -> {
+      metrics.record(MetricType.OBSERVER, mapper.getMapperClass(), System.nanoTime() - start, 1);
+      f.handle(res);
+    });
     return f;
   }
 
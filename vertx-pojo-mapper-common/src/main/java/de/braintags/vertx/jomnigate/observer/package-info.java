@@ -55,6 +55,10 @@
  * beginning of an action like saving object(s) and is delivered to any observer, which participates on this action, so
  * that participating obervers are able to share some data.
  * 
+ * An observer, which shall process all entities of one action together - like writing audit records by one bulk write
+ * - implements {@link de.braintags.vertx.jomnigate.observer.IBatchObserver}. Instead of one call of `handleEvent` for
+ * each entity, it receives all events of an IWrite, IQueryResult or IDelete by one call of `handleEvents`.
+ * 
  * Registration of observers is done either by adding some information into the section `observerSettings` of the
  * DataStoreSettings or by adding the annotation {@link de.braintags.vertx.jomnigate.annotation.Observer} to a mapper
  * class.
@@ -148,7 +152,9 @@
  * <5> An observer is registered for any event and mapper
  * 
  * <6> A JsonSerializationObserver is registered, where properties define the directory, where inside the output is
- * stored
+ * stored. By default one file per record is written; with the property "mode" set to "journal", the records are
+ * appended as lines to rolling segment files per mapper, which are rotated by "segmentSize" and "segmentAge" and
+ * optionally compressed by "gzipSegments"
  * 
  * ===== Register observer by annotation
  * The annotation {@link de.braintags.vertx.jomnigate.annotation.Observer} can be used to register an observer for a
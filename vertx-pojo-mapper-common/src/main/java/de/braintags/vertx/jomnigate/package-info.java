@@ -155,6 +155,42 @@
  * concrete objects by using the iterator of the IQueryResult or the method toArray, the needed java objects are
  * created, if not done already.
  * 
+ * If the property coalesceQueries of the {@link de.braintags.vertx.jomnigate.init.DataStoreSettings} is set to true,
+ * identical queries and counts of a mapper, which are running at the same time, are combined into one access to the
+ * datastore. Two queries are identical, if they have the same search condition, sorting, fields, limit and offset;
+ * queries with variables or native commands are never combined. Each caller receives its own IQueryResult, which
+ * creates its own java objects from the shared native result, and is informed on its own context.
+ * 
+ * If a query is executed with setReturnCompleteCount(true) and a limit, the complete count is executed in parallel to
+ * the query. If the delivered page is not full, the complete count is calculated from the offset and the number of
+ * records, so that the result of the count is not needed. For large collections, where the exact number is not
+ * required, IQuery#setEstimatedCount(true) requests the number of records from the statistics of the datastore for
+ * queries without search condition. This number may differ from the exact count.
+ * 
+ * Queries, which are executed often with different values, can be prepared once by IQuery#prepare(). The returned
+ * {@link de.braintags.vertx.jomnigate.dataaccess.query.IPreparedQuery} is immutable and can be shared between
+ * verticles. Values are defined as variables like "${name}" inside the search condition and are delivered by an
+ * IFieldValueResolver on each execution. The native parts of the search condition, which don't contain variables, are
+ * built only once. Conditions with variables are resolved and built again on each execution, the prepared query
+ * doesn't hold a native statement with bind slots.
+ * 
+ * Totals and other aggregated values are computed inside the datastore by IQuery#executeAggregation. An
+ * {@link de.braintags.vertx.jomnigate.dataaccess.query.IAggregation} defines the fields to group by and functions like
+ * count, sum, avg, min and max. MongoDB executes it as aggregation pipeline with $match and $group, MySQL as SELECT with
+ * GROUP BY. Only the aggregated rows are transferred; each row contains the group fields and the function results by
+ * their names.
+ * 
+ * IQuery#executeExplain delivers an {@link de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain}, which shows the
+ * used indexes, full scans, the number of examined records and, for MongoDB, the execution time. To find slow queries
+ * in production, the property slowQueryThreshold of the DataStoreSettings can be set to a time in milliseconds; each
+ * query, which takes longer, is logged with its native expression and its values. If the property explainSlowQueries
+ * is set as well, the plan of the slow query is logged too.
+ * 
+ * If the property adviseIndexes of the DataStoreSettings is set, the
+ * {@link de.braintags.vertx.jomnigate.advisor.IndexAdvisor} of the datastore records the filtered and sorted columns
+ * of each query. On request it reports queries, which are not supported by any index, and indexes, which are not used
+ * by any recorded query.
+ * 
  * 
  * === Deleting data
  * 
@@ -240,6 +276,12 @@
  * === Data versioning and conversion
  * {@link de.braintags.vertx.jomnigate.versioning}
  * 
+ * === Change events
+ * {@link de.braintags.vertx.jomnigate.change}
+ * 
+ * === Second level cache
+ * {@link de.braintags.vertx.jomnigate.cache}
+ * 
  * === Complexer mapper definitions
  * 
  * The example above was very simple and straightforward, just to explain the basics of vertx-pojo-mapper. But of course
@@ -412,7 +454,7 @@
  * {@link de.braintags.vertx.jomnigate.annotation.KeyGenerator} to the classes head and optionally define the type
  * of keygenerator, which shall be used.
  * 
- * Currently there are existing three implementations of {@link de.braintags.vertx.jomnigate.mapping.IKeyGenerator}:
+ * Currently there are existing five implementations of {@link de.braintags.vertx.jomnigate.mapping.IKeyGenerator}:
  * 
  * * {@link de.braintags.vertx.jomnigate.mapping.impl.keygen.DefaultKeyGenerator} +
  * an implementation which uses the eventbus to request a key from
@@ -421,6 +463,19 @@
  * link:https://github.com/BraintagsGmbH/vertx-key-generator/blob/master/src/docs/asciidoc/java/index.adoc[*vertx-key-
  * generator*]
  * 
+ * * {@link de.braintags.vertx.jomnigate.mapping.impl.keygen.BlockKeyGenerator} +
+ * a hi / lo implementation, which leases blocks of keys from the KeyGeneratorVerticle and delivers the keys of a block
+ * locally. The size of a block is defined by the property
+ * {@link de.braintags.vertx.jomnigate.mapping.impl.keygen.BlockKeyGenerator#BLOCK_SIZE_PROPERTY} of the datastore.
+ * The keys start at {@link de.braintags.vertx.jomnigate.mapping.impl.keygen.BlockKeyGenerator#KEY_OFFSET}, above the
+ * keys of the DefaultKeyGenerator, so an existing mapper can be switched to it
+ * 
+ * * {@link de.braintags.vertx.jomnigate.mapping.impl.keygen.LocalTimeBasedKeyGenerator} +
+ * a local implementation, which composes unique keys from the time, a node id and a counter without any
+ * communication. The node id is defined by the property
+ * {@link de.braintags.vertx.jomnigate.mapping.impl.keygen.LocalTimeBasedKeyGenerator#NODE_ID_PROPERTY} of the
+ * datastore and must be unique for each process; without it the generator fails to create keys
+ * 
  * * {@link de.braintags.vertx.keygenerator.impl.DebugGenerator} +
  * a local implementation which starts at zero by each launch and maybe useful for unint tests etc.
  * 
@@ -13,10 +13,12 @@
 package de.braintags.vertx.jomnigate.typehandler;
 
 import java.lang.annotation.Annotation;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
 import de.braintags.vertx.jomnigate.annotation.field.Embedded;
 import de.braintags.vertx.jomnigate.annotation.field.Referenced;
@@ -31,10 +33,24 @@ import de.braintags.vertx.jomnigate.mapping.IProperty;
 
 public abstract class AbstractTypeHandlerFactory implements ITypeHandlerFactory {
   /**
-   * If for a class a {@link ITypeHandler} was requested and found, it is cached by here with the class to handle as key
+   * The default maximum number of entries inside the cache of resolved {@link ITypeHandler}
    */
-  private final Map<TypeHandlerCacheKey, ITypeHandler> cachedTypeHandler = new HashMap<TypeHandlerCacheKey, ITypeHandler>();
-  private final List<ITypeHandler> definedTypeHandlers = new ArrayList<ITypeHandler>();
+  public static final int DEFAULT_MAX_CACHE_SIZE = 1024;
+
+  /**
+   * If for a class a {@link ITypeHandler} was requested and found, it is cached by here with the class and the
+   * annotation as key. The cached instance is a prototype, callers always receive a clone of it
+   */
+  private final LruCache<TypeHandlerCacheKey, ITypeHandler> cachedTypeHandler = new LruCache<>();
+  /**
+   * If for a property a {@link ITypeHandler} was requested, the clone for the property is cached by here, so that the
+   * defined typehandlers are examined only once for each property
+   */
+  private final LruCache<IProperty, ITypeHandler> propertyTypeHandler = new LruCache<>();
+  private final List<ITypeHandler> definedTypeHandlers = new CopyOnWriteArrayList<>();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private volatile int maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
 
   /**
    * 
@@ -51,26 +67,101 @@ public abstract class AbstractTypeHandlerFactory implements ITypeHandlerFactory
    */
   @Override
   public ITypeHandler getTypeHandler(IProperty field) {
-    // here we should NOT use a cache, otherwise the method examineMatch of the TypeHandler isn't called,
-    // which is important, cause this method can decide on other parameters than the class
-    ITypeHandler handler = examineMatch(field);
+    // the cache is keyed by the property and not by its class, cause the method examineMatch of the TypeHandler can
+    // decide on other parameters than the class
+    ITypeHandler handler;
+    synchronized (propertyTypeHandler) {
+      handler = propertyTypeHandler.get(field);
+    }
+    if (handler != null) {
+      cacheHits.increment();
+      return handler;
+    }
+    cacheMisses.increment();
+    handler = examineMatch(field);
     if (handler == null)
       handler = getDefaultTypeHandler(field.getEmbedRef());
-    return (ITypeHandler) handler.clone();
+    handler = (ITypeHandler) handler.clone();
+    synchronized (propertyTypeHandler) {
+      ITypeHandler existing = propertyTypeHandler.putIfAbsent(field, handler);
+      return existing == null ? handler : existing;
+    }
   }
 
   @Override
   public ITypeHandler getTypeHandler(Class<?> fieldClass, Annotation annotation) {
     TypeHandlerCacheKey key = new TypeHandlerCacheKey(fieldClass, annotation);
-    if (cachedTypeHandler.containsKey(key))
-      return cachedTypeHandler.get(key);
-    ITypeHandler handler = examineMatch(fieldClass, annotation);
-    if (handler == null)
-      handler = getDefaultTypeHandler(annotation);
-    cachedTypeHandler.put(key, handler);
+    ITypeHandler handler;
+    synchronized (cachedTypeHandler) {
+      handler = cachedTypeHandler.get(key);
+    }
+    if (handler != null) {
+      cacheHits.increment();
+    } else {
+      cacheMisses.increment();
+      handler = examineMatch(fieldClass, annotation);
+      if (handler == null)
+        handler = getDefaultTypeHandler(annotation);
+      synchronized (cachedTypeHandler) {
+        cachedTypeHandler.putIfAbsent(key, handler);
+      }
+    }
     return (ITypeHandler) handler.clone();
   }
 
+  /**
+   * Get the number of requests of {@link #getTypeHandler(Class, Annotation)} and {@link #getTypeHandler(IProperty)},
+   * which were served from the cache
+   * 
+   * @return the number of cache hits
+   */
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * Get the number of requests of {@link #getTypeHandler(Class, Annotation)} and {@link #getTypeHandler(IProperty)},
+   * which required to examine the defined {@link ITypeHandler}
+   * 
+   * @return the number of cache misses
+   */
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  /**
+   * Get the maximum number of entries, which are kept inside the cache of resolved {@link ITypeHandler}
+   * 
+   * @return the maximum cache size
+   */
+  public int getMaxCacheSize() {
+    return maxCacheSize;
+  }
+
+  /**
+   * Set the maximum number of entries, which are kept inside the cache of resolved {@link ITypeHandler}. If the cache
+   * is full, the least recently used entry is removed
+   * 
+   * @param maxCacheSize
+   *          the maximum cache size
+   */
+  public void setMaxCacheSize(final int maxCacheSize) {
+    this.maxCacheSize = maxCacheSize;
+  }
+
+  /**
+   * Clear the cache of resolved {@link ITypeHandler}. This is done automatically, when the defined typehandlers are
+   * modified
+   */
+  public void clearCache() {
+    synchronized (cachedTypeHandler) {
+      cachedTypeHandler.clear();
+    }
+    synchronized (propertyTypeHandler) {
+      propertyTypeHandler.clear();
+    }
+  }
+
   /**
    * Checks for a valid TypeHandler by respecting graded results
    * 
@@ -145,6 +236,7 @@ public abstract class AbstractTypeHandlerFactory implements ITypeHandlerFactory
       if (definedTypeHandlers.get(i).getClass() == typeHandlerClass)
         definedTypeHandlers.remove(i);
     }
+    clearCache();
   }
 
   /**
@@ -154,6 +246,7 @@ public abstract class AbstractTypeHandlerFactory implements ITypeHandlerFactory
    */
   protected final void add(ITypeHandler th) {
     getDefinedTypeHandlers().add(th);
+    clearCache();
   }
 
   /**
@@ -177,17 +270,52 @@ public abstract class AbstractTypeHandlerFactory implements ITypeHandlerFactory
    */
   public abstract ITypeHandler getDefaultTypeHandler(Annotation embedRef);
 
-  private class TypeHandlerCacheKey {
-    private String cacheKey;
+  /**
+   * A map, which removes the least recently used entry, if the maximum cache size is exceeded. Access must be
+   * synchronized on the instance
+   */
+  private final class LruCache<K, V> extends LinkedHashMap<K, V> {
+    private static final long serialVersionUID = 1L;
 
-    TypeHandlerCacheKey(Class cls, Annotation annotation) {
-      String annString = annotation == null ? "" : annotation.toString();
-      cacheKey = cls.getName() + annString;
+    LruCache() {
+      super(16, 0.75f, true);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+      return size() > maxCacheSize;
+    }
+  }
+
+  private static final class TypeHandlerCacheKey {
+    private final Class<?> cls;
+    private final Annotation annotation;
+    private final int hash;
+
+    TypeHandlerCacheKey(Class<?> cls, Annotation annotation) {
+      this.cls = cls;
+      this.annotation = annotation;
+      this.hash = 31 * cls.hashCode() + Objects.hashCode(annotation);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (!(obj instanceof TypeHandlerCacheKey))
+        return false;
+      TypeHandlerCacheKey other = (TypeHandlerCacheKey) obj;
+      return cls == other.cls && Objects.equals(annotation, other.annotation);
     }
 
     @Override
     public String toString() {
-      return cacheKey;
+      return cls.getName() + (annotation == null ? "" : annotation.toString());
     }
   }
 
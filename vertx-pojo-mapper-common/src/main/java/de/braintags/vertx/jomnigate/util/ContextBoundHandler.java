@@ -0,0 +1,57 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.util;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * A handler, which waits for the result of an execution, which was started or joined by another caller. The result is
+ * handed to the wrapped handler on the context, where the current instance was created
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the type of the result
+ */
+public final class ContextBoundHandler<T> implements Handler<AsyncResult<T>> {
+  private final Context context;
+  private final Handler<AsyncResult<T>> handler;
+
+  /**
+   * Creates a new instance for the current context
+   *
+   * @param handler
+   *          the handler to be informed
+   */
+  public ContextBoundHandler(Handler<AsyncResult<T>> handler) {
+    this.context = Vertx.currentContext();
+    this.handler = handler;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see io.vertx.core.Handler#handle(java.lang.Object)
+   */
+  @Override
+  public void handle(AsyncResult<T> result) {
+    if (context == null || context == Vertx.currentContext()) {
+      handler.handle(result);
+    } else {
+      context.runOnContext(v -> handler.handle(result));
+    }
+  }
+
+}
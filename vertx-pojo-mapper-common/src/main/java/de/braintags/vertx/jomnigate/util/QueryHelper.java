@@ -16,9 +16,10 @@ import java.util.Arrays;
 import java.util.List;
 
 import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.dataaccess.IdentitySession;
+import de.braintags.vertx.jomnigate.dataaccess.RecordBatchLoader;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
-import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
 import de.braintags.vertx.jomnigate.exception.NoSuchRecordException;
 import de.braintags.vertx.util.IteratorAsync;
 import io.vertx.core.AsyncResult;
@@ -39,7 +40,9 @@ public class QueryHelper {
   }
 
   /**
-   * Performs a query by id and returns the found instance, or null, if none
+   * Performs a query by id and returns the found instance, or null, if none. The record is loaded by the
+   * {@link RecordBatchLoader} of the datastore, so that the loads of several ids inside one event loop tick are
+   * executed by one query
    *
    * @param datastore
    *          the datastore to be used
@@ -52,9 +55,33 @@ public class QueryHelper {
    */
   public static final <T> void findRecordById(final IDataStore datastore, final Class<T> mapperClass, final String id,
       final Handler<AsyncResult<T>> handler) {
-    IQuery<T> query = datastore.createQuery(mapperClass);
-    query.setSearchCondition(ISearchCondition.isEqual(query.getMapper().getIdInfo().getIndexedField(), id));
-    executeToFirstRecord(query, handler);
+    @SuppressWarnings("unchecked")
+    RecordBatchLoader<T> loader = datastore.getRecordBatchLoader(mapperClass);
+    loader.load(id, handler);
+  }
+
+  /**
+   * Performs a query by id and returns the found instance, or null, if none. If a session is given, the record is
+   * loaded only once per session and the same instance is returned for each call
+   *
+   * @param datastore
+   *          the datastore to be used
+   * @param mapperClass
+   *          the mapper class
+   * @param id
+   *          the id to search for
+   * @param session
+   *          the session of the current request or null
+   * @param handler
+   *          the handler to be informed
+   */
+  public static final <T> void findRecordById(final IDataStore datastore, final Class<T> mapperClass, final String id,
+      final IdentitySession session, final Handler<AsyncResult<T>> handler) {
+    if (session == null) {
+      findRecordById(datastore, mapperClass, id, handler);
+    } else {
+      session.findRecordById(datastore, mapperClass, id, handler);
+    }
   }
 
   /**
@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.VersionConverterDefinition;
 import de.braintags.vertx.jomnigate.annotation.VersionInfo;
 import de.braintags.vertx.jomnigate.exception.MappingException;
@@ -73,10 +74,25 @@ public class ExecuteVersionConverter extends AbstractObserver {
    * de.braintags.vertx.jomnigate.observer.IObserver#handleEvent(de.braintags.vertx.jomnigate.observer.IObserverEvent,
    * de.braintags.vertx.jomnigate.observer.IObserverContext)
    */
-  @SuppressWarnings("unchecked")
   @Override
   public Future<Void> handleEvent(IObserverEvent event, IObserverContext context) {
-    IMapperVersion record = (IMapperVersion) event.getSource();
+    return convert(event.getDataStore(), (IMapperVersion) event.getSource(), context);
+  }
+
+  /**
+   * Execute all converters, which are defined for a destination version above the version of the given record, and
+   * raise the version of the record to the destination version of the last converter
+   * 
+   * @param datastore
+   *          the datastore, where the record belongs to
+   * @param record
+   *          the record to be converted
+   * @param context
+   *          the context of the current action
+   * @return a future, which is completed, when all converters are executed
+   */
+  @SuppressWarnings("unchecked")
+  public Future<Void> convert(IDataStore<?, ?> datastore, IMapperVersion record, IObserverContext context) {
     Iterator<ConverterEntry> entries = converterList.stream()
         .filter(con -> con.destinationVersion > record.getMapperVersion()).iterator();
     if (entries.hasNext()) {
@@ -85,7 +101,7 @@ public class ExecuteVersionConverter extends AbstractObserver {
         try {
           ConverterEntry entry = entries.next();
           record.setMapperVersion(entry.destinationVersion);
-          Future<Void> tmp = entry.converter.convert(event.getDataStore(), record, context);
+          Future<Void> tmp = entry.converter.convert(datastore, record, context);
           fl.add(tmp);
         } catch (Exception e) {
           return Future.failedFuture(e);
@@ -106,6 +122,15 @@ public class ExecuteVersionConverter extends AbstractObserver {
     }
   }
 
+  /**
+   * Get the current version of the mapper, which is the destination of all conversions
+   * 
+   * @return the current version
+   */
+  public long getCurrentVersion() {
+    return currentVersion;
+  }
+
   private class ConverterEntry implements Comparable<ConverterEntry> {
     private Long destinationVersion;
     private IVersionConverter converter;
@@ -0,0 +1,433 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-common
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.versioning;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.annotation.VersionInfo;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
+import de.braintags.vertx.jomnigate.dataaccess.query.ISearchCondition;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWrite;
+import de.braintags.vertx.jomnigate.exception.MappingException;
+import de.braintags.vertx.jomnigate.mapping.IMapper;
+import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.util.QueryHelper;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * Migrates all existing records of a mapper with a {@link VersionInfo} to the current version in the background, so
+ * that the conversion is not executed again and again by the {@link ExecuteVersionConverter} during loading or saving.
+ * The runner searches the records, where the version field is smaller than the current version or is not set, in
+ * batches sorted by id, executes the defined {@link IVersionConverter} for each record and saves each batch by one
+ * {@link IWrite}. Because converted records are not found by the next query, the position of the migration is defined
+ * by the {@link Checkpoint}, which contains the number of records, which could not be converted. The checkpoint is sent
+ * to the checkpoint handler after each batch and can be stored to resume an interrupted migration later. The number of
+ * records per second can be limited to reduce the load of the datastore.
+ *
+ * @author Michael Remme
+ * @param <T>
+ *          the mapper class which will be migrated
+ */
+public class VersionMigrationRunner<T extends IMapperVersion> {
+  private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
+      .getLogger(VersionMigrationRunner.class);
+
+  /**
+   * The default name of the field, which stores the version of the mapper
+   */
+  public static final String DEFAULT_VERSION_FIELD = "mapperVersion";
+
+  /**
+   * The default number of records, which are migrated together
+   */
+  public static final int DEFAULT_BATCH_SIZE = 500;
+
+  private final IDataStore<?, ?> datastore;
+  private final Class<T> mapperClass;
+  private final ExecuteVersionConverter converter;
+  private String versionField = DEFAULT_VERSION_FIELD;
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private int maxRecordsPerSecond;
+  private Handler<Checkpoint> checkpointHandler;
+  private volatile Checkpoint checkpoint = new Checkpoint();
+  private volatile long totalCount;
+  private volatile long batchCount;
+  private boolean running;
+  private boolean stopped;
+
+  /**
+   * Creates a new instance for the given mapper class
+   *
+   * @param datastore
+   *          the datastore to be used
+   * @param mapperClass
+   *          the mapper class, which must define a {@link VersionInfo}
+   */
+  public VersionMigrationRunner(IDataStore<?, ?> datastore, Class<T> mapperClass) {
+    this.datastore = datastore;
+    this.mapperClass = mapperClass;
+    VersionInfo versionInfo = datastore.getMapperFactory().getMapper(mapperClass).getVersionInfo();
+    if (versionInfo == null) {
+      throw new MappingException("The mapper " + mapperClass.getName() + " does not define a VersionInfo");
+    }
+    this.converter = new ExecuteVersionConverter(versionInfo);
+  }
+
+  /**
+   * Start the migration from the beginning
+   *
+   * @param handler
+   *          the handler to be informed, when all records are migrated; it receives the final checkpoint
+   */
+  public void start(Handler<AsyncResult<Checkpoint>> handler) {
+    start(new Checkpoint(), handler);
+  }
+
+  /**
+   * Start the migration from the given checkpoint, which was stored by a previous run
+   *
+   * @param resumeFrom
+   *          the checkpoint to resume from
+   * @param handler
+   *          the handler to be informed, when all records are migrated; it receives the final checkpoint
+   */
+  public void start(Checkpoint resumeFrom, Handler<AsyncResult<Checkpoint>> handler) {
+    synchronized (this) {
+      if (running) {
+        handler.handle(Future.failedFuture(new IllegalStateException("the migration is running already")));
+        return;
+      }
+      running = true;
+      stopped = false;
+    }
+    checkpoint = resumeFrom.copy();
+    batchCount = 0;
+    try {
+      createQuery().executeCount(cr -> {
+        if (cr.failed()) {
+          finish(Future.failedFuture(cr.cause()), handler);
+        } else {
+          totalCount = cr.result().getCount() + checkpoint.migrated;
+          LOGGER.info("starting migration of " + cr.result().getCount() + " records of " + mapperClass.getName());
+          nextBatch(handler);
+        }
+      });
+    } catch (Exception e) {
+      finish(Future.failedFuture(e), handler);
+    }
+  }
+
+  /**
+   * Stop the migration after the current batch. The handler of the start method receives the checkpoint, where the
+   * migration can be resumed
+   */
+  public synchronized void stop() {
+    stopped = true;
+  }
+
+  private void nextBatch(Handler<AsyncResult<Checkpoint>> handler) {
+    if (stopped) {
+      finish(Future.succeededFuture(checkpoint.copy()), handler);
+      return;
+    }
+    long start = System.currentTimeMillis();
+    IQuery<T> query = createQuery();
+    query.execute(null, batchSize, (int) checkpoint.skipped, qr -> {
+      if (qr.failed()) {
+        finish(Future.failedFuture(qr.cause()), handler);
+      } else if (qr.result().isEmpty()) {
+        LOGGER.info("migration of " + mapperClass.getName() + " finished: " + checkpoint);
+        finish(Future.succeededFuture(checkpoint.copy()), handler);
+      } else {
+        QueryHelper.queryResultToList(qr.result(), lr -> {
+          if (lr.failed()) {
+            finish(Future.failedFuture(lr.cause()), handler);
+          } else {
+            migrateBatch(lr.result(), br -> {
+              if (br.failed()) {
+                finish(Future.failedFuture(br.cause()), handler);
+              } else {
+                batchCount++;
+                if (checkpointHandler != null) {
+                  checkpointHandler.handle(checkpoint.copy());
+                }
+                long delay = computeDelay(lr.result().size(), System.currentTimeMillis() - start);
+                if (delay > 0) {
+                  datastore.getVertx().setTimer(delay, id -> nextBatch(handler));
+                } else {
+                  datastore.getVertx().runOnContext(v -> nextBatch(handler));
+                }
+              }
+            });
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Convert the records of a batch and save the converted ones by one write action. Records, where the conversion
+   * failed, are counted as skipped, so that the next query starts behind them
+   */
+  @SuppressWarnings("rawtypes")
+  private void migrateBatch(List<T> records, Handler<AsyncResult<Void>> handler) {
+    IObserverContext context = IObserverContext.createInstance();
+    List<Future> fl = new ArrayList<>(records.size());
+    for (T record : records) {
+      fl.add(converter.convert(datastore, record, context));
+    }
+    CompositeFuture.join(fl).setHandler(cr -> {
+      IWrite<T> write = datastore.createWrite(mapperClass);
+      for (int i = 0; i < records.size(); i++) {
+        T record = records.get(i);
+        if (fl.get(i).failed()) {
+          LOGGER.warn("could not migrate record of " + mapperClass.getName(), fl.get(i).cause());
+          checkpoint.skipped++;
+        } else {
+          // no converter is left for the record, so it is up to date
+          record.setMapperVersion(converter.getCurrentVersion());
+          write.add(record);
+        }
+      }
+      if (write.size() == 0) {
+        handler.handle(Future.succeededFuture());
+      } else {
+        int count = write.size();
+        write.save(wr -> {
+          if (wr.failed()) {
+            handler.handle(Future.failedFuture(wr.cause()));
+          } else {
+            checkpoint.migrated += count;
+            handler.handle(Future.succeededFuture());
+          }
+        });
+      }
+    });
+  }
+
+  private long computeDelay(int records, long duration) {
+    if (maxRecordsPerSecond <= 0) {
+      return 0;
+    }
+    return records * 1000L / maxRecordsPerSecond - duration;
+  }
+
+  private void finish(AsyncResult<Checkpoint> result, Handler<AsyncResult<Checkpoint>> handler) {
+    synchronized (this) {
+      running = false;
+    }
+    handler.handle(result);
+  }
+
+  private IQuery<T> createQuery() {
+    IQuery<T> query = datastore.createQuery(mapperClass);
+    IMapper<T> mapper = query.getMapper();
+    // records, which were saved before the mapper was versioned, don't contain the version field
+    query.setSearchCondition(ISearchCondition.or(ISearchCondition.smaller(versionField, converter.getCurrentVersion()),
+        ISearchCondition.isEqual(versionField, null)));
+    query.addSort(mapper.getIdInfo().getField().getName());
+    return query;
+  }
+
+  /**
+   * The name of the field, which stores the version of the mapper. Default is {@value #DEFAULT_VERSION_FIELD}
+   *
+   * @return the versionField
+   */
+  public String getVersionField() {
+    return versionField;
+  }
+
+  /**
+   * The name of the field, which stores the version of the mapper. The field should be indexed
+   *
+   * @param versionField
+   *          the versionField to set
+   */
+  public void setVersionField(String versionField) {
+    this.versionField = versionField;
+  }
+
+  /**
+   * The number of records, which are loaded, converted and saved together
+   *
+   * @return the batchSize
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * The number of records, which are loaded, converted and saved together
+   *
+   * @param batchSize
+   *          the batchSize to set
+   */
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * The maximum number of records, which are migrated per second. A value of 0 or lower means no limit
+   *
+   * @return the maxRecordsPerSecond
+   */
+  public int getMaxRecordsPerSecond() {
+    return maxRecordsPerSecond;
+  }
+
+  /**
+   * The maximum number of records, which are migrated per second. A value of 0 or lower means no limit
+   *
+   * @param maxRecordsPerSecond
+   *          the maxRecordsPerSecond to set
+   */
+  public void setMaxRecordsPerSecond(int maxRecordsPerSecond) {
+    this.maxRecordsPerSecond = maxRecordsPerSecond;
+  }
+
+  /**
+   * Set the handler, which receives the current checkpoint after each batch
+   *
+   * @param checkpointHandler
+   *          the checkpointHandler to set
+   */
+  public void setCheckpointHandler(Handler<Checkpoint> checkpointHandler) {
+    this.checkpointHandler = checkpointHandler;
+  }
+
+  /**
+   * Get the number of records, which were migrated
+   *
+   * @return the number of migrated records
+   */
+  public long getMigratedCount() {
+    return checkpoint.migrated;
+  }
+
+  /**
+   * Get the number of records, which could not be migrated
+   *
+   * @return the number of skipped records
+   */
+  public long getSkippedCount() {
+    return checkpoint.skipped;
+  }
+
+  /**
+   * Get the number of records, which had to be migrated at the start, including the records migrated by a previous run
+   *
+   * @return the total number of records
+   */
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  /**
+   * Get the number of batches, which were processed by the current run
+   *
+   * @return the number of batches
+   */
+  public long getBatchCount() {
+    return batchCount;
+  }
+
+  /**
+   * Get the progress of the migration
+   *
+   * @return the progress as value between 0 and 1
+   */
+  public double getProgress() {
+    long total = totalCount;
+    return total == 0 ? 1 : (double) (checkpoint.migrated + checkpoint.skipped) / total;
+  }
+
+  /**
+   * Returns true, if the migration is running
+   *
+   * @return the running state
+   */
+  public synchronized boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * The position of a migration. Because migrated records are not found by the query anymore, the number of skipped
+   * records is the offset, where the next query starts
+   */
+  public static class Checkpoint {
+    private volatile long migrated;
+    private volatile long skipped;
+
+    /**
+     * The number of migrated records
+     *
+     * @return the migrated
+     */
+    public long getMigrated() {
+      return migrated;
+    }
+
+    /**
+     * The number of migrated records
+     *
+     * @param migrated
+     *          the migrated to set
+     */
+    public void setMigrated(long migrated) {
+      this.migrated = migrated;
+    }
+
+    /**
+     * The number of records, which could not be migrated
+     *
+     * @return the skipped
+     */
+    public long getSkipped() {
+      return skipped;
+    }
+
+    /**
+     * The number of records, which could not be migrated
+     *
+     * @param skipped
+     *          the skipped to set
+     */
+    public void setSkipped(long skipped) {
+      this.skipped = skipped;
+    }
+
+    private Checkpoint copy() {
+      Checkpoint cp = new Checkpoint();
+      cp.migrated = migrated;
+      cp.skipped = skipped;
+      return cp;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+      return "migrated: " + migrated + ", skipped: " + skipped;
+    }
+  }
+
+}
@@ -69,5 +69,11 @@
  * if converters are defined, the system will search for all converters, which must be applied, execute them in the
  * correct order and sets the current version to the destination version of the converter.
  * 
+ * Because this conversion is executed lazily, records, which are not saved, are converted again on every load. To
+ * migrate all existing records after a deployment, the
+ * {@link de.braintags.vertx.jomnigate.versioning.VersionMigrationRunner} can be started. It searches all records with an older version in batches, executes the converters and saves each
+ * batch by one write action. The number of records per second can be limited, the progress can be requested and after
+ * each batch a checkpoint is delivered, from which an interrupted migration can be resumed.
+ * 
  */
 package de.braintags.vertx.jomnigate.versioning;
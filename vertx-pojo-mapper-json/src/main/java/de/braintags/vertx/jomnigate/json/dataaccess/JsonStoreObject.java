@@ -32,6 +32,8 @@ import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.mapping.IStoreObject;
 import de.braintags.vertx.jomnigate.mapping.datastore.IColumnInfo;
 import de.braintags.vertx.jomnigate.mapping.impl.AbstractStoreObject;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
@@ -254,7 +256,12 @@ public class JsonStoreObject<T> extends AbstractStoreObject<T, JsonObject> {
    */
   public void getNextId(final Handler<AsyncResult<Void>> handler) {
     IKeyGenerator gen = getMapper().getKeyGenerator();
+    IMetricsCollector metrics = getMapper().getMapperFactory().getDataStore().getMetricsCollector();
+    long start = metrics == null ? 0 : System.nanoTime();
     gen.generateKey(getMapper(), keyResult -> {
+      if (metrics != null) {
+        metrics.record(MetricType.KEY_GENERATION, getMapper().getMapperClass(), System.nanoTime() - start, 1);
+      }
       if (keyResult.failed()) {
         handler.handle(Future.failedFuture(keyResult.cause()));
       } else {
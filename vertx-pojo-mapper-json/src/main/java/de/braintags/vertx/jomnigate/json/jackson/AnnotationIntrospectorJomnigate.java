@@ -24,11 +24,13 @@ import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.Entity;
 import de.braintags.vertx.jomnigate.annotation.field.Embedded;
 import de.braintags.vertx.jomnigate.annotation.field.Referenced;
+import de.braintags.vertx.jomnigate.datatypes.LazyRef;
 import de.braintags.vertx.jomnigate.datatypes.geojson.GeoPoint;
 import de.braintags.vertx.jomnigate.exception.MappingException;
 import de.braintags.vertx.jomnigate.json.jackson.deserializer.geo.GeoPointDeserializer;
 import de.braintags.vertx.jomnigate.json.jackson.serializer.embedded.EmbeddedObjectSerializer;
 import de.braintags.vertx.jomnigate.json.jackson.serializer.geo.GeoPointSerializer;
+import de.braintags.vertx.jomnigate.json.jackson.serializer.referenced.LazyRefSerializer;
 import de.braintags.vertx.jomnigate.json.jackson.serializer.referenced.ReferencedArraySerializer;
 import de.braintags.vertx.jomnigate.json.jackson.serializer.referenced.ReferencedCollectionSerializer;
 import de.braintags.vertx.jomnigate.json.jackson.serializer.referenced.ReferencedObjectSerializer;
@@ -134,7 +136,10 @@ public class AnnotationIntrospectorJomnigate extends NopAnnotationIntrospector i
    */
   private Object findReferencedSerializer(Annotated am) {
     JavaType jt = am.getType();
-    if (jt.isArrayType()) {
+    if (jt.isTypeOrSubTypeOf(LazyRef.class)) {
+      checkEntity(jt.containedType(0).getRawClass(), REFERENCED_STRING);
+      return new LazyRefSerializer(datastore);
+    } else if (jt.isArrayType()) {
       checkEntity(am.getType().getContentType().getRawClass(), REFERENCED_STRING);
       return new ReferencedArraySerializer(datastore);
     } else if (jt.isCollectionLikeType()) {
@@ -23,7 +23,9 @@ import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.annotation.field.Referenced;
+import de.braintags.vertx.jomnigate.datatypes.LazyRef;
 import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.AbstractReferencedDeserializer;
+import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.LazyReferencedDeserializer;
 import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.ReferencedArrayDeserializer;
 import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.ReferencedCollectionDeserializer;
 import de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced.ReferencedMapDeserializer;
@@ -73,7 +75,9 @@ public class JOmnigateBeanDeserializerModifyer extends BeanDeserializerModifier
       BeanDescription beanDesc, SettableBeanProperty p) {
     JavaType jt = p.getType();
     LOGGER.debug("finding deserializer for " + p + " : " + jt);
-    if (jt.isArrayType()) {
+    if (jt.isTypeOrSubTypeOf(LazyRef.class)) {
+      return new LazyReferencedDeserializer(datastore, p);
+    } else if (jt.isArrayType()) {
       return new ReferencedArrayDeserializer(datastore, p);
     } else if (jt.isMapLikeType()) {
       return new ReferencedMapDeserializer(datastore, p);
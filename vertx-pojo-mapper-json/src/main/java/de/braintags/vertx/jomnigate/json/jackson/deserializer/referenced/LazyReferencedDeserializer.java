@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.json.jackson.deserializer.referenced;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.annotation.field.Referenced;
+import de.braintags.vertx.jomnigate.datatypes.LazyRef;
+
+/**
+ * Deserializer for fields of type {@link LazyRef}, which are annotated as {@link Referenced}. Only the id of the
+ * referenced instance is read, the instance itself is loaded on first access of the {@link LazyRef}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class LazyReferencedDeserializer extends AbstractReferencedDeserializer<LazyRef<?>> {
+
+  /**
+   * Comment for <code>serialVersionUID</code>
+   */
+  private static final long serialVersionUID = 1L;
+  private final Class<?> mapperClass;
+
+  /**
+   * @param datastore
+   * @param beanProperty
+   */
+  public LazyReferencedDeserializer(IDataStore datastore, SettableBeanProperty beanProperty) {
+    super(datastore, beanProperty);
+    this.mapperClass = beanProperty.getType().containedType(0).getRawClass();
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.fasterxml.jackson.databind.JsonDeserializer#deserialize(com.fasterxml.jackson.core.JsonParser,
+   * com.fasterxml.jackson.databind.DeserializationContext)
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  @Override
+  public LazyRef<?> deserialize(JsonParser p, DeserializationContext ct) throws IOException, JsonProcessingException {
+    JsonNode node = p.getCodec().readTree(p);
+    if (node == null || node.isNull()) {
+      return null;
+    }
+    return new LazyRef(getDatastore(), mapperClass, node.asText());
+  }
+
+}
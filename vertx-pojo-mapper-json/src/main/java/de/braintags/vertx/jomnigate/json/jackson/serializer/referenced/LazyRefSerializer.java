@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.json.jackson.serializer.referenced;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.annotation.field.Referenced;
+import de.braintags.vertx.jomnigate.dataaccess.write.IWriteResult;
+import de.braintags.vertx.jomnigate.datatypes.LazyRef;
+import de.braintags.vertx.jomnigate.json.jackson.serializer.AbstractDataStoreSerializer;
+import de.braintags.vertx.jomnigate.json.jackson.serializer.JOmnigateGenerator;
+import io.vertx.core.Future;
+
+/**
+ * Serializer for fields of type {@link LazyRef}, which are annotated by {@link Referenced}. A reference, which was
+ * never loaded, is written by its id without touching the referenced instance. A loaded reference is handled like
+ * {@link ReferencedObjectSerializer}
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class LazyRefSerializer extends AbstractDataStoreSerializer<LazyRef<?>> {
+
+  /**
+   * Comment for <code>serialVersionUID</code>
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * @param datastore
+   */
+  public LazyRefSerializer(IDataStore datastore) {
+    super(datastore);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see com.fasterxml.jackson.databind.ser.std.StdSerializer#serialize(java.lang.Object,
+   * com.fasterxml.jackson.core.JsonGenerator, com.fasterxml.jackson.databind.SerializerProvider)
+   */
+  @Override
+  public void serialize(LazyRef<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+    if (value == null) {
+      gen.writeNull();
+    } else if (!value.isLoaded()) {
+      gen.writeString(value.getId());
+    } else if (value.getIfLoaded() == null) {
+      gen.writeNull();
+    } else {
+      JOmnigateGenerator jgen = (JOmnigateGenerator) gen;
+      Future<IWriteResult> future = saveReferencedObject(getDatastore(), value.getIfLoaded());
+      String refId = jgen.addEntry(future, false);
+      gen.writeString(refId);
+    }
+  }
+
+}
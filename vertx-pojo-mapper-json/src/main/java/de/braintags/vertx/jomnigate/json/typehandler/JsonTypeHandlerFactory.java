@@ -17,6 +17,7 @@ import java.lang.annotation.Annotation;
 import de.braintags.vertx.jomnigate.annotation.field.Embedded;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.ArrayTypeHandlerReferenced;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.CollectionTypeHandlerReferenced;
+import de.braintags.vertx.jomnigate.json.typehandler.handler.LazyRefTypeHandlerReferenced;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.MapTypeHandlerReferenced;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.ObjectTypeHandler;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.ObjectTypeHandlerReferenced;
@@ -77,6 +78,7 @@ public class JsonTypeHandlerFactory extends AbstractTypeHandlerFactory {
     // add(new ArrayTypeHandler(this));
     // add(new ArrayTypeHandlerEmbedded(this));
     add(new ArrayTypeHandlerReferenced(this));
+    add(new LazyRefTypeHandlerReferenced(this));
   }
 
   @Override
@@ -83,7 +83,7 @@ public class CollectionTypeHandler extends AbstractTypeHandler {
         if (result.failed()) {
           resultHandler.handle(Future.failedFuture(result.cause()));
         } else {
-          Collection coll = field.getMapper().getObjectFactory().createCollection(field);
+          Collection coll = field.getMapper().getObjectFactory().createCollection(field, cf.size());
           coll.addAll(cf.list());
           success(coll, resultHandler);
         }
@@ -0,0 +1,103 @@
+/*
+ * #%L
+ * vertx-pojo-mapper-json
+ * %%
+ * Copyright (C) 2017 Braintags GmbH
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+package de.braintags.vertx.jomnigate.json.typehandler.handler;
+
+import java.lang.annotation.Annotation;
+
+import de.braintags.vertx.jomnigate.IDataStore;
+import de.braintags.vertx.jomnigate.annotation.field.Referenced;
+import de.braintags.vertx.jomnigate.datatypes.LazyRef;
+import de.braintags.vertx.jomnigate.exception.MappingException;
+import de.braintags.vertx.jomnigate.mapping.IProperty;
+import de.braintags.vertx.jomnigate.typehandler.AbstractTypeHandler;
+import de.braintags.vertx.jomnigate.typehandler.ITypeHandler;
+import de.braintags.vertx.jomnigate.typehandler.ITypeHandlerFactory;
+import de.braintags.vertx.jomnigate.typehandler.ITypeHandlerResult;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+/**
+ * Deals with fields of type {@link LazyRef}, which are annotated as {@link Referenced}. When reading, only the id is
+ * placed into a new {@link LazyRef}; the referenced instance is loaded on first access
+ * 
+ * @author Michael Remme
+ * 
+ */
+public class LazyRefTypeHandlerReferenced extends AbstractTypeHandler {
+  private final ObjectTypeHandlerReferenced referencedHandler;
+
+  /**
+   * @param typeHandlerFactory
+   */
+  public LazyRefTypeHandlerReferenced(final ITypeHandlerFactory typeHandlerFactory) {
+    super(typeHandlerFactory, LazyRef.class);
+    referencedHandler = new ObjectTypeHandlerReferenced(typeHandlerFactory);
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see
+   * de.braintags.vertx.jomnigate.typehandler.AbstractTypeHandler#matchesAnnotation(java.lang.annotation.Annotation)
+   */
+  @Override
+  protected boolean matchesAnnotation(final Annotation annotation) {
+    return annotation != null && annotation instanceof Referenced;
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.typehandler.ITypeHandler#fromStore(java.lang.Object,
+   * de.braintags.vertx.jomnigate.mapping.IProperty, java.lang.Class, io.vertx.core.Handler)
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  @Override
+  public void fromStore(final Object id, final IProperty field, final Class<?> cls,
+      final Handler<AsyncResult<ITypeHandlerResult>> resultHandler) {
+    if (id == null) {
+      success(null, resultHandler);
+    } else {
+      IDataStore store = field.getMapper().getMapperFactory().getDataStore();
+      success(new LazyRef(store, getReferencedClass(field), String.valueOf(id)), resultHandler);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.typehandler.ITypeHandler#intoStore(java.lang.Object,
+   * de.braintags.vertx.jomnigate.mapping.IProperty, io.vertx.core.Handler)
+   */
+  @Override
+  public void intoStore(final Object source, final IProperty field,
+      final Handler<AsyncResult<ITypeHandlerResult>> resultHandler) {
+    LazyRef<?> ref = (LazyRef<?>) source;
+    if (ref == null || (ref.isLoaded() && ref.getIfLoaded() == null)) {
+      success(null, resultHandler);
+    } else if (ref.isLoaded()) {
+      referencedHandler.intoStore(ref.getIfLoaded(), field, resultHandler);
+    } else {
+      ITypeHandler th = getTypeHandlerFactory().getTypeHandler(String.class, null);
+      th.intoStore(ref.getId(), field, resultHandler);
+    }
+  }
+
+  private Class<?> getReferencedClass(final IProperty field) {
+    if (field.getTypeParameters().isEmpty()) {
+      throw new MappingException("LazyRef must define the referenced class as type parameter: " + field.getFullName());
+    }
+    return field.getTypeParameters().get(0).getType();
+  }
+
+}
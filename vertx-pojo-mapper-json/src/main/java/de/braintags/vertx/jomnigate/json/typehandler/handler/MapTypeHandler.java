@@ -84,7 +84,7 @@ public class MapTypeHandler extends AbstractTypeHandler {
         if (result.failed()) {
           resultHandler.handle(Future.failedFuture(result.cause()));
         } else {
-          Map map = field.getMapper().getObjectFactory().createMap(field);
+          Map map = field.getMapper().getObjectFactory().createMap(field, cf.size());
           for (Object entry : cf.list()) {
             map.put(((MapEntry) entry).key, ((MapEntry) entry).value);
           }
@@ -21,7 +21,13 @@ import static org.junit.Assert.fail;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -37,6 +43,7 @@ import de.braintags.vertx.jomnigate.annotation.field.Referenced;
 import de.braintags.vertx.jomnigate.annotation.lifecycle.BeforeLoad;
 import de.braintags.vertx.jomnigate.exception.NoSuchFieldException;
 import de.braintags.vertx.jomnigate.impl.DummyDataStore;
+import de.braintags.vertx.jomnigate.json.typehandler.JsonTypeHandlerFactory;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.ArrayTypeHandlerReferenced;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.CollectionTypeHandlerReferenced;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.MapTypeHandlerReferenced;
@@ -52,6 +59,7 @@ import de.braintags.vertx.jomnigate.mapping.IProperty;
 import de.braintags.vertx.jomnigate.mapping.IPropertyMapper;
 import de.braintags.vertx.jomnigate.mapping.impl.Mapper;
 import de.braintags.vertx.jomnigate.mapping.impl.ParametrizedMappedField;
+import de.braintags.vertx.jomnigate.typehandler.ITypeHandler;
 
 /**
  * 
@@ -77,6 +85,81 @@ public class TMapperFactory {
     Assert.assertFalse("this mapper has NO referenced fields", ((Mapper) mapper).hasReferencedFields());
   }
 
+  @Test
+  public void testConcurrentMapperCreation() throws Exception {
+    IDataStore store = new DummyDataStore();
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Callable<IMapper>> tasks = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        tasks.add(() -> store.getMapperFactory().getMapper(NoReferencedFieldMapper.class));
+      }
+      IMapper first = null;
+      for (Future<IMapper> f : executor.invokeAll(tasks)) {
+        IMapper mapper = f.get();
+        assertNotNull(mapper);
+        if (first == null) {
+          first = mapper;
+        }
+        Assert.assertSame("all callers must receive the same mapper instance", first, mapper);
+      }
+      Assert.assertSame(first, store.getMapperFactory().getMapper(NoReferencedFieldMapper.class));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testTypeHandlerCache() {
+    JsonTypeHandlerFactory tf = new JsonTypeHandlerFactory();
+    ITypeHandler th1 = tf.getTypeHandler(String.class, null);
+    assertEquals(0, tf.getCacheHits());
+    assertEquals(1, tf.getCacheMisses());
+    ITypeHandler th2 = tf.getTypeHandler(String.class, null);
+    assertEquals(1, tf.getCacheHits());
+    assertEquals(1, tf.getCacheMisses());
+    Assert.assertNotSame("cached typehandler must be cloned", th1, th2);
+    assertEquals(th1.getClass(), th2.getClass());
+    tf.clearCache();
+    tf.getTypeHandler(String.class, null);
+    assertEquals(2, tf.getCacheMisses());
+
+    // a full cache removes the least recently used entry
+    tf.setMaxCacheSize(1);
+    tf.getTypeHandler(Integer.class, null);
+    tf.getTypeHandler(String.class, null);
+    assertEquals(4, tf.getCacheMisses());
+
+    IProperty field = mapperDef.getField("listAnimals");
+    ITypeHandler fieldHandler = tf.getTypeHandler(field);
+    long hits = tf.getCacheHits();
+    Assert.assertSame("the typehandler of a property must be cached", fieldHandler, tf.getTypeHandler(field));
+    assertEquals(hits + 1, tf.getCacheHits());
+  }
+
+  @Test
+  public void testTypeHandlersComputedOnMapping() {
+    IProperty field = mapperDef.getField("listAnimals");
+    assertNotNull(field.getTypeHandler());
+    Assert.assertSame(field.getTypeHandler(), field.getTypeHandler());
+    Assert.assertSame(field.getSubTypeHandler(), field.getSubTypeHandler());
+  }
+
+  @Test
+  public void testObjectFactoryCaching() {
+    IObjectFactory of = mapperDef.getObjectFactory();
+    Person p1 = of.createInstance(Person.class);
+    Person p2 = of.createInstance(Person.class);
+    assertNotNull(p1);
+    Assert.assertNotSame(p1, p2);
+    IProperty field = mapperDef.getField("listAnimals");
+    Collection<?> coll = of.createCollection(field, 10);
+    assertTrue(coll instanceof ArrayList);
+    assertTrue(coll.isEmpty());
+    Assert.assertNotSame(coll, of.createCollection(field));
+  }
+
   @Test
   public void testNumberOfProperties() {
     Assert.assertEquals("unexpected numer of properties", NUMBER_OF_PROPERTIES, mapperDef.getFieldNames().size());
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertThat;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Date;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -39,6 +40,11 @@ public class TSerializeSearchConditions {
         { ISearchCondition.createFieldCondition(SimpleMapper.NAME, QueryOperator.EQUALS, "test") },
         { ISearchCondition.endsWith(SimpleMapper.NAME, "test") },
         { ISearchCondition.in(SimpleMapper.NAME, "test", "test2") },
+        { ISearchCondition.in(SimpleMapper.NAME, 1, 2L) },
+        { ISearchCondition.isEqual(SimpleMapper.NAME, true) },
+        { ISearchCondition.isEqual(SimpleMapper.NAME, 4.5d) },
+        { ISearchCondition.isEqual(SimpleMapper.NAME, new Date(1500000000000L)) },
+        { ISearchCondition.in(SimpleMapper.NAME, new Date(1500000000000L), new Date(1600000000000L)) },
         { ISearchCondition.larger(SimpleMapper.NAME, "test") },
         { ISearchCondition.largerOrEqual(SimpleMapper.NAME, "test") },
         { ISearchCondition.near(SimpleMapper.NAME, 7.388499, 51.113399, 10) },
@@ -12,8 +12,15 @@
  */
 package de.braintags.vertx.jomnigate.impl;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.IDataStoreMetaData;
+import de.braintags.vertx.jomnigate.advisor.IndexAdvisor;
+import de.braintags.vertx.jomnigate.change.ChangePublisher;
+import de.braintags.vertx.jomnigate.dataaccess.RecordBatchLoader;
 import de.braintags.vertx.jomnigate.dataaccess.delete.IDelete;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryCountResult;
@@ -32,9 +39,11 @@ import de.braintags.vertx.jomnigate.mapping.IStoreObjectFactory;
 import de.braintags.vertx.jomnigate.mapping.ITriggerContextFactory;
 import de.braintags.vertx.jomnigate.mapping.datastore.ITableGenerator;
 import de.braintags.vertx.jomnigate.mapping.impl.MapperFactory;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
 import de.braintags.vertx.jomnigate.typehandler.ITypeHandlerFactory;
 import de.braintags.vertx.util.security.crypt.IEncoder;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Closeable;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
@@ -55,6 +64,10 @@ public class DummyDataStore implements IDataStore<String, String> {
   private ITriggerContextFactory triggerContextFactory;
   private DataStoreSettings settings = new DataStoreSettings();
   private Vertx vertx;
+  private ChangePublisher changePublisher = new ChangePublisher(this);
+  private IndexAdvisor indexAdvisor = new IndexAdvisor(this);
+  private Map<Class<?>, RecordBatchLoader<?>> recordBatchLoaders = new ConcurrentHashMap<>();
+  private IMetricsCollector metricsCollector;
 
   public DummyDataStore() {
     this.vertx = Vertx.vertx();
@@ -120,16 +133,6 @@ public class DummyDataStore implements IDataStore<String, String> {
       super(mapperClass, datastore);
     }
 
-    /*
-     * (non-Javadoc)
-     * 
-     * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#executeExplain(io.vertx.core.Handler)
-     */
-    @Override
-    public void executeExplain(Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
-      setUnsupported(resultHandler);
-    }
-
     /*
      * (non-Javadoc)
      * 
@@ -154,6 +157,18 @@ public class DummyDataStore implements IDataStore<String, String> {
 
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#internalExecuteRaw(de.braintags.vertx.
+     * jomnigate.dataaccess.query.impl.IQueryExpression, io.vertx.core.Handler)
+     */
+    @Override
+    protected void internalExecuteRaw(IQueryExpression queryExpression,
+        Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+      setUnsupported(resultHandler);
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -258,6 +273,16 @@ public class DummyDataStore implements IDataStore<String, String> {
   public void shutdown(Handler<AsyncResult<Void>> resultHandler) {
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#addCloseHook(io.vertx.core.Closeable)
+   */
+  @Override
+  public void addCloseHook(Closeable hook) {
+    // nothing is closed by the dummy
+  }
+
   @Override
   public final ITriggerContextFactory getTriggerContextFactory() {
     return triggerContextFactory;
@@ -322,4 +347,36 @@ public class DummyDataStore implements IDataStore<String, String> {
     return settings;
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStore#getChangePublisher()
+   */
+  @Override
+  public ChangePublisher getChangePublisher() {
+    return changePublisher;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> RecordBatchLoader<T> getRecordBatchLoader(Class<T> mapperClass) {
+    return (RecordBatchLoader<T>) recordBatchLoaders.computeIfAbsent(mapperClass,
+        cls -> new RecordBatchLoader<>(this, mapperClass));
+  }
+
+  @Override
+  public IndexAdvisor getIndexAdvisor() {
+    return indexAdvisor;
+  }
+
+  @Override
+  public IMetricsCollector getMetricsCollector() {
+    return metricsCollector;
+  }
+
+  @Override
+  public void setMetricsCollector(IMetricsCollector metricsCollector) {
+    this.metricsCollector = metricsCollector;
+  }
+
 }
@@ -137,7 +137,7 @@ public class MySqlDataStore extends AbstractDataStore<Object, String> {
    */
   @Override
   public void shutdown(Handler<AsyncResult<Void>> resultHandler) {
-    sqlClient.close(resultHandler);
+    closeHooks(v -> sqlClient.close(resultHandler));
   }
 
   /*
@@ -13,6 +13,9 @@
 
 package de.braintags.vertx.jomnigate.mysql;
 
+import java.util.List;
+import java.util.Map;
+
 import de.braintags.vertx.jomnigate.IDataStoreMetaData;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import io.vertx.core.AsyncResult;
@@ -80,4 +83,15 @@ public class MySqlMetaData implements IDataStoreMetaData {
     });
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStoreMetaData#getIndexes(de.braintags.vertx.jomnigate.mapping.IMapper,
+   * io.vertx.core.Handler)
+   */
+  @Override
+  public void getIndexes(IMapper<?> mapper, Handler<AsyncResult<Map<String, List<String>>>> handler) {
+    SqlUtil.getIndexes(datastore, mapper.getTableInfo().getName(), handler);
+  }
+
 }
@@ -15,7 +15,9 @@ package de.braintags.vertx.jomnigate.mysql;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.github.mauricio.async.db.mysql.exceptions.MySQLException;
 import com.google.common.collect.ImmutableSet;
@@ -25,6 +27,8 @@ import de.braintags.vertx.jomnigate.exception.DuplicateKeyException;
 import de.braintags.vertx.jomnigate.mapping.IIndexDefinition;
 import de.braintags.vertx.jomnigate.mapping.IIndexFieldDefinition;
 import de.braintags.vertx.jomnigate.mapping.datastore.IColumnInfo;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import de.braintags.vertx.jomnigate.mysql.exception.SqlException;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
@@ -210,6 +214,30 @@ public class SqlUtil {
     });
   }
 
+  /**
+   * Get all indexes of the given table
+   * 
+   * @param ds
+   * @param tableName
+   * @param handler
+   *          handler to receive the names of the indexes with their columns in the order of the index
+   */
+  public static final void getIndexes(final MySqlDataStore ds, final String tableName,
+      final Handler<AsyncResult<Map<String, List<String>>>> handler) {
+    query(ds, "SHOW INDEX FROM " + tableName, result -> {
+      if (result.failed()) {
+        handler.handle(Future.failedFuture(result.cause()));
+      } else {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        for (JsonObject entry : result.result().getRows()) {
+          indexes.computeIfAbsent(entry.getString("Key_name"), k -> new ArrayList<>())
+              .add(entry.getString("Column_name"));
+        }
+        handler.handle(Future.succeededFuture(indexes));
+      }
+    });
+  }
+
   private static final void checkIndexExists(final MySqlDataStore ds, final String tableName,
       final IIndexDefinition index,
       final Handler<AsyncResult<IndexResult>> handler) {
@@ -269,6 +297,23 @@ public class SqlUtil {
     return DATE_TYPES.contains(col.getType().toUpperCase());
   }
 
+  /**
+   * Obtain a connection from the pool of the given client. If an {@link IMetricsCollector} is given, the time waiting
+   * for the connection is recorded
+   */
+  private static void getConnection(final AsyncSQLClient sqlClient, final IMetricsCollector metrics,
+      final Handler<AsyncResult<SQLConnection>> handler) {
+    if (metrics == null) {
+      sqlClient.getConnection(handler);
+    } else {
+      long start = System.nanoTime();
+      sqlClient.getConnection(cr -> {
+        metrics.record(MetricType.CONNECTION, null, System.nanoTime() - start, 1);
+        handler.handle(cr);
+      });
+    }
+  }
+
   /**
    * Executes the given query and returns the {@link ResultSet} to the {@link Handler}
    * 
@@ -280,7 +325,8 @@ public class SqlUtil {
    *          a resulthandler to be informed
    */
   public static void query(final MySqlDataStore datastore, final String command, final Handler<AsyncResult<ResultSet>> resultHandler) {
-    query((AsyncSQLClient) datastore.getClient(), command, resultHandler);
+    query((AsyncSQLClient) datastore.getClient(), datastore.getMetricsCollector(),
+        command, resultHandler);
   }
 
   /**
@@ -294,8 +340,13 @@ public class SqlUtil {
    *          a resulthandler to be informed
    */
   public static void query(final AsyncSQLClient sqlClient, final String command, final Handler<AsyncResult<ResultSet>> resultHandler) {
+    query(sqlClient, null, command, resultHandler);
+  }
+
+  private static void query(final AsyncSQLClient sqlClient, final IMetricsCollector metrics,
+      final String command, final Handler<AsyncResult<ResultSet>> resultHandler) {
     LOGGER.debug("query: " + command);
-    sqlClient.getConnection(cr -> {
+    getConnection(sqlClient, metrics, cr -> {
       if (cr.failed()) {
         Exception sqlEx = new SqlException(ERROR_GAINING_CONNECTION, cr.cause());
         LOGGER.error("", sqlEx);
@@ -342,7 +393,8 @@ public class SqlUtil {
    */
   public static void queryWithParams(final MySqlDataStore datastore, final String command, final JsonArray params,
       final Handler<AsyncResult<ResultSet>> resultHandler) {
-    queryWithParams((AsyncSQLClient) datastore.getClient(), command, params, resultHandler);
+    queryWithParams((AsyncSQLClient) datastore.getClient(), datastore.getMetricsCollector(),
+        command, params, resultHandler);
   }
 
   /**
@@ -357,8 +409,14 @@ public class SqlUtil {
    */
   public static void queryWithParams(final AsyncSQLClient sqlClient, final String command, final JsonArray params,
       final Handler<AsyncResult<ResultSet>> resultHandler) {
+    queryWithParams(sqlClient, null, command, params, resultHandler);
+  }
+
+  private static void queryWithParams(final AsyncSQLClient sqlClient, final IMetricsCollector metrics,
+      final String command, final JsonArray params,
+      final Handler<AsyncResult<ResultSet>> resultHandler) {
     LOGGER.debug("queryWithParams: " + command + " | " + params);
-    sqlClient.getConnection(cr -> {
+    getConnection(sqlClient, metrics, cr -> {
       if (cr.failed()) {
         Exception sqlEx = new SqlException(ERROR_GAINING_CONNECTION, cr.cause());
         LOGGER.error("", sqlEx);
@@ -408,7 +466,8 @@ public class SqlUtil {
   public static void execute(final MySqlDataStore datastore, final String command, final Handler<AsyncResult<Void>> resultHandler) {
     if (datastore == null)
       throw new NullPointerException("datastore is null");
-    execute((AsyncSQLClient) datastore.getClient(), command, resultHandler);
+    execute((AsyncSQLClient) datastore.getClient(), datastore.getMetricsCollector(),
+        command, resultHandler);
   }
 
   /**
@@ -422,8 +481,13 @@ public class SqlUtil {
    *          a resulthandler to be informed
    */
   public static void execute(final AsyncSQLClient sqlClient, final String command, final Handler<AsyncResult<Void>> resultHandler) {
+    execute(sqlClient, null, command, resultHandler);
+  }
+
+  private static void execute(final AsyncSQLClient sqlClient, final IMetricsCollector metrics,
+      final String command, final Handler<AsyncResult<Void>> resultHandler) {
     LOGGER.debug("execute: " + command);
-    sqlClient.getConnection(cr -> {
+    getConnection(sqlClient, metrics, cr -> {
       if (cr.failed()) {
         Exception sqlEx = new SqlException(ERROR_GAINING_CONNECTION, cr.cause());
         LOGGER.error("", sqlEx);
@@ -474,7 +538,8 @@ public class SqlUtil {
    */
   public static void update(final MySqlDataStore datastore, final String command,
       final Handler<AsyncResult<UpdateResult>> resultHandler) {
-    update((AsyncSQLClient) datastore.getClient(), command, resultHandler);
+    update((AsyncSQLClient) datastore.getClient(), datastore.getMetricsCollector(),
+        command, resultHandler);
   }
 
   /**
@@ -489,8 +554,13 @@ public class SqlUtil {
    */
   public static void update(final AsyncSQLClient sqlClient, final String command,
       final Handler<AsyncResult<UpdateResult>> resultHandler) {
+    update(sqlClient, null, command, resultHandler);
+  }
+
+  private static void update(final AsyncSQLClient sqlClient, final IMetricsCollector metrics, final String command,
+      final Handler<AsyncResult<UpdateResult>> resultHandler) {
     LOGGER.debug("update: " + command);
-    sqlClient.getConnection(cr -> {
+    getConnection(sqlClient, metrics, cr -> {
       if (cr.failed()) {
         Exception sqlEx = new SqlException(ERROR_GAINING_CONNECTION, cr.cause());
         LOGGER.error("", sqlEx);
@@ -515,7 +585,8 @@ public class SqlUtil {
    */
   public static void updateWithParams(final MySqlDataStore datastore, final String command, final JsonArray params,
       final Handler<AsyncResult<UpdateResult>> resultHandler) {
-    updateWithParams((AsyncSQLClient) datastore.getClient(), command, params, resultHandler);
+    updateWithParams((AsyncSQLClient) datastore.getClient(), datastore.getMetricsCollector(),
+        command, params, resultHandler);
   }
 
   /**
@@ -530,8 +601,14 @@ public class SqlUtil {
    */
   public static void updateWithParams(final AsyncSQLClient sqlClient, final String command, final JsonArray params,
       final Handler<AsyncResult<UpdateResult>> resultHandler) {
+    updateWithParams(sqlClient, null, command, params, resultHandler);
+  }
+
+  private static void updateWithParams(final AsyncSQLClient sqlClient, final IMetricsCollector metrics,
+      final String command, final JsonArray params,
+      final Handler<AsyncResult<UpdateResult>> resultHandler) {
     LOGGER.debug("updateWithParams: " + command + " | " + params);
-    sqlClient.getConnection(cr -> {
+    getConnection(sqlClient, metrics, cr -> {
       if (cr.failed()) {
         Exception sqlEx = new SqlException(ERROR_GAINING_CONNECTION, cr.cause());
         LOGGER.error("", sqlEx);
@@ -16,6 +16,7 @@ package de.braintags.vertx.jomnigate.mysql.dataaccess;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -26,6 +27,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 
+import de.braintags.vertx.jomnigate.dataaccess.query.AggregateFunction;
 import de.braintags.vertx.jomnigate.dataaccess.query.IFieldCondition;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISearchConditionContainer;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISortDefinition;
@@ -35,6 +37,8 @@ import de.braintags.vertx.jomnigate.dataaccess.query.exception.InvalidQueryValue
 import de.braintags.vertx.jomnigate.dataaccess.query.exception.UnknownQueryLogicException;
 import de.braintags.vertx.jomnigate.dataaccess.query.exception.UnknownQueryOperatorException;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryExpression;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.Aggregation;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.Aggregation.AggregateArgument;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.GeoSearchArgument;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.SortDefinition;
@@ -220,11 +224,7 @@ public class SqlExpression extends AbstractQueryExpression<SqlWhereFragment> {
         parseArrayValue(parsedValue, fragment);
       } else {
         fragment.whereClause.append("?");
-        try {
-          fragment.parameters.add(JsonConverter.convertValueNode(parsedValue));
-        } catch (IOException e) {
-          throw new InvalidQueryValueException(e);
-        }
+        fragment.parameters.add(convertValueNode(parsedValue));
       }
     }
     return fragment;
@@ -235,17 +235,25 @@ public class SqlExpression extends AbstractQueryExpression<SqlWhereFragment> {
     Iterator<JsonNode> it = ((ArrayNode) parsedValue).iterator();
     while (it.hasNext()) {
       fragment.whereClause.append("?");
-      try {
-        fragment.parameters.add(JsonConverter.convertValueNode(it.next()));
-      } catch (IOException e) {
-        throw new InvalidQueryValueException(e);
-      }
+      fragment.parameters.add(convertValueNode(it.next()));
       if (it.hasNext())
         fragment.whereClause.append(", ");
     }
     fragment.whereClause.append(")");
   }
 
+  private Object convertValueNode(final JsonNode node) {
+    Object value = toSimpleValue(node);
+    if (value != null) {
+      return value;
+    }
+    try {
+      return JsonConverter.convertValueNode(node);
+    } catch (IOException e) {
+      throw new InvalidQueryValueException(e);
+    }
+  }
+
   private void parseGeoSearchArgument(final IFieldCondition fieldCondition, final JsonNode parsedValue,
       final SqlWhereFragment fragment) {
     GeoSearchArgument geoSearchArgument;
@@ -403,6 +411,50 @@ public class SqlExpression extends AbstractQueryExpression<SqlWhereFragment> {
     return selectExpression.toString();
   }
 
+  /**
+   * Get the statement of an aggregation, which computes the functions of the given aggregation for the records of the
+   * where clause, grouped by the group fields
+   *
+   * @param aggregation
+   *          the aggregation to be computed
+   * @return the complete expression
+   */
+  public String getAggregationExpression(final Aggregation aggregation) {
+    if (nativeCommand != null) {
+      throw new UnsupportedOperationException("aggregations can not be combined with a native command");
+    }
+    StringJoiner groupBy = new StringJoiner(", ");
+    StringJoiner columns = new StringJoiner(", ");
+    for (int i = 0; i < aggregation.getGroupFields().size(); i++) {
+      String column = getAggregationColumn(aggregation.getGroupFields().get(i));
+      groupBy.add(column);
+      columns.add(column + " AS " + Aggregation.getGroupKey(i));
+    }
+    for (int i = 0; i < aggregation.getFunctions().size(); i++) {
+      AggregateArgument function = aggregation.getFunctions().get(i);
+      String argument = function.function == AggregateFunction.COUNT ? "*"
+          : getAggregationColumn(function.fieldName);
+      columns.add(function.function.name() + "(" + argument + ") AS " + Aggregation.getFunctionKey(i));
+    }
+    StringBuilder expression = new StringBuilder(String.format(SELECT_STATEMENT, columns.toString(), tableName));
+    appendWhereClause(expression);
+    if (groupBy.length() > 0) {
+      expression.append(" GROUP BY ").append(groupBy.toString());
+    }
+    return expression.toString();
+  }
+
+  /**
+   * Get the column of a field used by an aggregation. Fields of embedded objects are not stored as separate columns,
+   * so a dotted field name is rejected instead of being written into the statement
+   */
+  private String getAggregationColumn(final String fieldName) {
+    if (fieldName.indexOf('.') >= 0) {
+      throw new UnsupportedOperationException("aggregations over embedded fields are not supported: " + fieldName);
+    }
+    return Aggregation.getColumnName(getMapper(), fieldName);
+  }
+
   /**
    * Get the composite delete statement
    *
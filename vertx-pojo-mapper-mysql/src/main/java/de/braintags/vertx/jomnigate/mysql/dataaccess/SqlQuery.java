@@ -13,18 +13,26 @@
 
 package de.braintags.vertx.jomnigate.mysql.dataaccess;
 
+import java.util.List;
+
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryCountResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.Aggregation;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.Query;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.QueryCountResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.QueryExplain;
 import de.braintags.vertx.jomnigate.mysql.MySqlDataStore;
 import de.braintags.vertx.jomnigate.mysql.SqlUtil;
 import de.braintags.vertx.jomnigate.mysql.exception.SqlException;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.sql.ResultSet;
 
 /**
@@ -40,6 +48,8 @@ import io.vertx.ext.sql.ResultSet;
 public class SqlQuery<T> extends Query<T> {
   private static final io.vertx.core.logging.Logger LOGGER = io.vertx.core.logging.LoggerFactory
       .getLogger(SqlQuery.class);
+  private static final String EXPLAIN = "EXPLAIN FORMAT=JSON ";
+  private static final String ESTIMATED_COUNT = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
 
   /**
    * @param mapperClass
@@ -72,12 +82,64 @@ public class SqlQuery<T> extends Query<T> {
 
   /*
    * (non-Javadoc)
-   * 
-   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#executeExplain(io.vertx.core.Handler)
+   *
+   * @see
+   * de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#internalExecuteExplain(de.braintags.vertx.jomnigate.
+   * dataaccess.query.impl.IQueryExpression, io.vertx.core.Handler)
    */
   @Override
-  public void executeExplain(Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
-    resultHandler.handle(Future.failedFuture(new UnsupportedOperationException("Not implemented yet")));
+  protected void internalExecuteExplain(IQueryExpression queryExpression,
+      Handler<AsyncResult<IQueryExplain>> resultHandler) {
+    SqlExpression statement = (SqlExpression) queryExpression;
+    String expression = EXPLAIN + statement.getSelectExpression();
+    Handler<AsyncResult<ResultSet>> handler = qRes -> {
+      if (qRes.failed()) {
+        String message = "Executed explain: " + expression;
+        resultHandler.handle(Future.failedFuture(new SqlException(message, qRes.cause())));
+      } else {
+        JsonObject plan = new JsonObject(qRes.result().getResults().get(0).getString(0));
+        QueryExplain explain = new QueryExplain(queryExpression, plan);
+        parsePlan(plan, explain);
+        resultHandler.handle(Future.succeededFuture(explain));
+      }
+    };
+    if (statement.hasQueryParameters()) {
+      SqlUtil.queryWithParams((MySqlDataStore) getDataStore(), expression, statement.getParameters(), handler);
+    } else {
+      SqlUtil.query((MySqlDataStore) getDataStore(), expression, handler);
+    }
+  }
+
+  /**
+   * Walk through the plan and collect the access type, the used indexes and the rows of all tables. The rows are
+   * estimations of the optimizer, the execution time is not part of the plan
+   */
+  private void parsePlan(Object node, QueryExplain explain) {
+    if (node instanceof JsonArray) {
+      ((JsonArray) node).forEach(child -> parsePlan(child, explain));
+    } else if (node instanceof JsonObject) {
+      JsonObject object = (JsonObject) node;
+      JsonObject table = object.getJsonObject("table");
+      if (table != null) {
+        if ("ALL".equals(table.getString("access_type"))) {
+          explain.setFullScan(true);
+        }
+        explain.addUsedIndex(table.getString("key"));
+        Number examined = (Number) table.getValue("rows_examined_per_scan");
+        if (examined != null) {
+          explain.setExamined(Math.max(explain.getExamined(), 0) + examined.longValue());
+        }
+        Number produced = (Number) table.getValue("rows_produced_per_join");
+        if (produced != null) {
+          explain.setReturned(produced.longValue());
+        }
+      }
+      object.forEach(entry -> {
+        if (!"table".equals(entry.getKey())) {
+          parsePlan(entry.getValue(), explain);
+        }
+      });
+    }
   }
 
   private void executeCount(SqlExpression statement, Handler<AsyncResult<IQueryCountResult>> resultHandler) {
@@ -90,6 +152,29 @@ public class SqlQuery<T> extends Query<T> {
     }
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see
+   * de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#internalExecuteEstimatedCount(de.braintags.vertx.
+   * jomnigate.dataaccess.query.impl.IQueryExpression, io.vertx.core.Handler)
+   */
+  @Override
+  protected void internalExecuteEstimatedCount(IQueryExpression queryExpression,
+      Handler<AsyncResult<IQueryCountResult>> resultHandler) {
+    JsonArray params = new JsonArray().add(getMapper().getTableInfo().getName());
+    SqlUtil.queryWithParams((MySqlDataStore) getDataStore(), ESTIMATED_COUNT, params, qRes -> {
+      if (qRes.failed() || qRes.result().getNumRows() == 0 || qRes.result().getResults().get(0).getValue(0) == null) {
+        // no statistics available, so the records are counted
+        internalExecuteCount(queryExpression, resultHandler);
+      } else {
+        long count = ((Number) qRes.result().getResults().get(0).getValue(0)).longValue();
+        resultHandler.handle(
+            Future.succeededFuture(new QueryCountResult(getMapper(), getDataStore(), count, queryExpression)));
+      }
+    });
+  }
+
   private void handleCountResult(AsyncResult<ResultSet> qRes, SqlExpression statement,
       Handler<AsyncResult<IQueryCountResult>> resultHandler) {
     if (qRes.failed()) {
@@ -101,8 +186,64 @@ public class SqlQuery<T> extends Query<T> {
     resultHandler.handle(Future.succeededFuture(cr));
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#internalExecuteRaw(de.braintags.vertx.jomnigate.
+   * dataaccess.query.impl.IQueryExpression, io.vertx.core.Handler)
+   */
+  @Override
+  protected void internalExecuteRaw(IQueryExpression queryExpression,
+      Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    findNative((SqlExpression) queryExpression, qRes -> {
+      if (qRes.failed()) {
+        resultHandler.handle(Future.failedFuture(qRes.cause()));
+      } else {
+        resultHandler.handle(Future.succeededFuture(qRes.result().getRows()));
+      }
+    });
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see
+   * de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#internalExecuteAggregation(de.braintags.vertx.jomnigate.
+   * dataaccess.query.impl.IQueryExpression, de.braintags.vertx.jomnigate.dataaccess.query.impl.Aggregation,
+   * io.vertx.core.Handler)
+   */
+  @Override
+  protected void internalExecuteAggregation(IQueryExpression queryExpression, Aggregation aggregation,
+      Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    SqlExpression statement = (SqlExpression) queryExpression;
+    String expression = statement.getAggregationExpression(aggregation);
+    Handler<AsyncResult<ResultSet>> handler = qRes -> {
+      if (qRes.failed()) {
+        String message = "Executed aggregation: " + expression;
+        resultHandler.handle(Future.failedFuture(new SqlException(message, qRes.cause())));
+      } else {
+        resultHandler.handle(Future.succeededFuture(qRes.result().getRows()));
+      }
+    };
+    if (statement.hasQueryParameters()) {
+      SqlUtil.queryWithParams((MySqlDataStore) getDataStore(), expression, statement.getParameters(), handler);
+    } else {
+      SqlUtil.query((MySqlDataStore) getDataStore(), expression, handler);
+    }
+  }
+
   private void doFind(SqlExpression statement, Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
     LOGGER.debug("start doFind");
+    findNative(statement, qRes -> {
+      if (qRes.failed()) {
+        resultHandler.handle(Future.failedFuture(qRes.cause()));
+      } else {
+        createQueryResult(qRes.result(), statement, resultHandler);
+      }
+    });
+  }
+
+  private void findNative(SqlExpression statement, Handler<AsyncResult<ResultSet>> resultHandler) {
     if (statement.hasQueryParameters()) {
       SqlUtil.queryWithParams((MySqlDataStore) getDataStore(), statement.getSelectExpression(),
           statement.getParameters(), qRes -> handleQueryResult(qRes, statement, resultHandler));
@@ -113,41 +254,20 @@ public class SqlQuery<T> extends Query<T> {
   }
 
   private void handleQueryResult(AsyncResult<ResultSet> qRes, SqlExpression statement,
-      Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
+      Handler<AsyncResult<ResultSet>> resultHandler) {
     if (qRes.failed()) {
       String message = "Executed query: " + statement.toString();
       resultHandler.handle(Future.failedFuture(new SqlException(message, qRes.cause())));
       return;
     }
-    createQueryResult(qRes.result(), statement, resultHandler);
+    resultHandler.handle(Future.succeededFuture(qRes.result()));
   }
 
   private void createQueryResult(ResultSet resultSet, SqlExpression statement,
       Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
     SqlQueryResult<T> qR = new SqlQueryResult<>(resultSet, (MySqlDataStore) getDataStore(), getMapper(), statement);
-    if (isReturnCompleteCount()) {
-      if (statement.getOffset() == 0 && statement.getLimit() > 0 && qR.size() < statement.getLimit()) {
-        qR.setCompleteResult(qR.size());
-        resultHandler.handle(Future.succeededFuture(qR));
-      } else {
-        fetchCompleteCount(qR, resultHandler);
-      }
-    } else {
-      qR.setCompleteResult(-1);
-      resultHandler.handle(Future.succeededFuture(qR));
-    }
-  }
-
-  private void fetchCompleteCount(SqlQueryResult<T> qR, Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
-    executeCount(cr -> {
-      if (cr.failed()) {
-        resultHandler.handle(Future.failedFuture(cr.cause()));
-      } else {
-        long count = cr.result().getCount();
-        qR.setCompleteResult(count);
-        resultHandler.handle(Future.succeededFuture(qR));
-      }
-    });
+    qR.setCompleteResult(-1);
+    resultHandler.handle(Future.succeededFuture(qR));
   }
 
   /* (non-Javadoc)
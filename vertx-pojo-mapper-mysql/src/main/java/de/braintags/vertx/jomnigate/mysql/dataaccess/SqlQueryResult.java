@@ -58,7 +58,8 @@ public class SqlQueryResult<T> extends AbstractQueryResult<T> {
    */
   @Override
   protected void generatePojo(int i, Handler<AsyncResult<T>> handler) {
-    JsonObject sourceObject = resultSet.getRows().get(i);
+    JsonObject row = resultSet.getRows().get(i);
+    JsonObject sourceObject = isShared() ? row.copy() : row;
     SqlStoreObjectFactory sf = (SqlStoreObjectFactory) getDataStore().getStoreObjectFactory();
     sf.createStoreObject(sourceObject, getMapper(), result -> {
       if (result.failed()) {
@@ -71,6 +72,16 @@ public class SqlQueryResult<T> extends AbstractQueryResult<T> {
     });
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult#getNativeRecord(int)
+   */
+  @Override
+  protected JsonObject getNativeRecord(int i) {
+    return resultSet.getRows().get(i);
+  }
+
   /**
    * @return the result set of this query result
    */
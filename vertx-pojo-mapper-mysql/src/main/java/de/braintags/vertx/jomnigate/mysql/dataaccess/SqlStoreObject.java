@@ -25,6 +25,8 @@ import de.braintags.vertx.jomnigate.mapping.IStoreObject;
 import de.braintags.vertx.jomnigate.mapping.datastore.IColumnInfo;
 import de.braintags.vertx.jomnigate.mapping.datastore.ITableInfo;
 import de.braintags.vertx.jomnigate.mapping.impl.AbstractStoreObject;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import de.braintags.vertx.jomnigate.mysql.typehandler.SqlFunction;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -163,7 +165,12 @@ public class SqlStoreObject<T> extends AbstractStoreObject<T, Object> {
           "No keygenerator defined for mapper %s. Did you set the property IKeyGenerator.DEFAULT_KEY_GERNERATOR for your datastore? ",
           getMapper().getMapperClass().getName()));
     }
+    IMetricsCollector metrics = getMapper().getMapperFactory().getDataStore().getMetricsCollector();
+    long start = metrics == null ? 0 : System.nanoTime();
     gen.generateKey(getMapper(), keyResult -> {
+      if (metrics != null) {
+        metrics.record(MetricType.KEY_GENERATION, getMapper().getMapperClass(), System.nanoTime() - start, 1);
+      }
       if (keyResult.failed()) {
         resultHandler.handle(Future.failedFuture(keyResult.cause()));
       } else {
@@ -25,6 +25,7 @@ import de.braintags.vertx.jomnigate.json.typehandler.handler.ClassTypeHandler;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.EnumTypeHandler;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.FloatTypeHandler;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.IntegerTypeHandler;
+import de.braintags.vertx.jomnigate.json.typehandler.handler.LazyRefTypeHandlerReferenced;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.LocaleTypeHandler;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.LongTypeHandler;
 import de.braintags.vertx.jomnigate.json.typehandler.handler.ObjectTypeHandler;
@@ -90,6 +91,7 @@ public class SqlTypeHandlerFactory extends AbstractTypeHandlerFactory {
     add(new SqlArrayTypehandler(this));
     add(new SqlArrayTypeHandlerEmbedded(this));
     add(new SqlArrayTypeHandlerReferenced(this));
+    add(new LazyRefTypeHandlerReferenced(this));
 
     getDefinedTypeHandlers()
         .add(new de.braintags.vertx.jomnigate.typehandler.stringbased.handlers.JsonTypeHandler(this));
@@ -138,12 +138,14 @@ public class MongoDataStore extends JsonDatastore {
    */
   @Override
   public void shutdown(Handler<AsyncResult<Void>> resultHandler) {
-    try {
-      client.close();
-      resultHandler.handle(Future.succeededFuture());
-    } catch (Exception e) {
-      resultHandler.handle(Future.failedFuture(new RuntimeException(e)));
-    }
+    closeHooks(v -> {
+      try {
+        client.close();
+        resultHandler.handle(Future.succeededFuture());
+      } catch (Exception e) {
+        resultHandler.handle(Future.failedFuture(new RuntimeException(e)));
+      }
+    });
   }
 
   /*
@@ -13,6 +13,11 @@
 
 package de.braintags.vertx.jomnigate.mongo;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import de.braintags.vertx.jomnigate.IDataStoreMetaData;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import io.vertx.core.AsyncResult;
@@ -94,4 +99,27 @@ public class MongoMetaData implements IDataStoreMetaData {
     });
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.IDataStoreMetaData#getIndexes(de.braintags.vertx.jomnigate.mapping.IMapper,
+   * io.vertx.core.Handler)
+   */
+  @Override
+  public void getIndexes(IMapper<?> mapper, Handler<AsyncResult<Map<String, List<String>>>> handler) {
+    MongoUtil.getIndexes(ds, mapper.getTableInfo().getName(), result -> {
+      if (result.failed()) {
+        handler.handle(Future.failedFuture(result.cause()));
+      } else {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        JsonArray array = result.result().getJsonObject("cursor").getJsonArray("firstBatch");
+        for (Object jo : array) {
+          JsonObject index = (JsonObject) jo;
+          indexes.put(index.getString("name"), new ArrayList<>(index.getJsonObject("key").fieldNames()));
+        }
+        handler.handle(Future.succeededFuture(indexes));
+      }
+    });
+  }
+
 }
@@ -12,21 +12,26 @@
  */
 package de.braintags.vertx.jomnigate.mongo.dataaccess;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import de.braintags.vertx.jomnigate.IDataStore;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQuery;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryCountResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.IQueryExplain;
 import de.braintags.vertx.jomnigate.dataaccess.query.IQueryResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.Aggregation;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.Query;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.QueryCountResult;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.QueryExplain;
 import de.braintags.vertx.jomnigate.exception.QueryException;
 import de.braintags.vertx.jomnigate.mongo.MongoDataStore;
 import de.braintags.vertx.jomnigate.mongo.mapper.MongoMapper;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.mongo.FindOptions;
 import io.vertx.ext.mongo.MongoClient;
@@ -75,11 +80,68 @@ public class MongoQuery<T> extends Query<T> {
   /*
    * (non-Javadoc)
    *
-   * @see de.braintags.vertx.jomnigate.dataaccess.query.IQuery#executeExplain(io.vertx.core.Handler)
+   * @see
+   * de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#internalExecuteExplain(de.braintags.vertx.jomnigate.
+   * dataaccess.query.impl.IQueryExpression, io.vertx.core.Handler)
    */
   @Override
-  public void executeExplain(final Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
-    resultHandler.handle(Future.failedFuture(new UnsupportedOperationException("Not implemented yet")));
+  protected void internalExecuteExplain(final IQueryExpression queryExpression,
+      final Handler<AsyncResult<IQueryExplain>> resultHandler) {
+    MongoQueryExpression expression = (MongoQueryExpression) queryExpression;
+    MongoClient mongoClient = (MongoClient) ((MongoDataStore) getDataStore()).getClient();
+    FindOptions fo = expression.getFindOptions();
+    JsonObject find = new JsonObject().put("find", getMapper().getTableInfo().getName()).put("filter",
+        expression.getQueryDefinition());
+    if (fo.getSort() != null && !fo.getSort().isEmpty()) {
+      find.put("sort", fo.getSort());
+    }
+    if (fo.getFields() != null && !fo.getFields().isEmpty()) {
+      find.put("projection", fo.getFields());
+    }
+    if (fo.getSkip() > 0) {
+      find.put("skip", fo.getSkip());
+    }
+    if (fo.getLimit() > 0) {
+      find.put("limit", fo.getLimit());
+    }
+    JsonObject command = new JsonObject().put("explain", find).put("verbosity", "executionStats");
+    mongoClient.runCommand("explain", command, cResult -> {
+      if (cResult.failed()) {
+        resultHandler.handle(Future.failedFuture(new QueryException(queryExpression, cResult.cause())));
+      } else {
+        JsonObject plan = cResult.result();
+        QueryExplain explain = new QueryExplain(queryExpression, plan);
+        JsonObject planner = plan.getJsonObject("queryPlanner");
+        if (planner != null) {
+          parseStage(planner.getJsonObject("winningPlan"), explain);
+        }
+        JsonObject stats = plan.getJsonObject("executionStats");
+        if (stats != null) {
+          explain.setReturned(stats.getLong("nReturned", -1L));
+          explain.setExamined(stats.getLong("totalDocsExamined", -1L));
+          explain.setExecutionTime(stats.getLong("executionTimeMillis", -1L));
+        }
+        resultHandler.handle(Future.succeededFuture(explain));
+      }
+    });
+  }
+
+  /**
+   * Walk through the stages of a plan and collect the used indexes and collection scans
+   */
+  private void parseStage(final JsonObject stage, final QueryExplain explain) {
+    if (stage == null) {
+      return;
+    }
+    if ("COLLSCAN".equals(stage.getString("stage"))) {
+      explain.setFullScan(true);
+    }
+    explain.addUsedIndex(stage.getString("indexName"));
+    parseStage(stage.getJsonObject("inputStage"), explain);
+    JsonArray inputStages = stage.getJsonArray("inputStages");
+    if (inputStages != null) {
+      inputStages.forEach(child -> parseStage((JsonObject) child, explain));
+    }
   }
 
   /*
@@ -116,8 +178,133 @@ public class MongoQuery<T> extends Query<T> {
     });
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see
+   * de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#internalExecuteEstimatedCount(de.braintags.vertx.
+   * jomnigate.dataaccess.query.impl.IQueryExpression, io.vertx.core.Handler)
+   */
+  @Override
+  protected void internalExecuteEstimatedCount(final IQueryExpression queryExpression,
+      final Handler<AsyncResult<IQueryCountResult>> resultHandler) {
+    MongoClient mongoClient = (MongoClient) ((MongoDataStore) getDataStore()).getClient();
+    String collection = getMapper().getTableInfo().getName();
+    mongoClient.runCommand("collStats", new JsonObject().put("collStats", collection), cResult -> {
+      if (cResult.failed()) {
+        resultHandler.handle(Future.failedFuture(cResult.cause()));
+      } else {
+        Number count = (Number) cResult.result().getValue("count");
+        QueryCountResult qcr = new QueryCountResult(getMapper(), getDataStore(), count == null ? 0 : count.longValue(),
+            queryExpression);
+        resultHandler.handle(Future.succeededFuture(qcr));
+      }
+    });
+  }
+
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#internalExecuteRaw(de.braintags.vertx.jomnigate.
+   * dataaccess.query.impl.IQueryExpression, io.vertx.core.Handler)
+   */
+  @Override
+  protected void internalExecuteRaw(final IQueryExpression queryExpression,
+      final Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    findNative((MongoQueryExpression) queryExpression, resultHandler);
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see
+   * de.braintags.vertx.jomnigate.dataaccess.query.impl.Query#internalExecuteAggregation(de.braintags.vertx.jomnigate.
+   * dataaccess.query.impl.IQueryExpression, de.braintags.vertx.jomnigate.dataaccess.query.impl.Aggregation,
+   * io.vertx.core.Handler)
+   */
+  @Override
+  protected void internalExecuteAggregation(final IQueryExpression queryExpression, final Aggregation aggregation,
+      final Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    MongoClient mongoClient = (MongoClient) ((MongoDataStore) getDataStore()).getClient();
+    String collection = getMapper().getTableInfo().getName();
+    JsonObject command = new JsonObject().put("aggregate", collection)
+        .put("pipeline", ((MongoQueryExpression) queryExpression).getAggregationPipeline(aggregation))
+        .put("cursor", new JsonObject().put("batchSize", Integer.MAX_VALUE));
+    LOGGER.debug(String.format(SEARCH_LOG, getDataStore().getSettings().getDatabaseName(), collection, command));
+    mongoClient.runCommand("aggregate", command, cResult -> {
+      if (cResult.failed()) {
+        resultHandler.handle(Future.failedFuture(new QueryException(queryExpression, cResult.cause())));
+      } else {
+        List<JsonObject> rows = new ArrayList<>();
+        JsonObject cursor = cResult.result().getJsonObject("cursor");
+        if (cursor == null) {
+          addAggregationRows(rows, cResult.result().getJsonArray("result"));
+          resultHandler.handle(Future.succeededFuture(rows));
+        } else {
+          addAggregationRows(rows, cursor.getJsonArray("firstBatch"));
+          readAggregationCursor(mongoClient, collection, queryExpression, cursor, rows, resultHandler);
+        }
+      }
+    });
+  }
+
+  /**
+   * Read the remaining batches of an aggregation cursor by getMore commands, until the cursor id is 0
+   */
+  private void readAggregationCursor(final MongoClient mongoClient, final String collection,
+      final IQueryExpression queryExpression, final JsonObject cursor, final List<JsonObject> rows,
+      final Handler<AsyncResult<List<JsonObject>>> resultHandler) {
+    Long cursorId = cursor.getLong("id");
+    if (cursorId == null || cursorId == 0) {
+      resultHandler.handle(Future.succeededFuture(rows));
+      return;
+    }
+    JsonObject command = new JsonObject().put("getMore", cursorId).put("collection", collection);
+    mongoClient.runCommand("getMore", command, cResult -> {
+      if (cResult.failed()) {
+        resultHandler.handle(Future.failedFuture(new QueryException(queryExpression, cResult.cause())));
+      } else {
+        JsonObject nextCursor = cResult.result().getJsonObject("cursor");
+        if (nextCursor == null) {
+          resultHandler.handle(Future.failedFuture(new QueryException(queryExpression,
+              new IllegalStateException("aggregation cursor could not be read: " + cResult.result()))));
+        } else {
+          addAggregationRows(rows, nextCursor.getJsonArray("nextBatch"));
+          readAggregationCursor(mongoClient, collection, queryExpression, nextCursor, rows, resultHandler);
+        }
+      }
+    });
+  }
+
+  /**
+   * Add the rows of a batch, where the fields of a grouping id are moved into the row
+   */
+  private void addAggregationRows(final List<JsonObject> rows, final JsonArray batch) {
+    if (batch != null) {
+      for (Object entry : batch) {
+        JsonObject row = (JsonObject) entry;
+        Object id = row.remove("_id");
+        if (id instanceof JsonObject) {
+          row.mergeIn((JsonObject) id);
+        }
+        rows.add(row);
+      }
+    }
+  }
+
   private void doFind(final MongoQueryExpression queryExpression,
       final Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
+    findNative(queryExpression, qResult -> {
+      if (qResult.failed()) {
+        resultHandler.handle(Future.failedFuture(qResult.cause()));
+      } else {
+        createQueryResult(qResult.result(), queryExpression, resultHandler);
+      }
+    });
+  }
+
+  private void findNative(final MongoQueryExpression queryExpression,
+      final Handler<AsyncResult<List<JsonObject>>> resultHandler) {
     MongoClient mongoClient = (MongoClient) ((MongoDataStore) getDataStore()).getClient();
     String collection = getMapper().getTableInfo().getName();
     LOGGER.debug(String.format(SEARCH_LOG, getDataStore().getSettings().getDatabaseName(), collection,
@@ -127,10 +314,9 @@ public class MongoQuery<T> extends Query<T> {
     FindOptions fo = queryExpression.getFindOptions();
     mongoClient.findWithOptions(collection, qDef, fo, qResult -> {
       if (qResult.failed()) {
-        Future<IQueryResult<T>> future = Future.failedFuture(new QueryException(queryExpression, qResult.cause()));
-        resultHandler.handle(future);
+        resultHandler.handle(Future.failedFuture(new QueryException(queryExpression, qResult.cause())));
       } else {
-        createQueryResult(qResult.result(), queryExpression, resultHandler);
+        resultHandler.handle(Future.succeededFuture(qResult.result()));
       }
     });
   }
@@ -139,31 +325,8 @@ public class MongoQuery<T> extends Query<T> {
       final Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
     MongoQueryResult<T> qR = new MongoQueryResult<>(findList, (MongoDataStore) getDataStore(),
         (MongoMapper) getMapper(), queryExpression);
-    if (isReturnCompleteCount()) {
-      if (queryExpression.getOffset() == 0 && queryExpression.getLimit() > 0
-          && qR.size() < queryExpression.getLimit()) {
-        qR.setCompleteResult(qR.size());
-        resultHandler.handle(Future.succeededFuture(qR));
-      } else {
-        fetchCompleteCount(qR, resultHandler);
-      }
-    } else {
-      qR.setCompleteResult(-1);
-      resultHandler.handle(Future.succeededFuture(qR));
-    }
-  }
-
-  private void fetchCompleteCount(final MongoQueryResult<T> qR,
-      final Handler<AsyncResult<IQueryResult<T>>> resultHandler) {
-    executeCount(cr -> {
-      if (cr.failed()) {
-        resultHandler.handle(Future.failedFuture(cr.cause()));
-      } else {
-        long count = cr.result().getCount();
-        qR.setCompleteResult(count);
-        resultHandler.handle(Future.succeededFuture(qR));
-      }
-    });
+    qR.setCompleteResult(-1);
+    resultHandler.handle(Future.succeededFuture(qR));
   }
 
   /*
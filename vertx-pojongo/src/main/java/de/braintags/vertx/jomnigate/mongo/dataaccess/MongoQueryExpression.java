@@ -15,6 +15,7 @@ package de.braintags.vertx.jomnigate.mongo.dataaccess;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.StringJoiner;
 import java.util.regex.Pattern;
 
@@ -22,6 +23,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 
+import de.braintags.vertx.jomnigate.dataaccess.query.AggregateFunction;
 import de.braintags.vertx.jomnigate.dataaccess.query.IFieldCondition;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISearchConditionContainer;
 import de.braintags.vertx.jomnigate.dataaccess.query.ISortDefinition;
@@ -31,6 +33,8 @@ import de.braintags.vertx.jomnigate.dataaccess.query.exception.InvalidQueryValue
 import de.braintags.vertx.jomnigate.dataaccess.query.exception.UnknownQueryLogicException;
 import de.braintags.vertx.jomnigate.dataaccess.query.exception.UnknownQueryOperatorException;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryExpression;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.Aggregation;
+import de.braintags.vertx.jomnigate.dataaccess.query.impl.Aggregation.AggregateArgument;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.IQueryExpression;
 import de.braintags.vertx.jomnigate.dataaccess.query.impl.SortDefinition;
 import de.braintags.vertx.util.json.JsonConverter;
@@ -61,6 +65,43 @@ public class MongoQueryExpression extends AbstractQueryExpression<JsonObject> {
     return searchCondition;
   }
 
+  /**
+   * Creates the pipeline of an aggregate command, which selects the records by the search condition with a $match
+   * stage and computes the functions of the given aggregation with a $group stage. The group fields are delivered
+   * inside the field _id of the resulting documents
+   *
+   * @param aggregation
+   *          the aggregation to be computed
+   * @return the pipeline
+   */
+  public JsonArray getAggregationPipeline(final Aggregation aggregation) {
+    JsonArray pipeline = new JsonArray();
+    if (searchCondition != null && !searchCondition.isEmpty()) {
+      pipeline.add(new JsonObject().put("$match", searchCondition));
+    }
+    JsonObject group = new JsonObject();
+    if (aggregation.getGroupFields().isEmpty()) {
+      group.putNull("_id");
+    } else {
+      JsonObject id = new JsonObject();
+      for (int i = 0; i < aggregation.getGroupFields().size(); i++) {
+        id.put(Aggregation.getGroupKey(i),
+            "$" + Aggregation.getColumnName(getMapper(), aggregation.getGroupFields().get(i)));
+      }
+      group.put("_id", id);
+    }
+    for (int i = 0; i < aggregation.getFunctions().size(); i++) {
+      AggregateArgument function = aggregation.getFunctions().get(i);
+      Object argument = function.function == AggregateFunction.COUNT ? Integer.valueOf(1)
+          : "$" + Aggregation.getColumnName(getMapper(), function.fieldName);
+      String operator = function.function == AggregateFunction.COUNT ? "$sum"
+          : "$" + function.function.name().toLowerCase(Locale.ENGLISH);
+      group.put(Aggregation.getFunctionKey(i), new JsonObject().put(operator, argument));
+    }
+    pipeline.add(new JsonObject().put("$group", group));
+    return pipeline;
+  }
+
   /**
    * Creates the FindOptions to set the skip, limit, and sort parameters for a find operation
    *
@@ -175,11 +216,7 @@ public class MongoQueryExpression extends AbstractQueryExpression<JsonObject> {
 
     String parsedOperator = translateOperator(operator);
     JsonObject logicCondition = new JsonObject();
-    try {
-      logicCondition.put(parsedOperator, JsonConverter.convertJsonNodeToVertx(parsedValue));
-    } catch (IOException e) {
-      throw new InvalidQueryValueException(e);
-    }
+    logicCondition.put(parsedOperator, convertJsonNodeToVertx(parsedValue));
     // make RegEx comparisons case insensitive
     if (operator == QueryOperator.EQUALS_IGNORE_CASE || operator == QueryOperator.CONTAINS
         || operator == QueryOperator.STARTS || operator == QueryOperator.ENDS
@@ -191,6 +228,34 @@ public class MongoQueryExpression extends AbstractQueryExpression<JsonObject> {
     return expression;
   }
 
+  /**
+   * Convert the value of a condition into the vertx representation. Simple values and arrays of them are converted
+   * directly, other values by the {@link JsonConverter}
+   */
+  private Object convertJsonNodeToVertx(final JsonNode node) {
+    Object value = node.isArray() ? convertSimpleArray(node) : toSimpleValue(node);
+    if (value != null) {
+      return value;
+    }
+    try {
+      return JsonConverter.convertJsonNodeToVertx(node);
+    } catch (IOException e) {
+      throw new InvalidQueryValueException(e);
+    }
+  }
+
+  private JsonArray convertSimpleArray(final JsonNode node) {
+    JsonArray array = new JsonArray();
+    for (JsonNode entry : node) {
+      Object value = toSimpleValue(entry);
+      if (value == null) {
+        return null;
+      }
+      array.add(value);
+    }
+    return array;
+  }
+
   private String createEqualsRegex(final JsonNode value) {
     return "^" + Pattern.quote(value.textValue()) + "$";
   }
@@ -57,7 +57,7 @@ public class MongoQueryResult<T> extends AbstractQueryResult<T> {
    */
   @Override
   protected void generatePojo(int i, Handler<AsyncResult<T>> handler) {
-    JsonObject sourceObject = jsonResult.get(i);
+    JsonObject sourceObject = isShared() ? jsonResult.get(i).copy() : jsonResult.get(i);
     IStoreObjectFactory<JsonObject> sf = getDataStore().getStoreObjectFactory();
     sf.createStoreObject(sourceObject, getMapper(), result -> {
       if (result.failed()) {
@@ -70,6 +70,16 @@ public class MongoQueryResult<T> extends AbstractQueryResult<T> {
     });
   }
 
+  /*
+   * (non-Javadoc)
+   * 
+   * @see de.braintags.vertx.jomnigate.dataaccess.query.impl.AbstractQueryResult#getNativeRecord(int)
+   */
+  @Override
+  protected JsonObject getNativeRecord(int i) {
+    return jsonResult.get(i);
+  }
+
   public List<JsonObject> getOriginalResult() {
     return jsonResult;
   }
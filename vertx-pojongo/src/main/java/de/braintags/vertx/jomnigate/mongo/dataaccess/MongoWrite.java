@@ -33,10 +33,14 @@ import de.braintags.vertx.jomnigate.exception.DuplicateKeyException;
 import de.braintags.vertx.jomnigate.exception.WriteException;
 import de.braintags.vertx.jomnigate.mapping.IMapper;
 import de.braintags.vertx.jomnigate.mapping.IStoreObject;
+import de.braintags.vertx.jomnigate.metrics.IMetricsCollector;
+import de.braintags.vertx.jomnigate.metrics.MetricType;
 import de.braintags.vertx.jomnigate.mongo.MongoDataStore;
 import de.braintags.vertx.jomnigate.mongo.MongoStoreObjectFactory;
 import de.braintags.vertx.jomnigate.mongo.mapper.datastore.MongoColumnInfo;
 import de.braintags.vertx.jomnigate.observer.IObserverContext;
+import de.braintags.vertx.jomnigate.observer.IObserverHandler;
+import de.braintags.vertx.jomnigate.observer.ObserverEventType;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
@@ -153,6 +157,11 @@ public class MongoWrite<T> extends AbstractWrite<T> {
   }
 
   private Future<StoreObjectHolder> convertEntity(final T entity, final IObserverContext context) {
+    IObserverHandler observerHandler = getMapper().getObserverHandler();
+    if (!observerHandler.hasObserver(ObserverEventType.BEFORE_INSERT)
+        && !observerHandler.hasObserver(ObserverEventType.BEFORE_UPDATE)) {
+      return createStoreObject(entity).compose(this::createBulkOperation);
+    }
     return preSave(entity, context).compose(v -> createStoreObject(entity)).compose(this::createBulkOperation);
   }
 
@@ -197,9 +206,15 @@ public class MongoWrite<T> extends AbstractWrite<T> {
   }
 
   private Future<MongoStoreObject<T>> createStoreObject(final T entity) {
+    IMetricsCollector metrics = getDataStore().getMetricsCollector();
+    long start = metrics == null ? 0 : System.nanoTime();
     Future<MongoStoreObject<T>> f = Future.future();
-    ((MongoStoreObjectFactory) getDataStore().getStoreObjectFactory()).createStoreObject(getMapper(), entity,
-        res -> f.handle(res.map(storeObject -> (MongoStoreObject<T>) storeObject)));
+    ((MongoStoreObjectFactory) getDataStore().getStoreObjectFactory()).createStoreObject(getMapper(), entity, res -> {
+      if (metrics != null) {
+        metrics.record(MetricType.MAPPING_WRITE, getMapperClass(), System.nanoTime() - start, 1);
+      }
+      f.handle(res.map(storeObject -> (MongoStoreObject<T>) storeObject));
+    });
     return f;
   }
 